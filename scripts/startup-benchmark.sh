@@ -0,0 +1,111 @@
+#!/usr/bin/env bash
+#
+# Compares cold start of the packaging modes against a running PostgreSQL
+# (docker-compose up -d postgres):
+#
+#   jar      plain executable jar
+#   aot      Spring AOT (mvn -Paot package)
+#   aot-cds  Spring AOT + class-data-sharing archive (mvn -Paot,cds package)
+#   native   GraalVM native executable (mvn -Pnative native:compile), skipped if absent
+#
+# For each mode it reports, averaged over RUNS cold starts:
+#   startup  - "Started ... in N seconds" as logged by Spring Boot
+#   ttfr     - wall time from process launch to the first successful API response
+#
+# Usage: scripts/startup-benchmark.sh [--skip-build]
+# Environment: RUNS (default 5), PORT (default 8080), SPRING_DATASOURCE_URL/USERNAME/PASSWORD
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8080}"
+ARTIFACT="simple-status-task-0.0.1-SNAPSHOT"
+PROBE_URL="http://localhost:${PORT}/api/tasks/status-counts"
+WORK_DIR="target/startup-benchmark"
+mkdir -p "${WORK_DIR}"
+
+now_ms() {
+    date +%s%3N
+}
+
+build() {
+    echo "Building jar, AOT + CDS and (if GraalVM is available) native modes..."
+    ./mvnw -q -DskipTests -Pprod clean package
+    cp "target/${ARTIFACT}.jar" "${WORK_DIR}/plain.jar"
+    ./mvnw -q -DskipTests -Pprod,aot,cds package
+    if command -v native-image >/dev/null 2>&1; then
+        ./mvnw -q -DskipTests -Pprod,native native:compile
+    fi
+}
+
+# Launches one mode in the background, prints its PID
+launch() {
+    local mode="$1" log="$2"
+    local args=(--spring.profiles.active=prod --server.port="${PORT}")
+    case "${mode}" in
+        jar)
+            java -jar "${WORK_DIR}/plain.jar" "${args[@]}" >"${log}" 2>&1 &
+            ;;
+        aot)
+            (cd target/application && exec java -Dspring.aot.enabled=true -jar "${ARTIFACT}.jar" "${args[@]}") >"${log}" 2>&1 &
+            ;;
+        aot-cds)
+            (cd target/application && exec java -XX:SharedArchiveFile=application.jsa -Xlog:cds=off -Xlog:cds+dynamic=off \
+                -Dspring.aot.enabled=true -jar "${ARTIFACT}.jar" "${args[@]}") >"${log}" 2>&1 &
+            ;;
+        native)
+            "target/simple-status-task" "${args[@]}" >"${log}" 2>&1 &
+            ;;
+    esac
+    echo $!
+}
+
+# Runs one cold start and prints "<startup ms> <ttfr ms>"
+measure() {
+    local mode="$1" log="${WORK_DIR}/${1}.log"
+    local start pid ttfr startup
+    start=$(now_ms)
+    pid=$(launch "${mode}" "${log}")
+    until curl -sf -o /dev/null "${PROBE_URL}"; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "${mode} exited before serving requests, see ${log}" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    ttfr=$(( $(now_ms) - start ))
+    kill "${pid}" && wait "${pid}" 2>/dev/null || true
+    startup=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "${log}" | grep -o '[0-9.]* seconds' | awk '{ printf "%d", $1 * 1000 }')
+    echo "${startup:-0} ${ttfr}"
+}
+
+available() {
+    case "$1" in
+        jar) [[ -f "${WORK_DIR}/plain.jar" ]] ;;
+        aot) [[ -d target/spring-aot && -f "target/application/${ARTIFACT}.jar" ]] ;;
+        aot-cds) [[ -f target/application/application.jsa ]] ;;
+        native) [[ -x target/simple-status-task ]] ;;
+    esac
+}
+
+if [[ "${1:-}" != "--skip-build" ]]; then
+    build
+fi
+
+printf '%-8s %12s %12s\n' "mode" "startup(ms)" "ttfr(ms)"
+for mode in jar aot aot-cds native; do
+    if ! available "${mode}"; then
+        printf '%-8s %12s %12s\n' "${mode}" "-" "-"
+        continue
+    fi
+    total_startup=0
+    total_ttfr=0
+    for _ in $(seq "${RUNS}"); do
+        read -r startup ttfr < <(measure "${mode}")
+        total_startup=$(( total_startup + startup ))
+        total_ttfr=$(( total_ttfr + ttfr ))
+    done
+    printf '%-8s %12d %12d\n' "${mode}" $(( total_startup / RUNS )) $(( total_ttfr / RUNS ))
+done
@@ -1,11 +1,16 @@
 package com.example.simplestatustask;
 
+import com.example.simplestatustask.config.TaskRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @SpringBootApplication
 @EnableTransactionManagement
+@EnableScheduling
+@ImportRuntimeHints(TaskRuntimeHints.class)
 public class SimpleStatusTaskApplication {
 
     public static void main(String[] args) {
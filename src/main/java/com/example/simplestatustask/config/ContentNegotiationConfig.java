@@ -0,0 +1,44 @@
+package com.example.simplestatustask.config;
+
+import com.example.simplestatustask.protobuf.TaskProtobufHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary representations for service-to-service calls, chosen through Accept / Content-Type:
+ * application/x-jackson-smile, application/cbor and application/x-protobuf.
+ * They are appended after the JSON converter, so JSON stays the default for
+ * requests without an Accept header or with Accept: *&#47;*.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public ContentNegotiationConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replaces Spring's default Smile/CBOR converters with ones sharing the JSON mapper's
+     * settings (Almaty time zone, ISO dates), and adds the protobuf converter last
+     *
+     * @param converters Converters configured so far, JSON among the first
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+        converters.add(new TaskProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.simplestatustask.config;
+
+import com.example.simplestatustask.embedded.EmbeddedTaskEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * Serves tasks from the embedded engine instead of the database when task.embedded.enabled is set
+ * (the embedded Spring profile). The engine recovers from its data directory on startup and
+ * flushes the log on shutdown.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+public class EmbeddedStorageConfig {
+
+    /**
+     * Engine behind the embedded services
+     *
+     * @param dataDirectory Directory holding snapshots and the write-ahead log
+     * @param segmentBytes Size of each preallocated log segment
+     * @param fsync Whether writes wait for the log to reach the disk
+     * @return Recovered engine
+     */
+    @Bean(destroyMethod = "close")
+    public EmbeddedTaskEngine embeddedTaskEngine(@Value("${task.embedded.data-dir:./data}") String dataDirectory,
+                                                 @Value("${task.embedded.wal.segment-bytes:67108864}") int segmentBytes,
+                                                 @Value("${task.embedded.wal.fsync:true}") boolean fsync) {
+        return new EmbeddedTaskEngine(Path.of(dataDirectory), segmentBytes, fsync, Clock.systemUTC());
+    }
+}
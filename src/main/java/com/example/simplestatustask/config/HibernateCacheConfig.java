@@ -0,0 +1,94 @@
+package com.example.simplestatustask.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-process JCache (Ehcache) regions backing the Hibernate second-level and query caches.
+ * Regions are built here rather than in an ehcache.xml so their sizes come from task.cache.* properties.
+ * Whether the caches are used at all is controlled by spring.jpa.properties.hibernate.cache.*.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Entity region for {@link com.example.simplestatustask.models.Task}
+     */
+    public static final String TASK_REGION = "tasks";
+
+    /**
+     * Query region for the status-board queries in TaskRepository
+     */
+    public static final String TASK_STATUS_QUERY_REGION = "task-status-queries";
+
+    // Hibernate's built-in regions: results of queries without an explicit region, and per-table
+    // last-modified timestamps used to invalidate every query region
+    private static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * Creates the cache manager and its regions. Each application context gets its own manager,
+     * so contexts started side by side in tests never share cached rows.
+     *
+     * @param taskEntries Maximum cached Task entities
+     * @param queryEntries Maximum cached query results per query region
+     * @param timeToLiveSeconds Safety net for rows changed outside the application
+     * @return JCache manager handed to Hibernate
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${task.cache.task-entries:10000}") long taskEntries,
+            @Value("${task.cache.query-entries:1000}") long queryEntries,
+            @Value("${task.cache.time-to-live-seconds:600}") long timeToLiveSeconds) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:task-cache:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+
+        Duration timeToLive = Duration.ofSeconds(timeToLiveSeconds);
+        createRegion(cacheManager, TASK_REGION, taskEntries, timeToLive);
+        createRegion(cacheManager, TASK_STATUS_QUERY_REGION, queryEntries, timeToLive);
+        createRegion(cacheManager, DEFAULT_QUERY_REGION, queryEntries, timeToLive);
+        // Timestamps must outlive every cached query result, so this region never expires
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, queryEntries, null);
+        return cacheManager;
+    }
+
+    /**
+     * Hands the cache manager instance to Hibernate's JCache region factory
+     *
+     * @param hibernateCacheManager Cache manager holding the regions
+     * @return Customizer applied to the JPA properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long entries, Duration timeToLive) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(entries));
+        if (timeToLive != null) {
+            builder = builder.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+        }
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(builder));
+    }
+}
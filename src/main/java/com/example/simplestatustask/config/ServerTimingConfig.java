@@ -0,0 +1,72 @@
+package com.example.simplestatustask.config;
+
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.timing.JdbcTimingInterceptor;
+import com.example.simplestatustask.timing.RequestTimings;
+import com.example.simplestatustask.timing.ServerTimingInterceptor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentation behind the Server-Timing header, only present when task.timing.enabled is
+ * set: with it off, nothing is proxied and requests pay nothing.
+ * <p>
+ * DataSources are proxied by subclass, so that beans injected by their concrete type, such as
+ * the ShardRoutingDataSource, still are; the mapper is proxied by its interface.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.timing.enabled", havingValue = "true")
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    private final ServerTimingInterceptor serverTimingInterceptor;
+
+    public ServerTimingConfig(ServerTimingInterceptor serverTimingInterceptor) {
+        this.serverTimingInterceptor = serverTimingInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(serverTimingInterceptor);
+    }
+
+    /**
+     * Wraps the DataSources to time statements and the TaskMapper to time mapping
+     *
+     * @return Post-processor applying the timing proxies
+     */
+    @Bean
+    static BeanPostProcessor serverTimingProxies() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource) {
+                    ProxyFactory factory = new ProxyFactory(bean);
+                    factory.setProxyTargetClass(true);
+                    factory.addAdvice(new JdbcTimingInterceptor());
+                    return factory.getProxy();
+                }
+                if (bean instanceof TaskMapper) {
+                    ProxyFactory factory = new ProxyFactory(bean);
+                    factory.addAdvice((MethodInterceptor) invocation -> {
+                        long start = RequestTimings.start();
+                        try {
+                            return invocation.proceed();
+                        } finally {
+                            RequestTimings.stop(RequestTimings.Phase.MAPPER, start);
+                        }
+                    });
+                    return factory.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+}
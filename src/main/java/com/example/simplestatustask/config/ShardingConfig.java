@@ -0,0 +1,117 @@
+package com.example.simplestatustask.config;
+
+import com.example.simplestatustask.shard.ShardAwareSequenceGenerator;
+import com.example.simplestatustask.shard.ShardRoutingDataSource;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads tasks over several databases when task.sharding.enabled is set.
+ * The first shard is spring.datasource; the others are listed under task.sharding.datasources
+ * with the same keys (url, username, password, driver-class-name) and share the spring.datasource.hikari
+ * pool settings. Without sharding the router runs everything inline against spring.datasource.
+ * <p>
+ * Sharding cannot be switched off again once tasks have been created with it: their IDs only
+ * resolve through the router.
+ */
+@Configuration
+public class ShardingConfig {
+
+    static final String SHARDS_PROPERTY = "task.sharding.datasources";
+
+    /**
+     * Router used by the sharded services and jobs
+     *
+     * @param enabled Whether tasks are spread over several datasources
+     * @param environment Source of task.sharding.datasources
+     * @return Router over every configured shard, or over the single datasource
+     */
+    @Bean
+    public TaskShardRouter taskShardRouter(@Value("${task.sharding.enabled:false}") boolean enabled,
+                                           Environment environment) {
+        return new TaskShardRouter(enabled, enabled ? 1 + additionalShards(environment).size() : 1);
+    }
+
+    /**
+     * Datasource used by JPA, JdbcTemplate and transactions; picks the shard per call.
+     * Replaces the datasource Spring Boot would build from spring.datasource.
+     *
+     * @param primary spring.datasource, the first shard
+     * @param environment Source of the pool settings and the other shards
+     * @return Routing datasource over every shard
+     */
+    @Bean
+    @ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties primary, Environment environment) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(pool(primary, environment, 0));
+        for (DataSourceProperties shard : additionalShards(environment)) {
+            shards.add(pool(shard, environment, shards.size()));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * Applies the Flyway migrations to every shard instead of only the first one
+     *
+     * @param shardRoutingDataSource Datasources of the shards
+     * @return Strategy run by Spring Boot's Flyway initializer
+     */
+    @Bean
+    @ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            for (DataSource shard : shardRoutingDataSource.getShards()) {
+                Flyway.configure(getClass().getClassLoader())
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shard)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    /**
+     * Switches task IDs to the shard-aware layout and turns the query cache off:
+     * a cached result would be keyed by the query alone, whichever shard produced it
+     *
+     * @return Customizer applied to the JPA properties
+     */
+    @Bean
+    @ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer shardingHibernateCustomizer() {
+        return properties -> {
+            properties.put(ShardAwareSequenceGenerator.SHARDED_IDS, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    private static List<DataSourceProperties> additionalShards(Environment environment) {
+        return Binder.get(environment)
+                .bind(SHARDS_PROPERTY, Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, int shard) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("task-shard-" + shard);
+        return dataSource;
+    }
+}
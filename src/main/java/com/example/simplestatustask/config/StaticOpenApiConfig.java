@@ -0,0 +1,27 @@
+package com.example.simplestatustask.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Serves the OpenAPI document generated at build time when springdoc is not on the classpath
+ * (the prod build). The document is the static resource /openapi.json; with
+ * spring.web.resources.chain.compressed enabled, clients accepting gzip get openapi.json.gz as is.
+ */
+@Configuration
+@ConditionalOnMissingClass("org.springdoc.core.configuration.SpringDocConfiguration")
+public class StaticOpenApiConfig implements WebMvcConfigurer {
+
+    /**
+     * Keeps the springdoc URLs working for existing clients
+     *
+     * @param registry View controller registry
+     */
+    @Override
+    public void addViewControllers(ViewControllerRegistry registry) {
+        registry.addViewController("/api-docs").setViewName("forward:/openapi.json");
+        registry.addViewController("/v3/api-docs").setViewName("forward:/openapi.json");
+    }
+}
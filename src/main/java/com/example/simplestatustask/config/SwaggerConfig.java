@@ -6,12 +6,18 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
 
+/**
+ * API metadata for springdoc. Only active where springdoc is on the classpath: the dev build
+ * at runtime, and the prod build's short-lived instance that generates static/openapi.json.
+ */
 @Configuration
+@ConditionalOnClass(name = "org.springdoc.core.configuration.SpringDocConfiguration")
 public class SwaggerConfig {
 
     @Value("${server.servlet.context-path:/api}")
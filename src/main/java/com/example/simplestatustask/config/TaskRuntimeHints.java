@@ -0,0 +1,68 @@
+package com.example.simplestatustask.config;
+
+import com.example.simplestatustask.dto.ErrorResponseDto;
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskLookupDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection metadata for the native image that Spring AOT cannot infer on its own:
+ * DTOs serialized by Jackson outside controller signatures (outbox payloads, nested lists),
+ * enums bound from strings, and the MapStruct implementation generated at compile time.
+ */
+public class TaskRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Generated by the MapStruct annotation processor, so it is referenced by name
+    static final String TASK_MAPPER_IMPL = "com.example.simplestatustask.mapper.TaskMapperImpl";
+
+    private static final Class<?>[] DTO_TYPES = {
+            ErrorResponseDto.class,
+            TaskChangesResponseDto.class,
+            TaskClaimResponseDto.class,
+            TaskCreateDto.class,
+            TaskHourlyStatsDto.class,
+            TaskLeaseResponseDto.class,
+            TaskLookupDto.class,
+            TaskLookupResponseDto.class,
+            TaskResponseDto.class,
+            TaskStatsDto.class,
+            TaskStatusHistoryDto.class,
+            TaskTombstoneDto.class,
+            TaskTransitionDto.class,
+            TaskTransitionResponseDto.class,
+            TaskUpdateDto.class
+    };
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), DTO_TYPES);
+
+        for (Class<?> enumType : new Class<?>[] {TaskStatus.class, TaskEventType.class}) {
+            hints.reflection().registerType(enumType,
+                    MemberCategory.PUBLIC_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        hints.reflection().registerType(TypeReference.of(TASK_MAPPER_IMPL),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -1,24 +1,55 @@
 package com.example.simplestatustask.controller;
 
 import com.example.simplestatustask.dto.ErrorResponseDto;
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskFacetsDto;
+import com.example.simplestatustask.dto.TaskFilterResponseDto;
+import com.example.simplestatustask.dto.TaskHistogramDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskLookupDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
 import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
 import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskField;
+import com.example.simplestatustask.enums.TaskHistogramBucket;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskHistoryService;
+import com.example.simplestatustask.service.TaskLabelService;
+import com.example.simplestatustask.service.TaskQueueService;
+import com.example.simplestatustask.service.TaskReportService;
 import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.service.TaskStatsService;
+import com.example.simplestatustask.service.TaskSuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Parameter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/tasks")
 @RequiredArgsConstructor
@@ -27,6 +58,12 @@ import io.swagger.v3.oas.annotations.Parameter;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskQueueService taskQueueService;
+    private final TaskHistoryService taskHistoryService;
+    private final TaskStatsService taskStatsService;
+    private final TaskLabelService taskLabelService;
+    private final TaskSuggestService taskSuggestService;
+    private final TaskReportService taskReportService;
 
     /**
      * Creates a new task
@@ -81,6 +118,455 @@ public class TaskController {
         return ResponseEntity.ok(task);
     }
 
+    /**
+     * Retrieves tasks with a given status
+     *
+     * @param status Task status to filter by
+     * @return Tasks with HTTP 200 status, most recently updated first
+     */
+    @GetMapping
+    @Operation(summary = "Get tasks by status", description = "Returns all tasks with the given status, most recently updated first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid status",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<TaskResponseDto>> getTasksByStatus(
+            @Parameter(description = "Task status", example = "PENDING")
+            @RequestParam TaskStatus status) {
+
+        log.info("GET /tasks?status={} - Retrieving tasks", status);
+
+        List<TaskResponseDto> tasks = taskService.getTasksByStatus(status);
+
+        log.info("Retrieved {} tasks with status {}", tasks.size(), status);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Retrieves the most urgent tasks with a given status, for workers picking their next task
+     *
+     * @param status Task status to filter by
+     * @param limit Number of tasks to return
+     * @return Tasks with HTTP 200 status, highest priority first, then earliest due date
+     */
+    @GetMapping("/next")
+    @Operation(summary = "Get the next tasks to work on",
+            description = "Returns the highest-priority tasks with the given status; among equal priorities the "
+                    + "earliest due date comes first and tasks without one last")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid status or limit",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<TaskResponseDto>> getNextTasks(
+            @Parameter(description = "Task status", example = "PENDING")
+            @RequestParam(defaultValue = "PENDING") TaskStatus status,
+            @Parameter(description = "Number of tasks to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("GET /tasks/next?status={}&limit={} - Retrieving next tasks", status, limit);
+        return ResponseEntity.ok(taskService.getNextTasks(status, limit));
+    }
+
+    /**
+     * Retrieves the tasks that have every given label and, if given, the status
+     *
+     * @param status Required status, or none for any
+     * @param labels Required labels, comma-separated or repeated; none for any
+     * @param after ID from nextAfter of the previous page
+     * @param limit Maximum number of tasks to return
+     * @return Page of matching tasks with HTTP 200 status
+     */
+    @GetMapping("/filter")
+    @Operation(summary = "Filter tasks by labels and status",
+            description = "Returns tasks having every given label and the status, in ascending ID order, "
+                    + "with the number of matches. Answered from the in-memory bitmap index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskFilterResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid status, label or limit",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "503", description = "Index still loading",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskFilterResponseDto> filterTasks(
+            @Parameter(description = "Task status", example = "PENDING")
+            @RequestParam(required = false) TaskStatus status,
+            @Parameter(description = "Required labels", example = "backend,urgent")
+            @RequestParam(required = false) List<String> labels,
+            @Parameter(description = "Return tasks with a greater ID", example = "1042")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Number of tasks to return", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+
+        log.debug("GET /tasks/filter?status={}&labels={}&after={}&limit={} - Filtering tasks", status, labels, after, limit);
+        return ResponseEntity.ok(taskLabelService.filterTasks(status, labels, after, limit));
+    }
+
+    /**
+     * Counts the tasks that have every given label and, if given, the status, per status and per label
+     *
+     * @param status Required status, or none for any
+     * @param labels Required labels, comma-separated or repeated; none for any
+     * @param labelLimit Maximum number of labels to count
+     * @return Facet counts with HTTP 200 status
+     */
+    @GetMapping("/facets")
+    @Operation(summary = "Count tasks by status and label",
+            description = "Returns how many tasks match the filter, split by status and by label, most frequent "
+                    + "labels first. Answered from the in-memory bitmap index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskFacetsDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid status, label or label limit",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "503", description = "Index still loading",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskFacetsDto> getFacets(
+            @Parameter(description = "Task status", example = "PENDING")
+            @RequestParam(required = false) TaskStatus status,
+            @Parameter(description = "Required labels", example = "backend")
+            @RequestParam(required = false) List<String> labels,
+            @Parameter(description = "Number of labels to count", example = "20")
+            @RequestParam(defaultValue = "20") int labelLimit) {
+
+        log.debug("GET /tasks/facets?status={}&labels={} - Counting tasks", status, labels);
+        return ResponseEntity.ok(taskLabelService.getFacets(status, labels, labelLimit));
+    }
+
+    /**
+     * Suggests tasks whose title starts with what the user has typed so far
+     *
+     * @param prefix Start of the title, case-insensitive
+     * @param limit Maximum number of tasks to return
+     * @return Matching tasks with HTTP 200 status, most recently updated first
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest tasks by title prefix",
+            description = "Returns the most recently updated tasks whose title starts with the prefix, ignoring case. "
+                    + "Answered from the in-memory title index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Blank or too long prefix, or invalid limit",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "503", description = "Index still loading",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<TaskResponseDto>> suggestTasks(
+            @Parameter(description = "Start of the title", example = "fix")
+            @RequestParam String prefix,
+            @Parameter(description = "Number of tasks to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("GET /tasks/suggest?limit={} - Suggesting tasks", limit);
+        return ResponseEntity.ok(taskSuggestService.suggestTasks(prefix, limit));
+    }
+
+    /**
+     * Retrieves selected fields of a task.
+     * A single task usually comes from the entity cache, which is cheaper than a projection
+     * query, so the fields only trim the response; unless the description is requested, the
+     * task is loaded without it.
+     *
+     * @param id Task unique identifier
+     * @param fields Comma-separated field names, e.g. "id,title,status"
+     * @return Requested fields with HTTP 200 status
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Get selected task fields", description = "Retrieves only the requested fields of a task")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task found successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<Map<String, Object>> getTaskFieldsById(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return", example = "id,title,status,updatedAt")
+            @RequestParam String fields) {
+
+        log.info("GET /tasks/{}?fields={} - Retrieving task fields", id, fields);
+
+        Set<TaskField> selected = TaskField.parse(fields);
+        TaskResponseDto task = selected.contains(TaskField.DESCRIPTION)
+                ? taskService.getTaskById(id)
+                : taskService.getTaskSummaryById(id);
+        return ResponseEntity.ok(TaskField.select(task, selected));
+    }
+
+    /**
+     * Retrieves selected fields of tasks with a given status.
+     * Unless the description is requested, tasks are read through a projection
+     * that does not select the description column.
+     *
+     * @param status Task status to filter by
+     * @param fields Comma-separated field names, e.g. "id,title,status"
+     * @return Requested fields of every task with HTTP 200 status, most recently updated first
+     */
+    @GetMapping(params = "fields")
+    @Operation(summary = "Get selected fields of tasks by status",
+            description = "Returns only the requested fields; the description column is read only when requested")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid status, or unknown field",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<Map<String, Object>>> getTaskFieldsByStatus(
+            @Parameter(description = "Task status", example = "PENDING")
+            @RequestParam TaskStatus status,
+            @Parameter(description = "Comma-separated fields to return", example = "id,title,status,updatedAt")
+            @RequestParam String fields) {
+
+        log.info("GET /tasks?status={}&fields={} - Retrieving task fields", status, fields);
+
+        Set<TaskField> selected = TaskField.parse(fields);
+        List<TaskResponseDto> tasks = selected.contains(TaskField.DESCRIPTION)
+                ? taskService.getTasksByStatus(status)
+                : taskService.getTaskSummariesByStatus(status);
+
+        log.info("Retrieved {} tasks with status {}", tasks.size(), status);
+        return ResponseEntity.ok(tasks.stream().map(task -> TaskField.select(task, selected)).toList());
+    }
+
+    /**
+     * Retrieves many tasks by ID in one call
+     *
+     * @param ids Task IDs, comma-separated or repeated
+     * @return Found tasks and missing IDs with HTTP 200 status
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get tasks by IDs",
+            description = "Returns the tasks with the given IDs in request order, and the IDs that do not exist")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskLookupResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskLookupResponseDto> getTasksByIds(
+            @Parameter(description = "Task IDs", example = "1,2,3")
+            @RequestParam List<Long> ids) {
+
+        log.info("GET /tasks?ids - Looking up {} tasks", ids.size());
+        return ResponseEntity.ok(taskService.getTasksByIds(ids));
+    }
+
+    /**
+     * Streams tasks created in a time range as newline-delimited JSON
+     *
+     * @param createdFrom Inclusive lower bound, Almaty time
+     * @param createdTo Exclusive upper bound, Almaty time
+     * @param response Response the lines are written to
+     * @throws IOException if the client goes away mid-stream
+     */
+    @GetMapping(params = {"createdFrom", "createdTo"})
+    @Operation(summary = "Stream tasks by creation time",
+            description = "Streams tasks created in [createdFrom, createdTo) as one JSON object per line, oldest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TaskResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid range",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public void streamTasksCreated(
+            @Parameter(description = "Inclusive lower bound", example = "2025-06-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Exclusive upper bound", example = "2025-07-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /tasks?createdFrom={}&createdTo={} - Streaming created tasks", createdFrom, createdTo);
+
+        // Checked before the NDJSON content type is set, which would stop the error body from being written as JSON
+        if (!createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        response.setContentType("application/x-ndjson");
+        long written = taskReportService.writeTasksCreated(createdFrom, createdTo, response.getOutputStream());
+
+        log.info("Streamed {} created tasks", written);
+    }
+
+    /**
+     * Retrieves many tasks by ID in one call, for ID lists too long for a query string
+     *
+     * @param lookupDto Task IDs to fetch
+     * @return Found tasks and missing IDs with HTTP 200 status
+     */
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up tasks by IDs",
+            description = "Same as GET /tasks?ids=..., with the IDs in the request body")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskLookupResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskLookupResponseDto> lookupTasks(@Valid @RequestBody TaskLookupDto lookupDto) {
+        log.info("POST /tasks/lookup - Looking up {} tasks", lookupDto.getIds().size());
+        return ResponseEntity.ok(taskService.getTasksByIds(lookupDto.getIds()));
+    }
+
+    /**
+     * Counts tasks per status
+     *
+     * @return Count for every status with HTTP 200 status
+     */
+    @GetMapping("/status-counts")
+    @Operation(summary = "Count tasks by status", description = "Returns the number of tasks in every status")
+    @ApiResponse(responseCode = "200", description = "Counts retrieved successfully")
+    public ResponseEntity<Map<TaskStatus, Long>> getStatusCounts() {
+        log.debug("GET /tasks/status-counts - Counting tasks");
+        return ResponseEntity.ok(taskService.getStatusCounts());
+    }
+
+    /**
+     * Returns the tenant's task counts per status and hourly created/completed counts
+     *
+     * @param hours Number of hours to return, ending with the current one
+     * @return Task statistics with HTTP 200 status
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get task statistics",
+            description = "Returns the tenant's incrementally maintained counts per status and created/completed counts per hour")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskStatsDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid number of hours",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskStatsDto> getTaskStats(
+            @Parameter(description = "Number of hours to return", example = "24")
+            @RequestParam(defaultValue = "24") int hours) {
+        log.debug("GET /tasks/stats?hours={} - Retrieving statistics", hours);
+        return ResponseEntity.ok(taskStatsService.getStats(hours));
+    }
+
+    /**
+     * Counts tasks created in a time range per Almaty hour or day
+     *
+     * @param createdFrom Inclusive lower bound, Almaty time
+     * @param createdTo Exclusive upper bound, Almaty time
+     * @param bucket Bucket width, "hour" or "day"
+     * @return Count per bucket with HTTP 200 status
+     */
+    @GetMapping("/histogram")
+    @Operation(summary = "Get created-task histogram",
+            description = "Counts tasks created in [createdFrom, createdTo) per Almaty hour or day, empty buckets included")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Histogram retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskHistogramDto.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid range, unknown bucket, or too many buckets",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskHistogramDto> getCreatedHistogram(
+            @Parameter(description = "Inclusive lower bound", example = "2025-06-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Exclusive upper bound", example = "2025-07-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Bucket width: hour or day", example = "day")
+            @RequestParam(defaultValue = "day") String bucket) {
+
+        log.debug("GET /tasks/histogram?bucket={} - Counting tasks created from {} to {}", bucket, createdFrom, createdTo);
+        return ResponseEntity.ok(taskReportService.getCreatedHistogram(
+                createdFrom, createdTo, TaskHistogramBucket.parse(bucket)));
+    }
+
+    /**
+     * Retrieves tasks changed since a sync token
+     *
+     * @param since Opaque token returned by the previous call, omitted for a full sync
+     * @param limit Maximum number of changes to return
+     * @return Changed and deleted tasks with HTTP 200 status
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get task changes", description = "Returns tasks created, updated or deleted since the given sync token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskChangesResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid sync token or limit",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskChangesResponseDto> getTaskChanges(
+            @Parameter(description = "Sync token from the previous response")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes to return", example = "100")
+            @RequestParam(defaultValue = "100") int limit) {
+
+        log.info("GET /tasks/changes - Retrieving changes since token: {}", since);
+
+        TaskChangesResponseDto changes = taskService.getChangesSince(since, limit);
+
+        log.info("Changes retrieved successfully: {} changed, {} deleted",
+                changes.getChanged().size(), changes.getDeleted().size());
+        return ResponseEntity.ok(changes);
+    }
+
+    /**
+     * Retrieves the status timeline of a task
+     *
+     * @param id Task unique identifier
+     * @return Status changes, oldest first, with HTTP 200 status
+     */
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get task status history",
+            description = "Returns every status the task entered, oldest first; kept after the task is deleted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<TaskStatusHistoryDto>> getTaskHistory(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id) {
+
+        log.info("GET /tasks/{}/history - Retrieving status history", id);
+        return ResponseEntity.ok(taskHistoryService.getTaskHistory(id));
+    }
+
+    /**
+     * Streams status changes of all tasks in a time range as newline-delimited JSON
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param status Only changes entering this status
+     * @param response Response the lines are written to
+     * @throws IOException if the client goes away mid-stream
+     */
+    @GetMapping("/history")
+    @Operation(summary = "Stream status history",
+            description = "Streams status changes in [from, to) as one JSON object per line, oldest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes streamed",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TaskStatusHistoryDto.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid range",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public void streamHistory(
+            @Parameter(description = "Inclusive lower bound", example = "2025-06-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive upper bound", example = "2025-07-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only changes entering this status", example = "IN_PROGRESS")
+            @RequestParam(required = false) TaskStatus status,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /tasks/history - Streaming status changes from {} to {}", from, to);
+
+        // Checked before the NDJSON content type is set, which would stop the error body from being written as JSON
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        response.setContentType("application/x-ndjson");
+        long written = taskHistoryService.writeHistory(from, to, status, response.getOutputStream());
+
+        log.info("Streamed {} status changes", written);
+    }
+
     /**
      * Updates an existing task
      *
@@ -111,6 +597,271 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask);
     }
 
+    /**
+     * Moves a task to a new status if it still has the expected one
+     *
+     * @param id Task unique identifier
+     * @param transitionDto Expected and target status
+     * @return Transition result with HTTP 200 status
+     */
+    @PostMapping("/{id}/transitions")
+    @Operation(summary = "Transition task status",
+            description = "Atomically changes the status if the task is still in the expected status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status changed successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskTransitionResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "409", description = "Task is no longer in the expected status",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "422", description = "Transition not allowed by the status state machine",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskTransitionResponseDto> transitionTask(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Valid @RequestBody TaskTransitionDto transitionDto) {
+
+        log.info("POST /tasks/{}/transitions - {} -> {}", id,
+                transitionDto.getExpectedStatus(), transitionDto.getTargetStatus());
+
+        TaskTransitionResponseDto result = taskService.transitionTask(id, transitionDto);
+
+        log.info("Task {} status changed to {}", id, result.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Schedules a status transition for a given time
+     *
+     * @param id Task unique identifier
+     * @param scheduleDto Expected and target status and the time the transition is due
+     * @return Scheduled transition with HTTP 200 status
+     */
+    @PutMapping("/{id}/schedule")
+    @Operation(summary = "Schedule a status transition",
+            description = "Moves the task to the target status once the time is reached, if it still has the expected status then. " +
+                    "Replaces any transition already scheduled for the task")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transition scheduled",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskScheduleResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "422", description = "Transition not allowed by the status state machine",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskScheduleResponseDto> scheduleTransition(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Valid @RequestBody TaskScheduleDto scheduleDto) {
+
+        log.info("PUT /tasks/{}/schedule - {} -> {} at {}", id, scheduleDto.getExpectedStatus(),
+                scheduleDto.getTargetStatus(), scheduleDto.getScheduledTransitionAt());
+
+        return ResponseEntity.ok(taskService.scheduleTransition(id, scheduleDto));
+    }
+
+    /**
+     * Cancels the scheduled status transition of a task
+     *
+     * @param id Task unique identifier
+     * @return Empty response with HTTP 204 status
+     */
+    @DeleteMapping("/{id}/schedule")
+    @Operation(summary = "Cancel a scheduled status transition",
+            description = "Removes the scheduled transition of the task, if it has one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "No transition is scheduled any more"),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<Void> cancelScheduledTransition(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id) {
+
+        log.info("DELETE /tasks/{}/schedule - Cancelling scheduled transition", id);
+
+        taskService.cancelScheduledTransition(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Retrieves the labels of a task
+     *
+     * @param id Task unique identifier
+     * @return Label names with HTTP 200 status
+     */
+    @GetMapping("/{id}/labels")
+    @Operation(summary = "Get task labels", description = "Returns the labels of the task in alphabetical order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Labels retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<String>> getLabels(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id) {
+
+        log.debug("GET /tasks/{}/labels - Retrieving labels", id);
+        return ResponseEntity.ok(taskLabelService.getLabels(id));
+    }
+
+    /**
+     * Adds a label to a task
+     *
+     * @param id Task unique identifier
+     * @param label Label name
+     * @return Labels of the task afterwards with HTTP 200 status
+     */
+    @PutMapping("/{id}/labels/{label}")
+    @Operation(summary = "Add a task label",
+            description = "Adds the label to the task; adding a label the task already has changes nothing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Label added"),
+            @ApiResponse(responseCode = "400", description = "Invalid label or too many labels",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<List<String>> addLabel(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Parameter(description = "Label name", example = "urgent")
+            @PathVariable String label) {
+
+        log.info("PUT /tasks/{}/labels/{} - Adding label", id, label);
+        return ResponseEntity.ok(taskLabelService.addLabel(id, label));
+    }
+
+    /**
+     * Removes a label from a task
+     *
+     * @param id Task unique identifier
+     * @param label Label name
+     * @return Empty response with HTTP 204 status
+     */
+    @DeleteMapping("/{id}/labels/{label}")
+    @Operation(summary = "Remove a task label", description = "Removes the label from the task, if it has it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "The task does not have the label any more"),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<Void> removeLabel(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Parameter(description = "Label name", example = "urgent")
+            @PathVariable String label) {
+
+        log.info("DELETE /tasks/{}/labels/{} - Removing label", id, label);
+
+        taskLabelService.removeLabel(id, label);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Claims the oldest pending tasks for a worker
+     *
+     * @param owner Worker identifier
+     * @param limit Maximum number of tasks to claim
+     * @param leaseSeconds Lease duration, defaults to the configured lease
+     * @return Claimed tasks with HTTP 200 status; the list is empty when nothing is pending
+     */
+    @PostMapping("/claim")
+    @Operation(summary = "Claim pending tasks",
+            description = "Atomically moves the oldest pending tasks to IN_PROGRESS under a lease held by the worker")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks claimed (possibly none)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskClaimResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid owner, limit or lease",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskClaimResponseDto> claimTasks(
+            @Parameter(description = "Worker identifier", example = "worker-1")
+            @RequestParam String owner,
+            @Parameter(description = "Maximum number of tasks to claim", example = "10")
+            @RequestParam(defaultValue = "1") int limit,
+            @Parameter(description = "Lease duration in seconds", example = "60")
+            @RequestParam(required = false) Integer leaseSeconds) {
+
+        log.info("POST /tasks/claim - Worker {} claiming up to {} tasks", owner, limit);
+
+        TaskClaimResponseDto claim = taskQueueService.claimTasks(owner, limit, leaseSeconds);
+
+        log.info("Worker {} claimed {} tasks", owner, claim.getTasks().size());
+        return ResponseEntity.ok(claim);
+    }
+
+    /**
+     * Extends the lease on a claimed task
+     *
+     * @param id Task unique identifier
+     * @param owner Worker holding the lease
+     * @param leaseSeconds Lease duration from now, defaults to the configured lease
+     * @return Extended lease with HTTP 200 status
+     */
+    @PostMapping("/{id}/lease/heartbeat")
+    @Operation(summary = "Extend task lease", description = "Extends the lease held by the worker on a claimed task")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lease extended",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskLeaseResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "409", description = "The worker no longer holds the lease",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskLeaseResponseDto> heartbeat(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Parameter(description = "Worker identifier", example = "worker-1")
+            @RequestParam String owner,
+            @Parameter(description = "Lease duration in seconds", example = "60")
+            @RequestParam(required = false) Integer leaseSeconds) {
+
+        log.debug("POST /tasks/{}/lease/heartbeat - Worker {}", id, owner);
+
+        return ResponseEntity.ok(taskQueueService.heartbeat(id, owner, leaseSeconds));
+    }
+
+    /**
+     * Releases the lease on a claimed task
+     *
+     * @param id Task unique identifier
+     * @param owner Worker holding the lease
+     * @param status Status to leave the task in
+     * @return Resulting status change with HTTP 200 status
+     */
+    @PostMapping("/{id}/lease/release")
+    @Operation(summary = "Release task lease",
+            description = "Ends the lease and leaves the task COMPLETED, or PENDING to hand it back to the queue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lease released",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskTransitionResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "409", description = "The worker no longer holds the lease",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskTransitionResponseDto> releaseTask(
+            @Parameter(description = "Task unique identifier", example = "42")
+            @PathVariable Long id,
+            @Parameter(description = "Worker identifier", example = "worker-1")
+            @RequestParam String owner,
+            @Parameter(description = "Status to leave the task in", example = "COMPLETED")
+            @RequestParam(defaultValue = "COMPLETED") TaskStatus status) {
+
+        log.info("POST /tasks/{}/lease/release - Worker {} releasing as {}", id, owner, status);
+
+        TaskTransitionResponseDto result = taskQueueService.releaseTask(id, owner, status);
+
+        log.info("Task {} released as {}", id, result.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Deletes a task by its ID
      *
@@ -0,0 +1,184 @@
+package com.example.simplestatustask.controller;
+
+import com.example.simplestatustask.dto.ErrorResponseDto;
+import com.example.simplestatustask.dto.TaskSnapshotDto;
+import com.example.simplestatustask.snapshot.TaskSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Admin endpoints for task snapshots. Off unless task.snapshot.enabled is set; they read and
+ * replace every tenant's tasks, so expose them only on an internal network.
+ */
+@RestController
+@RequestMapping("/admin/snapshots")
+@ConditionalOnProperty(name = "task.snapshot.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Task Snapshots", description = "Export and restore every task (admin)")
+public class TaskSnapshotController {
+
+    // Tomcat serves a file itself with FileChannel.transferTo when these request attributes are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final TaskSnapshotService taskSnapshotService;
+
+    /**
+     * Exports every task to a new snapshot file
+     *
+     * @return Snapshot with HTTP 201 status
+     */
+    @PostMapping
+    @Operation(summary = "Export a snapshot", description = "Writes every task of every tenant to a new snapshot file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Snapshot written",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSnapshotDto.class)))
+    })
+    public ResponseEntity<TaskSnapshotDto> exportSnapshot() {
+        log.info("POST /admin/snapshots - Exporting tasks");
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskSnapshotService.export());
+    }
+
+    /**
+     * Lists the snapshot files
+     *
+     * @return Snapshots with HTTP 200 status, newest first
+     */
+    @GetMapping
+    @Operation(summary = "List snapshots", description = "Lists the snapshot files, newest first")
+    public ResponseEntity<List<TaskSnapshotDto>> listSnapshots() {
+        return ResponseEntity.ok(taskSnapshotService.list());
+    }
+
+    /**
+     * Downloads a snapshot file. Under Tomcat the file goes from the page cache to the socket
+     * with sendfile; elsewhere it is transferred from the file channel to the response.
+     *
+     * @param name File name
+     * @param request Request, to detect sendfile support
+     * @param response Response the file is written to
+     * @throws IOException if the client goes away mid-transfer
+     */
+    @GetMapping("/{name}")
+    @Operation(summary = "Download a snapshot", description = "Serves the snapshot file as application/octet-stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshot file",
+                    content = @Content(mediaType = "application/octet-stream")),
+            @ApiResponse(responseCode = "404", description = "No such snapshot"),
+            @ApiResponse(responseCode = "400", description = "Invalid snapshot name",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public void downloadSnapshot(
+            @Parameter(description = "Snapshot file name", example = "tasks-20250622T101530000.snapshot")
+            @PathVariable String name,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Optional<Path> file = taskSnapshotService.find(name);
+        if (file.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        long size = Files.size(file.get());
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "\"");
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            log.info("GET /admin/snapshots/{} - Sending {} bytes with sendfile", name, size);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.get(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+        log.info("GET /admin/snapshots/{} - Sent {} bytes", name, size);
+    }
+
+    /**
+     * Stores an uploaded snapshot file under the given name, replacing one with that name
+     *
+     * @param name File name
+     * @param request Request whose body is the snapshot
+     * @return Stored snapshot with HTTP 201 status
+     * @throws IOException if the body cannot be read
+     */
+    @PutMapping(value = "/{name}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload a snapshot", description = "Stores a snapshot file, for example one exported elsewhere")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Snapshot stored",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSnapshotDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid name, or the body is not a snapshot",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskSnapshotDto> uploadSnapshot(
+            @Parameter(description = "Snapshot file name", example = "seed.snapshot")
+            @PathVariable String name,
+            HttpServletRequest request) throws IOException {
+
+        log.info("PUT /admin/snapshots/{} - Storing uploaded snapshot", name);
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskSnapshotService.upload(name, request.getInputStream()));
+    }
+
+    /**
+     * Restores a snapshot into a database without tasks
+     *
+     * @param name File name
+     * @return Restored snapshot with HTTP 200 status
+     */
+    @PostMapping("/{name}/restore")
+    @Operation(summary = "Restore a snapshot", description = "Bulk-loads every task of the snapshot; the database must have no tasks")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Snapshot restored",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskSnapshotDto.class))),
+            @ApiResponse(responseCode = "404", description = "No such snapshot"),
+            @ApiResponse(responseCode = "409", description = "The database already holds tasks",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    public ResponseEntity<TaskSnapshotDto> restoreSnapshot(
+            @Parameter(description = "Snapshot file name", example = "tasks-20250622T101530000.snapshot")
+            @PathVariable String name) {
+
+        log.info("POST /admin/snapshots/{}/restore - Restoring tasks", name);
+        return ResponseEntity.of(taskSnapshotService.restore(name));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of task changes since a sync token")
+public class TaskChangesResponseDto {
+
+    @Schema(description = "Tasks created or updated since the token, oldest change first")
+    private List<TaskResponseDto> changed;
+
+    @Schema(description = "Tasks deleted since the token, oldest deletion first")
+    private List<TaskTombstoneDto> deleted;
+
+    @Schema(description = "Opaque token to pass as 'since' on the next call", example = "djE6MTcxOTA0MDQwMDowOjQy")
+    private String nextToken;
+
+    @Schema(description = "Whether more changes are available right away", example = "false")
+    private boolean hasMore;
+}
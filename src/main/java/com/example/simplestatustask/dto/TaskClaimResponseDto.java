@@ -0,0 +1,25 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks claimed by a worker")
+public class TaskClaimResponseDto {
+
+    @Schema(description = "Worker holding the leases", example = "worker-1")
+    private String owner;
+
+    @Schema(description = "Lease expiry shared by all claimed tasks", example = "2025-06-22T10:31:00")
+    private LocalDateTime leaseExpiresAt;
+
+    @Schema(description = "Claimed tasks, now IN_PROGRESS, oldest first")
+    private List<TaskResponseDto> tasks;
+}
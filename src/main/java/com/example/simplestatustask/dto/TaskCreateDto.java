@@ -2,12 +2,16 @@ package com.example.simplestatustask.dto;
 
 import com.example.simplestatustask.enums.TaskStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,4 +28,20 @@ public class TaskCreateDto {
 
     @Schema(description = "Task status", example = "PENDING", defaultValue = "PENDING")
     private TaskStatus status = TaskStatus.PENDING;
+
+    @Min(value = 0, message = "Priority must be between 0 and 100")
+    @Max(value = 100, message = "Priority must be between 0 and 100")
+    @Schema(description = "Task priority; higher is more urgent", example = "50", defaultValue = "0",
+            minimum = "0", maximum = "100")
+    private Integer priority;
+
+    @Schema(description = "Time the task is due, Almaty time", example = "2025-06-30T18:00:00")
+    private LocalDateTime dueAt;
+
+    /**
+     * Task with the default priority and no due date
+     */
+    public TaskCreateDto(String title, String description, TaskStatus status) {
+        this(title, description, status, null, null);
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Counts of the tasks matching a label and status filter")
+public class TaskFacetsDto {
+
+    @Schema(description = "Number of tasks matching the filter", example = "128")
+    private long total;
+
+    @Schema(description = "Matching tasks per status, every status included",
+            example = "{\"PENDING\": 100, \"IN_PROGRESS\": 20, \"COMPLETED\": 8}")
+    private Map<TaskStatus, Long> statuses;
+
+    @Schema(description = "Matching tasks per label, most frequent first", example = "{\"backend\": 128, \"urgent\": 17}")
+    private Map<String, Long> labels;
+}
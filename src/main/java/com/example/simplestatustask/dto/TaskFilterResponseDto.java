@@ -0,0 +1,24 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of the tasks matching a label and status filter")
+public class TaskFilterResponseDto {
+
+    @Schema(description = "Number of tasks matching the filter", example = "128")
+    private long total;
+
+    @Schema(description = "Matching tasks in ascending ID order")
+    private List<TaskResponseDto> tasks;
+
+    @Schema(description = "Pass as 'after' to get the next page; absent on the last page", example = "1042")
+    private Long nextAfter;
+}
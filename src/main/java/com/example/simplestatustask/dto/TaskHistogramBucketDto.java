@@ -0,0 +1,21 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks created during one hour or day")
+public class TaskHistogramBucketDto {
+
+    @Schema(description = "Start of the bucket, Almaty time", example = "2025-06-22T00:00:00")
+    private LocalDateTime bucketStart;
+
+    @Schema(description = "Tasks created during the bucket", example = "42")
+    private long count;
+}
@@ -0,0 +1,31 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks created in a time range, counted per hour or day")
+public class TaskHistogramDto {
+
+    @Schema(description = "Bucket width", example = "day")
+    private String bucket;
+
+    @Schema(description = "Inclusive lower bound, Almaty time", example = "2025-06-01T00:00:00")
+    private LocalDateTime from;
+
+    @Schema(description = "Exclusive upper bound, Almaty time", example = "2025-07-01T00:00:00")
+    private LocalDateTime to;
+
+    @Schema(description = "Tasks created in the range", example = "1260")
+    private long total;
+
+    @Schema(description = "One entry per bucket touching the range, oldest first; empty buckets included")
+    private List<TaskHistogramBucketDto> buckets;
+}
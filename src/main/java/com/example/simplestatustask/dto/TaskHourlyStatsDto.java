@@ -0,0 +1,24 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks created and completed during one hour")
+public class TaskHourlyStatsDto {
+
+    @Schema(description = "Start of the hour", example = "2025-06-22T10:00:00")
+    private LocalDateTime hourStart;
+
+    @Schema(description = "Tasks created during the hour", example = "12")
+    private long created;
+
+    @Schema(description = "Tasks that entered COMPLETED during the hour", example = "9")
+    private long completed;
+}
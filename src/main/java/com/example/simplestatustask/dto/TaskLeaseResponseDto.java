@@ -0,0 +1,24 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Current lease on a claimed task")
+public class TaskLeaseResponseDto {
+
+    @Schema(description = "Task unique identifier", example = "42")
+    private Long id;
+
+    @Schema(description = "Worker holding the lease", example = "worker-1")
+    private String owner;
+
+    @Schema(description = "Lease expiry", example = "2025-06-22T10:31:00")
+    private LocalDateTime leaseExpiresAt;
+}
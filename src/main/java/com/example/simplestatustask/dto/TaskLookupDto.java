@@ -0,0 +1,21 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request body for fetching many tasks by ID")
+public class TaskLookupDto {
+
+    @NotEmpty(message = "At least one task ID is required")
+    @Schema(description = "Task IDs to fetch; duplicates are ignored", example = "[1, 2, 3]")
+    private List<@NotNull(message = "Task ID must not be null") Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasks found by ID and the IDs that do not exist")
+public class TaskLookupResponseDto {
+
+    @Schema(description = "Found tasks, in the order the IDs were requested")
+    private List<TaskResponseDto> tasks;
+
+    @Schema(description = "Requested IDs with no task", example = "[3]")
+    private List<Long> missingIds;
+}
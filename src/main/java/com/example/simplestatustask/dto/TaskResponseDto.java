@@ -26,9 +26,23 @@ public class TaskResponseDto {
     @Schema(description = "Task status", example = "PENDING")
     private TaskStatus status;
 
+    @Schema(description = "Task priority; higher is more urgent", example = "50")
+    private Integer priority;
+
+    @Schema(description = "Time the task is due", example = "2025-06-30T18:00:00")
+    private LocalDateTime dueAt;
+
     @Schema(description = "Task creation timestamp", example = "2025-06-22T10:00:00")
     private LocalDateTime createdAt;
 
     @Schema(description = "Task last update timestamp", example = "2025-06-22T10:30:00")
     private LocalDateTime updatedAt;
+
+    /**
+     * Task with the default priority and no due date
+     */
+    public TaskResponseDto(Long id, String title, String description, TaskStatus status,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, description, status, 0, null, createdAt, updatedAt);
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request body for a status transition that happens at a given time")
+public class TaskScheduleDto {
+
+    @NotNull(message = "Expected status is required")
+    @Schema(description = "Status the task must still have when the transition is due", example = "PENDING")
+    private TaskStatus expectedStatus;
+
+    @NotNull(message = "Target status is required")
+    @Schema(description = "Status to move the task to", example = "IN_PROGRESS")
+    private TaskStatus targetStatus;
+
+    @NotNull(message = "Scheduled transition time is required")
+    @Schema(description = "Time the transition is due, in Almaty time; a past time is due at once",
+            example = "2025-06-23T09:00:00")
+    private LocalDateTime scheduledTransitionAt;
+}
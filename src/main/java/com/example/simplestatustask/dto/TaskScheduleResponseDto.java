@@ -0,0 +1,28 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Scheduled status transition of a task")
+public class TaskScheduleResponseDto {
+
+    @Schema(description = "Task unique identifier", example = "42")
+    private Long id;
+
+    @Schema(description = "Status the task must still have when the transition is due", example = "PENDING")
+    private TaskStatus expectedStatus;
+
+    @Schema(description = "Status the task will be moved to", example = "IN_PROGRESS")
+    private TaskStatus targetStatus;
+
+    @Schema(description = "Time the transition is due", example = "2025-06-23T09:00:00")
+    private LocalDateTime scheduledTransitionAt;
+}
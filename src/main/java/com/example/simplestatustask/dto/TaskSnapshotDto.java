@@ -0,0 +1,27 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Snapshot file of every task")
+public class TaskSnapshotDto {
+
+    @Schema(description = "File name", example = "tasks-20250622T101530.snapshot")
+    private String name;
+
+    @Schema(description = "File size in bytes", example = "10485760")
+    private long sizeBytes;
+
+    @Schema(description = "Number of tasks in the snapshot", example = "250000")
+    private long taskCount;
+
+    @Schema(description = "Time the file was last written", example = "2025-06-22T10:15:30")
+    private LocalDateTime modifiedAt;
+}
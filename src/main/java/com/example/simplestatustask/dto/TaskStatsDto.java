@@ -0,0 +1,31 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Task counts per status and per-hour throughput")
+public class TaskStatsDto {
+
+    @Schema(description = "Number of tasks in each status", example = "{\"PENDING\": 5, \"IN_PROGRESS\": 2, \"COMPLETED\": 40}")
+    private Map<TaskStatus, Long> counts;
+
+    @Schema(description = "Number of tasks in all statuses", example = "47")
+    private long total;
+
+    @Schema(description = "Created and completed counts per hour, oldest first, ending with the current hour")
+    private List<TaskHourlyStatsDto> hourly;
+
+    @Schema(description = "Last time the counts were reloaded from the database; "
+            + "writes made by other instances since then are not included yet", example = "2025-06-22T10:15:30")
+    private LocalDateTime reconciledAt;
+}
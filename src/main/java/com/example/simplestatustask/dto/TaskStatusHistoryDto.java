@@ -0,0 +1,28 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One status change of a task")
+public class TaskStatusHistoryDto {
+
+    @Schema(description = "Task ID", example = "42")
+    private Long taskId;
+
+    @Schema(description = "Status before the change, absent when the task was created", example = "PENDING")
+    private TaskStatus fromStatus;
+
+    @Schema(description = "Status the task entered", example = "IN_PROGRESS")
+    private TaskStatus toStatus;
+
+    @Schema(description = "Time of the change", example = "2025-06-22T10:00:00")
+    private LocalDateTime changedAt;
+}
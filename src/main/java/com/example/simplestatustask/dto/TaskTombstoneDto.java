@@ -0,0 +1,21 @@
+package com.example.simplestatustask.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Record of a deleted task")
+public class TaskTombstoneDto {
+
+    @Schema(description = "Identifier of the deleted task", example = "42")
+    private Long id;
+
+    @Schema(description = "Task deletion timestamp", example = "2025-06-22T11:00:00")
+    private LocalDateTime deletedAt;
+}
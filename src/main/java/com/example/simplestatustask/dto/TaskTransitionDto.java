@@ -0,0 +1,23 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request body for a compare-and-set status transition")
+public class TaskTransitionDto {
+
+    @NotNull(message = "Expected status is required")
+    @Schema(description = "Status the task must currently have", example = "PENDING")
+    private TaskStatus expectedStatus;
+
+    @NotNull(message = "Target status is required")
+    @Schema(description = "Status to move the task to", example = "IN_PROGRESS")
+    private TaskStatus targetStatus;
+}
@@ -0,0 +1,28 @@
+package com.example.simplestatustask.dto;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a status transition")
+public class TaskTransitionResponseDto {
+
+    @Schema(description = "Task unique identifier", example = "42")
+    private Long id;
+
+    @Schema(description = "Status before the transition", example = "PENDING")
+    private TaskStatus previousStatus;
+
+    @Schema(description = "Status after the transition", example = "IN_PROGRESS")
+    private TaskStatus status;
+
+    @Schema(description = "Task last update timestamp", example = "2025-06-22T10:30:00")
+    private LocalDateTime updatedAt;
+}
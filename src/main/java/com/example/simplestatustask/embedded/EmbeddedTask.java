@@ -0,0 +1,21 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable state of a task in the embedded store; every change replaces the whole record
+ *
+ * @param id Task ID
+ * @param tenantId Tenant owning the task
+ * @param title Title
+ * @param description Description, or null
+ * @param status Status
+ * @param createdAt Creation time, Almaty time
+ * @param updatedAt Last change; unique and increasing across the store, so it doubles as the change feed position
+ */
+public record EmbeddedTask(long id, String tenantId, String title, String description, TaskStatus status,
+                           LocalDateTime createdAt, Instant updatedAt) {
+}
@@ -0,0 +1,423 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine of the embedded mode: an {@link EmbeddedTaskStore} made durable by a
+ * {@link TaskWriteAheadLog} and periodic snapshots in one data directory.
+ * <p>
+ * Writes run one at a time under a write lock: each change is appended to the log, then
+ * applied to the store. The lock is released before waiting for the log to reach the disk, so
+ * concurrent writers share one fsync (group commit) and readers are never held up by it.
+ * A write returns once its change is durable.
+ * <p>
+ * A snapshot starts a new log segment and copies the store's references under the write lock,
+ * then writes the copy without it; the segments before the snapshot are deleted afterwards.
+ * Startup loads the newest snapshot and replays the segments written since.
+ */
+@Slf4j
+public class EmbeddedTaskEngine implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private static final int SNAPSHOT_MAGIC = 0x54534e50;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{10})\\.bin");
+
+    private final Path directory;
+    private final TaskWriteAheadLog wal;
+    private final Clock clock;
+    private final EmbeddedTaskStore store = new EmbeddedTaskStore();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    /**
+     * Changes made inside {@link #write}; each is logged and applied as it is made
+     */
+    public final class Writer {
+
+        private long position;
+
+        private Writer() {
+        }
+
+        public EmbeddedTaskStore store() {
+            return store;
+        }
+
+        /**
+         * ID for a new task
+         *
+         * @return One more than the highest ID ever stored
+         */
+        public long nextId() {
+            return store.lastId() + 1;
+        }
+
+        /**
+         * Time for a change: the clock, moved forward when needed so no two changes share a time
+         * and times never go back
+         *
+         * @return Unique, increasing timestamp
+         */
+        public Instant stamp() {
+            Instant now = clock.instant();
+            Instant last = store.lastStamp();
+            return now.isAfter(last) ? now : last.plusNanos(1);
+        }
+
+        /**
+         * Creates or replaces a task
+         *
+         * @param task New state
+         */
+        public void put(EmbeddedTask task) {
+            position = wal.append(encodePut(task));
+            store.put(task);
+        }
+
+        /**
+         * Deletes a task
+         *
+         * @param id Task ID
+         * @param deletedAt Time of the delete, from {@link #stamp()}
+         */
+        public void delete(long id, Instant deletedAt) {
+            position = wal.append(encodeDelete(id, deletedAt));
+            store.delete(id, deletedAt);
+        }
+    }
+
+    /**
+     * Opens the data directory and recovers the store from the newest snapshot and the log
+     *
+     * @param directory Data directory
+     * @param segmentBytes Size of each log segment
+     * @param fsync Whether writes wait for the disk
+     * @param clock Source of change times
+     */
+    public EmbeddedTaskEngine(Path directory, int segmentBytes, boolean fsync, Clock clock) {
+        this.directory = directory;
+        this.wal = new TaskWriteAheadLog(directory.resolve("wal"), segmentBytes, fsync);
+        this.clock = clock;
+        recover();
+    }
+
+    /**
+     * Runs a read against a consistent state of the store
+     *
+     * @param reader Read to run; must not keep views of the store
+     * @return Result of the read
+     */
+    public <T> T read(Function<EmbeddedTaskStore, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(store);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a write alone and waits until its changes are durable.
+     * Changes take effect as they are made, so checks belong before the first change.
+     *
+     * @param work Write to run
+     * @return Result of the write
+     */
+    public <T> T write(Function<Writer, T> work) {
+        Writer writer = new Writer();
+        lock.writeLock().lock();
+        try {
+            return work.apply(writer);
+        } finally {
+            lock.writeLock().unlock();
+            if (writer.position > 0) {
+                wal.sync(writer.position);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot and deletes the log segments it covers
+     *
+     * @return Number of tasks in the snapshot
+     */
+    public int snapshot() {
+        snapshotLock.lock();
+        try {
+            int segment;
+            EmbeddedTaskStore.Contents contents;
+            lock.writeLock().lock();
+            try {
+                segment = wal.roll();
+                contents = store.contents();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Path target = directory.resolve(String.format("snapshot-%010d.bin", segment));
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                writeSnapshot(out, contents);
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+            for (Path older : snapshots()) {
+                if (!older.equals(target)) {
+                    Files.delete(older);
+                }
+            }
+            int deleted = wal.deleteBefore(segment);
+            log.info("Wrote embedded snapshot {} with {} tasks; deleted {} WAL segments",
+                    target.getFileName(), contents.tasks().size(), deleted);
+            return contents.tasks().size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write embedded snapshot", ex);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            wal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() {
+        long start = System.nanoTime();
+        int fromSegment = 0;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path leftover : files.filter(file -> file.toString().endsWith(".tmp")).toList()) {
+                    Files.delete(leftover);
+                }
+            }
+            List<Path> snapshots = snapshots();
+            if (!snapshots.isEmpty()) {
+                Path newest = snapshots.get(snapshots.size() - 1);
+                try (InputStream file = Files.newInputStream(newest);
+                     DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+                    store.restore(readSnapshot(in));
+                }
+                fromSegment = segmentOf(newest);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load embedded snapshot from " + directory, ex);
+        }
+        long replayed = wal.replay(fromSegment, this::apply);
+        log.info("Recovered {} embedded tasks from {} ({} WAL records replayed) in {} ms",
+                store.size(), directory, replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void apply(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte type = in.readByte();
+            if (type == PUT) {
+                store.put(readTask(in));
+            } else if (type == DELETE) {
+                store.delete(in.readLong(), readInstant(in));
+            } else {
+                throw new IllegalStateException("Unknown WAL record type " + type);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Corrupt WAL record", ex);
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> snapshots = new ArrayList<>(files
+                    .filter(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches())
+                    .toList());
+            snapshots.sort(null);
+            return snapshots;
+        }
+    }
+
+    private static int segmentOf(Path snapshot) {
+        Matcher matcher = SNAPSHOT_NAME.matcher(snapshot.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a snapshot: " + snapshot);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static ByteBuffer encodePut(EmbeddedTask task) {
+        return encode(out -> {
+            out.writeByte(PUT);
+            writeTask(out, task);
+        });
+    }
+
+    private static ByteBuffer encodeDelete(long id, Instant deletedAt) {
+        return encode(out -> {
+            out.writeByte(DELETE);
+            out.writeLong(id);
+            writeInstant(out, deletedAt);
+        });
+    }
+
+    private interface Encoder {
+        void encode(DataOutput out) throws IOException;
+    }
+
+    private static ByteBuffer encode(Encoder encoder) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encoder.encode(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static void writeSnapshot(DataOutput out, EmbeddedTaskStore.Contents contents) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(contents.lastId());
+        writeInstant(out, contents.lastStamp());
+        out.writeInt(contents.tasks().size());
+        for (EmbeddedTask task : contents.tasks()) {
+            writeTask(out, task);
+        }
+        out.writeInt(contents.tombstones().size());
+        for (EmbeddedTaskStore.Tombstone tombstone : contents.tombstones()) {
+            out.writeLong(tombstone.taskId());
+            writeString(out, tombstone.tenantId());
+            writeInstant(out, tombstone.deletedAt());
+        }
+        out.writeInt(contents.history().size());
+        for (EmbeddedTaskStore.HistoryEntry entry : contents.history()) {
+            out.writeLong(entry.taskId());
+            writeString(out, entry.tenantId());
+            writeString(out, entry.fromStatus() != null ? entry.fromStatus().name() : null);
+            writeString(out, entry.toStatus().name());
+            writeInstant(out, entry.changedAt());
+        }
+    }
+
+    private static EmbeddedTaskStore.Contents readSnapshot(DataInput in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not an embedded task snapshot, or an unsupported version");
+        }
+        long lastId = in.readLong();
+        Instant lastStamp = readInstant(in);
+        int taskCount = in.readInt();
+        List<EmbeddedTask> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(readTask(in));
+        }
+        int tombstoneCount = in.readInt();
+        List<EmbeddedTaskStore.Tombstone> tombstones = new ArrayList<>(tombstoneCount);
+        for (int i = 0; i < tombstoneCount; i++) {
+            tombstones.add(new EmbeddedTaskStore.Tombstone(in.readLong(), readString(in), readInstant(in)));
+        }
+        int historyCount = in.readInt();
+        List<EmbeddedTaskStore.HistoryEntry> history = new ArrayList<>(historyCount);
+        for (int i = 0; i < historyCount; i++) {
+            long taskId = in.readLong();
+            String tenantId = readString(in);
+            String fromStatus = readString(in);
+            history.add(new EmbeddedTaskStore.HistoryEntry(taskId, tenantId,
+                    fromStatus != null ? TaskStatus.valueOf(fromStatus) : null,
+                    TaskStatus.valueOf(readString(in)), readInstant(in)));
+        }
+        return new EmbeddedTaskStore.Contents(lastId, lastStamp, tasks, tombstones, history);
+    }
+
+    private static void writeTask(DataOutput out, EmbeddedTask task) throws IOException {
+        out.writeLong(task.id());
+        writeString(out, task.tenantId());
+        writeString(out, task.title());
+        writeString(out, task.description());
+        writeString(out, task.status().name());
+        out.writeLong(task.createdAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(task.createdAt().getNano());
+        writeInstant(out, task.updatedAt());
+    }
+
+    private static EmbeddedTask readTask(DataInput in) throws IOException {
+        long id = in.readLong();
+        String tenantId = readString(in);
+        String title = readString(in);
+        String description = readString(in);
+        TaskStatus status = TaskStatus.valueOf(readString(in));
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        return new EmbeddedTask(id, tenantId, title, description, status, createdAt, readInstant(in));
+    }
+
+    private static void writeInstant(DataOutput out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    // Length-prefixed UTF-8; writeUTF stops at 64 KB, descriptions do not
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
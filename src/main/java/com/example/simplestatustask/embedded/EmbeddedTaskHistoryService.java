@@ -0,0 +1,113 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.service.TaskHistoryService;
+import com.example.simplestatustask.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TaskHistoryService} on the embedded engine, which records a status change with every
+ * write that makes one
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+@Slf4j
+public class EmbeddedTaskHistoryService implements TaskHistoryService {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Entries copied per read lock while streaming, so slow clients never hold up writers
+    private static final int STREAM_CHUNK = 1000;
+
+    private final EmbeddedTaskEngine engine;
+    private final ObjectMapper objectMapper;
+
+    public EmbeddedTaskHistoryService(EmbeddedTaskEngine engine, ObjectMapper objectMapper) {
+        this.engine = engine;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<TaskStatusHistoryDto> getTaskHistory(Long taskId) {
+        String tenant = TenantContext.current();
+        List<EmbeddedTaskStore.HistoryEntry> history = engine.read(store -> store.historyOf(taskId));
+        if (history.isEmpty() || !history.get(0).tenantId().equals(tenant)) {
+            throw new TaskNotFoundException("Task not found with ID: " + taskId);
+        }
+        return history.stream().map(EmbeddedTaskHistoryService::toHistoryDto).toList();
+    }
+
+    /**
+     * Writes the range chunk by chunk, each chunk copied under its own read lock
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param toStatus Only changes entering this status, or null for all
+     * @param out Stream to write to; left open
+     * @return Number of changes written
+     */
+    @Override
+    public long writeHistory(LocalDateTime from, LocalDateTime to, TaskStatus toStatus, OutputStream out)
+            throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        String tenant = TenantContext.current();
+        Instant end = to.atZone(ALMATY_ZONE).toInstant();
+        ObjectWriter writer = objectMapper.writerFor(TaskStatusHistoryDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long written = 0;
+        Instant next = from.atZone(ALMATY_ZONE).toInstant();
+        while (true) {
+            Instant chunkStart = next;
+            List<EmbeddedTaskStore.HistoryEntry> chunk = engine.read(store -> {
+                List<EmbeddedTaskStore.HistoryEntry> entries = new ArrayList<>(STREAM_CHUNK);
+                for (EmbeddedTaskStore.HistoryEntry entry : store.history(tenant, chunkStart, end).values()) {
+                    if (entries.size() == STREAM_CHUNK) {
+                        break;
+                    }
+                    entries.add(entry);
+                }
+                return entries;
+            });
+            for (EmbeddedTaskStore.HistoryEntry entry : chunk) {
+                if (toStatus == null || entry.toStatus() == toStatus) {
+                    writer.writeValue(out, toHistoryDto(entry));
+                    out.write('\n');
+                    written++;
+                }
+            }
+            if (chunk.size() < STREAM_CHUNK) {
+                break;
+            }
+            next = chunk.get(chunk.size() - 1).changedAt().plusNanos(1);
+        }
+        out.flush();
+        log.info("Streamed {} embedded status changes", written);
+        return written;
+    }
+
+    private static TaskStatusHistoryDto toHistoryDto(EmbeddedTaskStore.HistoryEntry entry) {
+        return new TaskStatusHistoryDto(entry.taskId(), entry.fromStatus(), entry.toStatus(),
+                LocalDateTime.ofInstant(entry.changedAt(), ALMATY_ZONE));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskFacetsDto;
+import com.example.simplestatustask.dto.TaskFilterResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.FeatureUnavailableException;
+import com.example.simplestatustask.service.TaskLabelService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Labels and their bitmap index are built on the database tables; in embedded mode the label
+ * endpoints answer 501
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+public class EmbeddedTaskLabelService implements TaskLabelService {
+
+    @Override
+    public List<String> getLabels(Long id) {
+        throw unavailable();
+    }
+
+    @Override
+    public List<String> addLabel(Long id, String label) {
+        throw unavailable();
+    }
+
+    @Override
+    public void removeLabel(Long id, String label) {
+        throw unavailable();
+    }
+
+    @Override
+    public TaskFilterResponseDto filterTasks(TaskStatus status, List<String> labels, Long after, int limit) {
+        throw unavailable();
+    }
+
+    @Override
+    public TaskFacetsDto getFacets(TaskStatus status, List<String> labels, int labelLimit) {
+        throw unavailable();
+    }
+
+    private static FeatureUnavailableException unavailable() {
+        return new FeatureUnavailableException("Task labels are not available in embedded mode");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.FeatureUnavailableException;
+import com.example.simplestatustask.service.TaskQueueService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Queue leases need the database; in embedded mode the queue endpoints answer 501
+ * and the lease reaper finds nothing to do
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+public class EmbeddedTaskQueueService implements TaskQueueService {
+
+    @Override
+    public TaskClaimResponseDto claimTasks(String owner, int limit, Integer leaseSeconds) {
+        throw unavailable();
+    }
+
+    @Override
+    public TaskLeaseResponseDto heartbeat(Long id, String owner, Integer leaseSeconds) {
+        throw unavailable();
+    }
+
+    @Override
+    public TaskTransitionResponseDto releaseTask(Long id, String owner, TaskStatus status) {
+        throw unavailable();
+    }
+
+    @Override
+    public List<String> findTenantsWithExpiredLeases() {
+        return List.of();
+    }
+
+    @Override
+    public int requeueExpiredLeases(int batchSize) {
+        return 0;
+    }
+
+    private static FeatureUnavailableException unavailable() {
+        return new FeatureUnavailableException("Task leases are not available in embedded mode");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskHistogramDto;
+import com.example.simplestatustask.enums.TaskHistogramBucket;
+import com.example.simplestatustask.exception.FeatureUnavailableException;
+import com.example.simplestatustask.service.TaskReportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * The embedded store has no index on creation time; in embedded mode the created-time report
+ * endpoints answer 501
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+public class EmbeddedTaskReportService implements TaskReportService {
+
+    @Override
+    public long writeTasksCreated(LocalDateTime from, LocalDateTime to, OutputStream out) {
+        throw new FeatureUnavailableException("Created-time reports are not available in embedded mode");
+    }
+
+    @Override
+    public TaskHistogramDto getCreatedHistogram(LocalDateTime from, LocalDateTime to, TaskHistogramBucket bucket) {
+        throw new FeatureUnavailableException("Created-time reports are not available in embedded mode");
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.FeatureUnavailableException;
+import com.example.simplestatustask.exception.InvalidStatusTransitionException;
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.exception.TaskStatusConflictException;
+import com.example.simplestatustask.service.ChangeWatermark;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TaskService} on the embedded engine instead of JPA. Behaves like the database-backed
+ * service - same validation, same errors, tenants kept apart - with three differences: change
+ * times are unique, so the change feed needs no commit lag; no {@link
+ * com.example.simplestatustask.events.TaskChangedEvent}s are published, since their listeners
+ * write to the database; and updatedAt keeps full precision. Priorities and due dates are not
+ * stored, so there is no next-work query either, and transitions cannot be scheduled.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+@Slf4j
+public class EmbeddedTaskService implements TaskService {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Upper bound for a single page of the change feed
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
+    private final EmbeddedTaskEngine engine;
+    private final int maxLookupIds;
+
+    public EmbeddedTaskService(EmbeddedTaskEngine engine,
+                               @Value("${task.lookup.max-ids:1000}") int maxLookupIds) {
+        this.engine = engine;
+        this.maxLookupIds = maxLookupIds;
+    }
+
+    @Override
+    public TaskResponseDto createTask(TaskCreateDto createDto) {
+        rejectUrgency(createDto.getPriority(), createDto.getDueAt());
+        String tenant = TenantContext.current();
+        TaskStatus status = createDto.getStatus() != null ? createDto.getStatus() : TaskStatus.PENDING;
+        EmbeddedTask task = engine.write(writer -> {
+            Instant now = writer.stamp();
+            EmbeddedTask created = new EmbeddedTask(writer.nextId(), tenant, createDto.getTitle(),
+                    createDto.getDescription(), status, LocalDateTime.ofInstant(now, ALMATY_ZONE), now);
+            writer.put(created);
+            return created;
+        });
+        log.debug("Created embedded task {}", task.id());
+        return toResponseDto(task);
+    }
+
+    @Override
+    public TaskResponseDto getTaskById(Long id) {
+        String tenant = TenantContext.current();
+        return toResponseDto(engine.read(store -> find(store, id, tenant)));
+    }
+
+    @Override
+    public TaskResponseDto getTaskSummaryById(Long id) {
+        String tenant = TenantContext.current();
+        EmbeddedTask task = engine.read(store -> find(store, id, tenant));
+        return new TaskResponseDto(task.id(), task.title(), null, task.status(), task.createdAt(),
+                LocalDateTime.ofInstant(task.updatedAt(), ALMATY_ZONE));
+    }
+
+    @Override
+    public TaskLookupResponseDto getTasksByIds(List<Long> ids) {
+        LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty() || unique.size() > maxLookupIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxLookupIds + " task IDs are required");
+        }
+        String tenant = TenantContext.current();
+        List<EmbeddedTask> found = engine.read(store -> {
+            List<EmbeddedTask> tasks = new ArrayList<>(unique.size());
+            for (Long id : unique) {
+                EmbeddedTask task = store.get(id);
+                if (task != null && task.tenantId().equals(tenant)) {
+                    tasks.add(task);
+                }
+            }
+            return tasks;
+        });
+        List<TaskResponseDto> tasks = new ArrayList<>(found.size());
+        for (EmbeddedTask task : found) {
+            unique.remove(task.id());
+            tasks.add(toResponseDto(task));
+        }
+        return new TaskLookupResponseDto(tasks, List.copyOf(unique));
+    }
+
+    @Override
+    public List<TaskResponseDto> getTasksByStatus(TaskStatus status) {
+        String tenant = TenantContext.current();
+        return engine.read(store -> List.copyOf(store.byStatus(tenant, status))).stream()
+                .map(EmbeddedTaskService::toResponseDto)
+                .toList();
+    }
+
+    @Override
+    public List<TaskResponseDto> getTaskSummariesByStatus(TaskStatus status) {
+        String tenant = TenantContext.current();
+        return engine.read(store -> List.copyOf(store.byStatus(tenant, status))).stream()
+                .map(task -> new TaskResponseDto(task.id(), task.title(), null, task.status(), task.createdAt(),
+                        LocalDateTime.ofInstant(task.updatedAt(), ALMATY_ZONE)))
+                .toList();
+    }
+
+    @Override
+    public List<TaskResponseDto> getNextTasks(TaskStatus status, int limit) {
+        throw new FeatureUnavailableException("Task priorities are not available in embedded mode");
+    }
+
+    @Override
+    public Map<TaskStatus, Long> getStatusCounts() {
+        String tenant = TenantContext.current();
+        return engine.read(store -> {
+            Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                counts.put(status, (long) store.byStatus(tenant, status).size());
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    public TaskResponseDto updateTask(Long id, TaskUpdateDto updateDto) {
+        rejectUrgency(updateDto.getPriority(), updateDto.getDueAt());
+        String tenant = TenantContext.current();
+        return toResponseDto(engine.write(writer -> {
+            EmbeddedTask existing = find(writer.store(), id, tenant);
+            TaskStatus requestedStatus = updateDto.getStatus();
+            if (requestedStatus != null && requestedStatus != existing.status()
+                    && !existing.status().canTransitionTo(requestedStatus)) {
+                throw new InvalidStatusTransitionException(existing.status(), requestedStatus);
+            }
+            EmbeddedTask updated = new EmbeddedTask(id, tenant,
+                    updateDto.getTitle() != null ? updateDto.getTitle() : existing.title(),
+                    updateDto.getDescription() != null ? updateDto.getDescription() : existing.description(),
+                    requestedStatus != null ? requestedStatus : existing.status(),
+                    existing.createdAt(), writer.stamp());
+            writer.put(updated);
+            return updated;
+        }));
+    }
+
+    @Override
+    public void deleteTask(Long id) {
+        String tenant = TenantContext.current();
+        engine.write(writer -> {
+            find(writer.store(), id, tenant);
+            writer.delete(id, writer.stamp());
+            return null;
+        });
+        log.debug("Deleted embedded task {}", id);
+    }
+
+    @Override
+    public TaskChangesResponseDto getChangesSince(String since, int limit) {
+        if (limit < 1 || limit > MAX_CHANGES_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGES_PAGE_SIZE);
+        }
+        ChangeWatermark watermark = ChangeWatermark.decode(since);
+        String tenant = TenantContext.current();
+        List<Object> changes = new ArrayList<>(limit);
+        boolean hasMore = engine.read(store -> {
+            for (Map.Entry<Instant, Object> change : store.changesFrom(tenant, watermark.timestamp()).entrySet()) {
+                if (change.getKey().equals(watermark.timestamp()) && idOf(change.getValue()) <= watermark.id()) {
+                    continue;
+                }
+                if (changes.size() == limit) {
+                    return true;
+                }
+                changes.add(change.getValue());
+            }
+            return false;
+        });
+
+        List<TaskResponseDto> changed = new ArrayList<>();
+        List<TaskTombstoneDto> deleted = new ArrayList<>();
+        ChangeWatermark next = watermark;
+        for (Object change : changes) {
+            if (change instanceof EmbeddedTask task) {
+                changed.add(toResponseDto(task));
+                next = new ChangeWatermark(task.updatedAt(), task.id());
+            } else {
+                EmbeddedTaskStore.Tombstone tombstone = (EmbeddedTaskStore.Tombstone) change;
+                deleted.add(new TaskTombstoneDto(tombstone.taskId(),
+                        LocalDateTime.ofInstant(tombstone.deletedAt(), ALMATY_ZONE)));
+                next = new ChangeWatermark(tombstone.deletedAt(), tombstone.taskId());
+            }
+        }
+        return new TaskChangesResponseDto(changed, deleted, next.encode(), hasMore);
+    }
+
+    @Override
+    public TaskTransitionResponseDto transitionTask(Long id, TaskTransitionDto transitionDto) {
+        TaskStatus expected = transitionDto.getExpectedStatus();
+        TaskStatus target = transitionDto.getTargetStatus();
+        if (!expected.canTransitionTo(target)) {
+            throw new InvalidStatusTransitionException(expected, target);
+        }
+        String tenant = TenantContext.current();
+        EmbeddedTask moved = engine.write(writer -> {
+            EmbeddedTask existing = find(writer.store(), id, tenant);
+            if (existing.status() != expected) {
+                throw new TaskStatusConflictException("Task " + id + " is no longer in status " + expected);
+            }
+            EmbeddedTask updated = new EmbeddedTask(id, tenant, existing.title(), existing.description(), target,
+                    existing.createdAt(), writer.stamp());
+            writer.put(updated);
+            return updated;
+        });
+        return new TaskTransitionResponseDto(id, expected, target,
+                LocalDateTime.ofInstant(moved.updatedAt(), ALMATY_ZONE));
+    }
+
+    @Override
+    public TaskScheduleResponseDto scheduleTransition(Long id, TaskScheduleDto scheduleDto) {
+        throw new FeatureUnavailableException("Scheduled transitions are not available in embedded mode");
+    }
+
+    @Override
+    public void cancelScheduledTransition(Long id) {
+        throw new FeatureUnavailableException("Scheduled transitions are not available in embedded mode");
+    }
+
+    /**
+     * Embedded tasks have neither priorities nor due dates; the default priority is accepted,
+     * anything else would be dropped silently
+     */
+    private static void rejectUrgency(Integer priority, LocalDateTime dueAt) {
+        if ((priority != null && priority != 0) || dueAt != null) {
+            throw new FeatureUnavailableException("Task priorities and due dates are not available in embedded mode");
+        }
+    }
+
+    /**
+     * Task of the current tenant; another tenant's task is as missing as one that never existed
+     */
+    private static EmbeddedTask find(EmbeddedTaskStore store, long id, String tenant) {
+        EmbeddedTask task = store.get(id);
+        if (task == null || !task.tenantId().equals(tenant)) {
+            throw new TaskNotFoundException("Task not found with ID: " + id);
+        }
+        return task;
+    }
+
+    private static long idOf(Object change) {
+        return change instanceof EmbeddedTask task ? task.id() : ((EmbeddedTaskStore.Tombstone) change).taskId();
+    }
+
+    static TaskResponseDto toResponseDto(EmbeddedTask task) {
+        return new TaskResponseDto(task.id(), task.title(), task.description(), task.status(), task.createdAt(),
+                LocalDateTime.ofInstant(task.updatedAt(), ALMATY_ZONE));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskStatsService;
+import com.example.simplestatustask.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TaskStatsService} on the embedded engine. Counts come straight from the store's
+ * indexes and are always exact, so there is nothing to reconcile or correct.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+public class EmbeddedTaskStatsService implements TaskStatsService {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final EmbeddedTaskEngine engine;
+    private final int maxHours;
+
+    public EmbeddedTaskStatsService(EmbeddedTaskEngine engine,
+                                    @Value("${task.stats.max-hours:168}") int maxHours) {
+        this.engine = engine;
+        this.maxHours = maxHours;
+    }
+
+    @Override
+    public TaskStatsDto getStats(int hours) {
+        List<TaskHourlyStatsDto> hourly = getHourlyStats(hours);
+        Map<TaskStatus, Long> counts = getPersistedCounts();
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new TaskStatsDto(counts, total, hourly, LocalDateTime.now(ALMATY_ZONE));
+    }
+
+    @Override
+    public List<TaskHourlyStatsDto> getHourlyStats(int hours) {
+        if (hours < 1 || hours > maxHours) {
+            throw new IllegalArgumentException("hours must be between 1 and " + maxHours);
+        }
+        ZonedDateTime end = ZonedDateTime.now(ALMATY_ZONE).truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        ZonedDateTime start = end.minusHours(hours);
+        String tenant = TenantContext.current();
+        return engine.read(store -> {
+            List<TaskHourlyStatsDto> hourly = new ArrayList<>(hours);
+            for (ZonedDateTime hour = start; hour.isBefore(end); hour = hour.plusHours(1)) {
+                Instant hourStart = hour.toInstant();
+                long[] counts = store.hourlyCounts(tenant, hourStart);
+                hourly.add(new TaskHourlyStatsDto(hour.toLocalDateTime(), counts[0], counts[1]));
+            }
+            return hourly;
+        });
+    }
+
+    @Override
+    public Map<TaskStatus, Long> getPersistedCounts() {
+        String tenant = TenantContext.current();
+        return engine.read(store -> store.statusCounts(tenant));
+    }
+
+    @Override
+    public Map<String, Map<TaskStatus, Long>> getPersistedCountsByTenant() {
+        return engine.read(EmbeddedTaskStore::statusCountsByTenant);
+    }
+
+    @Override
+    public void reconcile() {
+        // Counts are read from the store on every call
+    }
+
+    @Override
+    public long correctCountDrift() {
+        return 0;
+    }
+
+    @Override
+    public void recountHour(ZonedDateTime hourStart) {
+        // Hourly counts are derived from the history as it is written
+    }
+
+    @Override
+    public void prepareHours(int hoursAhead) {
+        // Hours are created on first use
+    }
+}
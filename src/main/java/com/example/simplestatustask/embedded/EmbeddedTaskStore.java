@@ -0,0 +1,321 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * In-memory state of the embedded engine: tasks by ID in a {@link LongObjectHashMap}, and per
+ * tenant the secondary indexes the API reads from - tasks by status, most recently updated first,
+ * and the change feed and status history ordered by time.
+ * <p>
+ * Timestamps are unique and increasing across the store, so they key the time-ordered indexes
+ * on their own. Hourly created/completed counts are derived from the status history as it is
+ * added, so they come back with it from a snapshot. Not thread-safe; {@link EmbeddedTaskEngine}
+ * guards it.
+ */
+public class EmbeddedTaskStore {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final Comparator<EmbeddedTask> MOST_RECENTLY_UPDATED =
+            Comparator.comparing(EmbeddedTask::updatedAt).reversed();
+
+    /**
+     * A deleted task, kept so sync clients learn about the delete
+     *
+     * @param taskId ID of the deleted task
+     * @param tenantId Tenant that owned it
+     * @param deletedAt Time of the delete
+     */
+    public record Tombstone(long taskId, String tenantId, Instant deletedAt) {
+    }
+
+    /**
+     * One status change; history outlives the task
+     *
+     * @param taskId Task ID
+     * @param tenantId Tenant owning the task
+     * @param fromStatus Previous status, or null when the task was created
+     * @param toStatus New status
+     * @param changedAt Time of the change
+     */
+    public record HistoryEntry(long taskId, String tenantId, TaskStatus fromStatus, TaskStatus toStatus,
+                               Instant changedAt) {
+    }
+
+    /**
+     * Point-in-time copy of the store, written to a snapshot outside the engine's lock
+     */
+    public record Contents(long lastId, Instant lastStamp, List<EmbeddedTask> tasks, List<Tombstone> tombstones,
+                           List<HistoryEntry> history) {
+    }
+
+    private static final class TenantIndex {
+        private final Map<TaskStatus, NavigableSet<EmbeddedTask>> byStatus = new EnumMap<>(TaskStatus.class);
+        // EmbeddedTask or Tombstone, by updatedAt / deletedAt
+        private final NavigableMap<Instant, Object> changes = new TreeMap<>();
+        private final NavigableMap<Instant, HistoryEntry> history = new TreeMap<>();
+        // {created, completed} by start of the Almaty hour
+        private final NavigableMap<Instant, long[]> hourly = new TreeMap<>();
+
+        private TenantIndex() {
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new TreeSet<>(MOST_RECENTLY_UPDATED));
+            }
+        }
+    }
+
+    private final LongObjectHashMap<EmbeddedTask> tasks = new LongObjectHashMap<>(1024);
+    private final LongObjectHashMap<List<HistoryEntry>> historyByTask = new LongObjectHashMap<>(1024);
+    private final Map<String, TenantIndex> tenants = new HashMap<>();
+    private long lastId;
+    private Instant lastStamp = Instant.EPOCH;
+
+    /**
+     * Task by ID, whatever its tenant
+     *
+     * @param id Task ID
+     * @return Task, or null
+     */
+    public EmbeddedTask get(long id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * Tasks of a tenant in a status, most recently updated first
+     *
+     * @param tenantId Tenant
+     * @param status Status
+     * @return Read-only view; only valid while the engine's lock is held
+     */
+    public NavigableSet<EmbeddedTask> byStatus(String tenantId, TaskStatus status) {
+        TenantIndex index = tenants.get(tenantId);
+        return index != null ? Collections.unmodifiableNavigableSet(index.byStatus.get(status)) : Collections.emptyNavigableSet();
+    }
+
+    /**
+     * Changed tasks and tombstones of a tenant from a time on, oldest first
+     *
+     * @param tenantId Tenant
+     * @param from Inclusive lower bound
+     * @return Read-only view of {@link EmbeddedTask} and {@link Tombstone} values; only valid while the lock is held
+     */
+    public NavigableMap<Instant, Object> changesFrom(String tenantId, Instant from) {
+        TenantIndex index = tenants.get(tenantId);
+        return index != null ? Collections.unmodifiableNavigableMap(index.changes.tailMap(from, true)) : Collections.emptyNavigableMap();
+    }
+
+    /**
+     * Status changes of a tenant in [from, to), oldest first
+     *
+     * @param tenantId Tenant
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return Read-only view; only valid while the lock is held
+     */
+    public NavigableMap<Instant, HistoryEntry> history(String tenantId, Instant from, Instant to) {
+        TenantIndex index = tenants.get(tenantId);
+        return index != null ? Collections.unmodifiableNavigableMap(index.history.subMap(from, true, to, false)) : Collections.emptyNavigableMap();
+    }
+
+    /**
+     * Status changes of a task, oldest first
+     *
+     * @param id Task ID
+     * @return Changes, empty when the task never existed
+     */
+    public List<HistoryEntry> historyOf(long id) {
+        List<HistoryEntry> history = historyByTask.get(id);
+        return history != null ? List.copyOf(history) : List.of();
+    }
+
+    /**
+     * Number of a tenant's tasks per status
+     *
+     * @param tenantId Tenant
+     * @return Count for every status
+     */
+    public Map<TaskStatus, Long> statusCounts(String tenantId) {
+        TenantIndex index = tenants.get(tenantId);
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, index != null ? (long) index.byStatus.get(status).size() : 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Number of tasks per status of every tenant that has an index
+     *
+     * @return Count for every status, by tenant
+     */
+    public Map<String, Map<TaskStatus, Long>> statusCountsByTenant() {
+        Map<String, Map<TaskStatus, Long>> counts = new HashMap<>();
+        for (String tenantId : tenants.keySet()) {
+            counts.put(tenantId, statusCounts(tenantId));
+        }
+        return counts;
+    }
+
+    /**
+     * Tasks of a tenant created and completed in an hour
+     *
+     * @param tenantId Tenant
+     * @param hourStart Start of the hour
+     * @return {created, completed}
+     */
+    public long[] hourlyCounts(String tenantId, Instant hourStart) {
+        TenantIndex index = tenants.get(tenantId);
+        long[] counts = index != null ? index.hourly.get(hourStart) : null;
+        return counts != null ? counts.clone() : new long[2];
+    }
+
+    public long lastId() {
+        return lastId;
+    }
+
+    public Instant lastStamp() {
+        return lastStamp;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Stores a created or changed task, and records a status change when there is one
+     *
+     * @param task New state
+     */
+    void put(EmbeddedTask task) {
+        EmbeddedTask previous = tasks.put(task.id(), task);
+        TenantIndex index = tenants.computeIfAbsent(task.tenantId(), tenant -> new TenantIndex());
+        if (previous != null) {
+            index.byStatus.get(previous.status()).remove(previous);
+            index.changes.remove(previous.updatedAt());
+        }
+        index.byStatus.get(task.status()).add(task);
+        index.changes.put(task.updatedAt(), task);
+        if (previous == null || previous.status() != task.status()) {
+            addHistory(new HistoryEntry(task.id(), task.tenantId(), previous != null ? previous.status() : null,
+                    task.status(), task.updatedAt()));
+        }
+        lastId = Math.max(lastId, task.id());
+        advance(task.updatedAt());
+    }
+
+    /**
+     * Removes a task and leaves a tombstone
+     *
+     * @param id Task ID
+     * @param deletedAt Time of the delete
+     * @return Removed task, or null when there was none
+     */
+    EmbeddedTask delete(long id, Instant deletedAt) {
+        EmbeddedTask task = tasks.remove(id);
+        if (task != null) {
+            TenantIndex index = tenants.get(task.tenantId());
+            index.byStatus.get(task.status()).remove(task);
+            index.changes.remove(task.updatedAt());
+            index.changes.put(deletedAt, new Tombstone(id, task.tenantId(), deletedAt));
+        }
+        advance(deletedAt);
+        return task;
+    }
+
+    /**
+     * Copies the references to everything in the store; the records themselves are immutable
+     *
+     * @return Contents for a snapshot
+     */
+    Contents contents() {
+        List<EmbeddedTask> allTasks = new ArrayList<>(tasks.size());
+        tasks.forEachValue(allTasks::add);
+        List<Tombstone> tombstones = new ArrayList<>();
+        List<HistoryEntry> history = new ArrayList<>();
+        for (TenantIndex index : tenants.values()) {
+            for (Object change : index.changes.values()) {
+                if (change instanceof Tombstone tombstone) {
+                    tombstones.add(tombstone);
+                }
+            }
+            history.addAll(index.history.values());
+        }
+        return new Contents(lastId, lastStamp, allTasks, tombstones, history);
+    }
+
+    /**
+     * Loads a snapshot into an empty store
+     *
+     * @param contents Snapshot contents
+     */
+    void restore(Contents contents) {
+        if (tasks.size() > 0) {
+            throw new IllegalStateException("Snapshots can only be restored into an empty store");
+        }
+        for (EmbeddedTask task : contents.tasks()) {
+            tasks.put(task.id(), task);
+            TenantIndex index = tenants.computeIfAbsent(task.tenantId(), tenant -> new TenantIndex());
+            index.byStatus.get(task.status()).add(task);
+            index.changes.put(task.updatedAt(), task);
+        }
+        for (Tombstone tombstone : contents.tombstones()) {
+            tenants.computeIfAbsent(tombstone.tenantId(), tenant -> new TenantIndex())
+                    .changes.put(tombstone.deletedAt(), tombstone);
+        }
+        for (HistoryEntry entry : contents.history()) {
+            addHistory(entry);
+        }
+        lastId = contents.lastId();
+        lastStamp = contents.lastStamp();
+    }
+
+    private void addHistory(HistoryEntry entry) {
+        TenantIndex index = tenants.computeIfAbsent(entry.tenantId(), tenant -> new TenantIndex());
+        index.history.put(entry.changedAt(), entry);
+        long[] counts = index.hourly.computeIfAbsent(hourOf(entry.changedAt()), hour -> new long[2]);
+        if (entry.fromStatus() == null) {
+            counts[0]++;
+        }
+        if (entry.toStatus() == TaskStatus.COMPLETED) {
+            counts[1]++;
+        }
+        List<HistoryEntry> taskHistory = historyByTask.get(entry.taskId());
+        if (taskHistory == null) {
+            taskHistory = new ArrayList<>(2);
+            historyByTask.put(entry.taskId(), taskHistory);
+        }
+        taskHistory.add(entry);
+    }
+
+    /**
+     * Start of the Almaty hour containing a time
+     *
+     * @param time Time
+     * @return Start of its hour
+     */
+    public static Instant hourOf(Instant time) {
+        return time.atZone(ALMATY_ZONE).truncatedTo(ChronoUnit.HOURS).toInstant();
+    }
+
+    private void advance(Instant stamp) {
+        if (stamp.isAfter(lastStamp)) {
+            lastStamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.exception.FeatureUnavailableException;
+import com.example.simplestatustask.service.TaskSuggestService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * The title index is loaded from the tasks table; in embedded mode the suggest endpoint answers 501
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+public class EmbeddedTaskSuggestService implements TaskSuggestService {
+
+    @Override
+    public List<TaskResponseDto> suggestTasks(String prefix, int limit) {
+        throw new FeatureUnavailableException("Task suggestions are not available in embedded mode");
+    }
+}
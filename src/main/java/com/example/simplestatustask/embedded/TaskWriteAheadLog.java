@@ -0,0 +1,284 @@
+package com.example.simplestatustask.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of memory-mapped, preallocated segment files.
+ * <p>
+ * A record is {@code length:int, crc32c:int, payload}; a zero length marks the end of a segment.
+ * Appends copy into the mapped segment under a short lock. {@link #sync(long)} implements group
+ * commit: the first caller forces the segment for everything appended so far, and callers
+ * arriving meanwhile wait for that force or share the next one, so a burst of writers costs one
+ * fsync instead of one each. Without fsync, records still survive a crash of the process, since
+ * the mapped pages belong to the kernel, but not a crash of the machine.
+ * <p>
+ * Replay stops at the first torn record of a segment. Appends after a restart always go to a
+ * new segment, so a torn tail is never overwritten or followed by valid records.
+ */
+@Slf4j
+public class TaskWriteAheadLog implements Closeable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{10})\\.log");
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private long written;
+    private long durable;
+    private boolean syncing;
+
+    /**
+     * Opens the log; call {@link #replay} before the first append
+     *
+     * @param directory Directory holding the segments
+     * @param segmentBytes Size of each preallocated segment
+     * @param fsync Whether {@link #sync(long)} forces the segment to disk
+     */
+    public TaskWriteAheadLog(Path directory, int segmentBytes, boolean fsync) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("WAL segments must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads every record of the segments from the given one on, oldest first, then opens a new
+     * segment for appends
+     *
+     * @param fromSegment First segment to read; older ones are covered by a snapshot
+     * @param consumer Receives each record payload
+     * @return Number of records read
+     */
+    public long replay(int fromSegment, Consumer<ByteBuffer> consumer) {
+        long records = 0;
+        int last = fromSegment - 1;
+        for (int index : segments()) {
+            last = Math.max(last, index);
+            if (index < fromSegment) {
+                continue;
+            }
+            records += replaySegment(index, consumer);
+        }
+        openSegment(last + 1);
+        return records;
+    }
+
+    /**
+     * Appends a record; it is visible to replay once the process has written it, and durable
+     * once {@link #sync(long)} has returned for the returned position
+     *
+     * @param payload Record to append
+     * @return Log position just after the record
+     */
+    public long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (length == 0 || length + 2 * HEADER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("WAL record of " + length + " bytes does not fit in a segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        lock.lock();
+        try {
+            // Keep room for the zero length that ends the segment
+            if (segment.remaining() < length + 2 * HEADER_BYTES) {
+                roll();
+            }
+            segment.putInt(length).putInt((int) crc.getValue()).put(payload);
+            written += HEADER_BYTES + length;
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until everything up to a position is on disk. Callers share forces: whoever finds no
+     * force running starts one covering every record appended so far.
+     *
+     * @param position Position returned by {@link #append}
+     */
+    public void sync(long position) {
+        if (!fsync) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durable < position) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = written;
+                MappedByteBuffer toForce = segment;
+                lock.unlock();
+                try {
+                    toForce.force();
+                } finally {
+                    lock.lock();
+                    syncing = false;
+                }
+                durable = Math.max(durable, target);
+                synced.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment, so that every record appended from now on is in it or a later one
+     *
+     * @return Index of the new segment
+     */
+    public int roll() {
+        lock.lock();
+        try {
+            if (fsync) {
+                segment.force();
+                durable = written;
+            }
+            closeChannel();
+            openSegment(segmentIndex + 1);
+            return segmentIndex;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments before the given one, once a snapshot covers them
+     *
+     * @param segmentIndex First segment to keep
+     * @return Number of segments deleted
+     */
+    public int deleteBefore(int segmentIndex) {
+        int deleted = 0;
+        for (int index : segments()) {
+            if (index < segmentIndex) {
+                try {
+                    Files.deleteIfExists(segmentPath(index));
+                    deleted++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Could not delete WAL segment " + index, ex);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+                closeChannel();
+                segment = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long replaySegment(int index, Consumer<ByteBuffer> consumer) {
+        long records = 0;
+        try (FileChannel file = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+            ByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Torn record at offset {} of WAL segment {}; ignoring the rest of the segment",
+                            buffer.position() - HEADER_BYTES, index);
+                    break;
+                }
+                consumer.accept(payload);
+                buffer.position(buffer.position() + length);
+                records++;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read WAL segment " + index, ex);
+        }
+        return records;
+    }
+
+    private void openSegment(int index) {
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(segmentPath(index),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            segmentIndex = index;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create WAL segment " + index, ex);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not close WAL segment " + segmentIndex, ex);
+        }
+    }
+
+    private List<Integer> segments() {
+        List<Integer> indexes = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return indexes;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list WAL segments in " + directory, ex);
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("wal-%010d.log", index));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.simplestatustask.enums;
+
+/**
+ * Kind of change recorded for a task in the outbox
+ */
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    /**
+     * Status change outside PUT /tasks/{id}; the payload may carry only id, status and updatedAt
+     */
+    STATUS_CHANGED
+}
@@ -0,0 +1,72 @@
+package com.example.simplestatustask.enums;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Task fields a client can ask for with the fields= request parameter
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskField {
+    ID("id", TaskResponseDto::getId),
+    TITLE("title", TaskResponseDto::getTitle),
+    DESCRIPTION("description", TaskResponseDto::getDescription),
+    STATUS("status", TaskResponseDto::getStatus),
+    PRIORITY("priority", TaskResponseDto::getPriority),
+    DUE_AT("dueAt", TaskResponseDto::getDueAt),
+    CREATED_AT("createdAt", TaskResponseDto::getCreatedAt),
+    UPDATED_AT("updatedAt", TaskResponseDto::getUpdatedAt);
+
+    private final String value;
+    private final Function<TaskResponseDto, Object> accessor;
+
+    /**
+     * Parses a comma-separated list of field names
+     *
+     * @param fields Field names as they appear in the JSON response, e.g. "id,title,status"
+     * @return Requested fields, or every field when the list is null or blank
+     * @throws IllegalArgumentException if a name is not a task field
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(TaskField.class);
+        }
+        Set<TaskField> parsed = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            parsed.add(fromValue(name.trim()));
+        }
+        return parsed;
+    }
+
+    /**
+     * Copies the requested fields of a task into a map, in declaration order
+     *
+     * @param task Task to read
+     * @param fields Fields to keep
+     * @return Field name to value, including fields whose value is null
+     */
+    public static Map<String, Object> select(TaskResponseDto task, Set<TaskField> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (TaskField field : fields) {
+            selected.put(field.value, field.accessor.apply(task));
+        }
+        return selected;
+    }
+
+    private static TaskField fromValue(String value) {
+        for (TaskField field : values()) {
+            if (field.value.equals(value)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field: " + value);
+    }
+}
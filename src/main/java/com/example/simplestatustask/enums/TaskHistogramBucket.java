@@ -0,0 +1,46 @@
+package com.example.simplestatustask.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket width a client can ask for with the bucket= request parameter of GET /tasks/histogram
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskHistogramBucket {
+    HOUR("hour", ChronoUnit.HOURS),
+    DAY("day", ChronoUnit.DAYS);
+
+    private final String value;
+    private final ChronoUnit unit;
+
+    /**
+     * Parses a bucket name
+     *
+     * @param value Bucket name as it appears in the request, e.g. "hour"
+     * @return Matching bucket
+     * @throws IllegalArgumentException if the name is not a bucket
+     */
+    public static TaskHistogramBucket parse(String value) {
+        for (TaskHistogramBucket bucket : values()) {
+            if (bucket.value.equalsIgnoreCase(value.trim())) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unknown histogram bucket: " + value + " (expected hour or day)");
+    }
+
+    /**
+     * Start of the bucket a wall-clock time falls into
+     *
+     * @param time Almaty wall-clock time
+     * @return Time truncated to the bucket width
+     */
+    public LocalDateTime start(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
@@ -15,4 +15,19 @@ public enum TaskStatus {
     COMPLETED("COMPLETED");
 
     private final String value;
+
+    /**
+     * Task status state machine.
+     * PENDING and IN_PROGRESS can move to each other or to COMPLETED; COMPLETED is final.
+     *
+     * @param target Status to move to
+     * @return true if a task in this status may move to the target status
+     */
+    public boolean canTransitionTo(TaskStatus target) {
+        return switch (this) {
+            case PENDING -> target == IN_PROGRESS || target == COMPLETED;
+            case IN_PROGRESS -> target == PENDING || target == COMPLETED;
+            case COMPLETED -> false;
+        };
+    }
 }
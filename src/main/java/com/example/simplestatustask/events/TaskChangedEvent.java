@@ -0,0 +1,45 @@
+package com.example.simplestatustask.events;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Published by the task service for every task mutation.
+ * Synchronous listeners run inside the writing transaction; after-commit work should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ *
+ * @param type Kind of change
+ * @param taskId ID of the changed task
+ * @param previousStatus Status before the change, null for creates
+ * @param status Status after the change; for deletes, the status the task had
+ * @param task State after the change; for deletes, the last known state
+ * @param occurredAt Time of the change in Almaty timezone
+ */
+public record TaskChangedEvent(TaskEventType type,
+                               Long taskId,
+                               TaskStatus previousStatus,
+                               TaskStatus status,
+                               TaskResponseDto task,
+                               ZonedDateTime occurredAt) {
+
+    /**
+     * Builds a status-only change for writes that never load the task
+     *
+     * @param taskId ID of the changed task
+     * @param previousStatus Status before the change
+     * @param status Status after the change
+     * @param occurredAt Time of the change, also used as updatedAt
+     * @return Event whose payload carries id, status and updatedAt only
+     */
+    public static TaskChangedEvent statusChanged(Long taskId, TaskStatus previousStatus, TaskStatus status,
+                                                 ZonedDateTime occurredAt) {
+        TaskResponseDto partial = new TaskResponseDto();
+        partial.setId(taskId);
+        partial.setStatus(status);
+        partial.setUpdatedAt(occurredAt.toLocalDateTime());
+        return new TaskChangedEvent(TaskEventType.STATUS_CHANGED, taskId, previousStatus, status, partial, occurredAt);
+    }
+}
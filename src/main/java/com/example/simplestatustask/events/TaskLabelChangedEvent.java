@@ -0,0 +1,12 @@
+package com.example.simplestatustask.events;
+
+/**
+ * Published by the label service when a label is added to or removed from a task
+ *
+ * @param tenantId Tenant owning the task
+ * @param taskId ID of the labelled task
+ * @param label Label added or removed
+ * @param added true if the label was added, false if it was removed
+ */
+public record TaskLabelChangedEvent(String tenantId, Long taskId, String label, boolean added) {
+}
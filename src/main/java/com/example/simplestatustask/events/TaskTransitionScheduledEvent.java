@@ -0,0 +1,14 @@
+package com.example.simplestatustask.events;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Published by the task service when a status transition is scheduled, so the transition
+ * scheduler can put it on its timing wheel once committed if it falls inside the loaded horizon
+ *
+ * @param tenantId Tenant owning the task
+ * @param taskId ID of the task
+ * @param transitionAt Time the transition is due
+ */
+public record TaskTransitionScheduledEvent(String tenantId, Long taskId, ZonedDateTime transitionAt) {
+}
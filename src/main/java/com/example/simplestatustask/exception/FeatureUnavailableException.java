@@ -0,0 +1,17 @@
+package com.example.simplestatustask.exception;
+
+/**
+ * Thrown when an endpoint depends on a feature the current storage mode does not have,
+ * such as queue leases in embedded mode
+ */
+public class FeatureUnavailableException extends RuntimeException {
+
+    /**
+     * Constructor with error message
+     *
+     * @param message Error message describing the exception
+     */
+    public FeatureUnavailableException(String message) {
+        super(message);
+    }
+}
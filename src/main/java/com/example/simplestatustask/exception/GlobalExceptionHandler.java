@@ -4,11 +4,13 @@ import com.example.simplestatustask.dto.ErrorResponseDto;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
@@ -29,7 +31,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleTaskNotFoundException(
             TaskNotFoundException ex, HttpServletRequest request) {
 
-        log.error("Task not found: {}", ex.getMessage());
+        // Expected for stale clients; logged at debug so scrapers cannot flood the log
+        log.debug("Task not found: {}", ex.getMessage());
 
         ErrorResponseDto errorResponse = new ErrorResponseDto(
                 HttpStatus.NOT_FOUND.value(),
@@ -40,6 +43,63 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    /**
+     * Handles TaskStatusConflictException
+     * Returns 409 CONFLICT status
+     */
+    @ExceptionHandler(TaskStatusConflictException.class)
+    public ResponseEntity<ErrorResponseDto> handleTaskStatusConflictException(
+            TaskStatusConflictException ex, HttpServletRequest request) {
+
+        log.warn("Task status conflict: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Handles TaskSnapshotConflictException
+     * Returns 409 CONFLICT status
+     */
+    @ExceptionHandler(TaskSnapshotConflictException.class)
+    public ResponseEntity<ErrorResponseDto> handleTaskSnapshotConflictException(
+            TaskSnapshotConflictException ex, HttpServletRequest request) {
+
+        log.warn("Snapshot conflict: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Handles InvalidStatusTransitionException
+     * Returns 422 UNPROCESSABLE ENTITY status
+     */
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidStatusTransitionException(
+            InvalidStatusTransitionException ex, HttpServletRequest request) {
+
+        log.warn("Invalid status transition: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
     /**
      * Handles validation errors from @Valid annotations
      * Returns 400 BAD REQUEST status
@@ -132,6 +192,86 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handles a missing required request parameter
+     * Returns 400 BAD REQUEST status
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponseDto> handleMissingServletRequestParameterException(
+            MissingServletRequestParameterException ex, HttpServletRequest request) {
+
+        log.warn("Missing request parameter: {}", ex.getParameterName());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                "Required parameter '" + ex.getParameterName() + "' is missing",
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handles ShardUnavailableException
+     * Returns 503 SERVICE UNAVAILABLE status with a Retry-After hint
+     */
+    @ExceptionHandler(ShardUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleShardUnavailableException(
+            ShardUnavailableException ex, HttpServletRequest request) {
+
+        log.info("Shard unavailable: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles TaskIndexUnavailableException
+     * Returns 503 SERVICE UNAVAILABLE status with a Retry-After hint
+     */
+    @ExceptionHandler(TaskIndexUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleTaskIndexUnavailableException(
+            TaskIndexUnavailableException ex, HttpServletRequest request) {
+
+        log.info("Task index unavailable: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles FeatureUnavailableException
+     * Returns 501 NOT IMPLEMENTED status
+     */
+    @ExceptionHandler(FeatureUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleFeatureUnavailableException(
+            FeatureUnavailableException ex, HttpServletRequest request) {
+
+        log.info("Feature unavailable: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.NOT_IMPLEMENTED.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(errorResponse);
+    }
+
     /**
      * Handles illegal argument exceptions
      * Returns 400 BAD REQUEST status
@@ -0,0 +1,19 @@
+package com.example.simplestatustask.exception;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+/**
+ * Thrown when a status change is not allowed by the {@link TaskStatus} state machine
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    /**
+     * Constructor with the rejected transition
+     *
+     * @param from Current status
+     * @param to Requested status
+     */
+    public InvalidStatusTransitionException(TaskStatus from, TaskStatus to) {
+        super("Task status cannot change from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.simplestatustask.exception;
+
+/**
+ * Thrown when a write targets tasks that are being moved to another shard.
+ * The move takes seconds, so the caller should retry.
+ */
+public class ShardUnavailableException extends RuntimeException {
+
+    /**
+     * Constructor with error message
+     *
+     * @param message Error message describing the exception
+     */
+    public ShardUnavailableException(String message) {
+        super(message);
+    }
+}
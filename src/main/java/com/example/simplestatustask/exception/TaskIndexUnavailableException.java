@@ -0,0 +1,17 @@
+package com.example.simplestatustask.exception;
+
+/**
+ * Thrown when a query needs the in-memory task index before it has finished loading.
+ * Loading takes seconds after startup, so the caller should retry.
+ */
+public class TaskIndexUnavailableException extends RuntimeException {
+
+    /**
+     * Constructor with error message
+     *
+     * @param message Error message describing the exception
+     */
+    public TaskIndexUnavailableException(String message) {
+        super(message);
+    }
+}
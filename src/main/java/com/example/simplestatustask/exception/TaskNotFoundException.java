@@ -1,5 +1,10 @@
 package com.example.simplestatustask.exception;
 
+/**
+ * Thrown for a task ID that does not exist; mapped to 404 by GlobalExceptionHandler.
+ * Stale clients and scrapers make this an expected outcome rather than a fault, so the
+ * exception records no stack trace: filling one in dominates the cost of a 404.
+ */
 public class TaskNotFoundException extends RuntimeException {
 
     /**
@@ -8,7 +13,7 @@ public class TaskNotFoundException extends RuntimeException {
      * @param message Error message describing the exception
      */
     public TaskNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     /**
@@ -18,6 +23,6 @@ public class TaskNotFoundException extends RuntimeException {
      * @param cause The cause of the exception
      */
     public TaskNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
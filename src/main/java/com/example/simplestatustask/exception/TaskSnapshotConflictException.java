@@ -0,0 +1,16 @@
+package com.example.simplestatustask.exception;
+
+/**
+ * Thrown when a snapshot cannot be restored because the database already holds tasks
+ */
+public class TaskSnapshotConflictException extends RuntimeException {
+
+    /**
+     * Constructor with error message
+     *
+     * @param message Error message describing the exception
+     */
+    public TaskSnapshotConflictException(String message) {
+        super(message);
+    }
+}
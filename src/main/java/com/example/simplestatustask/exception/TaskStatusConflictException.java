@@ -0,0 +1,17 @@
+package com.example.simplestatustask.exception;
+
+/**
+ * Thrown when a compare-and-set status change finds the task in a different status
+ * than the caller expected
+ */
+public class TaskStatusConflictException extends RuntimeException {
+
+    /**
+     * Constructor with error message
+     *
+     * @param message Error message describing the exception
+     */
+    public TaskStatusConflictException(String message) {
+        super(message);
+    }
+}
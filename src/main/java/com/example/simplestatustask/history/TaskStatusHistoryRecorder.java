@@ -0,0 +1,45 @@
+package com.example.simplestatustask.history;
+
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.models.TaskStatusHistory;
+import com.example.simplestatustask.repository.TaskStatusHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends a history row for every status change, inside the transaction that made the change.
+ * Listening to {@link TaskChangedEvent} covers every writer: updates, transitions, queue claims,
+ * lease releases and the lease reaper.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatusHistoryRecorder {
+
+    private final TaskStatusHistoryRepository taskStatusHistoryRepository;
+
+    /**
+     * Records the change if the status actually moved; creates count as entering the first status
+     *
+     * @param event Task change published by the service
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskEventType.DELETED || event.previousStatus() == event.status()) {
+            return;
+        }
+        taskStatusHistoryRepository.save(TaskStatusHistory.builder()
+                .taskId(event.taskId())
+                .fromStatus(event.previousStatus())
+                .toStatus(event.status())
+                .changedAt(event.occurredAt())
+                .build());
+        log.debug("Recorded status change {} -> {} for task {}", event.previousStatus(), event.status(), event.taskId());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.simplestatustask.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Session-level PostgreSQL advisory lock that makes one instance the leader of some background work.
+ * <p>
+ * The lock lives on a connection kept out of the pool for as long as this instance leads. If the
+ * instance dies or its connection breaks, PostgreSQL releases the lock and another instance takes
+ * over on its next attempt. Other databases (H2 in tests and development) serve a single
+ * instance, which always leads. Not thread-safe: one caller at a time, on the datasource it guards.
+ */
+@Slf4j
+final class AdvisoryLeaderLock {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final long key;
+    private final String name;
+
+    // Holds the lock on PostgreSQL; null while not leading or on other databases
+    private Connection connection;
+    private boolean leading;
+
+    /**
+     * @param dataSource Datasource to take the lock connection from
+     * @param key Advisory lock key, the same on every instance
+     * @param name Work being led, for logging
+     */
+    AdvisoryLeaderLock(DataSource dataSource, long key, String name) {
+        this.dataSource = dataSource;
+        this.key = key;
+        this.name = name;
+    }
+
+    /**
+     * Confirms that this instance still leads, or tries to become the leader
+     *
+     * @return true while this instance leads
+     */
+    boolean tryLead() {
+        if (leading) {
+            if (connection == null || isValid(connection)) {
+                return true;
+            }
+            log.warn("Lost the {} lock with its connection", name);
+            release();
+        }
+        Connection candidate = null;
+        try {
+            candidate = dataSource.getConnection();
+            if (!POSTGRESQL.equals(candidate.getMetaData().getDatabaseProductName())) {
+                candidate.close();
+                leading = true;
+                return true;
+            }
+            if (!tryAdvisoryLock(candidate)) {
+                candidate.close();
+                return false;
+            }
+            connection = candidate;
+            leading = true;
+            log.info("Took the {} lock", name);
+            return true;
+        } catch (SQLException ex) {
+            log.warn("Cannot take the {} lock: {}", name, ex.getMessage());
+            closeQuietly(candidate);
+            return false;
+        }
+    }
+
+    /**
+     * Stops leading and hands the lock back
+     */
+    void release() {
+        leading = false;
+        if (connection == null) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, key);
+            statement.execute();
+        } catch (SQLException ex) {
+            log.debug("Cannot release the {} lock, closing its connection instead: {}", name, ex.getMessage());
+        }
+        closeQuietly(connection);
+        connection = null;
+    }
+
+    private boolean tryAdvisoryLock(Connection candidate) throws SQLException {
+        try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Cannot close lock connection: {}", ex.getMessage());
+        }
+    }
+}
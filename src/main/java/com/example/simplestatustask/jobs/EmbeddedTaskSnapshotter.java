@@ -0,0 +1,36 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.embedded.EmbeddedTaskEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snapshots the embedded store periodically, so startup replays only the log written since
+ * and old log segments are deleted
+ */
+@Component
+@ConditionalOnProperty(name = "task.embedded.enabled", havingValue = "true")
+@Slf4j
+public class EmbeddedTaskSnapshotter {
+
+    private final EmbeddedTaskEngine engine;
+    private final boolean enabled;
+
+    public EmbeddedTaskSnapshotter(EmbeddedTaskEngine engine,
+                                   @Value("${task.embedded.snapshot.enabled:true}") boolean enabled) {
+        this.engine = engine;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${task.embedded.snapshot.interval-ms:300000}",
+            initialDelayString = "${task.embedded.snapshot.interval-ms:300000}")
+    public void scheduledRun() {
+        if (enabled) {
+            int tasks = engine.snapshot();
+            log.debug("Embedded snapshot covers {} tasks", tasks);
+        }
+    }
+}
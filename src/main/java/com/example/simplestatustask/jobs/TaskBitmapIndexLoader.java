@@ -0,0 +1,162 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.lookup.TaskBitmapIndex;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills {@link TaskBitmapIndex} at startup with one scan of tasks and one of their labels, then
+ * keeps applying changes made by other instances: tasks updated since the previous refresh,
+ * labels included since label changes stamp updated_at, and tasks deleted since then. The refresh
+ * looks back by the change-feed commit lag, so a write that commits late is still picked up.
+ * Until the first load completes the index is not queried.
+ */
+@Component
+@Slf4j
+public class TaskBitmapIndexLoader {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String LOAD_TASKS_SQL = "SELECT tenant_id, id, status FROM tasks";
+    // Joined, so labels left behind by a task deleted without the cascade are not indexed
+    private static final String LOAD_LABELS_SQL = "SELECT l.tenant_id, l.task_id, l.label FROM task_labels l "
+            + "JOIN tasks t ON t.tenant_id = l.tenant_id AND t.id = l.task_id";
+    private static final String CHANGED_TASKS_SQL = "SELECT t.tenant_id, t.id, t.status, l.label FROM tasks t "
+            + "LEFT JOIN task_labels l ON l.tenant_id = t.tenant_id AND l.task_id = t.id WHERE t.updated_at >= ?";
+    private static final String DELETED_TASKS_SQL = "SELECT tenant_id, task_id FROM task_tombstones WHERE deleted_at >= ?";
+
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskShardRouter taskShardRouter;
+    private final boolean enabled;
+    private final long commitLagMs;
+
+    private volatile ZonedDateTime lastRefreshStart;
+
+    /**
+     * Complete state of one changed task, gathered from its joined rows
+     */
+    private record ChangedTask(String tenantId, TaskStatus status, Set<String> labels) {
+    }
+
+    public TaskBitmapIndexLoader(TaskBitmapIndex taskBitmapIndex,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 TaskShardRouter taskShardRouter,
+                                 @Value("${task.labels.index.enabled:true}") boolean enabled,
+                                 @Value("${task.sync.commit-lag-ms:1000}") long commitLagMs) {
+        this.taskBitmapIndex = taskBitmapIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.commitLagMs = commitLagMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.labels.index.refresh-interval-ms:1000}")
+    public void scheduledRefresh() {
+        if (enabled && taskBitmapIndex.isReady()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Adds every existing task with its status and labels and starts answering queries.
+     * Runs in read-only transactions so PostgreSQL streams the rows with a cursor.
+     *
+     * @return Number of rows read
+     */
+    public long load() {
+        lastRefreshStart = ZonedDateTime.now(ALMATY_ZONE);
+        long tasks = scan(LOAD_TASKS_SQL, null, rs -> taskBitmapIndex.setStatus(
+                rs.getString(1), rs.getLong(2), TaskStatus.valueOf(rs.getString(3))));
+        long labels = scan(LOAD_LABELS_SQL, null, rs -> taskBitmapIndex.addLabel(
+                rs.getString(1), rs.getLong(2), rs.getString(3)));
+        taskBitmapIndex.markReady();
+        log.info("Task bitmap index loaded {} tasks and {} labels", tasks, labels);
+        return tasks + labels;
+    }
+
+    /**
+     * Replaces the state of tasks changed since the previous refresh and forgets the ones
+     * deleted since then, looking back by the commit lag
+     *
+     * @return Number of rows read
+     */
+    public long refresh() {
+        ZonedDateTime start = ZonedDateTime.now(ALMATY_ZONE);
+        ZonedDateTime since = lastRefreshStart.minusNanos(commitLagMs * 1_000_000);
+
+        // Shards are scanned in parallel, but each task's rows all come from its own shard
+        Map<Long, ChangedTask> changed = new ConcurrentHashMap<>();
+        long read = scan(CHANGED_TASKS_SQL, since, rs -> {
+            long id = rs.getLong(2);
+            ChangedTask task = changed.get(id);
+            if (task == null) {
+                task = new ChangedTask(rs.getString(1), TaskStatus.valueOf(rs.getString(3)), new HashSet<>());
+                changed.put(id, task);
+            }
+            String label = rs.getString(4);
+            if (label != null) {
+                task.labels().add(label);
+            }
+        });
+        changed.forEach((id, task) -> taskBitmapIndex.put(task.tenantId(), id, task.status(), task.labels()));
+        // After the changes, so a task read just before its delete committed is still forgotten
+        read += scan(DELETED_TASKS_SQL, since, rs -> taskBitmapIndex.remove(rs.getString(1), rs.getLong(2)));
+
+        lastRefreshStart = start;
+        log.debug("Task bitmap index refresh read {} rows", read);
+        return read;
+    }
+
+    /**
+     * Runs the scan on every shard side by side; the index itself is thread-safe
+     */
+    private long scan(String sql, ZonedDateTime since, RowCallbackHandler handler) {
+        LongAdder count = new LongAdder();
+        RowCallbackHandler counting = rs -> {
+            handler.processRow(rs);
+            count.increment();
+        };
+        taskShardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            if (since != null) {
+                statement.setObject(1, since.toOffsetDateTime());
+            }
+            return statement;
+        }, counting)));
+        return count.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.simplestatustask.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Creates monthly partitions of task_status_history ahead of time, so new rows never land
+ * in the default partition. Runs at startup and then periodically; each run is a handful of
+ * CREATE TABLE IF NOT EXISTS statements. PostgreSQL only, hence the enabled flag.
+ */
+@Component
+@Slf4j
+public class TaskHistoryPartitionMaintainer {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskShardRouter taskShardRouter;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    public TaskHistoryPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                          TaskShardRouter taskShardRouter,
+                                          @Value("${task.history.partitions.enabled:true}") boolean enabled,
+                                          @Value("${task.history.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${task.history.partitions.interval-ms:21600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            ensurePartitions(YearMonth.now(ALMATY_ZONE));
+        }
+    }
+
+    /**
+     * Creates the partitions for the given month and the configured number of months after it, on every shard
+     *
+     * @param current First month to cover
+     */
+    public void ensurePartitions(YearMonth current) {
+        taskShardRouter.forEachShard(() -> {
+            for (int i = 0; i <= monthsAhead; i++) {
+                jdbcTemplate.execute(partitionDdl(current.plusMonths(i)));
+            }
+        });
+        log.debug("Status history partitions ensured from {} for {} months ahead", current, monthsAhead);
+    }
+
+    /**
+     * DDL for one monthly partition; bounds are Almaty midnights, matching the database time zone
+     *
+     * @param month Month the partition holds
+     * @return CREATE TABLE statement
+     */
+    static String partitionDdl(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        return "CREATE TABLE IF NOT EXISTS task_status_history_" + month.format(SUFFIX)
+                + " PARTITION OF task_status_history FOR VALUES FROM ('" + start + "') TO ('"
+                + start.plusMonths(1) + "')";
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.lookup.TaskIdFilter;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills {@link TaskIdFilter} at startup with one scan of the primary key, then keeps adding
+ * tasks committed since, by any instance, with a primary-key range scan above the filter's
+ * watermark. The refresh goes by ID rather than created_at, so a create that commits long after
+ * stamping its creation time is still found.
+ *
+ * <p>Every scan is a checkpoint. task_sequence hands out IDs in order, so each ID below the
+ * highest one a scan saw was taken before that scan ended. Once
+ * {@code task.lookup.id-filter.max-transaction-ms} has passed, every create holding such an ID
+ * has committed or rolled back, and the next scan sees all that committed; only after that scan
+ * does the watermark move up to the checkpoint's ID. A create running longer than that can still
+ * be reported missing until it is read.
+ *
+ * <p>With sharding, IDs are not handed out in one order across shards, so the filter is not
+ * loaded and answers "might exist" for every ID.
+ */
+@Component
+@Slf4j
+public class TaskIdFilterLoader {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String LOAD_SQL = "SELECT id FROM tasks";
+    private static final String REFRESH_SQL = "SELECT id FROM tasks WHERE id > ?";
+
+    private final TaskIdFilter taskIdFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskShardRouter taskShardRouter;
+    private final boolean enabled;
+    private final long maxTransactionMs;
+
+    // Scans whose highest ID is not trusted yet, oldest first; guarded by this
+    private final Deque<Checkpoint> checkpoints = new ArrayDeque<>();
+
+    /**
+     * Highest ID read by a scan that ended at endedAtMs
+     */
+    private record Checkpoint(long endedAtMs, long highestId) {
+    }
+
+    public TaskIdFilterLoader(TaskIdFilter taskIdFilter,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              TaskShardRouter taskShardRouter,
+                              @Value("${task.lookup.id-filter.enabled:true}") boolean enabled,
+                              @Value("${task.lookup.id-filter.max-transaction-ms:60000}") long maxTransactionMs) {
+        this.taskIdFilter = taskIdFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.maxTransactionMs = maxTransactionMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (taskShardRouter.isEnabled()) {
+            log.info("Task ID filter not loaded: sharded task IDs are not handed out in order");
+            return;
+        }
+        load();
+    }
+
+    @Scheduled(fixedDelayString = "${task.lookup.id-filter.refresh-interval-ms:1000}")
+    public void scheduledRefresh() {
+        if (enabled && taskIdFilter.isReady()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Adds every existing task ID and starts answering queries. Negative answers are trusted from
+     * the first refresh at least max-transaction-ms later, which reads the table once more.
+     * Runs in a read-only transaction so PostgreSQL streams the IDs with a cursor.
+     *
+     * @return Number of IDs read
+     */
+    public synchronized long load() {
+        long loaded = scan(LOAD_SQL, null);
+        taskIdFilter.markReady();
+        log.info("Task ID filter loaded {} IDs", loaded);
+        return loaded;
+    }
+
+    /**
+     * Once the oldest checkpoint is older than max-transaction-ms, adds the tasks committed above
+     * the watermark and moves the watermark up to that checkpoint. Until then nothing is read:
+     * IDs above the watermark are looked up in the database anyway.
+     *
+     * @return Number of IDs read
+     */
+    public synchronized long refresh() {
+        long startedAtMs = System.currentTimeMillis();
+        Checkpoint oldest = checkpoints.peekFirst();
+        if (oldest != null && oldest.endedAtMs() + maxTransactionMs > startedAtMs) {
+            return 0;
+        }
+        // Every create that held an ID up to these checkpoints ended before this scan starts
+        long trusted = 0;
+        while (!checkpoints.isEmpty() && checkpoints.peekFirst().endedAtMs() + maxTransactionMs <= startedAtMs) {
+            trusted = Math.max(trusted, checkpoints.pollFirst().highestId());
+        }
+        long added = scan(REFRESH_SQL, taskIdFilter.getCompleteUpTo());
+        taskIdFilter.markCompleteUpTo(trusted);
+        log.debug("Task ID filter refresh read {} IDs, complete up to {}", added, taskIdFilter.getCompleteUpTo());
+        return added;
+    }
+
+    /**
+     * Runs the scan on every shard side by side; the filter itself is thread-safe.
+     * Records a checkpoint at the highest ID read.
+     */
+    private long scan(String sql, Long aboveId) {
+        LongAdder count = new LongAdder();
+        LongAccumulator highest = new LongAccumulator(Math::max, 0);
+        RowCallbackHandler addId = rs -> {
+            long id = rs.getLong(1);
+            taskIdFilter.add(id);
+            highest.accumulate(id);
+            count.increment();
+        };
+        taskShardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            if (aboveId != null) {
+                statement.setLong(1, aboveId);
+            }
+            return statement;
+        }, addId)));
+        if (highest.get() > 0) {
+            checkpoints.addLast(new Checkpoint(System.currentTimeMillis(), highest.get()));
+        }
+        return count.sum();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.service.TaskQueueService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns tasks whose worker stopped heartbeating to the queue.
+ * Each run is an indexed sweep over idx_tasks_lease_expires_at in short batches,
+ * one transaction per batch, so it never holds many row locks at once.
+ * Tenants are swept one at a time, each as itself, so events and history rows land in the right tenant.
+ */
+@Component
+@Slf4j
+public class TaskLeaseReaper {
+
+    private final TaskQueueService taskQueueService;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public TaskLeaseReaper(TaskQueueService taskQueueService,
+                           @Value("${task.queue.reaper.enabled:true}") boolean enabled,
+                           @Value("${task.queue.reaper.batch-size:500}") int batchSize) {
+        this.taskQueueService = taskQueueService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${task.queue.reaper.interval-ms:5000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * Requeues expired leases tenant by tenant, each until a batch comes back short
+     *
+     * @return Number of tasks requeued
+     */
+    public int sweep() {
+        int total = 0;
+        for (String tenant : taskQueueService.findTenantsWithExpiredLeases()) {
+            total += TenantContext.callAs(tenant, this::sweepCurrentTenant);
+        }
+        if (total > 0) {
+            log.info("Lease reaper requeued {} tasks", total);
+        }
+        return total;
+    }
+
+    private int sweepCurrentTenant() {
+        int total = 0;
+        int requeued;
+        do {
+            requeued = taskQueueService.requeueExpiredLeases(batchSize);
+            total += requeued;
+        } while (requeued == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskRetentionService;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import com.example.simplestatustask.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes tasks that stayed in a status longer than its configured maximum age.
+ * <p>
+ * Tasks go in small keyset batches, one transaction each, so no batch holds many row locks or
+ * writes much WAL at once, and rows locked by the API are skipped instead of waited on. Every
+ * shard is paced by its own {@link TaskRetentionThrottle}: batches shrink when they get slow or
+ * replicas fall behind, and each is followed by a pause. Progress is kept per tenant and status
+ * in task_retention_cursors, so a restarted purge continues where it stopped. Statuses without
+ * a maximum age are never purged.
+ */
+@Component
+@Slf4j
+public class TaskRetentionPurger {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final String MAX_AGE_PROPERTY = "task.retention.max-age";
+
+    // Replay lag of the slowest standby, PostgreSQL only; 0 without standbys
+    private static final String REPLICATION_LAG_SQL =
+            "SELECT COALESCE(MAX(EXTRACT(EPOCH FROM replay_lag)) * 1000, 0) FROM pg_stat_replication";
+
+    private final TaskRetentionService taskRetentionService;
+    private final TaskShardRouter taskShardRouter;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+    private final Map<TaskStatus, Duration> maxAges;
+    private final int batchSize;
+    private final int minBatchSize;
+    private final long targetBatchMs;
+    private final double pauseFactor;
+    private final long minPauseMs;
+    private final long maxPauseMs;
+    private final long maxReplicationLagMs;
+
+    private final AtomicInteger currentBatchSize = new AtomicInteger();
+    private final AtomicLong replicationLagMillis = new AtomicLong();
+    private final AtomicBoolean replicationLagUnavailable = new AtomicBoolean();
+    private final Timer batchTimer;
+    private final Map<TaskStatus, Counter> purgedCounters = new EnumMap<>(TaskStatus.class);
+
+    public TaskRetentionPurger(TaskRetentionService taskRetentionService,
+                               TaskShardRouter taskShardRouter,
+                               JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               Environment environment,
+                               @Value("${task.retention.enabled:false}") boolean enabled,
+                               @Value("${task.retention.batch-size:1000}") int batchSize,
+                               @Value("${task.retention.min-batch-size:50}") int minBatchSize,
+                               @Value("${task.retention.target-batch-ms:200}") long targetBatchMs,
+                               @Value("${task.retention.pause-factor:1.0}") double pauseFactor,
+                               @Value("${task.retention.min-pause-ms:50}") long minPauseMs,
+                               @Value("${task.retention.max-pause-ms:10000}") long maxPauseMs,
+                               @Value("${task.retention.max-replication-lag-ms:0}") long maxReplicationLagMs) {
+        this.taskRetentionService = taskRetentionService;
+        this.taskShardRouter = taskShardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxAges = maxAges(environment);
+        this.batchSize = batchSize;
+        this.minBatchSize = minBatchSize;
+        this.targetBatchMs = targetBatchMs;
+        this.pauseFactor = pauseFactor;
+        this.minPauseMs = minPauseMs;
+        this.maxPauseMs = maxPauseMs;
+        this.maxReplicationLagMs = maxReplicationLagMs;
+
+        this.batchTimer = Timer.builder("task.retention.batch")
+                .description("Time to lock, delete and tombstone one retention batch")
+                .register(meterRegistry);
+        Gauge.builder("task.retention.batch.size", currentBatchSize, AtomicInteger::doubleValue)
+                .description("Size of the latest retention batch, as chosen by the throttle")
+                .register(meterRegistry);
+        TimeGauge.builder("task.retention.replication.lag", replicationLagMillis, TimeUnit.MILLISECONDS,
+                        AtomicLong::doubleValue)
+                .description("Replication lag last seen by the retention purge")
+                .register(meterRegistry);
+        for (TaskStatus status : maxAges.keySet()) {
+            purgedCounters.put(status, Counter.builder("task.retention.purged")
+                    .description("Tasks deleted by the retention purge")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.retention.interval-ms:3600000}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge(ZonedDateTime.now(ALMATY_ZONE));
+        }
+    }
+
+    /**
+     * Purges every shard, side by side, of the tasks that expired by the given time
+     *
+     * @param now Time the maximum ages are measured back from
+     * @return Number of tasks deleted
+     */
+    public long purge(ZonedDateTime now) {
+        if (maxAges.isEmpty()) {
+            return 0;
+        }
+        long purged = taskShardRouter.onEachShard(() -> purgeShard(now)).stream().mapToLong(Long::longValue).sum();
+        if (purged > 0) {
+            log.info("Retention purge deleted {} tasks", purged);
+        }
+        return purged;
+    }
+
+    private long purgeShard(ZonedDateTime now) {
+        TaskRetentionThrottle throttle = new TaskRetentionThrottle(minBatchSize, batchSize, targetBatchMs,
+                pauseFactor, minPauseMs, maxPauseMs, maxReplicationLagMs);
+        long total = 0;
+        for (Map.Entry<TaskStatus, Duration> maxAge : maxAges.entrySet()) {
+            TaskStatus status = maxAge.getKey();
+            ZonedDateTime cutoff = now.minus(maxAge.getValue());
+            for (String tenant : taskRetentionService.findTenantsWithExpiredTasks(status, cutoff)) {
+                total += TenantContext.callAs(tenant, () -> purgeCurrentTenant(status, cutoff, throttle));
+                if (Thread.currentThread().isInterrupted()) {
+                    return total;
+                }
+            }
+        }
+        return total;
+    }
+
+    private long purgeCurrentTenant(TaskStatus status, ZonedDateTime cutoff, TaskRetentionThrottle throttle) {
+        long total = 0;
+        int limit;
+        int purged;
+        do {
+            limit = throttle.batchSize();
+            currentBatchSize.set(limit);
+            long start = System.nanoTime();
+            purged = taskRetentionService.purgeExpired(status, cutoff, limit);
+            long batchNanos = System.nanoTime() - start;
+            batchTimer.record(batchNanos, TimeUnit.NANOSECONDS);
+            purgedCounters.get(status).increment(purged);
+            total += purged;
+
+            long pauseMs = throttle.afterBatch(TimeUnit.NANOSECONDS.toMillis(batchNanos), replicationLagMs());
+            if (purged == limit && !pause(pauseMs)) {
+                break;
+            }
+        } while (purged == limit);
+        return total;
+    }
+
+    /**
+     * Replication lag of the shard being purged, when a limit is configured
+     *
+     * @return Lag in milliseconds; 0 when not checked or not available
+     */
+    private long replicationLagMs() {
+        if (maxReplicationLagMs <= 0) {
+            return 0;
+        }
+        try {
+            Double lagMs = jdbcTemplate.queryForObject(REPLICATION_LAG_SQL, Double.class);
+            long lag = lagMs != null ? lagMs.longValue() : 0;
+            replicationLagMillis.set(lag);
+            return lag;
+        } catch (DataAccessException ex) {
+            if (!replicationLagUnavailable.getAndSet(true)) {
+                log.warn("Cannot read replication lag, pacing by batch time only: {}", ex.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    private static boolean pause(long pauseMs) {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Map<TaskStatus, Duration> maxAges(Environment environment) {
+        Map<TaskStatus, Duration> maxAges = new EnumMap<>(TaskStatus.class);
+        maxAges.putAll(Binder.get(environment)
+                .bind(MAX_AGE_PROPERTY, Bindable.mapOf(TaskStatus.class, Duration.class))
+                .orElse(Map.of()));
+        maxAges.forEach((status, maxAge) -> {
+            if (maxAge.isNegative() || maxAge.isZero()) {
+                throw new IllegalArgumentException(MAX_AGE_PROPERTY + "." + status + " must be positive");
+            }
+        });
+        return maxAges;
+    }
+}
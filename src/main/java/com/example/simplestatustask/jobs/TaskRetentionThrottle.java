@@ -0,0 +1,63 @@
+package com.example.simplestatustask.jobs;
+
+/**
+ * Paces the retention purge on one shard. The batch size shrinks by half after a batch slower
+ * than the target or while replicas lag, and grows back by the minimum size after each fast
+ * batch. Every batch is followed by a pause proportional to its duration, so the purge keeps
+ * at most a fixed share of the database's time and slows down by itself when the database does.
+ */
+class TaskRetentionThrottle {
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetBatchMs;
+    private final double pauseFactor;
+    private final long minPauseMs;
+    private final long maxPauseMs;
+    private final long maxReplicationLagMs;
+
+    private int batchSize;
+
+    TaskRetentionThrottle(int minBatchSize, int maxBatchSize, long targetBatchMs, double pauseFactor,
+                          long minPauseMs, long maxPauseMs, long maxReplicationLagMs) {
+        this.minBatchSize = Math.max(1, Math.min(minBatchSize, maxBatchSize));
+        this.maxBatchSize = maxBatchSize;
+        this.targetBatchMs = targetBatchMs;
+        this.pauseFactor = pauseFactor;
+        this.minPauseMs = minPauseMs;
+        this.maxPauseMs = maxPauseMs;
+        this.maxReplicationLagMs = maxReplicationLagMs;
+        this.batchSize = maxBatchSize;
+    }
+
+    /**
+     * Size of the next batch
+     *
+     * @return Between the minimum and maximum batch size
+     */
+    int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Adjusts the batch size to the last batch and returns the pause before the next one
+     *
+     * @param batchMs Duration of the last batch
+     * @param replicationLagMs Current replication lag; 0 when unknown or not checked
+     * @return Milliseconds to wait before the next batch
+     */
+    long afterBatch(long batchMs, long replicationLagMs) {
+        boolean lagging = maxReplicationLagMs > 0 && replicationLagMs > maxReplicationLagMs;
+        if (lagging || batchMs > targetBatchMs) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+        } else {
+            batchSize = Math.min(maxBatchSize, batchSize + minBatchSize);
+        }
+        long pauseMs = Math.max(minPauseMs, Math.round(batchMs * pauseFactor));
+        if (lagging) {
+            // Give the replicas about as long as they are behind to catch up
+            pauseMs = Math.max(pauseMs, replicationLagMs);
+        }
+        return Math.min(maxPauseMs, pauseMs);
+    }
+}
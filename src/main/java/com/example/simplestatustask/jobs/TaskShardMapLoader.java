@@ -0,0 +1,76 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.models.TaskShardAssignment;
+import com.example.simplestatustask.repository.TaskShardAssignmentRepository;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps {@link TaskShardRouter} in line with task_shard_map on the first shard, so moves made by
+ * the rebalancer reach every instance within the refresh interval. The rebalancer waits at least
+ * that long between flipping a virtual shard and touching its rows.
+ * <p>
+ * The first start with sharding writes the default placement into the map. From then on the
+ * placement no longer depends on the shard count, so shards can be added and filled by the rebalancer.
+ */
+@Component
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskShardMapLoader {
+    private final TaskShardAssignmentRepository taskShardAssignmentRepository;
+    private final TaskShardRouter taskShardRouter;
+
+    @PostConstruct
+    public void loadOnStartup() {
+        load();
+    }
+
+    @Scheduled(fixedDelayString = "${task.sharding.map-refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        load();
+    }
+
+    /**
+     * Reads the whole map and hands it to the router
+     *
+     * @return Number of mapped virtual shards
+     */
+    public int load() {
+        List<TaskShardAssignment> rows = taskShardAssignmentRepository.findAll();
+        if (rows.isEmpty()) {
+            rows = seed();
+        }
+        taskShardRouter.apply(rows);
+        log.debug("Loaded {} task shard assignments", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Persists the router's default placement; when another instance got there first, its rows are used
+     */
+    private List<TaskShardAssignment> seed() {
+        int[] shardOf = taskShardRouter.assignments();
+        List<TaskShardAssignment> rows = new ArrayList<>(shardOf.length);
+        for (int virtualShard = 0; virtualShard < shardOf.length; virtualShard++) {
+            rows.add(new TaskShardAssignment(virtualShard, shardOf[virtualShard], false));
+        }
+        try {
+            taskShardAssignmentRepository.saveAll(rows);
+            log.info("Seeded task_shard_map with {} virtual shards over {} shards", rows.size(), taskShardRouter.shardCount());
+            return rows;
+        } catch (DataIntegrityViolationException ex) {
+            log.info("task_shard_map was seeded concurrently, loading it");
+            return taskShardAssignmentRepository.findAll();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.shard.TaskShardRebalancer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+/**
+ * Command-line entry point of the rebalancer: start the application with
+ * --task.sharding.rebalance.mode=plan to print the moves that would even out the shards, or
+ * =apply to carry them out. The process exits when done.
+ */
+@Component
+@ConditionalOnProperty(name = "task.sharding.rebalance.mode")
+@Slf4j
+public class TaskShardRebalanceRunner implements ApplicationRunner {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final ObjectProvider<TaskShardRebalancer> rebalancer;
+    private final TaskStatsMaintainer taskStatsMaintainer;
+    private final ConfigurableApplicationContext applicationContext;
+    private final String mode;
+
+    public TaskShardRebalanceRunner(ObjectProvider<TaskShardRebalancer> rebalancer,
+                                    TaskStatsMaintainer taskStatsMaintainer,
+                                    ConfigurableApplicationContext applicationContext,
+                                    @Value("${task.sharding.rebalance.mode}") String mode) {
+        this.rebalancer = rebalancer;
+        this.taskStatsMaintainer = taskStatsMaintainer;
+        this.applicationContext = applicationContext;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!mode.equals("plan") && !mode.equals("apply")) {
+            throw new IllegalArgumentException("task.sharding.rebalance.mode must be 'plan' or 'apply', not '" + mode + "'");
+        }
+        TaskShardRebalancer shardRebalancer = rebalancer.getIfAvailable();
+        if (shardRebalancer == null) {
+            throw new IllegalStateException("task.sharding.rebalance.mode requires task.sharding.enabled=true");
+        }
+
+        Map<Integer, Integer> plan = shardRebalancer.plan();
+        log.info("Rebalance plan: {} virtual shards to move {}", plan.size(), plan);
+        if (mode.equals("apply") && !plan.isEmpty()) {
+            long moved = shardRebalancer.apply(plan);
+            // Moved tasks are still counted on their old shards; recount each shard
+            taskStatsMaintainer.correctDrift(ZonedDateTime.now(ALMATY_ZONE));
+            log.info("Rebalance moved {} tasks", moved);
+        }
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+}
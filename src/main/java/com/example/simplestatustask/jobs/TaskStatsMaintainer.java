@@ -0,0 +1,79 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.service.TaskStatsService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keeps the task statistics honest. Frequently, reloads the in-memory counts so writes from
+ * other instances show up. Less often, recounts tasks to correct drift from writes made outside
+ * the application, recomputes recently finished hours from the status history, and creates the
+ * hourly rows ahead of time.
+ */
+@Component
+@Slf4j
+public class TaskStatsMaintainer {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final TaskStatsService taskStatsService;
+    private final boolean enabled;
+    private final int recountHours;
+    private final int hoursAhead;
+
+    public TaskStatsMaintainer(TaskStatsService taskStatsService,
+                               @Value("${task.stats.maintenance.enabled:true}") boolean enabled,
+                               @Value("${task.stats.drift.recount-hours:2}") int recountHours,
+                               @Value("${task.stats.drift.hours-ahead:24}") int hoursAhead) {
+        this.taskStatsService = taskStatsService;
+        this.enabled = enabled;
+        this.recountHours = recountHours;
+        this.hoursAhead = hoursAhead;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${task.stats.reconcile.interval-ms:5000}")
+    public void scheduledReconcile() {
+        if (enabled) {
+            taskStatsService.reconcile();
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${task.stats.drift.interval-ms:300000}")
+    public void scheduledDriftCorrection() {
+        if (enabled) {
+            correctDrift(ZonedDateTime.now(ALMATY_ZONE));
+        }
+    }
+
+    /**
+     * Corrects the status counts, recounts the finished hours before now and prepares the next ones.
+     * The current hour is left alone; it is still being written.
+     *
+     * @param now Current time
+     * @return Drift corrected in the status counts
+     */
+    public long correctDrift(ZonedDateTime now) {
+        // The recounts group by tenant themselves, so they must see every tenant's rows
+        return TenantContext.callAs(TenantContext.ROOT, () -> {
+            taskStatsService.prepareHours(hoursAhead);
+            long drift = taskStatsService.correctCountDrift();
+            ZonedDateTime currentHour = now.withZoneSameInstant(ALMATY_ZONE).truncatedTo(ChronoUnit.HOURS);
+            for (int i = 1; i <= recountHours; i++) {
+                taskStatsService.recountHour(currentHour.minusHours(i));
+            }
+            taskStatsService.reconcile();
+            if (drift > 0) {
+                log.info("Stats drift correction fixed a difference of {}", drift);
+            }
+            return drift;
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.simplestatustask.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding the scheduled transitions of one shard that are due within
+ * the loaded horizon.
+ * <p>
+ * Four levels of 64 slots: a level 0 slot is one tick wide and a slot of each higher level spans
+ * a whole turn of the level below. A transition goes into the lowest level whose current turn
+ * contains its due tick, and drops a level each time the wheel reaches its slot, so adding and
+ * firing a transition cost O(1) however many are held, and one tick touches one slot per level at
+ * most. A transition fires on the first tick at or after its due time, never before it.
+ * Thread-safe: the ticker, the loader and committed API writes all add to it.
+ */
+final class TaskTimingWheel {
+
+    static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * One scheduled transition
+     *
+     * @param tenantId Tenant owning the task
+     * @param taskId Task ID
+     * @param dueMillis Time the transition is due, in epoch milliseconds
+     */
+    record Entry(String tenantId, long taskId, long dueMillis) {
+    }
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots = new ArrayList<>(LEVELS * SLOTS);
+    // Due beyond the current turn of the top level; placed again when that turn ends
+    private final List<Entry> overflow = new ArrayList<>();
+    private final List<Entry> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Width of a level 0 slot
+     * @param nowMillis Current time; transitions due before it fire on the first advance
+     */
+    TaskTimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Time covered by one turn of the top level; the loaded horizon should be well inside it
+     *
+     * @return Span in milliseconds
+     */
+    long spanMillis() {
+        return tickMillis << (SLOT_BITS * LEVELS);
+    }
+
+    /**
+     * Adds a transition; one already due fires on the next advance
+     *
+     * @param entry Transition to add
+     */
+    synchronized void add(Entry entry) {
+        place(entry);
+        size++;
+    }
+
+    /**
+     * Moves the wheel to the given time and takes out every transition due by then.
+     * After a pause longer than a whole turn of the top level, everything held is due.
+     *
+     * @param nowMillis Current time
+     * @return Due transitions, in no particular order
+     */
+    synchronized List<Entry> advanceTo(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        if (targetTick - currentTick >= (1L << (SLOT_BITS * LEVELS))) {
+            slots.forEach(slot -> {
+                due.addAll(slot);
+                slot.clear();
+            });
+            due.addAll(overflow);
+            overflow.clear();
+            currentTick = targetTick;
+        }
+        while (currentTick < targetTick) {
+            step();
+        }
+        List<Entry> fired = new ArrayList<>(due);
+        due.clear();
+        size -= fired.size();
+        return fired;
+    }
+
+    /**
+     * Number of transitions held, due ones not yet taken out included
+     *
+     * @return Transition count
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Drops every transition, as when this instance stops scheduling the shard
+     *
+     * @param nowMillis Current time
+     */
+    synchronized void clear(long nowMillis) {
+        slots.forEach(List::clear);
+        overflow.clear();
+        due.clear();
+        size = 0;
+        currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    private void step() {
+        currentTick++;
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            List<Entry> next = new ArrayList<>(overflow);
+            overflow.clear();
+            next.forEach(this::place);
+        }
+        // Highest level first, so a transition can drop through several levels on one tick
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                List<Entry> slot = slot(level, currentTick);
+                List<Entry> cascading = new ArrayList<>(slot);
+                slot.clear();
+                cascading.forEach(this::place);
+            }
+        }
+        List<Entry> slot = slot(0, currentTick);
+        due.addAll(slot);
+        slot.clear();
+    }
+
+    private void place(Entry entry) {
+        // Rounded up, so a transition never fires before it is due
+        long dueTick = Math.floorDiv(entry.dueMillis() + tickMillis - 1, tickMillis);
+        if (dueTick <= currentTick) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int turnShift = SLOT_BITS * (level + 1);
+            if ((dueTick >>> turnShift) == (currentTick >>> turnShift)) {
+                slot(level, dueTick).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private List<Entry> slot(int level, long tick) {
+        return slots.get(level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.lookup.TaskTitleIndex;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills {@link TaskTitleIndex} at startup with one scan of task titles, then keeps applying
+ * changes made by other instances: tasks updated since the previous refresh and tasks deleted
+ * since then, looking back by the change-feed commit lag. Writes through this instance that
+ * commit while the index loads are picked up by the first refresh.
+ */
+@Component
+@Slf4j
+public class TaskTitleIndexLoader {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String LOAD_TASKS_SQL = "SELECT tenant_id, id, title, updated_at FROM tasks";
+    private static final String CHANGED_TASKS_SQL = LOAD_TASKS_SQL + " WHERE updated_at >= ?";
+    private static final String DELETED_TASKS_SQL = "SELECT tenant_id, task_id FROM task_tombstones WHERE deleted_at >= ?";
+
+    private final TaskTitleIndex taskTitleIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskShardRouter taskShardRouter;
+    private final boolean enabled;
+    private final long commitLagMs;
+
+    private volatile ZonedDateTime lastRefreshStart;
+
+    public TaskTitleIndexLoader(TaskTitleIndex taskTitleIndex,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                TaskShardRouter taskShardRouter,
+                                @Value("${task.suggest.index.enabled:true}") boolean enabled,
+                                @Value("${task.sync.commit-lag-ms:1000}") long commitLagMs) {
+        this.taskTitleIndex = taskTitleIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.commitLagMs = commitLagMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.suggest.index.refresh-interval-ms:1000}")
+    public void scheduledRefresh() {
+        if (enabled && taskTitleIndex.isReady()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Adds the title of every existing task and starts answering queries.
+     * Runs in read-only transactions so PostgreSQL streams the rows with a cursor.
+     *
+     * @return Number of rows read
+     */
+    public long load() {
+        lastRefreshStart = ZonedDateTime.now(ALMATY_ZONE);
+        long read = scan(LOAD_TASKS_SQL, null, this::put);
+        taskTitleIndex.markReady();
+        log.info("Task title index loaded {} tasks", read);
+        return read;
+    }
+
+    /**
+     * Replaces the titles of tasks changed since the previous refresh and forgets the ones
+     * deleted since then, looking back by the commit lag
+     *
+     * @return Number of rows read
+     */
+    public long refresh() {
+        ZonedDateTime start = ZonedDateTime.now(ALMATY_ZONE);
+        ZonedDateTime since = lastRefreshStart.minusNanos(commitLagMs * 1_000_000);
+
+        long read = scan(CHANGED_TASKS_SQL, since, this::put);
+        // After the changes, so a task read just before its delete committed is still forgotten
+        read += scan(DELETED_TASKS_SQL, since, rs -> taskTitleIndex.remove(rs.getString(1), rs.getLong(2)));
+
+        lastRefreshStart = start;
+        log.debug("Task title index refresh read {} rows", read);
+        return read;
+    }
+
+    private void put(ResultSet rs) throws SQLException {
+        taskTitleIndex.put(rs.getString(1), rs.getLong(2), rs.getString(3),
+                rs.getObject(4, OffsetDateTime.class).atZoneSameInstant(ALMATY_ZONE));
+    }
+
+    /**
+     * Runs the scan on every shard side by side; the index itself is thread-safe
+     */
+    private long scan(String sql, ZonedDateTime since, RowCallbackHandler handler) {
+        LongAdder count = new LongAdder();
+        RowCallbackHandler counting = rs -> {
+            handler.processRow(rs);
+            count.increment();
+        };
+        taskShardRouter.forEachShard(() -> readOnlyTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            if (since != null) {
+                statement.setObject(1, since.toOffsetDateTime());
+            }
+            return statement;
+        }, counting)));
+        return count.sum();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.events.TaskTransitionScheduledEvent;
+import com.example.simplestatustask.repository.ScheduledTransitionView;
+import com.example.simplestatustask.service.TaskScheduleService;
+import com.example.simplestatustask.shard.ShardContext;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import com.example.simplestatustask.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies scheduled status transitions when they fall due, without a timer per task.
+ * <p>
+ * For every shard, one instance leads, chosen with a PostgreSQL advisory lock. The leader keeps
+ * the transitions due within the next horizon on a {@link TaskTimingWheel}: each refill loads the
+ * ones newly inside it from the partial index on scheduled_transition_at, picking up where the
+ * previous refill stopped, and transitions scheduled through this instance inside the loaded
+ * horizon are added as their writes commit. Each tick fires what the wheel hands out, grouped by
+ * tenant, as one conditional UPDATE per batch. Rows are locked with SKIP LOCKED and only move if
+ * still due and in their expected status, so a transition fires once even if two instances
+ * briefly both think they lead. Each refill also sweeps transitions overdue by more than a grace
+ * period: ones scheduled through another instance inside the loaded horizon, and rows that were
+ * locked when their tick came.
+ */
+@Component
+@Slf4j
+public class TaskTransitionScheduler implements DisposableBean {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Advisory lock key shared by every instance; "tasksch" in ASCII
+    private static final long LEADER_LOCK_KEY = 0x7461736b736368L;
+
+    // Position before every scheduled transition; a new leader starts loading here
+    private static final ZonedDateTime START_AT = Instant.EPOCH.atZone(ALMATY_ZONE);
+
+    private final TaskScheduleService taskScheduleService;
+    private final TaskShardRouter taskShardRouter;
+
+    private final boolean enabled;
+    private final long tickMs;
+    private final long horizonMs;
+    private final long overdueGraceMs;
+    private final int batchSize;
+
+    private final ShardSchedule[] shards;
+    private final Counter firedCounter;
+
+    /**
+     * Scheduling state of one shard; the wheel is null while another instance leads
+     */
+    private static final class ShardSchedule {
+        private final int shard;
+        private final AdvisoryLeaderLock lock;
+        private volatile TaskTimingWheel wheel;
+        private volatile ZonedDateTime loadedUntil = START_AT;
+        private ZonedDateTime afterAt = START_AT;
+        private long afterId;
+
+        private ShardSchedule(int shard, AdvisoryLeaderLock lock) {
+            this.shard = shard;
+            this.lock = lock;
+        }
+    }
+
+    public TaskTransitionScheduler(TaskScheduleService taskScheduleService,
+                                   TaskShardRouter taskShardRouter,
+                                   DataSource dataSource,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${task.schedule.enabled:true}") boolean enabled,
+                                   @Value("${task.schedule.tick-ms:1000}") long tickMs,
+                                   @Value("${task.schedule.horizon-ms:600000}") long horizonMs,
+                                   @Value("${task.schedule.overdue-grace-ms:5000}") long overdueGraceMs,
+                                   @Value("${task.schedule.batch-size:500}") int batchSize) {
+        this.taskScheduleService = taskScheduleService;
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.tickMs = tickMs;
+        this.horizonMs = horizonMs;
+        this.overdueGraceMs = overdueGraceMs;
+        this.batchSize = batchSize;
+        if (horizonMs <= 0 || horizonMs >= new TaskTimingWheel(tickMs, 0).spanMillis()) {
+            throw new IllegalArgumentException("task.schedule.horizon-ms must be positive and within the timing wheel span");
+        }
+
+        this.shards = new ShardSchedule[taskShardRouter.shardCount()];
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard] = new ShardSchedule(shard,
+                    new AdvisoryLeaderLock(dataSource, LEADER_LOCK_KEY, "transition scheduler of shard " + shard));
+        }
+
+        this.firedCounter = Counter.builder("task.schedule.fired")
+                .description("Scheduled transitions handled, moved or dropped as stale")
+                .register(meterRegistry);
+        Gauge.builder("task.schedule.wheel.size", this, TaskTransitionScheduler::wheelSize)
+                .description("Scheduled transitions held on the timing wheels of this instance")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.schedule.tick-ms:1000}")
+    public void scheduledTick() {
+        if (enabled) {
+            tick(System.currentTimeMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.schedule.refill-interval-ms:10000}")
+    public void scheduledRefill() {
+        if (enabled) {
+            refill(ZonedDateTime.now(ALMATY_ZONE));
+        }
+    }
+
+    /**
+     * Fires every transition the wheels hand out by the given time
+     *
+     * @param nowMillis Current time in epoch milliseconds
+     * @return Number of transitions handled
+     */
+    public synchronized int tick(long nowMillis) {
+        int handled = 0;
+        for (ShardSchedule schedule : shards) {
+            TaskTimingWheel wheel = schedule.wheel;
+            if (wheel != null) {
+                List<TaskTimingWheel.Entry> due = wheel.advanceTo(nowMillis);
+                if (!due.isEmpty()) {
+                    handled += fire(schedule.shard, due);
+                }
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * Takes or confirms the lead of every shard, loads the transitions that came inside the horizon
+     * on the shards this instance leads and sweeps their overdue ones
+     *
+     * @param now Current time
+     * @return Number of transitions loaded onto the wheels
+     */
+    public synchronized int refill(ZonedDateTime now) {
+        int loaded = 0;
+        for (ShardSchedule schedule : shards) {
+            loaded += taskShardRouter.onShard(schedule.shard, () -> refillShard(schedule, now));
+        }
+        return loaded;
+    }
+
+    /**
+     * Puts a transition scheduled through this instance on the wheel once committed, when the
+     * refills already went past its due time; later ones are loaded by a refill in good time
+     *
+     * @param event Transition published by the task service
+     */
+    @TransactionalEventListener
+    public void onTransitionScheduled(TaskTransitionScheduledEvent event) {
+        // Published inside the routed call, so the shard is still current after commit
+        ShardContext.Key key = ShardContext.current();
+        ShardSchedule schedule = shards[key != null ? key.shard() : 0];
+        TaskTimingWheel wheel = schedule.wheel;
+        if (wheel != null && !event.transitionAt().isAfter(schedule.loadedUntil)) {
+            wheel.add(new TaskTimingWheel.Entry(event.tenantId(), event.taskId(),
+                    event.transitionAt().toInstant().toEpochMilli()));
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        for (ShardSchedule schedule : shards) {
+            schedule.lock.release();
+        }
+    }
+
+    private int refillShard(ShardSchedule schedule, ZonedDateTime now) {
+        if (!schedule.lock.tryLead()) {
+            if (schedule.wheel != null) {
+                log.info("Another instance now schedules transitions of shard {}", schedule.shard);
+                schedule.wheel = null;
+            }
+            return 0;
+        }
+        if (schedule.wheel == null) {
+            // A new leader starts from the beginning of the index, overdue transitions included
+            schedule.afterAt = START_AT;
+            schedule.afterId = 0;
+            schedule.loadedUntil = START_AT;
+            schedule.wheel = new TaskTimingWheel(tickMs, now.toInstant().toEpochMilli());
+            log.info("Scheduling transitions of shard {}", schedule.shard);
+        }
+
+        ZonedDateTime until = now.plusNanos(horizonMs * 1_000_000L);
+        int loaded = 0;
+        List<ScheduledTransitionView> page;
+        do {
+            page = TenantContext.callAs(TenantContext.ROOT, () -> taskScheduleService.findScheduledTransitions(
+                    schedule.afterAt, schedule.afterId, until, batchSize));
+            for (ScheduledTransitionView transition : page) {
+                schedule.wheel.add(new TaskTimingWheel.Entry(transition.getTenantId(), transition.getId(),
+                        transition.getScheduledTransitionAt().toInstant().toEpochMilli()));
+            }
+            if (!page.isEmpty()) {
+                ScheduledTransitionView last = page.get(page.size() - 1);
+                schedule.afterAt = last.getScheduledTransitionAt();
+                schedule.afterId = last.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == batchSize);
+        schedule.loadedUntil = until;
+
+        sweepOverdue(now.minusNanos(overdueGraceMs * 1_000_000L));
+        if (loaded > 0) {
+            log.debug("Loaded {} scheduled transitions of shard {} due by {}", loaded, schedule.shard, until);
+        }
+        return loaded;
+    }
+
+    private void sweepOverdue(ZonedDateTime cutoff) {
+        int swept = 0;
+        for (String tenant : taskScheduleService.findTenantsWithOverdueTransitions(cutoff)) {
+            swept += TenantContext.callAs(tenant, () -> {
+                int total = 0;
+                int handled;
+                do {
+                    handled = taskScheduleService.fireOverdueTransitions(cutoff, batchSize);
+                    total += handled;
+                } while (handled == batchSize);
+                return total;
+            });
+        }
+        if (swept > 0) {
+            firedCounter.increment(swept);
+            log.info("Transition scheduler swept {} overdue transitions", swept);
+        }
+    }
+
+    private int fire(int shard, List<TaskTimingWheel.Entry> due) {
+        Map<String, List<Long>> idsByTenant = new LinkedHashMap<>();
+        for (TaskTimingWheel.Entry entry : due) {
+            idsByTenant.computeIfAbsent(entry.tenantId(), tenant -> new ArrayList<>()).add(entry.taskId());
+        }
+        int handled = 0;
+        for (Map.Entry<String, List<Long>> tenantIds : idsByTenant.entrySet()) {
+            List<Long> ids = tenantIds.getValue();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                try {
+                    handled += taskShardRouter.onShard(shard, () -> TenantContext.callAs(tenantIds.getKey(),
+                            () -> taskScheduleService.fireDueTransitions(batch)));
+                } catch (RuntimeException ex) {
+                    log.warn("Cannot fire {} scheduled transitions of tenant {} on shard {}, leaving them to the overdue sweep: {}",
+                            batch.size(), tenantIds.getKey(), shard, ex.getMessage());
+                }
+            }
+        }
+        firedCounter.increment(handled);
+        return handled;
+    }
+
+    private double wheelSize() {
+        int size = 0;
+        for (ShardSchedule schedule : shards) {
+            TaskTimingWheel wheel = schedule.wheel;
+            if (wheel != null) {
+                size += wheel.size();
+            }
+        }
+        return size;
+    }
+}
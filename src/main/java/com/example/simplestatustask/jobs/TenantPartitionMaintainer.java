@@ -0,0 +1,121 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.shard.TaskShardRouter;
+import com.example.simplestatustask.tenant.TenantFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Gives each configured large tenant its own LIST partition of tasks. The tenant's rows are
+ * moved out of the shared hash-partitioned default partition in one transaction, which blocks
+ * writes to tasks_shared for the duration of the move; later runs only check that the
+ * partitions exist. Purging a dedicated tenant is then DETACH PARTITION + DROP TABLE.
+ * PostgreSQL only, hence the enabled flag.
+ */
+@Component
+@Slf4j
+public class TenantPartitionMaintainer {
+
+    static final String PARTITION_PREFIX = "tasks_tenant_";
+
+    /**
+     * Holds the labels of the tenant being moved until its tasks are attached again
+     */
+    private static final String MOVED_LABELS = "moved_task_labels";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskShardRouter taskShardRouter;
+    private final boolean enabled;
+    private final List<String> dedicatedTenants;
+
+    public TenantPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     TaskShardRouter taskShardRouter,
+                                     @Value("${task.tenancy.partitions.enabled:true}") boolean enabled,
+                                     @Value("${task.tenancy.dedicated-tenants:}") List<String> dedicatedTenants) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.dedicatedTenants = dedicatedTenants;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${task.tenancy.partitions.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            ensureDedicatedPartitions();
+        }
+    }
+
+    /**
+     * Creates the missing dedicated partitions on every shard. Invalid tenant names are skipped
+     * with a warning, since they could never arrive in a request anyway.
+     *
+     * @return Number of partitions created
+     */
+    public int ensureDedicatedPartitions() {
+        return taskShardRouter.onEachShard(this::ensureOnShard).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private int ensureOnShard() {
+        int created = 0;
+        for (String tenant : dedicatedTenants) {
+            if (!TenantFilter.isValid(tenant)) {
+                log.warn("Skipping dedicated partition for invalid tenant '{}'", tenant);
+                continue;
+            }
+            String partition = partitionName(tenant);
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(tx -> moveStatements(tenant).forEach(jdbcTemplate::execute));
+            log.info("Moved tenant '{}' to dedicated partition {}", tenant, partition);
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * Name of a tenant's dedicated partition; tenant names are at most 50 characters, so it fits
+     * in a PostgreSQL identifier
+     *
+     * @param tenant Valid tenant identifier
+     * @return Table name
+     */
+    static String partitionName(String tenant) {
+        return PARTITION_PREFIX + tenant;
+    }
+
+    /**
+     * Statements that move a tenant out of tasks_shared, in execution order. The CHECK constraint
+     * lets ATTACH skip scanning the new table; indexes and the updated_at trigger are cloned from
+     * tasks on attach. Deleting the rows from tasks_shared cascades to task_labels, so the tenant's
+     * labels are kept in a temporary table and put back once the tasks are attached again;
+     * task_labels is locked against writes meanwhile.
+     *
+     * @param tenant Valid tenant identifier, safe to inline
+     * @return DDL and DML to run in one transaction
+     */
+    static List<String> moveStatements(String tenant) {
+        String partition = partitionName(tenant);
+        String literal = "'" + tenant + "'";
+        return List.of(
+                "LOCK TABLE tasks_shared IN ACCESS EXCLUSIVE MODE",
+                "LOCK TABLE task_labels IN EXCLUSIVE MODE",
+                "CREATE TEMPORARY TABLE " + MOVED_LABELS + " ON COMMIT DROP AS " +
+                        "SELECT * FROM task_labels WHERE tenant_id = " + literal,
+                "CREATE TABLE " + partition + " (LIKE tasks INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "ALTER TABLE " + partition + " ADD CONSTRAINT chk_tenant_" + tenant + " CHECK (tenant_id = " + literal + ")",
+                "INSERT INTO " + partition + " SELECT * FROM tasks_shared WHERE tenant_id = " + literal,
+                "DELETE FROM tasks_shared WHERE tenant_id = " + literal,
+                "ALTER TABLE tasks ATTACH PARTITION " + partition + " FOR VALUES IN (" + literal + ")",
+                "INSERT INTO task_labels SELECT * FROM " + MOVED_LABELS);
+    }
+}
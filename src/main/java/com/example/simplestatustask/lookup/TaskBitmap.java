@@ -0,0 +1,565 @@
+package com.example.simplestatustask.lookup;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of task IDs in the style of a Roaring bitmap.
+ * <p>
+ * IDs are split by their upper bits into chunks of 2^16; each non-empty chunk is a container,
+ * kept in order of its upper bits. A container holding few IDs is a sorted array of their low
+ * 16 bits, and one holding many is a plain 8 KiB bitmap, so sparse sets stay small and the dense
+ * ranges a sequence hands out cost one bit per ID. Intersections walk both sets container by
+ * container and only compare containers whose upper bits match.
+ * <p>
+ * Not thread-safe; {@link TaskBitmapIndex} guards every bitmap with its tenant's lock.
+ */
+public final class TaskBitmap {
+
+    private static final int LOW_BITS = 16;
+    private static final int LOW_MASK = (1 << LOW_BITS) - 1;
+
+    // Past this many IDs an array container takes more memory than a bitmap container
+    private static final int ARRAY_MAX = 4096;
+
+    private long[] keys = new long[4];
+    private Container[] containers = new Container[4];
+    private int size;
+    private long cardinality;
+
+    /**
+     * Adds a task ID
+     *
+     * @param id Task ID, not negative
+     * @return true if the ID was not in the set yet
+     */
+    public boolean add(long id) {
+        long key = id >>> LOW_BITS;
+        int index = find(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add((char) (id & LOW_MASK));
+        if (containers[index].cardinality() == before) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Removes a task ID
+     *
+     * @param id Task ID
+     * @return true if the ID was in the set
+     */
+    public boolean remove(long id) {
+        int index = find(id >>> LOW_BITS);
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        Container updated = container.remove((char) (id & LOW_MASK));
+        if (updated.cardinality() == before) {
+            return false;
+        }
+        cardinality--;
+        if (updated.cardinality() == 0) {
+            delete(index);
+        } else {
+            containers[index] = updated;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the set holds a task ID
+     *
+     * @param id Task ID
+     * @return true if the ID is in the set
+     */
+    public boolean contains(long id) {
+        int index = find(id >>> LOW_BITS);
+        return index >= 0 && containers[index].contains((char) (id & LOW_MASK));
+    }
+
+    /**
+     * Number of IDs in the set
+     *
+     * @return ID count
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Whether the set holds no IDs
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Intersects two sets
+     *
+     * @param other Set to intersect with
+     * @return New set of the IDs in both
+     */
+    public TaskBitmap and(TaskBitmap other) {
+        TaskBitmap result = new TaskBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container both = containers[i].and(other.containers[j]);
+                if (both.cardinality() > 0) {
+                    result.append(keys[i], both);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the IDs two sets share without building their intersection
+     *
+     * @param other Set to intersect with
+     * @return Number of IDs in both
+     */
+    public long andCardinality(TaskBitmap other) {
+        long count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Unites two sets
+     *
+     * @param other Set to unite with
+     * @return New set of the IDs in either
+     */
+    public TaskBitmap or(TaskBitmap other) {
+        TaskBitmap result = new TaskBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lists IDs in ascending order, starting after a given one
+     *
+     * @param afterId IDs up to and including this one are skipped
+     * @param limit Maximum number of IDs to return
+     * @return Up to limit IDs greater than afterId
+     */
+    public long[] toArray(long afterId, int limit) {
+        long from = afterId + 1;
+        long[] ids = new long[(int) Math.min(limit, cardinality)];
+        int filled = 0;
+        int index = find(from >>> LOW_BITS);
+        int fromLow = (int) (from & LOW_MASK);
+        if (index < 0) {
+            index = -index - 1;
+            fromLow = 0;
+        }
+        for (; index < size && filled < ids.length; index++) {
+            filled = containers[index].fill(keys[index] << LOW_BITS, fromLow, ids, filled);
+            fromLow = 0;
+        }
+        return filled == ids.length ? ids : Arrays.copyOf(ids, filled);
+    }
+
+    private int find(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, long key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private void append(long key, Container container) {
+        insert(size, key, container);
+        cardinality += container.cardinality();
+    }
+
+    /**
+     * Low 16 bits of the IDs that share their upper bits
+     */
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        /**
+         * @return This container, or the one replacing it
+         */
+        abstract Container add(char low);
+
+        /**
+         * @return This container, or the one replacing it
+         */
+        abstract Container remove(char low);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        /**
+         * Writes the IDs from a low value on into the output until it is full
+         *
+         * @return Next free position of the output
+         */
+        abstract int fill(long high, int fromLow, long[] out, int position);
+    }
+
+    /**
+     * Sorted low bits, for containers of up to {@link #ARRAY_MAX} IDs
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_MAX));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] both = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        both[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        both[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(both, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_MAX) {
+                return toBitmap().or(array);
+            }
+            char[] either = new char[Math.max(cardinality + array.cardinality, 4)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    either[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    either[count++] = array.values[j++];
+                } else {
+                    either[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(either, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        int fill(long high, int fromLow, long[] out, int position) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) fromLow);
+            for (int i = index >= 0 ? index : -index - 1; i < cardinality && position < out.length; i++) {
+                out[position++] = high | values[i];
+            }
+            return position;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * One bit per possible low value, for containers of more than {@link #ARRAY_MAX} IDs
+     */
+    private static final class BitmapContainer extends Container {
+        private static final int WORDS = (1 << LOW_BITS) / 64;
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long word = words[low >>> 6];
+            long updated = word | (1L << low);
+            if (updated != word) {
+                words[low >>> 6] = updated;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long word = words[low >>> 6];
+            long updated = word & ~(1L << low);
+            if (updated == word) {
+                return this;
+            }
+            words[low >>> 6] = updated;
+            cardinality--;
+            // Half the array limit, so IDs added and removed around the limit do not convert every time
+            return cardinality <= ARRAY_MAX / 2 ? toArray(words, cardinality) : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] mine = words;
+            long[] theirs = ((BitmapContainer) other).words;
+            long[] both = new long[WORDS];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                both[i] = mine[i] & theirs[i];
+                count += Long.bitCount(both[i]);
+            }
+            return count > ARRAY_MAX ? new BitmapContainer(both, count) : toArray(both, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] theirs = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                count += Long.bitCount(words[i] & theirs[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer either = (BitmapContainer) copy();
+            if (other instanceof BitmapContainer bitmap) {
+                int count = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    either.words[i] |= bitmap.words[i];
+                    count += Long.bitCount(either.words[i]);
+                }
+                either.cardinality = count;
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    either.add(array.values[i]);
+                }
+            }
+            return either;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int fill(long high, int fromLow, long[] out, int position) {
+            int wordIndex = fromLow >>> 6;
+            long word = wordIndex < WORDS ? words[wordIndex] & (-1L << fromLow) : 0;
+            while (position < out.length) {
+                while (word == 0) {
+                    if (++wordIndex == WORDS) {
+                        return position;
+                    }
+                    word = words[wordIndex];
+                }
+                out[position++] = high | ((long) wordIndex << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+            return position;
+        }
+
+        private static ArrayContainer toArray(long[] words, int cardinality) {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.simplestatustask.lookup;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of task IDs per label and per status, one {@link TaskBitmap} each, kept
+ * separately for every tenant. A filter such as "label A and label B and PENDING" is the
+ * intersection of three bitmaps, starting from the smallest, and facet counts are intersection
+ * sizes, so neither touches the database; only the page of IDs found is loaded afterwards.
+ *
+ * <p>Writes from this instance are applied after they commit and the rest are picked up by
+ * {@code TaskBitmapIndexLoader}, so answers may lag behind other instances by a refresh interval.
+ * Until the first load completes the index is incomplete and must not be queried.
+ */
+@Component
+@Slf4j
+public class TaskBitmapIndex {
+
+    private final Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * One page of a filter
+     *
+     * @param ids Matching task IDs in ascending order
+     * @param total Number of tasks matching the filter
+     */
+    public record Page(long[] ids, long total) {
+    }
+
+    /**
+     * Counts of the tasks matching a filter
+     *
+     * @param total Number of tasks matching the filter
+     * @param statuses Matching tasks per status, every status included
+     * @param labels Matching tasks per label, most frequent first; labels without any are left out
+     */
+    public record Facets(long total, Map<TaskStatus, Long> statuses, Map<String, Long> labels) {
+    }
+
+    /**
+     * Bitmaps of one tenant; each lookup holds the read lock and each change the write lock
+     */
+    private static final class TenantIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // Every task of the tenant, so an empty filter needs no union of the statuses
+        private final TaskBitmap all = new TaskBitmap();
+        private final Map<TaskStatus, TaskBitmap> statuses = new EnumMap<>(TaskStatus.class);
+        private final Map<String, TaskBitmap> labels = new HashMap<>();
+
+        private TenantIndex() {
+            for (TaskStatus status : TaskStatus.values()) {
+                statuses.put(status, new TaskBitmap());
+            }
+        }
+
+        private void setStatus(long id, TaskStatus status) {
+            all.add(id);
+            statuses.forEach((candidate, bitmap) -> {
+                if (candidate == status) {
+                    bitmap.add(id);
+                } else {
+                    bitmap.remove(id);
+                }
+            });
+        }
+
+        private void removeLabel(long id, String label) {
+            TaskBitmap bitmap = labels.get(label);
+            if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+                labels.remove(label);
+            }
+        }
+
+        private void removeLabelsExcept(long id, Collection<String> kept) {
+            labels.entrySet().removeIf(entry -> !kept.contains(entry.getKey())
+                    && entry.getValue().remove(id) && entry.getValue().isEmpty());
+        }
+    }
+
+    /**
+     * Records the status of a task, adding the task if it is new
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     * @param status Current status
+     */
+    public void setStatus(String tenantId, long id, TaskStatus status) {
+        write(tenantId, index -> index.setStatus(id, status));
+    }
+
+    /**
+     * Records a label of a task
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     * @param label Label added to the task
+     */
+    public void addLabel(String tenantId, long id, String label) {
+        write(tenantId, index -> index.labels.computeIfAbsent(label, key -> new TaskBitmap()).add(id));
+    }
+
+    /**
+     * Forgets a label of a task
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     * @param label Label removed from the task
+     */
+    public void removeLabel(String tenantId, long id, String label) {
+        write(tenantId, index -> index.removeLabel(id, label));
+    }
+
+    /**
+     * Records the complete state of a task, replacing whatever was known about it
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     * @param status Current status
+     * @param labels Every label of the task
+     */
+    public void put(String tenantId, long id, TaskStatus status, Set<String> labels) {
+        write(tenantId, index -> {
+            index.setStatus(id, status);
+            index.removeLabelsExcept(id, labels);
+            labels.forEach(label -> index.labels.computeIfAbsent(label, key -> new TaskBitmap()).add(id));
+        });
+    }
+
+    /**
+     * Forgets a deleted task
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     */
+    public void remove(String tenantId, long id) {
+        write(tenantId, index -> {
+            index.all.remove(id);
+            index.statuses.values().forEach(bitmap -> bitmap.remove(id));
+            index.removeLabelsExcept(id, Set.of());
+        });
+    }
+
+    /**
+     * Lists the tasks that have the status, if given, and every given label
+     *
+     * @param tenantId Tenant to search
+     * @param status Required status, or null for any
+     * @param labels Required labels; empty for any
+     * @param afterId Only IDs above this one are returned
+     * @param limit Maximum number of IDs to return
+     * @return Matching IDs in ascending order and the number of matches
+     */
+    public Page filter(String tenantId, TaskStatus status, Collection<String> labels, long afterId, int limit) {
+        TenantIndex index = tenants.get(tenantId);
+        if (index == null) {
+            return new Page(new long[0], 0);
+        }
+        index.lock.readLock().lock();
+        try {
+            TaskBitmap matching = matching(index, status, labels);
+            return new Page(matching.toArray(afterId, limit), matching.cardinality());
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the tasks that have the status, if given, and every given label, per status and per label
+     *
+     * @param tenantId Tenant to search
+     * @param status Required status, or null for any
+     * @param labels Required labels; empty for any
+     * @param labelLimit Maximum number of labels to return
+     * @return Number of matches, split by status and by label
+     */
+    public Facets facets(String tenantId, TaskStatus status, Collection<String> labels, int labelLimit) {
+        Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus candidate : TaskStatus.values()) {
+            statusCounts.put(candidate, 0L);
+        }
+        TenantIndex index = tenants.get(tenantId);
+        if (index == null) {
+            return new Facets(0, statusCounts, Map.of());
+        }
+        List<Map.Entry<String, Long>> labelCounts = new ArrayList<>();
+        long total;
+        index.lock.readLock().lock();
+        try {
+            TaskBitmap matching = matching(index, status, labels);
+            total = matching.cardinality();
+            index.statuses.forEach((candidate, bitmap) ->
+                    statusCounts.put(candidate, bitmap.andCardinality(matching)));
+            index.labels.forEach((label, bitmap) -> {
+                long count = bitmap.andCardinality(matching);
+                if (count > 0) {
+                    labelCounts.add(Map.entry(label, count));
+                }
+            });
+        } finally {
+            index.lock.readLock().unlock();
+        }
+
+        Map<String, Long> topLabels = new LinkedHashMap<>();
+        labelCounts.stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(labelLimit)
+                .forEach(entry -> topLabels.put(entry.getKey(), entry.getValue()));
+        return new Facets(total, statusCounts, topLabels);
+    }
+
+    /**
+     * Starts answering queries; called once every existing task has been loaded
+     */
+    public void markReady() {
+        ready = true;
+        log.info("Task bitmap index ready: {} tenants", tenants.size());
+    }
+
+    /**
+     * Whether the initial load has completed
+     *
+     * @return true once the index may be queried
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Intersects the required bitmaps from the smallest up, so each step is bounded by the
+     * smallest set; the result may be one of the index's own bitmaps and is only valid under the lock
+     */
+    private static TaskBitmap matching(TenantIndex index, TaskStatus status, Collection<String> labels) {
+        List<TaskBitmap> required = new ArrayList<>(labels.size() + 1);
+        if (status != null) {
+            required.add(index.statuses.get(status));
+        }
+        for (String label : labels) {
+            TaskBitmap bitmap = index.labels.get(label);
+            if (bitmap == null) {
+                return new TaskBitmap();
+            }
+            required.add(bitmap);
+        }
+        if (required.isEmpty()) {
+            return index.all;
+        }
+        required.sort(Comparator.comparingLong(TaskBitmap::cardinality));
+        TaskBitmap result = required.get(0);
+        for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+            result = result.and(required.get(i));
+        }
+        return result;
+    }
+
+    private void write(String tenantId, Consumer<TenantIndex> change) {
+        TenantIndex index = tenants.computeIfAbsent(tenantId, tenant -> new TenantIndex());
+        index.lock.writeLock().lock();
+        try {
+            change.accept(index);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.simplestatustask.lookup;
+
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.events.TaskLabelChangedEvent;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@link TaskBitmapIndex} in step with this instance's writes once they commit.
+ * Changes made as {@link TenantContext#ROOT} cannot be told apart by tenant and are left to
+ * the next refresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskBitmapIndexRecorder {
+
+    private final TaskBitmapIndex taskBitmapIndex;
+
+    /**
+     * Records the new status of a task, or forgets a deleted one
+     *
+     * @param event Task change published by the service
+     */
+    @TransactionalEventListener
+    public void onTaskChangeCommitted(TaskChangedEvent event) {
+        // Published inside the tenant's unit of work, which is still current after commit
+        String tenantId = TenantContext.current();
+        if (TenantContext.ROOT.equals(tenantId)) {
+            return;
+        }
+        if (event.type() == TaskEventType.DELETED) {
+            taskBitmapIndex.remove(tenantId, event.taskId());
+        } else {
+            taskBitmapIndex.setStatus(tenantId, event.taskId(), event.status());
+        }
+    }
+
+    /**
+     * Records a label added to or removed from a task
+     *
+     * @param event Label change published by the label service
+     */
+    @TransactionalEventListener
+    public void onLabelChangeCommitted(TaskLabelChangedEvent event) {
+        if (event.added()) {
+            taskBitmapIndex.addLabel(event.tenantId(), event.taskId(), event.label());
+        } else {
+            taskBitmapIndex.removeLabel(event.tenantId(), event.taskId(), event.label());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.simplestatustask.lookup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory set of existing task IDs, one bit per ID, used to answer "this task does not exist"
+ * without touching the database. Task IDs come from a sequence and are dense, so a bitmap over
+ * the ID range is exact and, unlike a Bloom filter, supports deletes.
+ * The bitmap is split into 8 KiB pages allocated on first use, so gaps in the ID range cost nothing.
+ *
+ * <p>Only a negative answer is trusted, and only for IDs up to the "complete up to" watermark:
+ * the highest ID below which every committed task has been added. {@code TaskIdFilterLoader}
+ * moves it once no create that could still commit below it is in flight. Tasks created through
+ * this instance do not move it, since lower IDs may belong to creates on other instances that
+ * have not been read yet. Until the first load completes, above the watermark and beyond the
+ * configured range, every ID might exist.
+ */
+@Component
+@Slf4j
+public class TaskIdFilter {
+
+    // 2^16 IDs per page: 1024 longs, 8 KiB
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    private static final int WORDS_PER_PAGE = 1 << (PAGE_SHIFT - 6);
+
+    private final long maxPages;
+    private final AtomicLong completeUpTo = new AtomicLong();
+
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+    private volatile boolean ready;
+
+    public TaskIdFilter(@Value("${task.lookup.id-filter.max-id:1073741824}") long maxId) {
+        this.maxPages = (maxId >>> PAGE_SHIFT) + 1;
+    }
+
+    /**
+     * Whether a task with the ID might exist
+     *
+     * @param id Task ID
+     * @return false only if the task certainly does not exist
+     */
+    public boolean mightExist(long id) {
+        if (!ready || id > completeUpTo.get()) {
+            return true;
+        }
+        if (id <= 0) {
+            return false;
+        }
+        long pageIndex = id >>> PAGE_SHIFT;
+        if (pageIndex >= maxPages) {
+            return true;
+        }
+        AtomicLongArray[] current = pages;
+        if (pageIndex >= current.length || current[(int) pageIndex] == null) {
+            return false;
+        }
+        int bit = (int) (id & PAGE_MASK);
+        return (current[(int) pageIndex].get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    /**
+     * Records an ID as existing; must be called before the creating transaction commits
+     *
+     * @param id Task ID
+     */
+    public void add(long id) {
+        long pageIndex = id >>> PAGE_SHIFT;
+        if (id <= 0 || pageIndex >= maxPages) {
+            return;
+        }
+        int bit = (int) (id & PAGE_MASK);
+        page((int) pageIndex).accumulateAndGet(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+    }
+
+    /**
+     * Records an ID as deleted; must only be called after the deleting transaction committed
+     *
+     * @param id Task ID
+     */
+    public void remove(long id) {
+        long pageIndex = id >>> PAGE_SHIFT;
+        AtomicLongArray[] current = pages;
+        if (id <= 0 || pageIndex >= current.length || current[(int) pageIndex] == null) {
+            return;
+        }
+        int bit = (int) (id & PAGE_MASK);
+        current[(int) pageIndex].accumulateAndGet(bit >>> 6, ~(1L << bit), (word, mask) -> word & mask);
+    }
+
+    /**
+     * Starts trusting negative answers up to an ID; never moves the watermark back
+     *
+     * @param id Every committed task with an ID up to this one has been added, and no create
+     *           still in flight can commit one
+     */
+    public void markCompleteUpTo(long id) {
+        completeUpTo.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Highest ID for which a negative answer is trusted
+     *
+     * @return Watermark set by {@link #markCompleteUpTo(long)}; 0 before the first call
+     */
+    public long getCompleteUpTo() {
+        return completeUpTo.get();
+    }
+
+    /**
+     * Starts answering queries; called once every existing ID has been added.
+     * Negative answers are trusted only up to the watermark.
+     */
+    public void markReady() {
+        ready = true;
+        log.info("Task ID filter ready: complete up to {}, {} KiB", completeUpTo.get(), pages.length * WORDS_PER_PAGE / 128);
+    }
+
+    /**
+     * Whether the initial load has completed
+     *
+     * @return true once negative answers are trusted
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private AtomicLongArray page(int pageIndex) {
+        AtomicLongArray[] current = pages;
+        if (pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+        synchronized (this) {
+            current = pages;
+            if (pageIndex < current.length && current[pageIndex] != null) {
+                return current[pageIndex];
+            }
+            // Copy on write, so readers only ever see fully built pages
+            AtomicLongArray[] grown = Arrays.copyOf(current, Math.max(pageIndex + 1, current.length));
+            grown[pageIndex] = new AtomicLongArray(WORDS_PER_PAGE);
+            pages = grown;
+            return grown[pageIndex];
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.simplestatustask.lookup;
+
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@link TaskIdFilter} in step with this instance's creates and deletes.
+ * Creates are added before commit and deletes removed after it, so the filter can wrongly
+ * say "might exist" after a rollback, but never "does not exist" for a committed task.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskIdFilterRecorder {
+
+    private final TaskIdFilter taskIdFilter;
+
+    /**
+     * Adds a created task, inside the creating transaction
+     *
+     * @param event Task change published by the service
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskEventType.CREATED) {
+            taskIdFilter.add(event.taskId());
+        }
+    }
+
+    /**
+     * Removes a deleted task once the delete is committed
+     *
+     * @param event Task change published by the service
+     */
+    @TransactionalEventListener
+    public void onTaskChangeCommitted(TaskChangedEvent event) {
+        if (event.type() == TaskEventType.DELETED) {
+            taskIdFilter.remove(event.taskId());
+        }
+    }
+}
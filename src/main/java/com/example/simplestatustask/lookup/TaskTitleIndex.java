@@ -0,0 +1,527 @@
+package com.example.simplestatustask.lookup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory prefix index of task titles for typeahead, kept separately for every tenant.
+ * <p>
+ * Titles are lower-cased and stored as UTF-8 in one sorted byte array per tenant, next to flat
+ * arrays of task IDs, update times and an ID-ordered permutation, about 20 bytes per task on top
+ * of the title itself and no object per task. The tasks whose title starts with a prefix are one
+ * contiguous range found by binary search, ranked most recently updated first; the latest update
+ * time of every block of 64 and 4096 entries lets a short prefix skip most of its range once the
+ * top matches are known. Changes go to a small overlay keyed by task ID, which is merged into new
+ * sorted arrays once it holds {@code task.suggest.index.overlay-size} tasks.
+ * <p>
+ * Like {@link TaskBitmapIndex}, writes from this instance are applied after they commit and the
+ * rest are picked up by {@code TaskTitleIndexLoader}; until the first load completes the index
+ * must not be queried.
+ */
+@Component
+@Slf4j
+public class TaskTitleIndex {
+
+    // Entries per block and per group of blocks summarised by their latest update time
+    private static final int BLOCK_SHIFT = 6;
+    private static final int GROUP_SHIFT = 12;
+
+    private final Map<String, TenantTitles> tenants = new ConcurrentHashMap<>();
+    private final int overlaySize;
+    private volatile boolean ready;
+
+    /**
+     * Indexed state of one task; a null key marks a task removed since the sorted arrays were built
+     *
+     * @param id Task ID
+     * @param key Normalised title
+     * @param updated Update time in epoch seconds, compared unsigned
+     */
+    private record Change(long id, byte[] key, int updated) {
+    }
+
+    /**
+     * Most recent first, then highest ID
+     */
+    private static final Comparator<Change> BY_RECENCY = (left, right) -> {
+        int byTime = Integer.compareUnsigned(left.updated(), right.updated());
+        return byTime != 0 ? byTime : Long.compare(left.id(), right.id());
+    };
+
+    private static final Comparator<Change> BY_KEY = (left, right) -> {
+        int byKey = Arrays.compareUnsigned(left.key(), right.key());
+        return byKey != 0 ? byKey : Long.compare(left.id(), right.id());
+    };
+
+    /**
+     * Immutable sorted arrays; entry i has the title bytes keys[offsets[i], offsets[i + 1])
+     */
+    private static final class Titles {
+        private static final Titles EMPTY = new Titles(0, 0);
+
+        private final byte[] keys;
+        private final int[] offsets;
+        private final long[] ids;
+        private final int[] updated;
+        // Positions in ascending ID order, to find a task's entry without a map
+        private final int[] byId;
+        // Latest update time of each aligned block and group, compared unsigned
+        private final int[] blockLatest;
+        private final int[] groupLatest;
+
+        private Titles(int size, int keyBytes) {
+            this.keys = new byte[keyBytes];
+            this.offsets = new int[size + 1];
+            this.ids = new long[size];
+            this.updated = new int[size];
+            this.byId = new int[size];
+            this.blockLatest = new int[(size >> BLOCK_SHIFT) + 1];
+            this.groupLatest = new int[(size >> GROUP_SHIFT) + 1];
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private int length(int position) {
+            return offsets[position + 1] - offsets[position];
+        }
+
+        private void set(int position, byte[] key, int from, int length, long id, int updatedAt) {
+            System.arraycopy(key, from, keys, offsets[position], length);
+            offsets[position + 1] = offsets[position] + length;
+            ids[position] = id;
+            updated[position] = updatedAt;
+        }
+
+        private int compare(int position, Change change) {
+            int byKey = Arrays.compareUnsigned(keys, offsets[position], offsets[position + 1],
+                    change.key(), 0, change.key().length);
+            return byKey != 0 ? byKey : Long.compare(ids[position], change.id());
+        }
+
+        /**
+         * First position whose title is not below the prefix, or with upper set, the first
+         * whose title neither starts with the prefix nor is below it
+         */
+        private int bound(byte[] prefix, boolean upper) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int end = upper ? Math.min(offsets[mid + 1], offsets[mid] + prefix.length) : offsets[mid + 1];
+                int comparison = Arrays.compareUnsigned(keys, offsets[mid], end, prefix, 0, prefix.length);
+                if (comparison < 0 || (upper && comparison == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void summarize() {
+            for (int position = 0; position < size(); position++) {
+                int block = position >> BLOCK_SHIFT;
+                int group = position >> GROUP_SHIFT;
+                if (Integer.compareUnsigned(updated[position], blockLatest[block]) > 0) {
+                    blockLatest[block] = updated[position];
+                }
+                if (Integer.compareUnsigned(updated[position], groupLatest[group]) > 0) {
+                    groupLatest[group] = updated[position];
+                }
+            }
+        }
+
+        private int positionOf(long id) {
+            int low = 0;
+            int high = size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long found = ids[byId[mid]];
+                if (found < id) {
+                    low = mid + 1;
+                } else if (found > id) {
+                    high = mid - 1;
+                } else {
+                    return byId[mid];
+                }
+            }
+            return -1;
+        }
+
+        private Change entry(int position) {
+            return new Change(ids[position],
+                    Arrays.copyOfRange(keys, offsets[position], offsets[position + 1]), updated[position]);
+        }
+
+        private long bytes() {
+            return keys.length + 4L * offsets.length + 8L * ids.length + 4L * updated.length + 4L * byId.length
+                    + 4L * blockLatest.length + 4L * groupLatest.length;
+        }
+    }
+
+    /**
+     * Titles of one tenant; each lookup holds the read lock and each change the write lock
+     */
+    private static final class TenantTitles {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private Titles base = Titles.EMPTY;
+        // Tasks changed since the base was built, by ID
+        private Map<Long, Change> changes = new HashMap<>();
+
+        private Change current(long id) {
+            Change change = changes.get(id);
+            if (change != null) {
+                return change.key() != null ? change : null;
+            }
+            int position = base.positionOf(id);
+            return position >= 0 ? base.entry(position) : null;
+        }
+
+        private void change(Change change) {
+            if (change.key() == null && base.positionOf(change.id()) < 0) {
+                changes.remove(change.id());
+            } else {
+                changes.put(change.id(), change);
+            }
+        }
+
+        /**
+         * Merges the overlay into new sorted arrays, in time linear in the size of the tenant
+         */
+        private void compact() {
+            Titles old = base;
+            boolean[] dropped = new boolean[old.size()];
+            List<Change> added = new ArrayList<>(changes.size());
+            for (Change change : changes.values()) {
+                int position = old.positionOf(change.id());
+                if (position >= 0) {
+                    dropped[position] = true;
+                }
+                if (change.key() != null) {
+                    added.add(change);
+                }
+            }
+            added.sort(BY_KEY);
+
+            int size = added.size();
+            int keyBytes = 0;
+            for (Change change : added) {
+                keyBytes += change.key().length;
+            }
+            for (int position = 0; position < old.size(); position++) {
+                if (!dropped[position]) {
+                    size++;
+                    keyBytes += old.length(position);
+                }
+            }
+
+            // Both sides in title order
+            Titles merged = new Titles(size, keyBytes);
+            int[] oldMoved = new int[old.size()];
+            int[] addedAt = new int[added.size()];
+            int next = 0;
+            int fromOld = 0;
+            int fromAdded = 0;
+            while (fromOld < old.size() || fromAdded < added.size()) {
+                if (fromOld < old.size() && dropped[fromOld]) {
+                    fromOld++;
+                } else if (fromAdded == added.size()
+                        || (fromOld < old.size() && old.compare(fromOld, added.get(fromAdded)) < 0)) {
+                    merged.set(next, old.keys, old.offsets[fromOld], old.length(fromOld), old.ids[fromOld], old.updated[fromOld]);
+                    oldMoved[fromOld++] = next++;
+                } else {
+                    Change change = added.get(fromAdded);
+                    merged.set(next, change.key(), 0, change.key().length, change.id(), change.updated());
+                    addedAt[fromAdded++] = next++;
+                }
+            }
+
+            // Both sides again, in ID order
+            Integer[] addedById = new Integer[added.size()];
+            for (int i = 0; i < addedById.length; i++) {
+                addedById[i] = i;
+            }
+            Arrays.sort(addedById, Comparator.comparingLong(i -> added.get(i).id()));
+            next = 0;
+            fromOld = 0;
+            fromAdded = 0;
+            while (fromOld < old.size() || fromAdded < addedById.length) {
+                if (fromOld < old.size() && dropped[old.byId[fromOld]]) {
+                    fromOld++;
+                } else if (fromAdded == addedById.length
+                        || (fromOld < old.size() && old.ids[old.byId[fromOld]] < added.get(addedById[fromAdded]).id())) {
+                    merged.byId[next++] = oldMoved[old.byId[fromOld++]];
+                } else {
+                    merged.byId[next++] = addedAt[addedById[fromAdded++]];
+                }
+            }
+
+            merged.summarize();
+            base = merged;
+            // Not cleared: the map keeps its capacity, which after the initial load covers every task
+            changes = new HashMap<>();
+        }
+    }
+
+    public TaskTitleIndex(MeterRegistry meterRegistry,
+                          @Value("${task.suggest.index.overlay-size:4096}") int overlaySize) {
+        this.overlaySize = overlaySize;
+        Gauge.builder("task.suggest.index.entries", this, TaskTitleIndex::size)
+                .description("Task titles held by the typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("task.suggest.index.bytes", this, TaskTitleIndex::bytes)
+                .description("Approximate heap taken by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the title of a task, replacing whatever was known about it
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     * @param title Current title
+     * @param updatedAt Time of the task's last update
+     */
+    public void put(String tenantId, long id, String title, ZonedDateTime updatedAt) {
+        byte[] key = normalize(title);
+        int updated = (int) updatedAt.toEpochSecond();
+        write(tenantId, titles -> {
+            Change current = titles.current(id);
+            if (current == null || current.updated() != updated || !Arrays.equals(current.key(), key)) {
+                titles.change(new Change(id, key, updated));
+            }
+        });
+    }
+
+    /**
+     * Moves a task up the ranking after a change that kept its title, if the task is known
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     * @param updatedAt Time of the task's last update
+     */
+    public void touch(String tenantId, long id, ZonedDateTime updatedAt) {
+        int updated = (int) updatedAt.toEpochSecond();
+        write(tenantId, titles -> {
+            Change current = titles.current(id);
+            if (current != null && current.updated() != updated) {
+                titles.change(new Change(id, current.key(), updated));
+            }
+        });
+    }
+
+    /**
+     * Forgets a deleted task
+     *
+     * @param tenantId Tenant owning the task
+     * @param id Task ID
+     */
+    public void remove(String tenantId, long id) {
+        write(tenantId, titles -> titles.change(new Change(id, null, 0)));
+    }
+
+    /**
+     * Finds the most recently updated tasks whose title starts with the prefix, ignoring case
+     *
+     * @param tenantId Tenant to search
+     * @param prefix Start of the title
+     * @param limit Maximum number of IDs to return
+     * @return Matching task IDs, most recently updated first
+     */
+    public long[] suggest(String tenantId, String prefix, int limit) {
+        TenantTitles titles = tenants.get(tenantId);
+        if (titles == null) {
+            return new long[0];
+        }
+        byte[] key = normalize(prefix);
+        // Least recent on top, so it is the one pushed out
+        PriorityQueue<Change> top = new PriorityQueue<>(limit + 1, BY_RECENCY);
+        Consumer<Change> offer = candidate -> {
+            if (top.size() < limit) {
+                top.add(candidate);
+            } else if (BY_RECENCY.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        };
+
+        titles.lock.readLock().lock();
+        try {
+            Titles base = titles.base;
+            boolean changed = !titles.changes.isEmpty();
+            int end = base.bound(key, true);
+            int position = base.bound(key, false);
+            while (position < end) {
+                if (top.size() == limit) {
+                    // Whole groups and blocks updated before the current last match cannot make it in
+                    int floor = top.peek().updated();
+                    if (skippable(base.groupLatest, position, end, GROUP_SHIFT, floor)) {
+                        position += 1 << GROUP_SHIFT;
+                        continue;
+                    }
+                    if (skippable(base.blockLatest, position, end, BLOCK_SHIFT, floor)) {
+                        position += 1 << BLOCK_SHIFT;
+                        continue;
+                    }
+                    if (Integer.compareUnsigned(base.updated[position], floor) < 0) {
+                        position++;
+                        continue;
+                    }
+                }
+                if (!changed || !titles.changes.containsKey(base.ids[position])) {
+                    offer.accept(new Change(base.ids[position], null, base.updated[position]));
+                }
+                position++;
+            }
+            for (Change change : titles.changes.values()) {
+                if (change.key() != null && startsWith(change.key(), key)) {
+                    offer.accept(change);
+                }
+            }
+        } finally {
+            titles.lock.readLock().unlock();
+        }
+
+        long[] ids = new long[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().id();
+        }
+        return ids;
+    }
+
+    /**
+     * Whether a title starts with the prefix, compared the way the index compares them
+     *
+     * @param title Task title
+     * @param prefix Start of the title
+     * @return true if the title matches
+     */
+    public static boolean matches(String title, String prefix) {
+        return startsWith(normalize(title), normalize(prefix));
+    }
+
+    /**
+     * Starts answering queries; called once every existing task has been loaded
+     */
+    public void markReady() {
+        tenants.values().forEach(titles -> {
+            titles.lock.writeLock().lock();
+            try {
+                titles.compact();
+            } finally {
+                titles.lock.writeLock().unlock();
+            }
+        });
+        ready = true;
+        log.info("Task title index ready: {} titles of {} tenants in about {} KB", (long) size(), tenants.size(),
+                (long) bytes() / 1024);
+    }
+
+    /**
+     * Whether the initial load has completed
+     *
+     * @return true once the index may be queried
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of tasks indexed
+     *
+     * @return Titles held, over all tenants
+     */
+    public double size() {
+        return sum(titles -> {
+            long size = titles.base.size();
+            for (Change change : titles.changes.values()) {
+                // Removals are only kept for tasks in the base, additions may replace one there
+                if (change.key() == null) {
+                    size--;
+                } else if (titles.base.positionOf(change.id()) < 0) {
+                    size++;
+                }
+            }
+            return size;
+        });
+    }
+
+    /**
+     * Approximate heap taken by the index: the exact size of the sorted arrays, plus an estimate
+     * for the overlay entries, which carry the usual object and map overhead
+     *
+     * @return Bytes held, over all tenants
+     */
+    public double bytes() {
+        return sum(titles -> {
+            long bytes = titles.base.bytes();
+            for (Change change : titles.changes.values()) {
+                // Map node, boxed key, record and array headers
+                bytes += 96 + (change.key() != null ? change.key().length : 0);
+            }
+            return bytes;
+        });
+    }
+
+    private double sum(Function<TenantTitles, Long> measure) {
+        long total = 0;
+        for (TenantTitles titles : tenants.values()) {
+            titles.lock.readLock().lock();
+            try {
+                total += measure.apply(titles);
+            } finally {
+                titles.lock.readLock().unlock();
+            }
+        }
+        return total;
+    }
+
+    private void write(String tenantId, Consumer<TenantTitles> change) {
+        TenantTitles titles = tenants.computeIfAbsent(tenantId, tenant -> new TenantTitles());
+        titles.lock.writeLock().lock();
+        try {
+            change.accept(titles);
+            // While loading, everything is merged once by markReady
+            if (ready && titles.changes.size() >= overlaySize) {
+                titles.compact();
+            }
+        } finally {
+            titles.lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean skippable(int[] latest, int position, int end, int shift, int floor) {
+        return (position & ((1 << shift) - 1)) == 0 && position + (1 << shift) <= end
+                && Integer.compareUnsigned(latest[position >> shift], floor) < 0;
+    }
+
+    private static byte[] normalize(String text) {
+        return text.stripLeading().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
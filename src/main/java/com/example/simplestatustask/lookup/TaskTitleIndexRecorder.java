@@ -0,0 +1,39 @@
+package com.example.simplestatustask.lookup;
+
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@link TaskTitleIndex} in step with this instance's writes once they commit.
+ * Changes made as {@link TenantContext#ROOT}, or before the index is loaded, are left to the
+ * next refresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskTitleIndexRecorder {
+
+    private final TaskTitleIndex taskTitleIndex;
+
+    /**
+     * Records the new title and update time of a task, or forgets a deleted one
+     *
+     * @param event Task change published by the service
+     */
+    @TransactionalEventListener
+    public void onTaskChangeCommitted(TaskChangedEvent event) {
+        // Published inside the tenant's unit of work, which is still current after commit
+        String tenantId = TenantContext.current();
+        if (TenantContext.ROOT.equals(tenantId) || !taskTitleIndex.isReady()) {
+            return;
+        }
+        switch (event.type()) {
+            case DELETED -> taskTitleIndex.remove(tenantId, event.taskId());
+            // Status-only payloads carry no title
+            case STATUS_CHANGED -> taskTitleIndex.touch(tenantId, event.taskId(), event.occurredAt());
+            default -> taskTitleIndex.put(tenantId, event.taskId(), event.task().getTitle(), event.occurredAt());
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.example.simplestatustask.mapper;
 
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
 import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
 import com.example.simplestatustask.dto.TaskUpdateDto;
 import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskHourlyStats;
+import com.example.simplestatustask.models.TaskStatusHistory;
+import com.example.simplestatustask.models.TaskTombstone;
+import com.example.simplestatustask.repository.TaskSummaryView;
 import org.mapstruct.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface TaskMapper {
 
@@ -17,6 +28,23 @@ public interface TaskMapper {
      */
     TaskResponseDto toResponseDto(Task task);
 
+    /**
+     * Converts Task entity to TaskResponseDto without touching the lazy description
+     *
+     * @param task Task entity to convert
+     * @return TaskResponseDto with a null description
+     */
+    @Mapping(target = "description", ignore = true)
+    TaskResponseDto toSummaryResponseDto(Task task);
+
+    /**
+     * Converts a task summary projection to TaskResponseDto; the description stays null
+     *
+     * @param summary Projection without the description column
+     * @return TaskResponseDto for API response
+     */
+    TaskResponseDto summaryToResponseDto(TaskSummaryView summary);
+
     /**
      * Converts TaskCreateDto to Task entity for persistence
      * Sets default values for fields not provided in DTO
@@ -25,6 +53,7 @@ public interface TaskMapper {
      * @return Task entity ready for persistence
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "status", defaultValue = "PENDING")
@@ -38,8 +67,47 @@ public interface TaskMapper {
      * @param task Existing task entity to update
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDto(TaskUpdateDto updateDto, @MappingTarget Task task);
-}
\ No newline at end of file
+
+    /**
+     * Converts TaskTombstone entity to TaskTombstoneDto for the change feed
+     *
+     * @param tombstone Tombstone entity to convert
+     * @return TaskTombstoneDto for API response
+     */
+    @Mapping(target = "id", source = "taskId")
+    TaskTombstoneDto toTombstoneDto(TaskTombstone tombstone);
+
+    /**
+     * Converts a TaskStatusHistory entry to TaskStatusHistoryDto
+     *
+     * @param history History entry to convert
+     * @return TaskStatusHistoryDto for API response
+     */
+    TaskStatusHistoryDto toHistoryDto(TaskStatusHistory history);
+
+    /**
+     * Converts a TaskHourlyStats row to TaskHourlyStatsDto
+     *
+     * @param stats Hourly row to convert
+     * @return TaskHourlyStatsDto for API response
+     */
+    @Mapping(target = "hourStart", source = "bucketStart")
+    @Mapping(target = "created", source = "createdCount")
+    @Mapping(target = "completed", source = "completedCount")
+    TaskHourlyStatsDto toHourlyStatsDto(TaskHourlyStats stats);
+
+    /**
+     * Reads a wall-clock time from a request, such as a due date, as Almaty time
+     *
+     * @param time Time without zone, or null
+     * @return The same time in Asia/Almaty, or null
+     */
+    default ZonedDateTime toAlmatyTime(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.of("Asia/Almaty")) : null;
+    }
+}
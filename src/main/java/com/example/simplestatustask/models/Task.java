@@ -1,12 +1,17 @@
 package com.example.simplestatustask.models;
 
+import com.example.simplestatustask.config.HibernateCacheConfig;
 import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.shard.ShardAwareSequence;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.TenantId;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -15,6 +20,8 @@ import java.time.ZonedDateTime;
 
 @Entity
 @Table(name = "tasks")
+@NamedEntityGraph(name = Task.WITH_DESCRIPTION_GRAPH, attributeNodes = @NamedAttributeNode("description"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TASK_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,13 +29,25 @@ import java.time.ZonedDateTime;
 public class Task {
 
     /**
-     * Unique identifier for the task using UUID
+     * Fetch graph that loads the lazy description in the same select as the rest of the row
+     */
+    public static final String WITH_DESCRIPTION_GRAPH = "Task.withDescription";
+
+    /**
+     * Unique identifier for the task; also encodes its shard once sharding is enabled
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
-    @SequenceGenerator(name = "task_seq", sequenceName = "task_sequence", allocationSize = 1)
+    @ShardAwareSequence(sequenceName = "task_sequence")
     private Long id;
 
+    /**
+     * Tenant owning the task, set from the current tenant on insert.
+     * Hibernate adds it to every query on tasks, which lets PostgreSQL prune to the tenant's partition.
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     /**
      * Title of the task - required field with maximum 100 characters
      */
@@ -36,8 +55,10 @@ public class Task {
     private String title;
 
     /**
-     * Description of the task - optional field
+     * Description of the task - optional field.
+     * Unbounded, so it is only fetched when first read (requires bytecode enhancement)
      */
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
@@ -49,6 +70,18 @@ public class Task {
     @Column(name = "status", nullable = false)
     private TaskStatus status;
 
+    /**
+     * Urgency from 0 to 100; higher priorities are worked on first
+     */
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    /**
+     * Time the task should be done by, or null; among equal priorities the earliest comes first
+     */
+    @Column(name = "due_at")
+    private ZonedDateTime dueAt;
+
     /**
      * Timestamp when the task was created
      * Automatically set on entity creation
@@ -65,6 +98,38 @@ public class Task {
     @Column(name = "updated_at", nullable = false)
     private ZonedDateTime updatedAt;
 
+    /**
+     * Worker currently holding the task, set while a claimed task is IN_PROGRESS
+     */
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    /**
+     * Time the current lease runs out; expired leases are returned to PENDING
+     */
+    @Column(name = "lease_expires_at")
+    private ZonedDateTime leaseExpiresAt;
+
+    /**
+     * Time a scheduled transition is due, or null when none is scheduled
+     */
+    @Column(name = "scheduled_transition_at")
+    private ZonedDateTime scheduledTransitionAt;
+
+    /**
+     * Status the task must still have for the scheduled transition to happen
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scheduled_expected_status", length = 20)
+    private TaskStatus scheduledExpectedStatus;
+
+    /**
+     * Status the scheduled transition moves the task to
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scheduled_target_status", length = 20)
+    private TaskStatus scheduledTargetStatus;
+
     /**
      * Constructor for creating a new task with title, description and status
      *
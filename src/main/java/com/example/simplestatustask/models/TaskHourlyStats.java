@@ -0,0 +1,61 @@
+package com.example.simplestatustask.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+@Entity
+@Table(name = "task_hourly_stats")
+@IdClass(TaskHourlyStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHourlyStats {
+
+    /**
+     * Tenant whose tasks are counted
+     */
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    /**
+     * Start of the hour, Almaty time
+     */
+    @Id
+    @Column(name = "bucket_start")
+    private ZonedDateTime bucketStart;
+
+    /**
+     * Tasks created during the hour
+     */
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    /**
+     * Tasks that entered COMPLETED during the hour
+     */
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    /**
+     * Composite key of an hour of one tenant
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private ZonedDateTime bucketStart;
+    }
+}
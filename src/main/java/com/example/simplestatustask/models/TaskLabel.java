@@ -0,0 +1,52 @@
+package com.example.simplestatustask.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "task_labels")
+@IdClass(TaskLabel.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskLabel {
+
+    /**
+     * Labelled task
+     */
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Label name, up to 50 characters
+     */
+    @Id
+    @Column(name = "label", length = 50)
+    private String label;
+
+    /**
+     * Tenant of the labelled task
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    /**
+     * Composite key of a task label
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long taskId;
+        private String label;
+    }
+}
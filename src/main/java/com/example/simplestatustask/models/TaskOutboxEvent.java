@@ -0,0 +1,65 @@
+package com.example.simplestatustask.models;
+
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.shard.ShardAwareSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+@Entity
+@Table(name = "task_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskOutboxEvent {
+
+    /**
+     * Outbox sequence number; delivery follows this order
+     */
+    @Id
+    @ShardAwareSequence(sequenceName = "task_outbox_sequence", allocationSize = 50, taskId = false)
+    private Long id;
+
+    /**
+     * ID of the task the event is about
+     */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /**
+     * Tenant of the task. A plain column, not a tenant discriminator: the relay delivers
+     * every tenant's events
+     */
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+
+    /**
+     * Kind of change
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private TaskEventType eventType;
+
+    /**
+     * Task state as JSON, serialized at write time
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Time of the change
+     */
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    /**
+     * Time the relay handed the event to the sink, null while pending
+     */
+    @Column(name = "delivered_at")
+    private ZonedDateTime deliveredAt;
+}
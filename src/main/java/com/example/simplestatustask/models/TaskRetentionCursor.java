@@ -0,0 +1,75 @@
+package com.example.simplestatustask.models;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Position of the retention purge in one tenant's tasks of one status.
+ * The tenant is an explicit key column rather than a {@code @TenantId}: the purge names the tenant it works on.
+ */
+@Entity
+@Table(name = "task_retention_cursors")
+@IdClass(TaskRetentionCursor.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskRetentionCursor {
+
+    /**
+     * Tenant being purged
+     */
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    /**
+     * Status being purged
+     */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private TaskStatus status;
+
+    /**
+     * Update timestamp of the last purged task
+     */
+    @Column(name = "last_updated_at", nullable = false)
+    private ZonedDateTime lastUpdatedAt;
+
+    /**
+     * ID of the last purged task, the tie-breaker for equal timestamps
+     */
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    /**
+     * Tasks purged since the cursor was created
+     */
+    @Column(name = "purged_count", nullable = false)
+    private long purgedCount;
+
+    /**
+     * When the cursor last moved
+     */
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    /**
+     * Composite key of a cursor
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private TaskStatus status;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.simplestatustask.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Placement of one virtual shard, kept on the first shard only.
+ * Virtual shards without a row live on virtual shard modulo shard count.
+ */
+@Entity
+@Table(name = "task_shard_map")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskShardAssignment {
+
+    /**
+     * Virtual shard, taken from the high bits of a task ID
+     */
+    @Id
+    @Column(name = "virtual_shard")
+    private Integer virtualShard;
+
+    /**
+     * Physical shard holding the virtual shard's tasks, 0 being spring.datasource
+     */
+    @Column(name = "shard", nullable = false)
+    private int shard;
+
+    /**
+     * Set while the rebalancer copies the virtual shard; writes to its tasks are refused meanwhile
+     */
+    @Column(name = "moving", nullable = false)
+    private boolean moving;
+}
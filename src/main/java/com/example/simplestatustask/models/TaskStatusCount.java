@@ -0,0 +1,67 @@
+package com.example.simplestatustask.models;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "task_status_counts")
+@IdClass(TaskStatusCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatusCount {
+
+    /**
+     * Rows per status. Each transaction adds its delta to one randomly chosen slot, so
+     * concurrent writers rarely wait on the same row; the count is the sum over all slots.
+     * A tenant's slots are created together on its first write.
+     */
+    public static final int SLOTS = 16;
+
+    /**
+     * Tenant whose tasks are counted
+     */
+    @Id
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    /**
+     * Status being counted
+     */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private TaskStatus status;
+
+    /**
+     * Stripe number, 0 to SLOTS - 1
+     */
+    @Id
+    @Column(name = "slot")
+    private int slot;
+
+    /**
+     * Share of the count held by this slot; may be negative
+     */
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    /**
+     * Composite key of a counter slot
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tenantId;
+        private TaskStatus status;
+        private int slot;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.simplestatustask.models;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.shard.ShardAwareSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+
+import java.time.ZonedDateTime;
+
+@Entity
+@Table(name = "task_status_history")
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatusHistory {
+
+    /**
+     * History entry ID from a pooled sequence, so appends need no extra round trip
+     */
+    @Id
+    @ShardAwareSequence(sequenceName = "task_status_history_sequence", allocationSize = 50, taskId = false)
+    private Long id;
+
+    /**
+     * Tenant of the task; history is only visible to its own tenant
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    /**
+     * ID of the task; kept after the task is deleted
+     */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /**
+     * Status before the change, null when the task was created
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private TaskStatus fromStatus;
+
+    /**
+     * Status the task entered
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private TaskStatus toStatus;
+
+    /**
+     * Time of the change; the partition key
+     */
+    @Column(name = "changed_at", nullable = false)
+    private ZonedDateTime changedAt;
+}
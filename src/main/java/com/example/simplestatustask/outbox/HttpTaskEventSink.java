@@ -0,0 +1,47 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Sink that POSTs each batch as a JSON array to a downstream endpoint.
+ * Any non-2xx response or I/O error fails the batch, which is then retried by the relay.
+ */
+@Component
+@ConditionalOnProperty(name = "task.outbox.sink", havingValue = "http")
+@Slf4j
+public class HttpTaskEventSink implements TaskEventSink {
+
+    private final RestClient restClient;
+
+    public HttpTaskEventSink(RestClient.Builder restClientBuilder,
+                             @Value("${task.outbox.http.url}") String url,
+                             @Value("${task.outbox.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+                             @Value("${task.outbox.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restClient = restClientBuilder
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public void deliver(List<TaskOutboxEvent> events) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(TaskEventJson.toJson(events))
+                .retrieve()
+                .toBodilessEntity();
+        log.debug("Delivered {} task events over HTTP", events.size());
+    }
+}
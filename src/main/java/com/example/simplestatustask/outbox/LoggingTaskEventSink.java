@@ -0,0 +1,27 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default sink: writes one JSON line per event to the "task.events" logger.
+ * Route that logger to its own file appender to get an event log on disk.
+ */
+@Component
+@ConditionalOnProperty(name = "task.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingTaskEventSink implements TaskEventSink {
+
+    private static final Logger EVENT_LOG = LoggerFactory.getLogger("task.events");
+
+    @Override
+    public void deliver(List<TaskOutboxEvent> events) {
+        for (TaskOutboxEvent event : events) {
+            EVENT_LOG.info(TaskEventJson.toJson(event));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Renders outbox events in the wire format shared by the sinks.
+ * The stored payload is already JSON and is embedded as-is instead of being parsed again.
+ */
+final class TaskEventJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private TaskEventJson() {
+    }
+
+    /**
+     * @param event Event to render
+     * @return Event envelope as a JSON object
+     */
+    static String toJson(TaskOutboxEvent event) {
+        return write(generator -> writeEvent(generator, event));
+    }
+
+    /**
+     * @param events Events to render
+     * @return Event envelopes as a JSON array
+     */
+    static String toJson(List<TaskOutboxEvent> events) {
+        return write(generator -> {
+            generator.writeStartArray();
+            for (TaskOutboxEvent event : events) {
+                writeEvent(generator, event);
+            }
+            generator.writeEndArray();
+        });
+    }
+
+    private static void writeEvent(JsonGenerator generator, TaskOutboxEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("eventId", event.getId());
+        generator.writeNumberField("taskId", event.getTaskId());
+        generator.writeStringField("tenantId", event.getTenantId());
+        generator.writeStringField("type", event.getEventType().name());
+        generator.writeStringField("occurredAt", event.getCreatedAt().toOffsetDateTime().toString());
+        generator.writeFieldName("task");
+        generator.writeRawValue(event.getPayload());
+        generator.writeEndObject();
+    }
+
+    private static String write(JsonWriter body) {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            body.write(generator);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.models.TaskOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for task change events drained from the outbox.
+ * Implementations must throw if delivery fails; the batch then stays pending and is retried,
+ * so delivery is at-least-once and consumers should de-duplicate on the event ID.
+ */
+public interface TaskEventSink {
+
+    /**
+     * Delivers a batch of events in outbox order
+     *
+     * @param events Events to deliver, never empty
+     */
+    void deliver(List<TaskOutboxEvent> events);
+}
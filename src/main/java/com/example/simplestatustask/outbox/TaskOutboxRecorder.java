@@ -0,0 +1,54 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import com.example.simplestatustask.repository.TaskOutboxRepository;
+import com.example.simplestatustask.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes an outbox row for every task change, inside the transaction that made the change.
+ * Delivery is left to {@link TaskOutboxRelay}, so the write path only pays for one insert.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskOutboxRecorder {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Appends the change to the outbox
+     *
+     * @param event Task change published by the service
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskOutboxEvent outboxEvent = TaskOutboxEvent.builder()
+                .taskId(event.taskId())
+                .tenantId(TenantContext.current())
+                .eventType(event.type())
+                .payload(toJson(event))
+                .createdAt(event.occurredAt())
+                .build();
+        taskOutboxRepository.save(outboxEvent);
+        log.debug("Recorded {} event for task {} in outbox", event.type(), event.taskId());
+    }
+
+    private String toJson(TaskChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event.task());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize task " + event.taskId() + " for the outbox", ex);
+        }
+    }
+}
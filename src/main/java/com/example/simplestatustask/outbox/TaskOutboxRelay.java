@@ -0,0 +1,185 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import com.example.simplestatustask.repository.TaskOutboxRepository;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the task outbox into the configured {@link TaskEventSink}.
+ * Each batch is locked with FOR UPDATE SKIP LOCKED, delivered and marked in one transaction,
+ * so any number of relay instances can run side by side. Delivered rows are pruned in chunks.
+ */
+@Component
+@Slf4j
+public class TaskOutboxRelay {
+
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskEventSink taskEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskShardRouter taskShardRouter;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration deliveredRetention;
+    private final int pruneChunkSize;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter deliveredCounter;
+    private final Counter prunedCounter;
+
+    public TaskOutboxRelay(TaskOutboxRepository taskOutboxRepository,
+                           TaskEventSink taskEventSink,
+                           TransactionTemplate transactionTemplate,
+                           TaskShardRouter taskShardRouter,
+                           MeterRegistry meterRegistry,
+                           @Value("${task.outbox.relay.enabled:true}") boolean enabled,
+                           @Value("${task.outbox.relay.batch-size:100}") int batchSize,
+                           @Value("${task.outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun,
+                           @Value("${task.outbox.prune.delivered-retention-ms:3600000}") long deliveredRetentionMs,
+                           @Value("${task.outbox.prune.chunk-size:1000}") int pruneChunkSize) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.taskEventSink = taskEventSink;
+        this.transactionTemplate = transactionTemplate;
+        this.taskShardRouter = taskShardRouter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.deliveredRetention = Duration.ofMillis(deliveredRetentionMs);
+        this.pruneChunkSize = pruneChunkSize;
+
+        TimeGauge.builder("task.outbox.relay.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("task.outbox.relay.batch")
+                .description("Time to lock, deliver and mark one outbox batch")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("task.outbox.relay.batch.size")
+                .description("Events per delivered outbox batch")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("task.outbox.relay.delivered")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.prunedCounter = Counter.builder("task.outbox.pruned")
+                .description("Delivered outbox events deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.outbox.relay.interval-ms:500}")
+    public void scheduledRelay() {
+        if (enabled) {
+            relayPending();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.outbox.prune.interval-ms:60000}")
+    public void scheduledPrune() {
+        if (enabled) {
+            pruneDelivered();
+        }
+    }
+
+    /**
+     * Delivers pending events batch by batch until the outbox is drained or the per-run cap is hit.
+     * Every shard has its own outbox; they are drained side by side.
+     *
+     * @return Number of events delivered
+     */
+    public int relayPending() {
+        int delivered = taskShardRouter.onEachShard(this::relayShard).stream().mapToInt(Integer::intValue).sum();
+        updateLag();
+        if (delivered > 0) {
+            log.debug("Relayed {} outbox events", delivered);
+        }
+        return delivered;
+    }
+
+    /**
+     * Deletes delivered events older than the retention, one chunk per transaction, on every shard
+     *
+     * @return Number of events deleted
+     */
+    public int pruneDelivered() {
+        ZonedDateTime cutoff = ZonedDateTime.now(ALMATY_ZONE).minus(deliveredRetention);
+        int pruned = taskShardRouter.onEachShard(() -> pruneShard(cutoff)).stream().mapToInt(Integer::intValue).sum();
+        prunedCounter.increment(pruned);
+        if (pruned > 0) {
+            log.info("Pruned {} delivered outbox events older than {}", pruned, cutoff);
+        }
+        return pruned;
+    }
+
+    private int relayShard() {
+        int delivered = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int count = deliverBatch();
+                delivered += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox delivery failed, batch will be retried: {}", ex.getMessage());
+        }
+        return delivered;
+    }
+
+    private int pruneShard(ZonedDateTime cutoff) {
+        int pruned = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    taskOutboxRepository.deleteDeliveredChunk(cutoff, pruneChunkSize));
+            pruned += deleted;
+        } while (deleted == pruneChunkSize);
+        return pruned;
+    }
+
+    private int deliverBatch() {
+        return batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<TaskOutboxEvent> batch = taskOutboxRepository.lockPendingBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            taskEventSink.deliver(batch);
+            taskOutboxRepository.markDelivered(
+                    batch.stream().map(TaskOutboxEvent::getId).toList(), ZonedDateTime.now(ALMATY_ZONE));
+            batchSizeSummary.record(batch.size());
+            deliveredCounter.increment(batch.size());
+            return batch.size();
+        }));
+    }
+
+    private void updateLag() {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        long lag = taskShardRouter.onEachShard(taskOutboxRepository::findOldestPendingCreatedAt).stream()
+                .flatMap(Optional::stream)
+                .mapToLong(oldest -> Math.max(0, Duration.between(oldest, now).toMillis()))
+                .max()
+                .orElse(0L);
+        lagMillis.set(lag);
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.simplestatustask.protobuf;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written encoder/decoder for the messages in src/main/proto/task.proto.
+ * Written against the protobuf runtime only, so the build needs no protoc step;
+ * unknown fields are skipped, so newer clients can add fields without breaking the server.
+ */
+public final class TaskProtobufCodec {
+
+    // Almaty timezone constant, the zone of all LocalDateTime values in the DTOs
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // TaskCreate
+    private static final int CREATE_TITLE = 1;
+    private static final int CREATE_DESCRIPTION = 2;
+    private static final int CREATE_STATUS = 3;
+    private static final int CREATE_PRIORITY = 4;
+    private static final int CREATE_DUE_AT = 5;
+
+    // TaskResponse
+    private static final int RESPONSE_ID = 1;
+    private static final int RESPONSE_TITLE = 2;
+    private static final int RESPONSE_DESCRIPTION = 3;
+    private static final int RESPONSE_STATUS = 4;
+    private static final int RESPONSE_CREATED_AT = 5;
+    private static final int RESPONSE_UPDATED_AT = 6;
+    private static final int RESPONSE_PRIORITY = 7;
+    private static final int RESPONSE_DUE_AT = 8;
+
+    // TaskList
+    private static final int LIST_TASKS = 1;
+
+    // google.protobuf.Timestamp
+    private static final int TIMESTAMP_SECONDS = 1;
+    private static final int TIMESTAMP_NANOS = 2;
+
+    private TaskProtobufCodec() {
+    }
+
+    /**
+     * Encodes a TaskCreate message
+     *
+     * @param dto Task creation data
+     * @param stream Target stream, left open
+     */
+    public static void writeCreate(TaskCreateDto dto, OutputStream stream) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(stream);
+        writeString(out, CREATE_TITLE, dto.getTitle());
+        writeString(out, CREATE_DESCRIPTION, dto.getDescription());
+        writeStatus(out, CREATE_STATUS, dto.getStatus());
+        writePriority(out, CREATE_PRIORITY, dto.getPriority());
+        writeTimestamp(out, CREATE_DUE_AT, dto.getDueAt());
+        out.flush();
+    }
+
+    /**
+     * Decodes a TaskCreate message; an unspecified status keeps the PENDING default,
+     * an unspecified priority the default of 0
+     *
+     * @param stream Message bytes, read to the end
+     * @return Task creation data
+     */
+    public static TaskCreateDto readCreate(InputStream stream) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(stream);
+        TaskCreateDto dto = new TaskCreateDto();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case CREATE_TITLE -> dto.setTitle(in.readStringRequireUtf8());
+                case CREATE_DESCRIPTION -> dto.setDescription(in.readStringRequireUtf8());
+                case CREATE_STATUS -> {
+                    TaskStatus status = toStatus(in.readEnum());
+                    if (status != null) {
+                        dto.setStatus(status);
+                    }
+                }
+                case CREATE_PRIORITY -> dto.setPriority(in.readInt32());
+                case CREATE_DUE_AT -> dto.setDueAt(readTimestamp(in));
+                default -> in.skipField(tag);
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Encodes a TaskResponse message
+     *
+     * @param dto Task to encode
+     * @param stream Target stream, left open
+     */
+    public static void writeResponse(TaskResponseDto dto, OutputStream stream) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(stream);
+        writeResponseFields(out, dto);
+        out.flush();
+    }
+
+    /**
+     * Decodes a TaskResponse message
+     *
+     * @param stream Message bytes, read to the end
+     * @return Decoded task
+     */
+    public static TaskResponseDto readResponse(InputStream stream) throws IOException {
+        return readResponse(CodedInputStream.newInstance(stream));
+    }
+
+    /**
+     * Encodes a TaskList message
+     *
+     * @param tasks Tasks to encode, in order
+     * @param stream Target stream, left open
+     */
+    public static void writeList(List<TaskResponseDto> tasks, OutputStream stream) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(stream);
+        for (TaskResponseDto task : tasks) {
+            out.writeByteArray(LIST_TASKS, toBytes(task));
+        }
+        out.flush();
+    }
+
+    /**
+     * Decodes a TaskList message
+     *
+     * @param stream Message bytes, read to the end
+     * @return Decoded tasks, in order
+     */
+    public static List<TaskResponseDto> readList(InputStream stream) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(stream);
+        List<TaskResponseDto> tasks = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == LIST_TASKS) {
+                int limit = in.pushLimit(in.readRawVarint32());
+                tasks.add(readResponse(in));
+                in.popLimit(limit);
+            } else {
+                in.skipField(tag);
+            }
+        }
+        return tasks;
+    }
+
+    private static byte[] toBytes(TaskResponseDto dto) throws IOException {
+        byte[] bytes = new byte[responseSize(dto)];
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        writeResponseFields(out, dto);
+        out.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    private static void writeResponseFields(CodedOutputStream out, TaskResponseDto dto) throws IOException {
+        if (dto.getId() != null) {
+            out.writeInt64(RESPONSE_ID, dto.getId());
+        }
+        writeString(out, RESPONSE_TITLE, dto.getTitle());
+        writeString(out, RESPONSE_DESCRIPTION, dto.getDescription());
+        writeStatus(out, RESPONSE_STATUS, dto.getStatus());
+        writeTimestamp(out, RESPONSE_CREATED_AT, dto.getCreatedAt());
+        writeTimestamp(out, RESPONSE_UPDATED_AT, dto.getUpdatedAt());
+        writePriority(out, RESPONSE_PRIORITY, dto.getPriority());
+        writeTimestamp(out, RESPONSE_DUE_AT, dto.getDueAt());
+    }
+
+    private static int responseSize(TaskResponseDto dto) {
+        int size = 0;
+        if (dto.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(RESPONSE_ID, dto.getId());
+        }
+        if (dto.getTitle() != null) {
+            size += CodedOutputStream.computeStringSize(RESPONSE_TITLE, dto.getTitle());
+        }
+        if (dto.getDescription() != null) {
+            size += CodedOutputStream.computeStringSize(RESPONSE_DESCRIPTION, dto.getDescription());
+        }
+        if (dto.getStatus() != null) {
+            size += CodedOutputStream.computeEnumSize(RESPONSE_STATUS, dto.getStatus().ordinal() + 1);
+        }
+        size += timestampFieldSize(RESPONSE_CREATED_AT, dto.getCreatedAt());
+        size += timestampFieldSize(RESPONSE_UPDATED_AT, dto.getUpdatedAt());
+        if (dto.getPriority() != null && dto.getPriority() != 0) {
+            size += CodedOutputStream.computeInt32Size(RESPONSE_PRIORITY, dto.getPriority());
+        }
+        size += timestampFieldSize(RESPONSE_DUE_AT, dto.getDueAt());
+        return size;
+    }
+
+    private static TaskResponseDto readResponse(CodedInputStream in) throws IOException {
+        TaskResponseDto dto = new TaskResponseDto();
+        // proto3 leaves out zero values
+        dto.setPriority(0);
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case RESPONSE_ID -> dto.setId(in.readInt64());
+                case RESPONSE_TITLE -> dto.setTitle(in.readStringRequireUtf8());
+                case RESPONSE_DESCRIPTION -> dto.setDescription(in.readStringRequireUtf8());
+                case RESPONSE_STATUS -> dto.setStatus(toStatus(in.readEnum()));
+                case RESPONSE_CREATED_AT -> dto.setCreatedAt(readTimestamp(in));
+                case RESPONSE_UPDATED_AT -> dto.setUpdatedAt(readTimestamp(in));
+                case RESPONSE_PRIORITY -> dto.setPriority(in.readInt32());
+                case RESPONSE_DUE_AT -> dto.setDueAt(readTimestamp(in));
+                default -> in.skipField(tag);
+            }
+        }
+        return dto;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    // Enum numbers are the TaskStatus ordinal + 1; 0 is TASK_STATUS_UNSPECIFIED
+    private static void writeStatus(CodedOutputStream out, int field, TaskStatus status) throws IOException {
+        if (status != null) {
+            out.writeEnum(field, status.ordinal() + 1);
+        }
+    }
+
+    // Written like a proto3 int32: absent when zero
+    private static void writePriority(CodedOutputStream out, int field, Integer priority) throws IOException {
+        if (priority != null && priority != 0) {
+            out.writeInt32(field, priority);
+        }
+    }
+
+    private static TaskStatus toStatus(int number) {
+        TaskStatus[] values = TaskStatus.values();
+        if (number < 1 || number > values.length) {
+            return null;
+        }
+        return values[number - 1];
+    }
+
+    private static void writeTimestamp(CodedOutputStream out, int field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        Instant instant = value.atZone(ALMATY_ZONE).toInstant();
+        out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(timestampSize(instant));
+        if (instant.getEpochSecond() != 0) {
+            out.writeInt64(TIMESTAMP_SECONDS, instant.getEpochSecond());
+        }
+        if (instant.getNano() != 0) {
+            out.writeInt32(TIMESTAMP_NANOS, instant.getNano());
+        }
+    }
+
+    private static int timestampFieldSize(int field, LocalDateTime value) {
+        if (value == null) {
+            return 0;
+        }
+        int size = timestampSize(value.atZone(ALMATY_ZONE).toInstant());
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static int timestampSize(Instant instant) {
+        int size = 0;
+        if (instant.getEpochSecond() != 0) {
+            size += CodedOutputStream.computeInt64Size(TIMESTAMP_SECONDS, instant.getEpochSecond());
+        }
+        if (instant.getNano() != 0) {
+            size += CodedOutputStream.computeInt32Size(TIMESTAMP_NANOS, instant.getNano());
+        }
+        return size;
+    }
+
+    private static LocalDateTime readTimestamp(CodedInputStream in) throws IOException {
+        int limit = in.pushLimit(in.readRawVarint32());
+        long seconds = 0;
+        int nanos = 0;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case TIMESTAMP_SECONDS -> seconds = in.readInt64();
+                case TIMESTAMP_NANOS -> nanos = in.readInt32();
+                default -> in.skipField(tag);
+            }
+        }
+        in.popLimit(limit);
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ALMATY_ZONE);
+    }
+}
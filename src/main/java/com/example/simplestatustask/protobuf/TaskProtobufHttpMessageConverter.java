@@ -0,0 +1,85 @@
+package com.example.simplestatustask.protobuf;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes the task payloads as application/x-protobuf using {@link TaskProtobufCodec}.
+ * Supports TaskCreateDto (request), TaskResponseDto and List&lt;TaskResponseDto&gt; (responses);
+ * any other body falls through to the other converters.
+ */
+public class TaskProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    public TaskProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TaskCreateDto.class || clazz == TaskResponseDto.class || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type == TaskCreateDto.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == TaskResponseDto.class || clazz == TaskCreateDto.class) {
+            return true;
+        }
+        return List.class.isAssignableFrom(clazz) && isTaskResponseList(type);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return readInternal(TaskCreateDto.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        try {
+            return TaskProtobufCodec.readCreate(inputMessage.getBody());
+        } catch (com.google.protobuf.InvalidProtocolBufferException ex) {
+            throw new HttpMessageNotReadableException("Malformed protobuf TaskCreate: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (body instanceof TaskResponseDto task) {
+            TaskProtobufCodec.writeResponse(task, outputMessage.getBody());
+        } else if (body instanceof TaskCreateDto create) {
+            TaskProtobufCodec.writeCreate(create, outputMessage.getBody());
+        } else {
+            TaskProtobufCodec.writeList((List<TaskResponseDto>) body, outputMessage.getBody());
+        }
+    }
+
+    private static boolean isTaskResponseList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments().length == 1
+                && parameterized.getActualTypeArguments()[0] == TaskResponseDto.class;
+    }
+}
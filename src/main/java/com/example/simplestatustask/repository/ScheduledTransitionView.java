@@ -0,0 +1,15 @@
+package com.example.simplestatustask.repository;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Scheduled transition of one task, as loaded into the transition scheduler's timing wheel
+ */
+public interface ScheduledTransitionView {
+
+    String getTenantId();
+
+    Long getId();
+
+    ZonedDateTime getScheduledTransitionAt();
+}
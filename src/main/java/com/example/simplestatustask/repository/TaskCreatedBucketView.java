@@ -0,0 +1,13 @@
+package com.example.simplestatustask.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of tasks created in one hour or day, as returned by the created-time histogram queries
+ */
+public interface TaskCreatedBucketView {
+
+    LocalDateTime getBucketStart();
+
+    Long getTaskCount();
+}
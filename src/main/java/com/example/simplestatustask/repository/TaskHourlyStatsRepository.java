@@ -0,0 +1,64 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.TaskHourlyStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskHourlyStatsRepository extends JpaRepository<TaskHourlyStats, TaskHourlyStats.Key> {
+
+    /**
+     * Adds to the counts of a tenant's hour without reading them first
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @param bucketStart Start of the hour
+     * @param created Tasks created
+     * @param completed Tasks completed
+     * @return 1 if the hour has a row, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE TaskHourlyStats h SET h.createdCount = h.createdCount + :created, " +
+            "h.completedCount = h.completedCount + :completed " +
+            "WHERE h.tenantId = :tenantId AND h.bucketStart = :bucketStart")
+    int increment(@Param("tenantId") String tenantId,
+                  @Param("bucketStart") ZonedDateTime bucketStart,
+                  @Param("created") long created,
+                  @Param("completed") long completed);
+
+    /**
+     * Hours of a tenant in [from, to), oldest first; a primary key range scan
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @param from Inclusive start of the first hour
+     * @param to Exclusive end
+     * @return Hours that have a row
+     */
+    List<TaskHourlyStats> findByTenantIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            String tenantId, ZonedDateTime from, ZonedDateTime to);
+
+    /**
+     * Hours of every tenant in [from, to)
+     *
+     * @param from Inclusive start of the first hour
+     * @param to Exclusive end
+     * @return Hours that have a row
+     */
+    List<TaskHourlyStats> findByBucketStartGreaterThanEqualAndBucketStartLessThan(ZonedDateTime from, ZonedDateTime to);
+
+    /**
+     * Loads an hour of every tenant and locks the rows until the transaction ends, in tenant order
+     *
+     * @param bucketStart Start of the hour
+     * @return Rows of the hour
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TaskHourlyStats> findLockedByBucketStartOrderByTenantIdAsc(ZonedDateTime bucketStart);
+}
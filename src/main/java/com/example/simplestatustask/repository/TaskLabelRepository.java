@@ -0,0 +1,56 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.TaskLabel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskLabelRepository extends JpaRepository<TaskLabel, TaskLabel.Key> {
+
+    /**
+     * Labels of a task
+     *
+     * @param taskId Task ID
+     * @return Label names in alphabetical order
+     */
+    @Query("SELECT l.label FROM TaskLabel l WHERE l.taskId = :taskId ORDER BY l.label")
+    List<String> findLabels(@Param("taskId") Long taskId);
+
+    /**
+     * Labels of several tasks
+     *
+     * @param taskIds Task IDs
+     * @return Labels ordered by task ID, then label name
+     */
+    @Query("SELECT l FROM TaskLabel l WHERE l.taskId IN :taskIds ORDER BY l.taskId, l.label")
+    List<TaskLabel> findByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Adds a label in one statement, without the select a merge would run first
+     *
+     * @param tenantId Tenant of the task
+     * @param taskId Task ID
+     * @param label Label name; must not be on the task yet
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_labels (tenant_id, task_id, label) VALUES (:tenantId, :taskId, :label)",
+            nativeQuery = true)
+    void insertLabel(@Param("tenantId") String tenantId, @Param("taskId") Long taskId, @Param("label") String label);
+
+    /**
+     * Removes a label from a task
+     *
+     * @param taskId Task ID
+     * @param label Label name
+     * @return 1 if the task had the label, 0 otherwise
+     */
+    @Modifying
+    @Query("DELETE FROM TaskLabel l WHERE l.taskId = :taskId AND l.label = :label")
+    int deleteLabel(@Param("taskId") Long taskId, @Param("label") String label);
+}
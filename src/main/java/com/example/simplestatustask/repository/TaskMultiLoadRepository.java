@@ -0,0 +1,33 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment for loading tasks by ID through Hibernate's load access, which
+ * consults the second-level cache and takes a fetch graph per call
+ */
+public interface TaskMultiLoadRepository {
+
+    /**
+     * Loads a task by ID together with its lazy description.
+     * Plain findById leaves the description to be loaded on first access.
+     *
+     * @param id Task ID
+     * @return The task, if it exists
+     */
+    Optional<Task> findWithDescriptionById(Long id);
+
+    /**
+     * Loads tasks by ID. Tasks already in the persistence context or the second-level
+     * cache are taken from there; only the misses are selected, in chunks.
+     *
+     * @param ids Task IDs without duplicates
+     * @param withDescription Whether misses are selected together with their descriptions
+     * @return Tasks that exist, in the order of the given IDs
+     */
+    List<Task> multiLoad(Collection<Long> ids, boolean withDescription);
+}
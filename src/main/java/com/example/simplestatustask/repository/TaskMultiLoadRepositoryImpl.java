@@ -0,0 +1,61 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.Task;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class TaskMultiLoadRepositoryImpl implements TaskMultiLoadRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * IDs per select for cache misses. On PostgreSQL each chunk is bound as one
+     * array parameter (id = any(?)), so the statement shape does not depend on the chunk size.
+     */
+    @Value("${task.lookup.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public Optional<Task> findWithDescriptionById(Long id) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.byId(Task.class)
+                .with(descriptionGraph(session), GraphSemantic.FETCH)
+                .loadOptional(id);
+    }
+
+    @Override
+    public List<Task> multiLoad(Collection<Long> ids, boolean withDescription) {
+        Session session = entityManager.unwrap(Session.class);
+        MultiIdentifierLoadAccess<Task> access = session.byMultipleIds(Task.class);
+        if (withDescription) {
+            access.with(descriptionGraph(session), GraphSemantic.FETCH);
+        }
+        List<Task> loaded = access
+                // Without an explicit cache mode multi-load skips the second-level cache
+                .with(CacheMode.NORMAL)
+                .withBatchSize(batchSize)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(new ArrayList<>(ids));
+        // Ordered return keeps a null in place of every missing ID
+        return loaded.stream().filter(Objects::nonNull).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RootGraph<Task> descriptionGraph(Session session) {
+        return (RootGraph<Task>) session.getEntityGraph(Task.WITH_DESCRIPTION_GRAPH);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long> {
+
+    /**
+     * Locks the oldest undelivered events.
+     * Rows already locked by another relay are skipped, so several relays drain in parallel
+     * without waiting on each other.
+     *
+     * @param batchSize Maximum number of events to lock
+     * @return Locked events in outbox order
+     */
+    @Query(value = "SELECT * FROM task_outbox WHERE delivered_at IS NULL " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TaskOutboxEvent> lockPendingBatch(@Param("batchSize") int batchSize);
+
+    /**
+     * Marks events as delivered
+     *
+     * @param ids Outbox IDs to mark
+     * @param deliveredAt Delivery time
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE TaskOutboxEvent e SET e.deliveredAt = :deliveredAt WHERE e.id IN :ids")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("deliveredAt") ZonedDateTime deliveredAt);
+
+    /**
+     * Creation time of the oldest undelivered event, used for the relay lag metric
+     *
+     * @return Oldest pending creation time, empty when the outbox is drained
+     */
+    @Query("SELECT MIN(e.createdAt) FROM TaskOutboxEvent e WHERE e.deliveredAt IS NULL")
+    Optional<ZonedDateTime> findOldestPendingCreatedAt();
+
+    /**
+     * Deletes one chunk of events delivered before the cutoff.
+     * Callers repeat until fewer than chunkSize rows are deleted, keeping each statement short.
+     * The query space is declared so Hibernate invalidates only task_outbox, not every cache region.
+     *
+     * @param cutoff Events delivered before this time are removed
+     * @param chunkSize Maximum number of rows to delete
+     * @return Number of rows deleted
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_outbox"))
+    @Query(value = "DELETE FROM task_outbox WHERE id IN (" +
+            "SELECT id FROM task_outbox WHERE delivered_at IS NOT NULL AND delivered_at < :cutoff " +
+            "ORDER BY delivered_at LIMIT :chunkSize)", nativeQuery = true)
+    int deleteDeliveredChunk(@Param("cutoff") ZonedDateTime cutoff, @Param("chunkSize") int chunkSize);
+}
@@ -1,17 +1,38 @@
 package com.example.simplestatustask.repository;
 
+import com.example.simplestatustask.config.HibernateCacheConfig;
 import com.example.simplestatustask.enums.TaskStatus;
 import com.example.simplestatustask.models.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskMultiLoadRepository,
+        TaskRowUpdateRepository {
+
+    /**
+     * Find tasks by ID together with their lazy descriptions, for callers that render full tasks.
+     * Unlike {@link #findAllById}, a query that reads the stored rows rather than the cache.
+     *
+     * @param ids Task IDs
+     * @return Tasks that exist, in no particular order
+     */
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids")
+    @EntityGraph(Task.WITH_DESCRIPTION_GRAPH)
+    List<Task> findWithDescriptionByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Find tasks by status
@@ -19,6 +40,10 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param status Task status to filter by
      * @return List of tasks with the specified status
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_STATUS_QUERY_REGION)
+    })
     List<Task> findByStatus(TaskStatus status);
 
     /**
@@ -30,7 +55,8 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByTitleContainingIgnoreCase(String title);
 
     /**
-     * Find tasks created between two dates
+     * Find tasks created between two dates.
+     * Loads the whole range at once; reports page through it with {@link #findCreatedAfter}.
      *
      * @param startDate Start date for the range
      * @param endDate End date for the range
@@ -44,8 +70,23 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param status Task status to count
      * @return Number of tasks with the specified status
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_STATUS_QUERY_REGION)
+    })
     long countByStatus(TaskStatus status);
 
+    /**
+     * Counts tasks of every tenant in every status with one scan, bypassing the query cache.
+     * Used to correct the incrementally maintained counters, never on the request path.
+     * Must run as {@link com.example.simplestatustask.tenant.TenantContext#ROOT} to see every tenant.
+     *
+     * @return One row per tenant and status that has tasks
+     */
+    @Query("SELECT t.tenantId AS tenantId, t.status AS status, COUNT(t) AS taskCount " +
+            "FROM Task t GROUP BY t.tenantId, t.status")
+    List<TaskTenantStatusCountView> countGroupedByTenantAndStatus();
+
     /**
      * Check if a task exists with the given title
      *
@@ -62,11 +103,276 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findAllByOrderByCreatedAtDesc();
 
     /**
-     * Custom query to find tasks by status with pagination-friendly approach
+     * Custom query to find tasks by status with pagination-friendly approach.
+     * Fetches descriptions, so it serves only full task lists; see {@link #findSummariesByStatusOrderByUpdatedAtDesc}.
      *
      * @param status Task status to filter by
      * @return List of tasks with the specified status ordered by updated date
      */
     @Query("SELECT t FROM Task t WHERE t.status = :status ORDER BY t.updatedAt DESC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_STATUS_QUERY_REGION)
+    })
+    @EntityGraph(Task.WITH_DESCRIPTION_GRAPH)
     List<Task> findTasksByStatusOrderByUpdatedAt(@Param("status") TaskStatus status);
+
+    /**
+     * Find tasks by status without their descriptions, most recently updated first.
+     * Selects only the columns of {@link TaskSummaryView}.
+     *
+     * @param status Task status to filter by
+     * @return Task summaries with the specified status
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_STATUS_QUERY_REGION)
+    })
+    List<TaskSummaryView> findSummariesByStatusOrderByUpdatedAtDesc(TaskStatus status);
+
+    /**
+     * IDs of the most urgent tasks in a status: highest priority first, then earliest due date,
+     * tasks without one last. Reads only idx_tasks_next, so the top N are an index-only scan
+     * of N entries whatever the number of tasks.
+     *
+     * @param status Task status to filter by
+     * @param limit Number of IDs to return
+     * @return Task IDs, most urgent first
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.status = :status " +
+            "ORDER BY t.priority DESC, t.dueAt ASC NULLS LAST, t.id ASC")
+    List<Long> findNextIds(@Param("status") TaskStatus status, Limit limit);
+
+    /**
+     * Keyset page of tasks created or updated strictly after the (updatedAt, id) watermark.
+     * Served by idx_tasks_updated_at_id; fetches descriptions, since every change carries the full task.
+     *
+     * @param updatedAt Watermark timestamp
+     * @param id Watermark task ID used as tie-breaker
+     * @param upTo Upper bound (inclusive) for updatedAt
+     * @param pageable Page size; the offset is always 0
+     * @return Tasks ordered by updatedAt, then id
+     */
+    @Query("SELECT t FROM Task t " +
+            "WHERE (t.updatedAt, t.id) > (:updatedAt, :id) AND t.updatedAt <= :upTo " +
+            "ORDER BY t.updatedAt ASC, t.id ASC")
+    @EntityGraph(Task.WITH_DESCRIPTION_GRAPH)
+    List<Task> findChangedAfter(@Param("updatedAt") ZonedDateTime updatedAt,
+                                @Param("id") Long id,
+                                @Param("upTo") ZonedDateTime upTo,
+                                Pageable pageable);
+
+    /**
+     * Keyset page of tasks by ID with their descriptions, for snapshot exports.
+     * Read-only and past the second-level cache, so a full scan neither dirty-checks nor evicts anything.
+     *
+     * @param id Last ID of the previous page
+     * @param limit Page size
+     * @return Tasks ordered by ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(Task.WITH_DESCRIPTION_GRAPH)
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Keyset page of tasks created in a range, strictly after the (createdAt, id) position.
+     * Served by idx_tasks_created_at_id; read-only and past the second-level cache like the snapshot scan.
+     *
+     * @param createdAt Creation time of the last task of the previous page, or the range start
+     * @param id ID of the last task of the previous page, used as tie-breaker
+     * @param to Exclusive upper bound for createdAt
+     * @param limit Page size
+     * @return Tasks ordered by createdAt, then id
+     */
+    @Query("SELECT t FROM Task t " +
+            "WHERE (t.createdAt, t.id) > (:createdAt, :id) AND t.createdAt < :to " +
+            "ORDER BY t.createdAt ASC, t.id ASC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @EntityGraph(Task.WITH_DESCRIPTION_GRAPH)
+    List<Task> findCreatedAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                @Param("to") LocalDateTime to,
+                                Limit limit);
+
+    /**
+     * Counts a tenant's tasks created in [from, to) per Almaty hour. Native for date_trunc, so the
+     * tenant is passed explicitly; the range is read from idx_tasks_created_at_id alone.
+     * Buckets without tasks are not returned.
+     *
+     * @param tenantId Tenant to count
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return Hours with at least one task, oldest first
+     */
+    @Query(value = "SELECT bucket_start AS bucketStart, COUNT(*) AS taskCount FROM (" +
+            "SELECT CAST(date_trunc('hour', created_at AT TIME ZONE 'Asia/Almaty') AS TIMESTAMP) AS bucket_start " +
+            "FROM tasks " +
+            "WHERE tenant_id = :tenantId AND created_at >= :from AND created_at < :to) created " +
+            "GROUP BY bucket_start ORDER BY bucket_start", nativeQuery = true)
+    List<TaskCreatedBucketView> countCreatedPerHour(@Param("tenantId") String tenantId,
+                                                    @Param("from") ZonedDateTime from,
+                                                    @Param("to") ZonedDateTime to);
+
+    /**
+     * Counts a tenant's tasks created in [from, to) per Almaty day, midnight to midnight.
+     * Same plan as {@link #countCreatedPerHour(String, ZonedDateTime, ZonedDateTime)}.
+     *
+     * @param tenantId Tenant to count
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return Days with at least one task, oldest first
+     */
+    @Query(value = "SELECT bucket_start AS bucketStart, COUNT(*) AS taskCount FROM (" +
+            "SELECT CAST(date_trunc('day', created_at AT TIME ZONE 'Asia/Almaty') AS TIMESTAMP) AS bucket_start " +
+            "FROM tasks " +
+            "WHERE tenant_id = :tenantId AND created_at >= :from AND created_at < :to) created " +
+            "GROUP BY bucket_start ORDER BY bucket_start", nativeQuery = true)
+    List<TaskCreatedBucketView> countCreatedPerDay(@Param("tenantId") String tenantId,
+                                                   @Param("from") ZonedDateTime from,
+                                                   @Param("to") ZonedDateTime to);
+
+    /**
+     * Locks the oldest pending tasks of a tenant for a claim.
+     * Rows locked by a concurrent claim are skipped, so workers never queue behind each other.
+     * Native, so the tenant is passed explicitly; served by the partial index
+     * idx_tasks_pending_created_at in the tenant's partition.
+     *
+     * @param tenantId Tenant whose queue to claim from
+     * @param limit Maximum number of tasks to lock
+     * @return IDs of the locked tasks, oldest first
+     */
+    @Query(value = "SELECT id FROM tasks WHERE tenant_id = :tenantId AND status = 'PENDING' " +
+            "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingForClaim(@Param("tenantId") String tenantId, @Param("limit") int limit);
+
+    /**
+     * Tenants that have in-progress tasks whose lease ran out.
+     * Native and unscoped on purpose: the lease reaper works through every tenant.
+     * Reads only the small partial index idx_tasks_lease_expires_at.
+     *
+     * @param now Current time
+     * @return Tenant IDs
+     */
+    @Query(value = "SELECT DISTINCT tenant_id FROM tasks WHERE status = 'IN_PROGRESS' AND lease_expires_at < :now",
+            nativeQuery = true)
+    List<String> findTenantsWithExpiredLeases(@Param("now") ZonedDateTime now);
+
+    /**
+     * Locks in-progress tasks of a tenant whose lease ran out, in expiry order.
+     * Served by the partial index idx_tasks_lease_expires_at in the tenant's partition.
+     *
+     * @param tenantId Tenant to sweep
+     * @param now Current time
+     * @param limit Maximum number of tasks to lock
+     * @return IDs of the locked tasks
+     */
+    @Query(value = "SELECT id FROM tasks WHERE tenant_id = :tenantId AND status = 'IN_PROGRESS' " +
+            "AND lease_expires_at < :now ORDER BY lease_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockExpiredLeases(@Param("tenantId") String tenantId,
+                                 @Param("now") ZonedDateTime now,
+                                 @Param("limit") int limit);
+
+    /**
+     * Tenants that have tasks in a status last updated before the cutoff.
+     * Native and unscoped on purpose: the retention purge works through every tenant.
+     *
+     * @param status Status being purged
+     * @param cutoff Tasks updated before this are expired
+     * @return Tenant IDs
+     */
+    @Query(value = "SELECT DISTINCT tenant_id FROM tasks WHERE status = :status AND updated_at < :cutoff",
+            nativeQuery = true)
+    List<String> findTenantsWithExpiredTasks(@Param("status") String status,
+                                             @Param("cutoff") ZonedDateTime cutoff);
+
+    /**
+     * Locks the next keyset batch of a tenant's expired tasks in one status, oldest first.
+     * Rows locked by API writes are skipped rather than waited on; the purge gets them on its next pass.
+     * Served by idx_tasks_status_updated_at_id in the tenant's partition.
+     *
+     * @param tenantId Tenant to purge
+     * @param status Status being purged
+     * @param cutoff Tasks updated before this are expired
+     * @param afterUpdatedAt Update timestamp of the last task purged
+     * @param afterId ID of the last task purged, the tie-breaker
+     * @param limit Maximum number of tasks to lock
+     * @return IDs of the locked tasks in (updated_at, id) order
+     */
+    @Query(value = "SELECT id FROM tasks WHERE tenant_id = :tenantId AND status = :status " +
+            "AND updated_at < :cutoff AND (updated_at, id) > (:afterUpdatedAt, :afterId) " +
+            "ORDER BY updated_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockExpiredForPurge(@Param("tenantId") String tenantId,
+                                   @Param("status") String status,
+                                   @Param("cutoff") ZonedDateTime cutoff,
+                                   @Param("afterUpdatedAt") ZonedDateTime afterUpdatedAt,
+                                   @Param("afterId") long afterId,
+                                   @Param("limit") int limit);
+
+    /**
+     * Next keyset page of scheduled transitions due up to a time, in due order.
+     * Meant to run as {@link com.example.simplestatustask.tenant.TenantContext#ROOT}: the scheduler
+     * loads every tenant's transitions. Served by the partial index idx_tasks_scheduled_transition_at.
+     *
+     * @param afterAt Due time of the last transition loaded
+     * @param afterId ID of the last task loaded, the tie-breaker
+     * @param until Latest due time to load
+     * @param limit Maximum number of transitions to return
+     * @return Tenant, ID and due time of the scheduled tasks
+     */
+    @Query("SELECT t.tenantId AS tenantId, t.id AS id, t.scheduledTransitionAt AS scheduledTransitionAt " +
+            "FROM Task t WHERE t.scheduledTransitionAt <= :until AND (t.scheduledTransitionAt > :afterAt " +
+            "OR (t.scheduledTransitionAt = :afterAt AND t.id > :afterId)) " +
+            "ORDER BY t.scheduledTransitionAt, t.id")
+    List<ScheduledTransitionView> findScheduledTransitions(@Param("afterAt") ZonedDateTime afterAt,
+                                                           @Param("afterId") long afterId,
+                                                           @Param("until") ZonedDateTime until,
+                                                           Limit limit);
+
+    /**
+     * Locks the given tasks of a tenant whose scheduled transition is due.
+     * Rows locked by API writes are skipped rather than waited on; the overdue sweep gets them later.
+     *
+     * @param tenantId Tenant owning the tasks
+     * @param ids Task IDs taken from the timing wheel
+     * @param now Current time
+     * @return IDs of the locked tasks
+     */
+    @Query(value = "SELECT id FROM tasks WHERE tenant_id = :tenantId AND id IN (:ids) " +
+            "AND scheduled_transition_at <= :now FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueTransitions(@Param("tenantId") String tenantId,
+                                  @Param("ids") List<Long> ids,
+                                  @Param("now") ZonedDateTime now);
+
+    /**
+     * Tenants that have scheduled transitions due at or before the cutoff.
+     * Native and unscoped on purpose: the overdue sweep works through every tenant.
+     *
+     * @param cutoff Transitions due up to this time are overdue
+     * @return Tenant IDs
+     */
+    @Query(value = "SELECT DISTINCT tenant_id FROM tasks WHERE scheduled_transition_at <= :cutoff",
+            nativeQuery = true)
+    List<String> findTenantsWithOverdueTransitions(@Param("cutoff") ZonedDateTime cutoff);
+
+    /**
+     * Locks a tenant's overdue scheduled transitions, oldest first.
+     * Served by the partial index idx_tasks_scheduled_transition_at in the tenant's partition.
+     *
+     * @param tenantId Tenant to sweep
+     * @param cutoff Transitions due up to this time are overdue
+     * @param limit Maximum number of tasks to lock
+     * @return IDs of the locked tasks
+     */
+    @Query(value = "SELECT id FROM tasks WHERE tenant_id = :tenantId AND scheduled_transition_at <= :cutoff " +
+            "ORDER BY scheduled_transition_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockOverdueTransitions(@Param("tenantId") String tenantId,
+                                      @Param("cutoff") ZonedDateTime cutoff,
+                                      @Param("limit") int limit);
 }
@@ -0,0 +1,122 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Repository fragment for the conditional single-statement UPDATEs on tasks. Each one releases
+ * only the second-level cache entries of the tasks it targets; a JPQL bulk update would clear the
+ * whole task region instead.
+ */
+public interface TaskRowUpdateRepository {
+
+    /**
+     * Changes the status only if the task still has the expected status.
+     * Runs as a single conditional UPDATE without loading the entity. Any lease ends with the
+     * status it was taken for, so a task that later returns to IN_PROGRESS is not reaped.
+     *
+     * @param id Task ID
+     * @param expected Status the task must currently have
+     * @param target Status to set
+     * @param updatedAt New update timestamp
+     * @return 1 if the status was changed, 0 if the task is missing or has another status
+     */
+    int compareAndSetStatus(Long id, TaskStatus expected, TaskStatus target, ZonedDateTime updatedAt);
+
+    /**
+     * Moves locked pending tasks to IN_PROGRESS under a lease
+     *
+     * @param ids Task IDs locked by {@link TaskRepository#lockPendingForClaim(String, int)}
+     * @param owner Worker taking the lease
+     * @param leaseExpiresAt Lease expiry
+     * @param updatedAt New update timestamp
+     * @return Number of tasks claimed
+     */
+    int claim(List<Long> ids, String owner, ZonedDateTime leaseExpiresAt, ZonedDateTime updatedAt);
+
+    /**
+     * Extends a lease if the owner still holds it
+     *
+     * @param id Task ID
+     * @param owner Worker holding the lease
+     * @param leaseExpiresAt New lease expiry
+     * @param updatedAt New update timestamp
+     * @return 1 if the lease was extended, 0 if the owner no longer holds it
+     */
+    int extendLease(Long id, String owner, ZonedDateTime leaseExpiresAt, ZonedDateTime updatedAt);
+
+    /**
+     * Ends a lease held by the owner and moves the task to the target status
+     *
+     * @param id Task ID
+     * @param owner Worker holding the lease
+     * @param target Status to leave the task in
+     * @param updatedAt New update timestamp
+     * @return 1 if the lease was released, 0 if the owner no longer holds it
+     */
+    int releaseLease(Long id, String owner, TaskStatus target, ZonedDateTime updatedAt);
+
+    /**
+     * Returns tasks with expired leases to PENDING
+     *
+     * @param ids Task IDs locked by {@link TaskRepository#lockExpiredLeases(String, ZonedDateTime, int)}
+     * @param updatedAt New update timestamp
+     * @return Number of tasks returned to the queue
+     */
+    int requeueExpired(List<Long> ids, ZonedDateTime updatedAt);
+
+    /**
+     * Sets or replaces the scheduled transition of a task
+     *
+     * @param id Task ID
+     * @param expected Status the task must still have when the transition is due
+     * @param target Status to move the task to
+     * @param transitionAt Time the transition is due
+     * @param updatedAt New update timestamp
+     * @return 1 if the transition was scheduled, 0 if the task is missing
+     */
+    int scheduleTransition(Long id, TaskStatus expected, TaskStatus target, ZonedDateTime transitionAt,
+                           ZonedDateTime updatedAt);
+
+    /**
+     * Removes the scheduled transition of a task, if it has one
+     *
+     * @param id Task ID
+     * @param updatedAt New update timestamp
+     * @return 1 if the task exists, 0 if it is missing
+     */
+    int cancelScheduledTransition(Long id, ZonedDateTime updatedAt);
+
+    /**
+     * Stamps a task as changed without changing any column of its own, for changes stored in
+     * other tables such as labels; also locks the row until the transaction ends
+     *
+     * @param id Task ID
+     * @param updatedAt New update timestamp
+     * @return 1 if the task exists, 0 if it is missing
+     */
+    int touch(Long id, ZonedDateTime updatedAt);
+
+    /**
+     * Applies the due scheduled transitions of locked tasks in one conditional UPDATE: only
+     * tasks still in their expected status move, and their schedule and any lease are cleared
+     *
+     * @param ids Task IDs locked by {@link TaskRepository#lockDueTransitions} or
+     *            {@link TaskRepository#lockOverdueTransitions}
+     * @param now Current time, also the new update timestamp
+     * @return Number of tasks moved
+     */
+    int applyScheduledTransitions(List<Long> ids, ZonedDateTime now);
+
+    /**
+     * Drops due scheduled transitions that no longer apply because the task left the expected status
+     *
+     * @param ids Task IDs locked by {@link TaskRepository#lockDueTransitions} or
+     *            {@link TaskRepository#lockOverdueTransitions}
+     * @param now Current time, also the new update timestamp
+     * @return Number of schedules dropped
+     */
+    int dropScheduledTransitions(List<Long> ids, ZonedDateTime now);
+}
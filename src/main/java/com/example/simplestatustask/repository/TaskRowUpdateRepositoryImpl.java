@@ -0,0 +1,155 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TaskRowUpdateRepositoryImpl implements TaskRowUpdateRepository {
+
+    /**
+     * Query space declared by every update here. No entity maps to it, so Hibernate's bulk cleanup
+     * leaves the task region alone; the updated entries are released by {@link #execute} instead.
+     */
+    static final String ROW_UPDATE_SPACE = "task_row_updates";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int compareAndSetStatus(Long id, TaskStatus expected, TaskStatus target, ZonedDateTime updatedAt) {
+        return execute("status = :target, lease_owner = NULL, lease_expires_at = NULL, updated_at = :updatedAt",
+                "id = :id AND status = :expected", List.of(id),
+                Map.of("id", id, "expected", expected.name(), "target", target.name(), "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int claim(List<Long> ids, String owner, ZonedDateTime leaseExpiresAt, ZonedDateTime updatedAt) {
+        return execute("status = 'IN_PROGRESS', lease_owner = :owner, lease_expires_at = :leaseExpiresAt, " +
+                        "updated_at = :updatedAt",
+                "id IN (:ids) AND status = 'PENDING'", ids,
+                Map.of("ids", ids, "owner", owner, "leaseExpiresAt", leaseExpiresAt, "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int extendLease(Long id, String owner, ZonedDateTime leaseExpiresAt, ZonedDateTime updatedAt) {
+        return execute("lease_expires_at = :leaseExpiresAt, updated_at = :updatedAt",
+                "id = :id AND lease_owner = :owner AND status = 'IN_PROGRESS'", List.of(id),
+                Map.of("id", id, "owner", owner, "leaseExpiresAt", leaseExpiresAt, "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int releaseLease(Long id, String owner, TaskStatus target, ZonedDateTime updatedAt) {
+        return execute("status = :target, lease_owner = NULL, lease_expires_at = NULL, updated_at = :updatedAt",
+                "id = :id AND lease_owner = :owner AND status = 'IN_PROGRESS'", List.of(id),
+                Map.of("id", id, "owner", owner, "target", target.name(), "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int requeueExpired(List<Long> ids, ZonedDateTime updatedAt) {
+        return execute("status = 'PENDING', lease_owner = NULL, lease_expires_at = NULL, updated_at = :updatedAt",
+                "id IN (:ids) AND status = 'IN_PROGRESS'", ids,
+                Map.of("ids", ids, "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int scheduleTransition(Long id, TaskStatus expected, TaskStatus target, ZonedDateTime transitionAt,
+                                  ZonedDateTime updatedAt) {
+        return execute("scheduled_transition_at = :transitionAt, scheduled_expected_status = :expected, " +
+                        "scheduled_target_status = :target, updated_at = :updatedAt",
+                "id = :id", List.of(id),
+                Map.of("id", id, "expected", expected.name(), "target", target.name(),
+                        "transitionAt", transitionAt, "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int cancelScheduledTransition(Long id, ZonedDateTime updatedAt) {
+        return execute("scheduled_transition_at = NULL, scheduled_expected_status = NULL, " +
+                        "scheduled_target_status = NULL, updated_at = :updatedAt",
+                "id = :id", List.of(id),
+                Map.of("id", id, "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int touch(Long id, ZonedDateTime updatedAt) {
+        return execute("updated_at = :updatedAt", "id = :id", List.of(id),
+                Map.of("id", id, "updatedAt", updatedAt));
+    }
+
+    @Override
+    public int applyScheduledTransitions(List<Long> ids, ZonedDateTime now) {
+        return execute("status = scheduled_target_status, scheduled_transition_at = NULL, " +
+                        "scheduled_expected_status = NULL, scheduled_target_status = NULL, " +
+                        "lease_owner = NULL, lease_expires_at = NULL, updated_at = :now",
+                "id IN (:ids) AND scheduled_transition_at <= :now AND status = scheduled_expected_status", ids,
+                Map.of("ids", ids, "now", now));
+    }
+
+    @Override
+    public int dropScheduledTransitions(List<Long> ids, ZonedDateTime now) {
+        return execute("scheduled_transition_at = NULL, scheduled_expected_status = NULL, " +
+                        "scheduled_target_status = NULL, updated_at = :now",
+                "id IN (:ids) AND scheduled_transition_at <= :now", ids,
+                Map.of("ids", ids, "now", now));
+    }
+
+    /**
+     * Runs one UPDATE on tasks of the session's tenant, the way Hibernate handles an entity update
+     * in the second-level cache: the entries of the targeted IDs are soft-locked before the
+     * statement, so no concurrent load caches a row that is about to change, and unlocked once
+     * the transaction ends, so the next load caches the stored row. Queries over tasks in the
+     * query cache are invalidated as for any task write. Entries of other tasks stay cached.
+     */
+    private int execute(String assignments, String condition, Collection<Long> ids, Map<String, Object> parameters) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Task.class);
+        String tenantId = session.getTenantIdentifier();
+        boolean root = TenantContext.ROOT.equals(tenantId);
+
+        EntityDataAccess cache = persister.canWriteToCache() ? persister.getCacheAccessStrategy() : null;
+        List<Object> keys = new ArrayList<>(ids.size());
+        List<SoftLock> locks = new ArrayList<>(ids.size());
+        if (cache != null) {
+            for (Long id : ids) {
+                Object key = cache.generateCacheKey(id, persister, factory, tenantId);
+                keys.add(key);
+                locks.add(cache.lockItem(session, key, null));
+            }
+        }
+        String[] spaces = persister.getPropertySpaces();
+        TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+        timestamps.preInvalidate(spaces, session);
+        session.getActionQueue().registerProcess((success, completed) -> {
+            for (int i = 0; i < keys.size(); i++) {
+                cache.unlockItem(completed, keys.get(i), locks.get(i));
+            }
+            timestamps.invalidate(spaces, completed);
+        });
+
+        // Native, so the tenant restriction @TenantId adds to JPQL is spelled out
+        Query query = entityManager.createNativeQuery("UPDATE tasks SET " + assignments + " WHERE " +
+                        (root ? "" : "tenant_id = :tenantId AND ") + condition)
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, ROW_UPDATE_SPACE);
+        if (!root) {
+            query.setParameter("tenantId", tenantId);
+        }
+        parameters.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+}
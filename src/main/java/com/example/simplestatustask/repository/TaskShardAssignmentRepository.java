@@ -0,0 +1,9 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.TaskShardAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskShardAssignmentRepository extends JpaRepository<TaskShardAssignment, Integer> {
+}
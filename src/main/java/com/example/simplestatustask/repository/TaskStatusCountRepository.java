@@ -0,0 +1,80 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.TaskStatusCount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskStatusCountRepository extends JpaRepository<TaskStatusCount, TaskStatusCount.Key> {
+
+    /**
+     * Adds a delta to one counter slot without reading it first
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @param status Counted status
+     * @param slot Slot to add to
+     * @param delta Amount to add; negative to subtract
+     * @return 1 if the slot exists, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE TaskStatusCount c SET c.taskCount = c.taskCount + :delta " +
+            "WHERE c.tenantId = :tenantId AND c.status = :status AND c.slot = :slot")
+    int increment(@Param("tenantId") String tenantId,
+                  @Param("status") TaskStatus status,
+                  @Param("slot") int slot,
+                  @Param("delta") long delta);
+
+    /**
+     * Sums the slots of every status of every tenant
+     *
+     * @return One row per tenant and status that has slots
+     */
+    @Query("SELECT c.tenantId AS tenantId, c.status AS status, SUM(c.taskCount) AS taskCount " +
+            "FROM TaskStatusCount c GROUP BY c.tenantId, c.status")
+    List<TaskTenantStatusCountView> sumByTenantAndStatus();
+
+    /**
+     * Sums the slots of every status of one tenant
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @return One row per status that has slots
+     */
+    @Query("SELECT c.status AS status, SUM(c.taskCount) AS taskCount " +
+            "FROM TaskStatusCount c WHERE c.tenantId = :tenantId GROUP BY c.status")
+    List<TaskStatusCountView> sumByStatus(@Param("tenantId") String tenantId);
+
+    /**
+     * Slots of one tenant and status that already exist
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @param status Counted status
+     * @return Existing slots
+     */
+    List<TaskStatusCount> findByTenantIdAndStatus(String tenantId, TaskStatus status);
+
+    /**
+     * Tenants that have counter slots
+     *
+     * @return Tenant IDs
+     */
+    @Query("SELECT DISTINCT c.tenantId FROM TaskStatusCount c")
+    List<String> findTenantIds();
+
+    /**
+     * Locks every slot of every tenant, in key order so concurrent callers cannot deadlock.
+     * Writers block on the locked slots until the caller commits.
+     *
+     * @return All counter slots
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM TaskStatusCount c ORDER BY c.tenantId, c.status, c.slot")
+    List<TaskStatusCount> lockAll();
+}
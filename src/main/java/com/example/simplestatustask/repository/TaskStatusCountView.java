@@ -0,0 +1,13 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+/**
+ * Number of tasks in one status, as returned by the grouped count queries
+ */
+public interface TaskStatusCountView {
+
+    TaskStatus getStatus();
+
+    Long getTaskCount();
+}
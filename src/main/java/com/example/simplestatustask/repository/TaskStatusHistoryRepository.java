@@ -0,0 +1,78 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.TaskStatusHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TaskStatusHistoryRepository extends JpaRepository<TaskStatusHistory, Long> {
+
+    /**
+     * Status timeline of one task, oldest first.
+     * Served by idx_task_status_history_task_id in every partition.
+     *
+     * @param taskId Task ID
+     * @return History entries of the task
+     */
+    List<TaskStatusHistory> findByTaskIdOrderByChangedAtAscIdAsc(Long taskId);
+
+    /**
+     * Streams status changes in [from, to), oldest first, optionally only those entering a status.
+     * The range prunes partitions and is answered by the BRIN index inside each one.
+     * Must be consumed inside a read-only transaction and closed afterwards.
+     *
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @param toStatus Status entered, or null for every change
+     * @return Stream of history entries fetched in chunks
+     */
+    @Query("SELECT h FROM TaskStatusHistory h " +
+            "WHERE h.changedAt >= :from AND h.changedAt < :to " +
+            "AND (:toStatus IS NULL OR h.toStatus = :toStatus) " +
+            "ORDER BY h.changedAt ASC, h.id ASC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TaskStatusHistory> streamByChangedAtRange(@Param("from") ZonedDateTime from,
+                                                     @Param("to") ZonedDateTime to,
+                                                     @Param("toStatus") TaskStatus toStatus);
+
+    /**
+     * Counts creates in [from, to) per tenant; creates are the rows without a previous status.
+     * The range prunes to one partition and is answered by the BRIN index.
+     * Must run as {@link com.example.simplestatustask.tenant.TenantContext#ROOT} to see every tenant.
+     *
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @return One row per tenant that created tasks
+     */
+    @Query("SELECT h.tenantId AS tenantId, COUNT(h) AS taskCount FROM TaskStatusHistory h " +
+            "WHERE h.changedAt >= :from AND h.changedAt < :to AND h.fromStatus IS NULL GROUP BY h.tenantId")
+    List<TaskTenantCountView> countCreatedByTenant(@Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
+
+    /**
+     * Counts changes in [from, to) that entered a status, per tenant.
+     * Must run as {@link com.example.simplestatustask.tenant.TenantContext#ROOT} to see every tenant.
+     *
+     * @param from Inclusive lower bound
+     * @param to Exclusive upper bound
+     * @param toStatus Status entered
+     * @return One row per tenant with such changes
+     */
+    @Query("SELECT h.tenantId AS tenantId, COUNT(h) AS taskCount FROM TaskStatusHistory h " +
+            "WHERE h.changedAt >= :from AND h.changedAt < :to AND h.toStatus = :toStatus GROUP BY h.tenantId")
+    List<TaskTenantCountView> countEnteredByTenant(@Param("from") ZonedDateTime from,
+                                                   @Param("to") ZonedDateTime to,
+                                                   @Param("toStatus") TaskStatus toStatus);
+}
@@ -0,0 +1,27 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Closed projection of a task without its description.
+ * Queries returning it select only these columns, so list views never read the TEXT column.
+ */
+public interface TaskSummaryView {
+
+    Long getId();
+
+    String getTitle();
+
+    TaskStatus getStatus();
+
+    int getPriority();
+
+    ZonedDateTime getDueAt();
+
+    LocalDateTime getCreatedAt();
+
+    ZonedDateTime getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package com.example.simplestatustask.repository;
+
+/**
+ * Number of rows of one tenant, as returned by the cross-tenant history counts
+ */
+public interface TaskTenantCountView {
+
+    String getTenantId();
+
+    Long getTaskCount();
+}
@@ -0,0 +1,9 @@
+package com.example.simplestatustask.repository;
+
+/**
+ * Number of tasks of one tenant in one status, as returned by the cross-tenant count queries
+ */
+public interface TaskTenantStatusCountView extends TaskStatusCountView {
+
+    String getTenantId();
+}
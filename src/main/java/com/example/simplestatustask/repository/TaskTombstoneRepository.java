@@ -0,0 +1,32 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.models.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Keyset page of tombstones recorded strictly after the (deletedAt, taskId) watermark
+     *
+     * @param deletedAt Watermark timestamp
+     * @param taskId Watermark task ID used as tie-breaker
+     * @param upTo Upper bound (inclusive) for deletedAt
+     * @param pageable Page size; the offset is always 0
+     * @return Tombstones ordered by deletedAt, then taskId
+     */
+    @Query("SELECT t FROM TaskTombstone t " +
+            "WHERE (t.deletedAt, t.taskId) > (:deletedAt, :taskId) AND t.deletedAt <= :upTo " +
+            "ORDER BY t.deletedAt ASC, t.taskId ASC")
+    List<TaskTombstone> findDeletedAfter(@Param("deletedAt") ZonedDateTime deletedAt,
+                                         @Param("taskId") Long taskId,
+                                         @Param("upTo") ZonedDateTime upTo,
+                                         Pageable pageable);
+}
@@ -0,0 +1,70 @@
+package com.example.simplestatustask.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the task change feed: the (timestamp, id) of the last change a client has seen.
+ * Clients only ever see it as an opaque token.
+ *
+ * @param timestamp Time of the last seen change
+ * @param id ID of the last seen task, tie-breaker for changes sharing a timestamp
+ */
+public record ChangeWatermark(Instant timestamp, long id) implements Comparable<ChangeWatermark> {
+
+    /**
+     * Watermark that precedes every change, used when a client syncs for the first time
+     */
+    public static final ChangeWatermark ORIGIN = new ChangeWatermark(Instant.EPOCH, 0L);
+
+    private static final String VERSION = "v1";
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}
+     *
+     * @param token Opaque token, or null/blank for a full sync
+     * @return Decoded watermark
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ChangeWatermark decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ORIGIN;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid change token: " + token);
+            }
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            return new ChangeWatermark(timestamp, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | java.time.DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid change token: " + token, ex);
+        }
+    }
+
+    /**
+     * @return Opaque, URL-safe token for this watermark
+     */
+    public String encode() {
+        String raw = VERSION + ":" + timestamp.getEpochSecond() + ":" + timestamp.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param zone Zone for the returned timestamp
+     * @return Watermark timestamp in the given zone, for binding to queries
+     */
+    public ZonedDateTime timestampAt(ZoneId zone) {
+        return timestamp.atZone(zone);
+    }
+
+    @Override
+    public int compareTo(ChangeWatermark other) {
+        int byTime = timestamp.compareTo(other.timestamp);
+        return byTime != 0 ? byTime : Long.compare(id, other.id);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+
+/**
+ * Change feed for delta sync: creates and updates from tasks, deletes from tombstones.
+ * Reads one database; callers over several shards read each and merge the results.
+ */
+public interface TaskChangeFeedService {
+
+    /**
+     * Reads the changes after a watermark, oldest first.
+     * Upserts and tombstones are read as two index-ordered streams and merged, so the
+     * cost is proportional to the number of changes rather than the size of the table.
+     *
+     * @param watermark Position to read after
+     * @param limit Maximum number of changes to read
+     * @return Up to limit changes, and whether more follow
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    TaskChanges readChanges(ChangeWatermark watermark, int limit);
+
+    /**
+     * Builds a change feed page
+     *
+     * @param changes Changes read after the watermark
+     * @param watermark Position the changes were read after
+     * @return Page with the token to resume from
+     */
+    TaskChangesResponseDto toPage(TaskChanges changes, ChangeWatermark watermark);
+}
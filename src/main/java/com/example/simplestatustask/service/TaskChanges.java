@@ -0,0 +1,26 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+
+import java.util.List;
+
+/**
+ * Changes read after a watermark, oldest first, each with its exact position.
+ * Response DTOs carry timestamps at millisecond precision, so positions are kept alongside.
+ *
+ * @param entries Changes in feed order
+ * @param hasMore Whether more changes follow the last entry
+ */
+public record TaskChanges(List<Entry> entries, boolean hasMore) {
+
+    /**
+     * One created/updated task or tombstone
+     *
+     * @param watermark Position of the change
+     * @param task Changed task, or null for a deletion
+     * @param tombstone Deleted task, or null for a change
+     */
+    public record Entry(ChangeWatermark watermark, TaskResponseDto task, TaskTombstoneDto tombstone) {
+    }
+}
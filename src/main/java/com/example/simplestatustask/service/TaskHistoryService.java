@@ -0,0 +1,36 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskHistoryService {
+
+    /**
+     * Returns the status timeline of a task, oldest first.
+     * History outlives the task, so a deleted task still has one.
+     *
+     * @param taskId Task unique identifier
+     * @return Status changes of the task
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if the task never existed
+     */
+    List<TaskStatusHistoryDto> getTaskHistory(Long taskId);
+
+    /**
+     * Writes status changes in [from, to) as newline-delimited JSON, oldest first.
+     * Rows are streamed from the database, so memory use does not grow with the range.
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param toStatus Only changes entering this status, or null for all
+     * @param out Stream to write to; left open
+     * @return Number of changes written
+     * @throws IllegalArgumentException if from is not before to
+     * @throws IOException if writing fails
+     */
+    long writeHistory(LocalDateTime from, LocalDateTime to, TaskStatus toStatus, OutputStream out) throws IOException;
+}
@@ -0,0 +1,64 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskFacetsDto;
+import com.example.simplestatustask.dto.TaskFilterResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.util.List;
+
+public interface TaskLabelService {
+
+    /**
+     * Retrieves the labels of a task
+     *
+     * @param id Task unique identifier
+     * @return Label names in alphabetical order
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    List<String> getLabels(Long id);
+
+    /**
+     * Adds a label to a task; adding a label the task already has changes nothing
+     *
+     * @param id Task unique identifier
+     * @param label Label name
+     * @return Labels of the task afterwards, in alphabetical order
+     * @throws IllegalArgumentException if the label is malformed or the task has too many labels
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    List<String> addLabel(Long id, String label);
+
+    /**
+     * Removes a label from a task, if it has it
+     *
+     * @param id Task unique identifier
+     * @param label Label name
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    void removeLabel(Long id, String label);
+
+    /**
+     * Retrieves the tasks that have the status, if given, and every given label
+     *
+     * @param status Required status, or null for any
+     * @param labels Required labels; null or empty for any
+     * @param after Only tasks with a greater ID are returned; null for the first page
+     * @param limit Maximum number of tasks to return
+     * @return Page of matching tasks in ascending ID order, with the number of matches
+     * @throws IllegalArgumentException if a label is malformed or the limit is out of range
+     * @throws com.example.simplestatustask.exception.TaskIndexUnavailableException if the index is still loading
+     */
+    TaskFilterResponseDto filterTasks(TaskStatus status, List<String> labels, Long after, int limit);
+
+    /**
+     * Counts the tasks that have the status, if given, and every given label, per status and per label
+     *
+     * @param status Required status, or null for any
+     * @param labels Required labels; null or empty for any
+     * @param labelLimit Maximum number of labels to return
+     * @return Number of matches, split by status and by label
+     * @throws IllegalArgumentException if a label is malformed or the label limit is out of range
+     * @throws com.example.simplestatustask.exception.TaskIndexUnavailableException if the index is still loading
+     */
+    TaskFacetsDto getFacets(TaskStatus status, List<String> labels, int labelLimit);
+}
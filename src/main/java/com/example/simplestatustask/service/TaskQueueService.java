@@ -0,0 +1,62 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.util.List;
+
+public interface TaskQueueService {
+
+    /**
+     * Claims up to limit of the oldest pending tasks for a worker
+     *
+     * @param owner Worker identifier
+     * @param limit Maximum number of tasks to claim
+     * @param leaseSeconds Lease duration, or null for the default
+     * @return Claimed tasks with their lease; may hold fewer than limit tasks, or none
+     * @throws IllegalArgumentException if the owner is blank or limit/lease are out of range
+     */
+    TaskClaimResponseDto claimTasks(String owner, int limit, Integer leaseSeconds);
+
+    /**
+     * Extends the lease on a claimed task
+     *
+     * @param id Task unique identifier
+     * @param owner Worker holding the lease
+     * @param leaseSeconds Lease duration from now, or null for the default
+     * @return Extended lease
+     * @throws com.example.simplestatustask.exception.TaskStatusConflictException if the owner lost the lease
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    TaskLeaseResponseDto heartbeat(Long id, String owner, Integer leaseSeconds);
+
+    /**
+     * Releases the lease on a claimed task
+     *
+     * @param id Task unique identifier
+     * @param owner Worker holding the lease
+     * @param status Status to leave the task in: PENDING to hand it back, COMPLETED when done
+     * @return Resulting status change
+     * @throws com.example.simplestatustask.exception.InvalidStatusTransitionException if status is not reachable from IN_PROGRESS
+     * @throws com.example.simplestatustask.exception.TaskStatusConflictException if the owner lost the lease
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    TaskTransitionResponseDto releaseTask(Long id, String owner, TaskStatus status);
+
+    /**
+     * Lists the tenants that have tasks with expired leases
+     *
+     * @return Tenant IDs, each to be swept as that tenant
+     */
+    List<String> findTenantsWithExpiredLeases();
+
+    /**
+     * Returns one batch of the current tenant's tasks with expired leases to PENDING
+     *
+     * @param batchSize Maximum number of tasks to requeue
+     * @return Number of tasks requeued
+     */
+    int requeueExpiredLeases(int batchSize);
+}
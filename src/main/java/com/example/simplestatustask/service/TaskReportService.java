@@ -0,0 +1,36 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskHistogramDto;
+import com.example.simplestatustask.enums.TaskHistogramBucket;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface TaskReportService {
+
+    /**
+     * Writes tasks created in [from, to) as newline-delimited JSON, oldest first.
+     * Tasks are read in keyset pages, so memory use does not grow with the range.
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param out Stream to write to; left open
+     * @return Number of tasks written
+     * @throws IllegalArgumentException if from is not before to
+     * @throws IOException if writing fails
+     */
+    long writeTasksCreated(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException;
+
+    /**
+     * Counts tasks created in [from, to) per Almaty hour or day.
+     * The first and last buckets only count the part of them inside the range.
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param bucket Bucket width
+     * @return Count for every bucket touching the range, empty ones included
+     * @throws IllegalArgumentException if from is not before to or the range spans too many buckets
+     */
+    TaskHistogramDto getCreatedHistogram(LocalDateTime from, LocalDateTime to, TaskHistogramBucket bucket);
+}
@@ -0,0 +1,30 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public interface TaskRetentionService {
+
+    /**
+     * Lists the tenants that have tasks in a status last updated before the cutoff
+     *
+     * @param status Status being purged
+     * @param cutoff Tasks updated before this are expired
+     * @return Tenant IDs, each to be purged as that tenant
+     */
+    List<String> findTenantsWithExpiredTasks(TaskStatus status, ZonedDateTime cutoff);
+
+    /**
+     * Deletes the next batch of the current tenant's expired tasks in a status, resuming where
+     * the previous batch stopped. Each task leaves a tombstone and a DELETED change event,
+     * as if it had been deleted through the API.
+     *
+     * @param status Status being purged
+     * @param cutoff Tasks updated before this are expired
+     * @param batchSize Maximum number of tasks to delete
+     * @return Number of tasks deleted; fewer than batchSize once the pass is complete
+     */
+    int purgeExpired(TaskStatus status, ZonedDateTime cutoff, int batchSize);
+}
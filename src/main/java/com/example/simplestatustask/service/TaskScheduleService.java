@@ -0,0 +1,49 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.repository.ScheduledTransitionView;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+public interface TaskScheduleService {
+
+    /**
+     * Loads the next page of scheduled transitions of every tenant, in due order.
+     * Must be called as {@link com.example.simplestatustask.tenant.TenantContext#ROOT}.
+     *
+     * @param afterAt Due time of the last transition loaded
+     * @param afterId ID of the last task loaded, the tie-breaker
+     * @param until Latest due time to load
+     * @param limit Maximum number of transitions to return
+     * @return Scheduled transitions; fewer than limit once every one up to until is loaded
+     */
+    List<ScheduledTransitionView> findScheduledTransitions(ZonedDateTime afterAt, long afterId,
+                                                           ZonedDateTime until, int limit);
+
+    /**
+     * Applies the scheduled transitions of the given tasks of the current tenant that are due.
+     * Tasks still in the expected status move to the target status and publish a status change;
+     * the others just lose their schedule. Tasks no longer due, or locked by another writer, are left alone.
+     *
+     * @param ids Task IDs whose transitions should be due
+     * @return Number of due transitions handled, moved or dropped
+     */
+    int fireDueTransitions(List<Long> ids);
+
+    /**
+     * Lists the tenants that have scheduled transitions due at or before the cutoff
+     *
+     * @param cutoff Transitions due up to this time are overdue
+     * @return Tenant IDs, each to be swept as that tenant
+     */
+    List<String> findTenantsWithOverdueTransitions(ZonedDateTime cutoff);
+
+    /**
+     * Applies one batch of the current tenant's overdue scheduled transitions, oldest first
+     *
+     * @param cutoff Transitions due up to this time are overdue
+     * @param batchSize Maximum number of transitions to handle
+     * @return Number of transitions handled, moved or dropped; fewer than batchSize once none is left
+     */
+    int fireOverdueTransitions(ZonedDateTime cutoff, int batchSize);
+}
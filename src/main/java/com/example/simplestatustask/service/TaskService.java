@@ -1,8 +1,18 @@
 package com.example.simplestatustask.service;
 
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
 import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
 import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
 
 public interface TaskService {
 
@@ -23,6 +33,57 @@ public interface TaskService {
      */
     TaskResponseDto getTaskById(Long id);
 
+    /**
+     * Retrieves a task by its ID without reading its description
+     *
+     * @param id Task unique identifier
+     * @return Task as response DTO with a null description
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    TaskResponseDto getTaskSummaryById(Long id);
+
+    /**
+     * Retrieves many tasks by ID in one call
+     *
+     * @param ids Task IDs; duplicates are ignored
+     * @return Found tasks in request order, and the IDs that do not exist
+     * @throws IllegalArgumentException if no IDs or more than the configured maximum are given
+     */
+    TaskLookupResponseDto getTasksByIds(List<Long> ids);
+
+    /**
+     * Retrieves all tasks with the given status, most recently updated first
+     *
+     * @param status Task status to filter by
+     * @return Tasks as response DTOs
+     */
+    List<TaskResponseDto> getTasksByStatus(TaskStatus status);
+
+    /**
+     * Retrieves all tasks with the given status without reading their descriptions
+     *
+     * @param status Task status to filter by
+     * @return Tasks as response DTOs with a null description, most recently updated first
+     */
+    List<TaskResponseDto> getTaskSummariesByStatus(TaskStatus status);
+
+    /**
+     * Retrieves the most urgent tasks with the given status
+     *
+     * @param status Task status to filter by
+     * @param limit Number of tasks to return
+     * @return Tasks as response DTOs, highest priority first, then earliest due date, tasks without one last
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    List<TaskResponseDto> getNextTasks(TaskStatus status, int limit);
+
+    /**
+     * Counts tasks per status
+     *
+     * @return Number of tasks for every status, including statuses with no tasks
+     */
+    Map<TaskStatus, Long> getStatusCounts();
+
     /**
      * Updates an existing task
      *
@@ -30,6 +91,7 @@ public interface TaskService {
      * @param updateDto DTO containing updated task data
      * @return Updated task as response DTO
      * @throws com.example.taskapi.exception.TaskNotFoundException if task not found
+     * @throws com.example.simplestatustask.exception.InvalidStatusTransitionException if the status change is not allowed
      */
     TaskResponseDto updateTask(Long id, TaskUpdateDto updateDto);
 
@@ -40,4 +102,46 @@ public interface TaskService {
      * @throws com.example.taskapi.exception.TaskNotFoundException if task not found
      */
     void deleteTask(Long id);
+
+    /**
+     * Returns tasks created, updated or deleted after the given sync token
+     *
+     * @param since Opaque token from a previous call, or null for a full sync
+     * @param limit Maximum number of changes to return
+     * @return Page of changes with the token to resume from
+     * @throws IllegalArgumentException if the token is malformed or the limit is out of range
+     */
+    TaskChangesResponseDto getChangesSince(String since, int limit);
+
+    /**
+     * Moves a task from the expected status to the target status in one conditional update
+     *
+     * @param id Task unique identifier
+     * @param transitionDto Expected and target status
+     * @return Transition result
+     * @throws com.example.simplestatustask.exception.InvalidStatusTransitionException if the state machine forbids the change
+     * @throws com.example.simplestatustask.exception.TaskStatusConflictException if the task no longer has the expected status
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    TaskTransitionResponseDto transitionTask(Long id, TaskTransitionDto transitionDto);
+
+    /**
+     * Schedules a status transition that happens once it is due, if the task still has the
+     * expected status then; replaces any transition already scheduled for the task
+     *
+     * @param id Task unique identifier
+     * @param scheduleDto Expected and target status and the time the transition is due
+     * @return Scheduled transition
+     * @throws com.example.simplestatustask.exception.InvalidStatusTransitionException if the state machine forbids the change
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    TaskScheduleResponseDto scheduleTransition(Long id, TaskScheduleDto scheduleDto);
+
+    /**
+     * Removes the scheduled transition of a task, if it has one
+     *
+     * @param id Task unique identifier
+     * @throws com.example.simplestatustask.exception.TaskNotFoundException if task not found
+     */
+    void cancelScheduledTransition(Long id);
 }
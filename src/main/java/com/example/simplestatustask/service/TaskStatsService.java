@@ -0,0 +1,75 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.enums.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface TaskStatsService {
+
+    /**
+     * Returns the current tenant's task counts per status and created/completed counts for the last hours.
+     * Counts come from memory; the hours are one primary key range read.
+     *
+     * @param hours Number of hours to return, ending with the current one
+     * @return Task statistics
+     * @throws IllegalArgumentException if hours is outside 1..task.stats.max-hours
+     */
+    TaskStatsDto getStats(int hours);
+
+    /**
+     * Returns the current tenant's created/completed counts for the last hours, read from task_hourly_stats
+     *
+     * @param hours Number of hours to return, ending with the current one
+     * @return One entry per hour, oldest first, including hours without activity
+     * @throws IllegalArgumentException if hours is outside 1..task.stats.max-hours
+     */
+    List<TaskHourlyStatsDto> getHourlyStats(int hours);
+
+    /**
+     * Sums the current tenant's counter slots of every status as last committed
+     *
+     * @return Count per status that has slots
+     */
+    Map<TaskStatus, Long> getPersistedCounts();
+
+    /**
+     * Sums the counter slots of every tenant and status as last committed
+     *
+     * @return Count per status that has slots, by tenant
+     */
+    Map<String, Map<TaskStatus, Long>> getPersistedCountsByTenant();
+
+    /**
+     * Reloads the in-memory counts from task_status_counts, picking up writes made by other instances
+     */
+    void reconcile();
+
+    /**
+     * Recounts tasks per tenant and status and rewrites task_status_counts to match.
+     * Counters drift when tasks are changed outside the application.
+     * Must be called as {@link com.example.simplestatustask.tenant.TenantContext#ROOT}.
+     *
+     * @return Sum of the absolute differences that were corrected
+     */
+    long correctCountDrift();
+
+    /**
+     * Recomputes one hour of task_hourly_stats of every tenant from the status history.
+     * Must be called as {@link com.example.simplestatustask.tenant.TenantContext#ROOT}.
+     *
+     * @param hourStart Start of the hour, Almaty time
+     */
+    void recountHour(ZonedDateTime hourStart);
+
+    /**
+     * Creates task_hourly_stats rows for the current hour and the following ones for every
+     * tenant with counters, so writers only ever update them
+     *
+     * @param hoursAhead Number of hours after the current one to create
+     */
+    void prepareHours(int hoursAhead);
+}
@@ -0,0 +1,20 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+
+import java.util.List;
+
+public interface TaskSuggestService {
+
+    /**
+     * Suggests tasks for typeahead: the most recently updated tasks whose title starts with the
+     * prefix, ignoring case
+     *
+     * @param prefix Start of the title
+     * @param limit Maximum number of tasks to return
+     * @return Matching tasks, most recently updated first
+     * @throws IllegalArgumentException if the prefix is blank or too long, or the limit is out of range
+     * @throws com.example.simplestatustask.exception.TaskIndexUnavailableException if the title index is still loading
+     */
+    List<TaskResponseDto> suggestTasks(String prefix, int limit);
+}
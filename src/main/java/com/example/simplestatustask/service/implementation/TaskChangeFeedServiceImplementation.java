@@ -0,0 +1,101 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskTombstone;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskTombstoneRepository;
+import com.example.simplestatustask.service.ChangeWatermark;
+import com.example.simplestatustask.service.TaskChangeFeedService;
+import com.example.simplestatustask.service.TaskChanges;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TaskChangeFeedServiceImplementation implements TaskChangeFeedService {
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskMapper taskMapper;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Upper bound for a single page of the change feed
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
+    /**
+     * Changes younger than this are held back from the change feed, so that a transaction
+     * which stamped an earlier updated_at but commits later is not skipped by the watermark
+     */
+    @Value("${task.sync.commit-lag-ms:1000}")
+    private long syncCommitLagMs;
+
+    @Override
+    public TaskChanges readChanges(ChangeWatermark watermark, int limit) {
+        if (limit < 1 || limit > MAX_CHANGES_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGES_PAGE_SIZE);
+        }
+        ZonedDateTime from = watermark.timestampAt(ALMATY_ZONE);
+        ZonedDateTime upTo = ZonedDateTime.now(ALMATY_ZONE).minusNanos(syncCommitLagMs * 1_000_000L);
+        // One extra row per stream tells us whether there is more to fetch
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Task> changedTasks = taskRepository.findChangedAfter(from, watermark.id(), upTo, page);
+        List<TaskTombstone> tombstones = taskTombstoneRepository.findDeletedAfter(from, watermark.id(), upTo, page);
+
+        List<TaskChanges.Entry> entries = new ArrayList<>(limit);
+        int t = 0;
+        int d = 0;
+        while (entries.size() < limit && (t < changedTasks.size() || d < tombstones.size())) {
+            ChangeWatermark taskMark = t < changedTasks.size() ? watermarkOf(changedTasks.get(t)) : null;
+            ChangeWatermark tombMark = d < tombstones.size() ? watermarkOf(tombstones.get(d)) : null;
+            if (tombMark == null || (taskMark != null && taskMark.compareTo(tombMark) < 0)) {
+                entries.add(new TaskChanges.Entry(taskMark, taskMapper.toResponseDto(changedTasks.get(t++)), null));
+            } else {
+                entries.add(new TaskChanges.Entry(tombMark, null, taskMapper.toTombstoneDto(tombstones.get(d++))));
+            }
+        }
+        boolean hasMore = t < changedTasks.size() || d < tombstones.size();
+        return new TaskChanges(entries, hasMore);
+    }
+
+    @Override
+    public TaskChangesResponseDto toPage(TaskChanges changes, ChangeWatermark watermark) {
+        List<TaskResponseDto> changed = new ArrayList<>();
+        List<TaskTombstoneDto> deleted = new ArrayList<>();
+        ChangeWatermark next = watermark;
+        for (TaskChanges.Entry entry : changes.entries()) {
+            if (entry.task() != null) {
+                changed.add(entry.task());
+            } else {
+                deleted.add(entry.tombstone());
+            }
+            next = entry.watermark();
+        }
+
+        log.info("Returning {} changed and {} deleted tasks (more: {})", changed.size(), deleted.size(), changes.hasMore());
+        return new TaskChangesResponseDto(changed, deleted, next.encode(), changes.hasMore());
+    }
+
+    private static ChangeWatermark watermarkOf(Task task) {
+        return new ChangeWatermark(task.getUpdatedAt().toInstant(), task.getId());
+    }
+
+    private static ChangeWatermark watermarkOf(TaskTombstone tombstone) {
+        return new ChangeWatermark(tombstone.getDeletedAt().toInstant(), tombstone.getTaskId());
+    }
+}
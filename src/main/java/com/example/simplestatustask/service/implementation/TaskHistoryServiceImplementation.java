@@ -0,0 +1,98 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.TaskStatusHistory;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskStatusHistoryRepository;
+import com.example.simplestatustask.service.TaskHistoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TaskHistoryServiceImplementation implements TaskHistoryService {
+    private final TaskStatusHistoryRepository taskStatusHistoryRepository;
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    /**
+     * Reads the timeline from the per-task index; the task table is only consulted
+     * when there is no history, to tell an unknown task from a deleted one
+     *
+     * @param taskId Task unique identifier
+     * @return Status changes of the task, oldest first
+     */
+    @Override
+    public List<TaskStatusHistoryDto> getTaskHistory(Long taskId) {
+        List<TaskStatusHistoryDto> history = taskStatusHistoryRepository.findByTaskIdOrderByChangedAtAscIdAsc(taskId)
+                .stream()
+                .map(taskMapper::toHistoryDto)
+                .toList();
+        if (history.isEmpty() && !taskRepository.existsById(taskId)) {
+            log.error("Task not found with ID: {} at Almaty time: {}", taskId, LocalDateTime.now(ALMATY_ZONE));
+            throw new TaskNotFoundException("Task not found with ID: " + taskId);
+        }
+        return history;
+    }
+
+    /**
+     * Streams the range and writes each change as one JSON line.
+     * Entries are detached once written, so the persistence context stays empty.
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param toStatus Only changes entering this status, or null for all
+     * @param out Stream to write to; left open
+     * @return Number of changes written
+     */
+    @Override
+    public long writeHistory(LocalDateTime from, LocalDateTime to, TaskStatus toStatus, OutputStream out)
+            throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        log.info("Streaming status history from {} to {} (status {})", from, to, toStatus);
+
+        ObjectWriter writer = objectMapper.writerFor(TaskStatusHistoryDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long written = 0;
+        try (Stream<TaskStatusHistory> history = taskStatusHistoryRepository.streamByChangedAtRange(
+                from.atZone(ALMATY_ZONE), to.atZone(ALMATY_ZONE), toStatus)) {
+            Iterator<TaskStatusHistory> entries = history.iterator();
+            while (entries.hasNext()) {
+                TaskStatusHistory entry = entries.next();
+                writer.writeValue(out, taskMapper.toHistoryDto(entry));
+                out.write('\n');
+                entityManager.detach(entry);
+                written++;
+            }
+        }
+        out.flush();
+        log.info("Streamed {} status changes", written);
+        return written;
+    }
+}
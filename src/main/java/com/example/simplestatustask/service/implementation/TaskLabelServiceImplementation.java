@@ -0,0 +1,176 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskFacetsDto;
+import com.example.simplestatustask.dto.TaskFilterResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.events.TaskLabelChangedEvent;
+import com.example.simplestatustask.exception.TaskIndexUnavailableException;
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.lookup.TaskBitmapIndex;
+import com.example.simplestatustask.repository.TaskLabelRepository;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.service.TaskLabelService;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskLabelServiceImplementation implements TaskLabelService {
+    private final TaskRepository taskRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final TaskService taskService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Labels are stored in a VARCHAR(50) column and appear in query strings unescaped
+    private static final Pattern LABEL_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.:-]{0,49}");
+
+    @Value("${task.labels.max-per-task:32}")
+    private int maxLabelsPerTask;
+
+    @Value("${task.labels.max-filter-limit:100}")
+    private int maxFilterLimit;
+
+    @Value("${task.labels.max-facet-labels:100}")
+    private int maxFacetLabels;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getLabels(Long id) {
+        List<String> labels = taskLabelRepository.findLabels(id);
+        if (labels.isEmpty() && !taskRepository.existsById(id)) {
+            throw new TaskNotFoundException("Task not found with ID: " + id);
+        }
+        return labels;
+    }
+
+    /**
+     * Adds a label after stamping the task as updated. The stamp locks the task, so concurrent
+     * changes to its labels take turns, and lets other instances see the change in the change feed.
+     *
+     * @param id Task unique identifier
+     * @param label Label name
+     * @return Labels of the task afterwards
+     */
+    @Override
+    public List<String> addLabel(Long id, String label) {
+        validateLabel(label);
+        touch(id);
+        List<String> labels = new ArrayList<>(taskLabelRepository.findLabels(id));
+        if (labels.contains(label)) {
+            return labels;
+        }
+        if (labels.size() >= maxLabelsPerTask) {
+            throw new IllegalArgumentException("A task can have at most " + maxLabelsPerTask + " labels");
+        }
+        taskLabelRepository.insertLabel(TenantContext.current(), id, label);
+        eventPublisher.publishEvent(new TaskLabelChangedEvent(TenantContext.current(), id, label, true));
+        log.info("Label {} added to task {}", label, id);
+
+        labels.add(label);
+        labels.sort(null);
+        return labels;
+    }
+
+    @Override
+    public void removeLabel(Long id, String label) {
+        touch(id);
+        if (taskLabelRepository.deleteLabel(id, label) > 0) {
+            eventPublisher.publishEvent(new TaskLabelChangedEvent(TenantContext.current(), id, label, false));
+            log.info("Label {} removed from task {}", label, id);
+        }
+    }
+
+    /**
+     * Finds the page of IDs in the bitmap index, then loads those tasks with one multi-get.
+     * A task deleted since the index last heard of it is left out of the page.
+     *
+     * @param status Required status, or null for any
+     * @param labels Required labels; null or empty for any
+     * @param after Only tasks with a greater ID are returned; null for the first page
+     * @param limit Maximum number of tasks to return
+     * @return Page of matching tasks
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TaskFilterResponseDto filterTasks(TaskStatus status, List<String> labels, Long after, int limit) {
+        if (limit < 1 || limit > maxFilterLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxFilterLimit);
+        }
+        Set<String> required = requiredLabels(labels);
+        checkIndexReady();
+
+        TaskBitmapIndex.Page page = taskBitmapIndex.filter(TenantContext.current(), status, required,
+                after != null ? after : 0, limit);
+        if (page.ids().length == 0) {
+            return new TaskFilterResponseDto(page.total(), List.of(), null);
+        }
+        List<TaskResponseDto> tasks = taskService.getTasksByIds(Arrays.stream(page.ids()).boxed().toList()).getTasks();
+        Long nextAfter = page.ids().length == limit ? page.ids()[limit - 1] : null;
+        return new TaskFilterResponseDto(page.total(), tasks, nextAfter);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TaskFacetsDto getFacets(TaskStatus status, List<String> labels, int labelLimit) {
+        if (labelLimit < 0 || labelLimit > maxFacetLabels) {
+            throw new IllegalArgumentException("Label limit must be between 0 and " + maxFacetLabels);
+        }
+        Set<String> required = requiredLabels(labels);
+        checkIndexReady();
+
+        TaskBitmapIndex.Facets facets = taskBitmapIndex.facets(TenantContext.current(), status, required, labelLimit);
+        return new TaskFacetsDto(facets.total(), facets.statuses(), facets.labels());
+    }
+
+    private void touch(Long id) {
+        if (taskRepository.touch(id, ZonedDateTime.now(ALMATY_ZONE)) == 0) {
+            throw new TaskNotFoundException("Task not found with ID: " + id);
+        }
+    }
+
+    private Set<String> requiredLabels(List<String> labels) {
+        if (labels == null) {
+            return Set.of();
+        }
+        if (labels.size() > maxLabelsPerTask) {
+            throw new IllegalArgumentException("At most " + maxLabelsPerTask + " labels can be required");
+        }
+        labels.forEach(TaskLabelServiceImplementation::validateLabel);
+        return new LinkedHashSet<>(labels);
+    }
+
+    private void checkIndexReady() {
+        if (!taskBitmapIndex.isReady()) {
+            throw new TaskIndexUnavailableException("Task index is still loading");
+        }
+    }
+
+    private static void validateLabel(String label) {
+        if (label == null || !LABEL_PATTERN.matcher(label).matches()) {
+            throw new IllegalArgumentException("Labels must be 1 to 50 letters, digits or _.:- and start with a letter or digit");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.exception.InvalidStatusTransitionException;
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.exception.TaskStatusConflictException;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.service.TaskQueueService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskQueueServiceImplementation implements TaskQueueService {
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Lease owners are stored in a VARCHAR(100) column
+    private static final int MAX_OWNER_LENGTH = 100;
+
+    @Value("${task.queue.default-lease-seconds:60}")
+    private int defaultLeaseSeconds;
+
+    @Value("${task.queue.max-lease-seconds:3600}")
+    private int maxLeaseSeconds;
+
+    @Value("${task.queue.max-claim:100}")
+    private int maxClaim;
+
+    /**
+     * Claims the oldest pending tasks: one SKIP LOCKED select, one bulk update, one read-back.
+     * Concurrent workers lock disjoint rows, so claim throughput grows with the number of workers.
+     *
+     * @param owner Worker identifier
+     * @param limit Maximum number of tasks to claim
+     * @param leaseSeconds Lease duration, or null for the default
+     * @return Claimed tasks with their lease
+     */
+    @Override
+    public TaskClaimResponseDto claimTasks(String owner, int limit, Integer leaseSeconds) {
+        validateOwner(owner);
+        if (limit < 1 || limit > maxClaim) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxClaim);
+        }
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        ZonedDateTime leaseExpiresAt = now.plusSeconds(resolveLeaseSeconds(leaseSeconds));
+
+        List<Long> ids = taskRepository.lockPendingForClaim(TenantContext.current(), limit);
+        if (ids.isEmpty()) {
+            log.debug("No pending tasks to claim for {}", owner);
+            return new TaskClaimResponseDto(owner, leaseExpiresAt.toLocalDateTime(), List.of());
+        }
+        taskRepository.claim(ids, owner, leaseExpiresAt, now);
+
+        List<TaskResponseDto> claimed = taskRepository.findWithDescriptionByIdIn(ids).stream()
+                .sorted(Comparator.comparingInt((Task task) -> ids.indexOf(task.getId())))
+                .map(taskMapper::toResponseDto)
+                .toList();
+        for (TaskResponseDto task : claimed) {
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskEventType.STATUS_CHANGED, task.getId(),
+                    TaskStatus.PENDING, TaskStatus.IN_PROGRESS, task, now));
+        }
+
+        log.info("Worker {} claimed {} tasks until {}", owner, claimed.size(), leaseExpiresAt);
+        return new TaskClaimResponseDto(owner, leaseExpiresAt.toLocalDateTime(), claimed);
+    }
+
+    /**
+     * Extends the lease with a single conditional update
+     *
+     * @param id Task unique identifier
+     * @param owner Worker holding the lease
+     * @param leaseSeconds Lease duration from now, or null for the default
+     * @return Extended lease
+     */
+    @Override
+    public TaskLeaseResponseDto heartbeat(Long id, String owner, Integer leaseSeconds) {
+        validateOwner(owner);
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        ZonedDateTime leaseExpiresAt = now.plusSeconds(resolveLeaseSeconds(leaseSeconds));
+
+        if (taskRepository.extendLease(id, owner, leaseExpiresAt, now) == 0) {
+            throw leaseMiss(id, owner);
+        }
+        log.debug("Worker {} extended lease on task {} until {}", owner, id, leaseExpiresAt);
+        return new TaskLeaseResponseDto(id, owner, leaseExpiresAt.toLocalDateTime());
+    }
+
+    /**
+     * Releases the lease with a single conditional update
+     *
+     * @param id Task unique identifier
+     * @param owner Worker holding the lease
+     * @param status Status to leave the task in
+     * @return Resulting status change
+     */
+    @Override
+    public TaskTransitionResponseDto releaseTask(Long id, String owner, TaskStatus status) {
+        validateOwner(owner);
+        if (!TaskStatus.IN_PROGRESS.canTransitionTo(status)) {
+            throw new InvalidStatusTransitionException(TaskStatus.IN_PROGRESS, status);
+        }
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+
+        if (taskRepository.releaseLease(id, owner, status, now) == 0) {
+            throw leaseMiss(id, owner);
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.statusChanged(id, TaskStatus.IN_PROGRESS, status, now));
+        log.info("Worker {} released task {} as {}", owner, id, status);
+        return new TaskTransitionResponseDto(id, TaskStatus.IN_PROGRESS, status, now.toLocalDateTime());
+    }
+
+    /**
+     * Lists tenants with expired leases across all partitions
+     *
+     * @return Tenant IDs
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findTenantsWithExpiredLeases() {
+        return taskRepository.findTenantsWithExpiredLeases(ZonedDateTime.now(ALMATY_ZONE));
+    }
+
+    /**
+     * Requeues one batch of the current tenant's expired leases; rows being handled by another
+     * reaper are skipped
+     *
+     * @param batchSize Maximum number of tasks to requeue
+     * @return Number of tasks requeued
+     */
+    @Override
+    public int requeueExpiredLeases(int batchSize) {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        List<Long> ids = taskRepository.lockExpiredLeases(TenantContext.current(), now, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int requeued = taskRepository.requeueExpired(ids, now);
+        for (Long id : ids) {
+            eventPublisher.publishEvent(TaskChangedEvent.statusChanged(id, TaskStatus.IN_PROGRESS, TaskStatus.PENDING, now));
+        }
+        log.info("Requeued {} tasks with expired leases for tenant {}", requeued, TenantContext.current());
+        return requeued;
+    }
+
+    private RuntimeException leaseMiss(Long id, String owner) {
+        if (!taskRepository.existsById(id)) {
+            log.error("Task not found with ID: {} at Almaty time: {}", id, ZonedDateTime.now(ALMATY_ZONE));
+            return new TaskNotFoundException("Task not found with ID: " + id);
+        }
+        return new TaskStatusConflictException("Task " + id + " is not leased by " + owner);
+    }
+
+    private void validateOwner(String owner) {
+        if (owner == null || owner.isBlank() || owner.length() > MAX_OWNER_LENGTH) {
+            throw new IllegalArgumentException("Owner must be 1 to " + MAX_OWNER_LENGTH + " characters");
+        }
+    }
+
+    private int resolveLeaseSeconds(Integer leaseSeconds) {
+        int seconds = leaseSeconds != null ? leaseSeconds : defaultLeaseSeconds;
+        if (seconds < 1 || seconds > maxLeaseSeconds) {
+            throw new IllegalArgumentException("Lease must be between 1 and " + maxLeaseSeconds + " seconds");
+        }
+        return seconds;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskHistogramBucketDto;
+import com.example.simplestatustask.dto.TaskHistogramDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskHistogramBucket;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.repository.TaskCreatedBucketView;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.service.TaskReportService;
+import com.example.simplestatustask.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class TaskReportServiceImplementation implements TaskReportService {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int pageSize;
+    private final int maxBuckets;
+
+    public TaskReportServiceImplementation(TaskRepository taskRepository,
+                                           TaskMapper taskMapper,
+                                           ObjectMapper objectMapper,
+                                           EntityManager entityManager,
+                                           @Value("${task.reports.page-size:500}") int pageSize,
+                                           @Value("${task.reports.max-buckets:2000}") int maxBuckets) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.pageSize = pageSize;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Pages through the range on (createdAt, id), each page one index range scan starting where
+     * the previous one ended, and writes each task as one JSON line.
+     * The persistence context is cleared after every page.
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param out Stream to write to; left open
+     * @return Number of tasks written
+     */
+    @Override
+    public long writeTasksCreated(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        log.info("Streaming tasks created from {} to {}", from, to);
+
+        ObjectWriter writer = objectMapper.writerFor(TaskResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        LocalDateTime afterCreatedAt = from;
+        long afterId = Long.MIN_VALUE;
+        long written = 0;
+        List<Task> page;
+        while (!(page = taskRepository.findCreatedAfter(afterCreatedAt, afterId, to, Limit.of(pageSize))).isEmpty()) {
+            for (Task task : page) {
+                writer.writeValue(out, taskMapper.toResponseDto(task));
+                out.write('\n');
+            }
+            Task last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+            written += page.size();
+            entityManager.clear();
+        }
+        out.flush();
+        log.info("Streamed {} created tasks", written);
+        return written;
+    }
+
+    /**
+     * Lets the database group the range with date_trunc in Almaty time, then adds the empty
+     * buckets. Buckets are Almaty wall-clock hours and days, as the stored timestamps are
+     * converted with the offset in force at the time.
+     *
+     * @param from Inclusive lower bound, Almaty time
+     * @param to Exclusive upper bound, Almaty time
+     * @param bucket Bucket width
+     * @return Count for every bucket touching the range, oldest first
+     */
+    @Override
+    public TaskHistogramDto getCreatedHistogram(LocalDateTime from, LocalDateTime to, TaskHistogramBucket bucket) {
+        List<LocalDateTime> starts = bucketStarts(from, to, bucket);
+
+        ZonedDateTime fromAt = from.atZone(ALMATY_ZONE);
+        ZonedDateTime toAt = to.atZone(ALMATY_ZONE);
+        String tenant = TenantContext.current();
+        List<TaskCreatedBucketView> rows = switch (bucket) {
+            case HOUR -> taskRepository.countCreatedPerHour(tenant, fromAt, toAt);
+            case DAY -> taskRepository.countCreatedPerDay(tenant, fromAt, toAt);
+        };
+        Map<LocalDateTime, Long> counts = new HashMap<>();
+        for (TaskCreatedBucketView row : rows) {
+            counts.merge(row.getBucketStart(), row.getTaskCount(), Long::sum);
+        }
+
+        List<TaskHistogramBucketDto> buckets = new ArrayList<>(starts.size());
+        long total = 0;
+        for (LocalDateTime start : starts) {
+            long count = counts.getOrDefault(start, 0L);
+            buckets.add(new TaskHistogramBucketDto(start, count));
+            total += count;
+        }
+        return new TaskHistogramDto(bucket.getValue(), from, to, total, buckets);
+    }
+
+    /**
+     * Starts of the buckets touching [from, to), checked against the configured maximum
+     */
+    private List<LocalDateTime> bucketStarts(LocalDateTime from, LocalDateTime to, TaskHistogramBucket bucket) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        LocalDateTime first = bucket.start(from);
+        long count = bucket.getUnit().between(first, to);
+        if (first.plus(count, bucket.getUnit()).isBefore(to)) {
+            count++;
+        }
+        if (count > maxBuckets) {
+            throw new IllegalArgumentException("Range spans " + count + " " + bucket.getValue()
+                    + " buckets; at most " + maxBuckets + " are allowed");
+        }
+        List<LocalDateTime> starts = new ArrayList<>((int) count);
+        for (LocalDateTime start = first; start.isBefore(to); start = start.plus(1, bucket.getUnit())) {
+            starts.add(start);
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskRetentionCursor;
+import com.example.simplestatustask.models.TaskTombstone;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskRetentionCursorRepository;
+import com.example.simplestatustask.repository.TaskTombstoneRepository;
+import com.example.simplestatustask.service.TaskRetentionService;
+import com.example.simplestatustask.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskRetentionServiceImplementation implements TaskRetentionService {
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskRetentionCursorRepository taskRetentionCursorRepository;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    // Position before every task; a new or finished pass starts here
+    private static final ZonedDateTime START_UPDATED_AT = Instant.EPOCH.atZone(ALMATY_ZONE);
+
+    /**
+     * Lists tenants with expired tasks across all partitions
+     *
+     * @param status Status being purged
+     * @param cutoff Tasks updated before this are expired
+     * @return Tenant IDs
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findTenantsWithExpiredTasks(TaskStatus status, ZonedDateTime cutoff) {
+        return taskRepository.findTenantsWithExpiredTasks(status.name(), cutoff);
+    }
+
+    /**
+     * Purges one keyset batch in a single transaction: lock, load, delete, tombstone and move the cursor.
+     * Tasks are removed one by one rather than with a bulk DELETE, so only they leave the
+     * second-level cache. A short batch ends the pass and rewinds the cursor, so rows skipped
+     * while locked by the API are picked up by the next pass.
+     *
+     * @param status Status being purged
+     * @param cutoff Tasks updated before this are expired
+     * @param batchSize Maximum number of tasks to delete
+     * @return Number of tasks deleted
+     */
+    @Override
+    public int purgeExpired(TaskStatus status, ZonedDateTime cutoff, int batchSize) {
+        String tenant = TenantContext.current();
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        TaskRetentionCursor cursor = taskRetentionCursorRepository
+                .findById(new TaskRetentionCursor.Key(tenant, status))
+                .orElseGet(() -> TaskRetentionCursor.builder()
+                        .tenantId(tenant)
+                        .status(status)
+                        .lastUpdatedAt(START_UPDATED_AT)
+                        .build());
+
+        List<Long> ids = taskRepository.lockExpiredForPurge(tenant, status.name(), cutoff,
+                cursor.getLastUpdatedAt(), cursor.getLastId(), batchSize);
+        // A query rather than a multi-load: the cursor and the events need the stored state, not a cached copy
+        Map<Long, Task> loaded = taskRepository.findWithDescriptionByIdIn(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> tasks = ids.stream().map(loaded::get).toList();
+
+        for (Task task : tasks) {
+            TaskChangedEvent event = new TaskChangedEvent(TaskEventType.DELETED, task.getId(),
+                    task.getStatus(), task.getStatus(), taskMapper.toResponseDto(task), now);
+            taskRepository.delete(task);
+            eventPublisher.publishEvent(event);
+        }
+        tombstone(tasks.stream().map(Task::getId).toList(), now);
+
+        if (tasks.size() < batchSize) {
+            cursor.setLastUpdatedAt(START_UPDATED_AT);
+            cursor.setLastId(0L);
+        } else {
+            Task last = tasks.get(tasks.size() - 1);
+            cursor.setLastUpdatedAt(last.getUpdatedAt());
+            cursor.setLastId(last.getId());
+        }
+        cursor.setPurgedCount(cursor.getPurgedCount() + tasks.size());
+        cursor.setUpdatedAt(now);
+        taskRetentionCursorRepository.save(cursor);
+
+        if (!tasks.isEmpty()) {
+            log.debug("Purged {} {} tasks of tenant {} updated before {}", tasks.size(), status, tenant, cutoff);
+        }
+        return tasks.size();
+    }
+
+    /**
+     * Records tombstones for the purged tasks with one select for the whole batch.
+     * A tombstone may already exist for a task restored from a snapshot after an earlier delete.
+     */
+    private void tombstone(List<Long> ids, ZonedDateTime deletedAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, TaskTombstone> existing = taskTombstoneRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(TaskTombstone::getTaskId, Function.identity()));
+        for (Long id : ids) {
+            TaskTombstone tombstone = existing.get(id);
+            if (tombstone != null) {
+                tombstone.setDeletedAt(deletedAt);
+            } else {
+                entityManager.persist(TaskTombstone.builder().taskId(id).deletedAt(deletedAt).build());
+            }
+        }
+    }
+}
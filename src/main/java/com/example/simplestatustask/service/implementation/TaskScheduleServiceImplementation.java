@@ -0,0 +1,105 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.repository.ScheduledTransitionView;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.service.TaskScheduleService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TaskScheduleServiceImplementation implements TaskScheduleService {
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    /**
+     * Reads one keyset page from the partial index on scheduled_transition_at
+     *
+     * @param afterAt Due time of the last transition loaded
+     * @param afterId ID of the last task loaded, the tie-breaker
+     * @param until Latest due time to load
+     * @param limit Maximum number of transitions to return
+     * @return Scheduled transitions in (due time, id) order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScheduledTransitionView> findScheduledTransitions(ZonedDateTime afterAt, long afterId,
+                                                                  ZonedDateTime until, int limit) {
+        return taskRepository.findScheduledTransitions(afterAt, afterId, until, Limit.of(limit));
+    }
+
+    /**
+     * Fires transitions taken from the timing wheel: one SKIP LOCKED select, one read,
+     * one conditional bulk update, and a second update only when some schedules went stale
+     *
+     * @param ids Task IDs whose transitions should be due
+     * @return Number of due transitions handled
+     */
+    @Override
+    public int fireDueTransitions(List<Long> ids) {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        return fire(taskRepository.lockDueTransitions(TenantContext.current(), ids, now), now);
+    }
+
+    /**
+     * Lists tenants with overdue transitions across all partitions
+     *
+     * @param cutoff Transitions due up to this time are overdue
+     * @return Tenant IDs
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findTenantsWithOverdueTransitions(ZonedDateTime cutoff) {
+        return taskRepository.findTenantsWithOverdueTransitions(cutoff);
+    }
+
+    /**
+     * Fires one batch of overdue transitions; rows being handled by another writer are skipped
+     *
+     * @param cutoff Transitions due up to this time are overdue
+     * @param batchSize Maximum number of transitions to handle
+     * @return Number of transitions handled
+     */
+    @Override
+    public int fireOverdueTransitions(ZonedDateTime cutoff, int batchSize) {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        return fire(taskRepository.lockOverdueTransitions(TenantContext.current(), cutoff, batchSize), now);
+    }
+
+    private int fire(List<Long> ids, ZonedDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // A query rather than a multi-load: the events need the stored statuses, not a cached copy
+        List<Task> tasks = taskRepository.findAllById(ids);
+        int moved = taskRepository.applyScheduledTransitions(ids, now);
+        if (moved < tasks.size()) {
+            taskRepository.dropScheduledTransitions(ids, now);
+        }
+        for (Task task : tasks) {
+            if (task.getStatus() == task.getScheduledExpectedStatus()) {
+                eventPublisher.publishEvent(TaskChangedEvent.statusChanged(task.getId(),
+                        task.getScheduledExpectedStatus(), task.getScheduledTargetStatus(), now));
+            }
+        }
+        log.debug("Fired {} scheduled transitions of tenant {}, dropped {} stale ones",
+                moved, TenantContext.current(), tasks.size() - moved);
+        return tasks.size();
+    }
+}
@@ -1,21 +1,48 @@
 package com.example.simplestatustask.service.implementation;
 
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
 import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
 import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.events.TaskTransitionScheduledEvent;
+import com.example.simplestatustask.exception.InvalidStatusTransitionException;
 import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.exception.TaskStatusConflictException;
+import com.example.simplestatustask.lookup.TaskIdFilter;
 import com.example.simplestatustask.mapper.TaskMapper;
 import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskTombstone;
 import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskTombstoneRepository;
+import com.example.simplestatustask.service.ChangeWatermark;
+import com.example.simplestatustask.service.TaskChangeFeedService;
 import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -23,11 +50,21 @@ import java.time.ZonedDateTime;
 @Transactional
 public class TaskServiceImplementation implements TaskService {
     private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
     private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskIdFilter taskIdFilter;
+    private final TaskChangeFeedService taskChangeFeedService;
 
     // Almaty timezone constant
     private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
 
+    @Value("${task.lookup.max-ids:1000}")
+    private int maxLookupIds;
+
+    @Value("${task.next.max-limit:100}")
+    private int maxNextLimit;
+
     /**
      * Creates a new task with Almaty timezone
      *
@@ -53,24 +90,33 @@ public class TaskServiceImplementation implements TaskService {
                 savedTask.getId(), savedTask.getCreatedAt());
 
         // Convert entity to response DTO
-        return taskMapper.toResponseDto(savedTask);
+        TaskResponseDto response = taskMapper.toResponseDto(savedTask);
+        publishChange(TaskEventType.CREATED, savedTask.getId(), null, savedTask.getStatus(), response);
+        return response;
     }
 
     /**
-     * Retrieves a task by its ID
+     * Retrieves a task by its ID.
+     * IDs the filter knows to be missing are rejected before any transaction or query;
+     * the others join a surrounding transaction if there is one and otherwise use the
+     * repository's own read-only one.
      *
      * @param id Task unique identifier
      * @return Task as response DTO
      * @throws TaskNotFoundException if task not found
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TaskResponseDto getTaskById(Long id) {
+        if (!taskIdFilter.mightExist(id)) {
+            log.debug("Task {} rejected by the ID filter", id);
+            throw new TaskNotFoundException("Task not found with ID: " + id);
+        }
         log.info("Retrieving task with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
 
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findWithDescriptionById(id)
                 .orElseThrow(() -> {
-                    log.error("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
+                    log.debug("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
                     return new TaskNotFoundException("Task not found with ID: " + id);
                 });
 
@@ -79,6 +125,129 @@ public class TaskServiceImplementation implements TaskService {
         return taskMapper.toResponseDto(task);
     }
 
+    /**
+     * Retrieves a task through a plain load, so the lazy description is neither selected nor read
+     *
+     * @param id Task unique identifier
+     * @return Task as response DTO with a null description
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TaskResponseDto getTaskSummaryById(Long id) {
+        if (!taskIdFilter.mightExist(id)) {
+            log.debug("Task {} rejected by the ID filter", id);
+            throw new TaskNotFoundException("Task not found with ID: " + id);
+        }
+        log.debug("Retrieving task summary with ID: {}", id);
+
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with ID: " + id));
+        return taskMapper.toSummaryResponseDto(task);
+    }
+
+    /**
+     * Retrieves many tasks by ID with one multi-load: cached tasks come from the second-level
+     * cache, and the misses are selected together instead of one findById per task
+     *
+     * @param ids Task IDs; duplicates are ignored
+     * @return Found tasks in request order, and the IDs that do not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskLookupResponseDto getTasksByIds(List<Long> ids) {
+        LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty() || unique.size() > maxLookupIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxLookupIds + " task IDs are required");
+        }
+        log.debug("Looking up {} tasks by ID", unique.size());
+
+        // IDs the filter knows to be missing are not loaded
+        List<Long> candidates = unique.stream().filter(taskIdFilter::mightExist).toList();
+        List<TaskResponseDto> tasks = new ArrayList<>(candidates.size());
+        if (!candidates.isEmpty()) {
+            for (Task task : taskRepository.multiLoad(candidates, true)) {
+                unique.remove(task.getId());
+                tasks.add(taskMapper.toResponseDto(task));
+            }
+        }
+        // What is left was not found
+        List<Long> missingIds = List.copyOf(unique);
+
+        log.info("Lookup found {} tasks, {} missing", tasks.size(), missingIds.size());
+        return new TaskLookupResponseDto(tasks, missingIds);
+    }
+
+    /**
+     * Retrieves tasks by status; served from the query cache while no task has changed
+     *
+     * @param status Task status to filter by
+     * @return Tasks as response DTOs, most recently updated first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> getTasksByStatus(TaskStatus status) {
+        log.debug("Retrieving tasks with status: {}", status);
+        return taskRepository.findTasksByStatusOrderByUpdatedAt(status).stream()
+                .map(taskMapper::toResponseDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves tasks by status through a projection that leaves out the description column
+     *
+     * @param status Task status to filter by
+     * @return Tasks as response DTOs without descriptions, most recently updated first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> getTaskSummariesByStatus(TaskStatus status) {
+        log.debug("Retrieving task summaries with status: {}", status);
+        return taskRepository.findSummariesByStatusOrderByUpdatedAtDesc(status).stream()
+                .map(taskMapper::summaryToResponseDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves the most urgent tasks: their IDs in order from the index alone, then the tasks
+     * with one multi-load, mostly from the second-level cache. Both steps cost O(limit).
+     *
+     * @param status Task status to filter by
+     * @param limit Number of tasks to return
+     * @return Tasks as response DTOs, most urgent first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDto> getNextTasks(TaskStatus status, int limit) {
+        if (limit < 1 || limit > maxNextLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxNextLimit);
+        }
+        log.debug("Retrieving the next {} tasks with status: {}", limit, status);
+        List<Long> ids = taskRepository.findNextIds(status, Limit.of(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // A task deleted between the two reads is simply left out
+        return taskRepository.multiLoad(ids, true).stream()
+                .map(taskMapper::toResponseDto)
+                .toList();
+    }
+
+    /**
+     * Counts tasks per status; each count is served from the query cache while no task has changed
+     *
+     * @return Number of tasks for every status
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<TaskStatus, Long> getStatusCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, taskRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
     /**
      * Updates an existing task with Almaty timezone
      *
@@ -91,14 +260,27 @@ public class TaskServiceImplementation implements TaskService {
     public TaskResponseDto updateTask(Long id, TaskUpdateDto updateDto) {
         log.info("Updating task with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
 
-        Task existingTask = taskRepository.findById(id)
+        // The response carries the description, so it is fetched with the task
+        Task existingTask = taskRepository.findWithDescriptionById(id)
                 .orElseThrow(() -> {
                     log.error("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
                     return new TaskNotFoundException("Task not found with ID: " + id);
                 });
 
+        TaskStatus previousStatus = existingTask.getStatus();
+        TaskStatus requestedStatus = updateDto.getStatus();
+        if (requestedStatus != null && requestedStatus != previousStatus
+                && !previousStatus.canTransitionTo(requestedStatus)) {
+            throw new InvalidStatusTransitionException(previousStatus, requestedStatus);
+        }
+
         // Update entity with DTO data (only non-null fields)
         taskMapper.updateEntityFromDto(updateDto, existingTask);
+        if (existingTask.getStatus() != previousStatus) {
+            // A lease belongs to the claim that set IN_PROGRESS; it must not outlive the status
+            existingTask.setLeaseOwner(null);
+            existingTask.setLeaseExpiresAt(null);
+        }
 
         // Update the updatedAt timestamp with Almaty timezone
         existingTask.setUpdatedAt(getCurrentAlmatyZonedTime());
@@ -108,7 +290,9 @@ public class TaskServiceImplementation implements TaskService {
         log.info("Task updated successfully with ID: {} at Almaty time: {}",
                 updatedTask.getId(), updatedTask.getUpdatedAt());
 
-        return taskMapper.toResponseDto(updatedTask);
+        TaskResponseDto response = taskMapper.toResponseDto(updatedTask);
+        publishChange(TaskEventType.UPDATED, updatedTask.getId(), previousStatus, updatedTask.getStatus(), response);
+        return response;
     }
 
     /**
@@ -121,13 +305,123 @@ public class TaskServiceImplementation implements TaskService {
     public void deleteTask(Long id) {
         log.info("Deleting task with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
 
-        if (!taskRepository.existsById(id)) {
+        // Load rather than existsById: the last state, description included, goes into the
+        // change event, and deleteById would have loaded the entity again anyway
+        Task task = taskRepository.findWithDescriptionById(id)
+                .orElseThrow(() -> {
+                    log.error("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
+                    return new TaskNotFoundException("Task not found with ID: " + id);
+                });
+        TaskResponseDto lastState = taskMapper.toResponseDto(task);
+
+        taskRepository.delete(task);
+
+        // Leave a tombstone so sync clients learn about the delete
+        taskTombstoneRepository.save(TaskTombstone.builder()
+                .taskId(id)
+                .deletedAt(getCurrentAlmatyZonedTime())
+                .build());
+        publishChange(TaskEventType.DELETED, id, task.getStatus(), task.getStatus(), lastState);
+        log.info("Task deleted successfully with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
+    }
+
+    /**
+     * Applies a status transition as a single conditional UPDATE.
+     * The entity is only consulted when the update misses, to tell 404 from 409.
+     *
+     * @param id Task unique identifier
+     * @param transitionDto Expected and target status
+     * @return Transition result
+     */
+    @Override
+    public TaskTransitionResponseDto transitionTask(Long id, TaskTransitionDto transitionDto) {
+        TaskStatus expected = transitionDto.getExpectedStatus();
+        TaskStatus target = transitionDto.getTargetStatus();
+        log.info("Transitioning task {} from {} to {}", id, expected, target);
+
+        if (!expected.canTransitionTo(target)) {
+            throw new InvalidStatusTransitionException(expected, target);
+        }
+
+        ZonedDateTime now = getCurrentAlmatyZonedTime();
+        if (taskRepository.compareAndSetStatus(id, expected, target, now) == 0) {
+            if (!taskRepository.existsById(id)) {
+                log.error("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
+                throw new TaskNotFoundException("Task not found with ID: " + id);
+            }
+            throw new TaskStatusConflictException("Task " + id + " is no longer in status " + expected);
+        }
+
+        TaskTransitionResponseDto response = new TaskTransitionResponseDto(id, expected, target, now.toLocalDateTime());
+        eventPublisher.publishEvent(TaskChangedEvent.statusChanged(id, expected, target, now));
+        log.info("Task {} moved from {} to {}", id, expected, target);
+        return response;
+    }
+
+    /**
+     * Schedules a transition with one update; the transition scheduler picks it up from the row,
+     * or from the published event when it is due within the horizon already loaded
+     *
+     * @param id Task unique identifier
+     * @param scheduleDto Expected and target status and the time the transition is due
+     * @return Scheduled transition
+     */
+    @Override
+    public TaskScheduleResponseDto scheduleTransition(Long id, TaskScheduleDto scheduleDto) {
+        TaskStatus expected = scheduleDto.getExpectedStatus();
+        TaskStatus target = scheduleDto.getTargetStatus();
+        ZonedDateTime transitionAt = scheduleDto.getScheduledTransitionAt().atZone(ALMATY_ZONE);
+        log.info("Scheduling task {} to move from {} to {} at {}", id, expected, target, transitionAt);
+
+        if (!expected.canTransitionTo(target)) {
+            throw new InvalidStatusTransitionException(expected, target);
+        }
+        if (taskRepository.scheduleTransition(id, expected, target, transitionAt, getCurrentAlmatyZonedTime()) == 0) {
             log.error("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
             throw new TaskNotFoundException("Task not found with ID: " + id);
         }
+        eventPublisher.publishEvent(new TaskTransitionScheduledEvent(TenantContext.current(), id, transitionAt));
+        return new TaskScheduleResponseDto(id, expected, target, transitionAt.toLocalDateTime());
+    }
 
-        taskRepository.deleteById(id);
-        log.info("Task deleted successfully with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
+    /**
+     * Removes the scheduled transition with one update; a copy already on the timing wheel
+     * finds nothing due when it fires
+     *
+     * @param id Task unique identifier
+     */
+    @Override
+    public void cancelScheduledTransition(Long id) {
+        log.info("Cancelling the scheduled transition of task {}", id);
+        if (taskRepository.cancelScheduledTransition(id, getCurrentAlmatyZonedTime()) == 0) {
+            log.error("Task not found with ID: {} at Almaty time: {}", id, getCurrentAlmatyTime());
+            throw new TaskNotFoundException("Task not found with ID: " + id);
+        }
+    }
+
+    /**
+     * Returns a keyset page of changes after the given token
+     *
+     * @param since Opaque token from a previous call, or null for a full sync
+     * @param limit Maximum number of changes to return
+     * @return Page of changes with the token to resume from
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChangesResponseDto getChangesSince(String since, int limit) {
+        ChangeWatermark watermark = ChangeWatermark.decode(since);
+        log.info("Retrieving task changes after {} (limit {})", watermark, limit);
+        return taskChangeFeedService.toPage(taskChangeFeedService.readChanges(watermark, limit), watermark);
+    }
+
+    /**
+     * Publishes a task change to listeners running in the current transaction
+     * (outbox) and to after-commit listeners
+     */
+    private void publishChange(TaskEventType type, Long taskId, TaskStatus previousStatus,
+                               TaskStatus status, TaskResponseDto task) {
+        eventPublisher.publishEvent(new TaskChangedEvent(
+                type, taskId, previousStatus, status, task, getCurrentAlmatyZonedTime()));
     }
 
     /**
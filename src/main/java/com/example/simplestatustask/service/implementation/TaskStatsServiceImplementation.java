@@ -0,0 +1,267 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.TaskHourlyStats;
+import com.example.simplestatustask.models.TaskStatusCount;
+import com.example.simplestatustask.repository.TaskHourlyStatsRepository;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskStatusCountRepository;
+import com.example.simplestatustask.repository.TaskStatusCountView;
+import com.example.simplestatustask.repository.TaskStatusHistoryRepository;
+import com.example.simplestatustask.repository.TaskTenantCountView;
+import com.example.simplestatustask.repository.TaskTenantStatusCountView;
+import com.example.simplestatustask.service.TaskStatsService;
+import com.example.simplestatustask.stats.TaskStatusCounters;
+import com.example.simplestatustask.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class TaskStatsServiceImplementation implements TaskStatsService {
+    private final TaskStatusCounters taskStatusCounters;
+    private final TaskStatusCountRepository taskStatusCountRepository;
+    private final TaskHourlyStatsRepository taskHourlyStatsRepository;
+    private final TaskStatusHistoryRepository taskStatusHistoryRepository;
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final EntityManager entityManager;
+
+    @Value("${task.stats.max-hours:168}")
+    private int maxHours;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    /**
+     * Reads the current tenant's counts from {@link TaskStatusCounters}
+     *
+     * @param hours Number of hours to return, ending with the current one
+     * @return Task statistics
+     */
+    @Override
+    public TaskStatsDto getStats(int hours) {
+        List<TaskHourlyStatsDto> hourly = getHourlyStats(hours);
+        Map<TaskStatus, Long> counts = taskStatusCounters.snapshot(TenantContext.current());
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        ZonedDateTime reconciledAt = taskStatusCounters.getReconciledAt();
+        return new TaskStatsDto(counts, total, hourly, reconciledAt == null ? null : reconciledAt.toLocalDateTime());
+    }
+
+    /**
+     * Reads the current tenant's hours as one primary key range and fills hours without a row with zeros
+     *
+     * @param hours Number of hours to return, ending with the current one
+     * @return One entry per hour, oldest first
+     */
+    @Override
+    public List<TaskHourlyStatsDto> getHourlyStats(int hours) {
+        if (hours < 1 || hours > maxHours) {
+            throw new IllegalArgumentException("hours must be between 1 and " + maxHours);
+        }
+        ZonedDateTime end = currentHour().plusHours(1);
+        ZonedDateTime start = end.minusHours(hours);
+        Map<ZonedDateTime, TaskHourlyStats> rows = taskHourlyStatsRepository
+                .findByTenantIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        TenantContext.current(), start, end)
+                .stream()
+                .collect(Collectors.toMap(row -> row.getBucketStart().toInstant().atZone(ALMATY_ZONE),
+                        Function.identity()));
+        List<TaskHourlyStatsDto> hourly = new ArrayList<>(hours);
+        for (ZonedDateTime hour = start; hour.isBefore(end); hour = hour.plusHours(1)) {
+            TaskHourlyStats row = rows.get(hour);
+            hourly.add(row != null
+                    ? taskMapper.toHourlyStatsDto(row)
+                    : new TaskHourlyStatsDto(hour.toLocalDateTime(), 0, 0));
+        }
+        return hourly;
+    }
+
+    /**
+     * Sums the slots per tenant and status; statuses without slots count as zero
+     */
+    @Override
+    public void reconcile() {
+        Map<String, Map<TaskStatus, Long>> included = taskStatusCounters.pendingDeltas();
+        Map<String, Map<TaskStatus, Long>> persisted = getPersistedCountsByTenant();
+        taskStatusCounters.rebase(persisted, included, ZonedDateTime.now(ALMATY_ZONE));
+        log.debug("Reconciled task counts of {} tenants", persisted.size());
+    }
+
+    @Override
+    public Map<TaskStatus, Long> getPersistedCounts() {
+        return toCounts(taskStatusCountRepository.sumByStatus(TenantContext.current()));
+    }
+
+    @Override
+    public Map<String, Map<TaskStatus, Long>> getPersistedCountsByTenant() {
+        return toTenantCounts(taskStatusCountRepository.sumByTenantAndStatus());
+    }
+
+    /**
+     * Locks every slot first, so no writer can add to a slot while the tasks are counted.
+     * Writers that changed tasks but have not reached their counter update yet are not seen by
+     * the count and add their delta after this commits, so the result stays exact.
+     * For every tenant whose counts drifted, the count is written to slot 0 and the other slots
+     * are zeroed; missing slots are created.
+     *
+     * @return Sum of the absolute differences that were corrected
+     */
+    @Override
+    @Transactional
+    public long correctCountDrift() {
+        List<TaskStatusCount> slots = taskStatusCountRepository.lockAll();
+        Map<String, Map<TaskStatus, Long>> actual = toTenantCounts(taskRepository.countGroupedByTenantAndStatus());
+
+        Map<String, Map<TaskStatus, Long>> recorded = new TreeMap<>();
+        Map<String, List<TaskStatusCount>> slotsByTenant = new TreeMap<>();
+        for (TaskStatusCount slot : slots) {
+            recorded.computeIfAbsent(slot.getTenantId(), tenant -> new EnumMap<>(TaskStatus.class))
+                    .merge(slot.getStatus(), slot.getTaskCount(), Long::sum);
+            slotsByTenant.computeIfAbsent(slot.getTenantId(), tenant -> new ArrayList<>()).add(slot);
+        }
+
+        Set<String> tenants = new TreeSet<>(actual.keySet());
+        tenants.addAll(recorded.keySet());
+        long drift = 0;
+        for (String tenant : tenants) {
+            Map<TaskStatus, Long> tenantActual = actual.getOrDefault(tenant, Map.of());
+            Map<TaskStatus, Long> tenantRecorded = recorded.getOrDefault(tenant, Map.of());
+            long tenantDrift = 0;
+            for (TaskStatus status : TaskStatus.values()) {
+                tenantDrift += Math.abs(tenantActual.getOrDefault(status, 0L) - tenantRecorded.getOrDefault(status, 0L));
+            }
+            if (tenantDrift == 0) {
+                continue;
+            }
+            rewriteSlots(tenant, slotsByTenant.getOrDefault(tenant, List.of()), tenantActual);
+            log.warn("Corrected task count drift of {} for tenant {}: recorded {}, actual {}",
+                    tenantDrift, tenant, tenantRecorded, tenantActual);
+            drift += tenantDrift;
+        }
+        return drift;
+    }
+
+    /**
+     * Writes a tenant's counts to slot 0 and zeroes the other slots, creating the missing ones
+     */
+    private void rewriteSlots(String tenant, List<TaskStatusCount> slots, Map<TaskStatus, Long> counts) {
+        Set<TaskStatusCount.Key> existing = new HashSet<>();
+        for (TaskStatusCount slot : slots) {
+            slot.setTaskCount(slot.getSlot() == 0 ? counts.getOrDefault(slot.getStatus(), 0L) : 0);
+            existing.add(new TaskStatusCount.Key(tenant, slot.getStatus(), slot.getSlot()));
+        }
+        for (TaskStatus status : TaskStatus.values()) {
+            for (int slot = 0; slot < TaskStatusCount.SLOTS; slot++) {
+                if (!existing.contains(new TaskStatusCount.Key(tenant, status, slot))) {
+                    entityManager.persist(new TaskStatusCount(tenant, status, slot,
+                            slot == 0 ? counts.getOrDefault(status, 0L) : 0));
+                }
+            }
+        }
+    }
+
+    /**
+     * Locks the hour's rows before counting, so increments from transactions still in flight
+     * land on top of the recount instead of being overwritten by it. Every tenant with a row
+     * or with history in the hour is recounted.
+     *
+     * @param hourStart Start of the hour, Almaty time
+     */
+    @Override
+    @Transactional
+    public void recountHour(ZonedDateTime hourStart) {
+        ZonedDateTime end = hourStart.plusHours(1);
+        Map<String, TaskHourlyStats> rows = new TreeMap<>();
+        for (TaskHourlyStats row : taskHourlyStatsRepository.findLockedByBucketStartOrderByTenantIdAsc(hourStart)) {
+            rows.put(row.getTenantId(), row);
+        }
+        Map<String, Long> created = toTenantTotals(taskStatusHistoryRepository.countCreatedByTenant(hourStart, end));
+        Map<String, Long> completed = toTenantTotals(
+                taskStatusHistoryRepository.countEnteredByTenant(hourStart, end, TaskStatus.COMPLETED));
+
+        Set<String> tenants = new TreeSet<>(rows.keySet());
+        tenants.addAll(created.keySet());
+        tenants.addAll(completed.keySet());
+        for (String tenant : tenants) {
+            TaskHourlyStats row = rows.get(tenant);
+            if (row == null) {
+                row = new TaskHourlyStats(tenant, hourStart, 0, 0);
+                entityManager.persist(row);
+            }
+            row.setCreatedCount(created.getOrDefault(tenant, 0L));
+            row.setCompletedCount(completed.getOrDefault(tenant, 0L));
+        }
+    }
+
+    /**
+     * Creates the hours of every tenant that has counter slots, with one read for the existing rows
+     */
+    @Override
+    @Transactional
+    public void prepareHours(int hoursAhead) {
+        ZonedDateTime current = currentHour();
+        ZonedDateTime end = current.plusHours(hoursAhead + 1L);
+        Set<TaskHourlyStats.Key> existing = taskHourlyStatsRepository
+                .findByBucketStartGreaterThanEqualAndBucketStartLessThan(current, end).stream()
+                .map(row -> new TaskHourlyStats.Key(row.getTenantId(), row.getBucketStart().toInstant().atZone(ALMATY_ZONE)))
+                .collect(Collectors.toSet());
+        for (String tenant : taskStatusCountRepository.findTenantIds()) {
+            for (ZonedDateTime hour = current; hour.isBefore(end); hour = hour.plusHours(1)) {
+                if (!existing.contains(new TaskHourlyStats.Key(tenant, hour))) {
+                    entityManager.persist(new TaskHourlyStats(tenant, hour, 0, 0));
+                }
+            }
+        }
+    }
+
+    private static Map<String, Map<TaskStatus, Long>> toTenantCounts(List<TaskTenantStatusCountView> rows) {
+        Map<String, Map<TaskStatus, Long>> counts = new HashMap<>();
+        for (TaskTenantStatusCountView row : rows) {
+            counts.computeIfAbsent(row.getTenantId(), tenant -> new EnumMap<>(TaskStatus.class))
+                    .put(row.getStatus(), row.getTaskCount());
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> toTenantTotals(List<TaskTenantCountView> rows) {
+        return rows.stream().collect(Collectors.toMap(TaskTenantCountView::getTenantId, TaskTenantCountView::getTaskCount));
+    }
+
+    private static Map<TaskStatus, Long> toCounts(List<TaskStatusCountView> rows) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatusCountView row : rows) {
+            counts.put(row.getStatus(), row.getTaskCount());
+        }
+        return counts;
+    }
+
+    private static ZonedDateTime currentHour() {
+        return ZonedDateTime.now(ALMATY_ZONE).truncatedTo(ChronoUnit.HOURS);
+    }
+}
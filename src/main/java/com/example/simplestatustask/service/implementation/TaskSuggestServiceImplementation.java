@@ -0,0 +1,71 @@
+package com.example.simplestatustask.service.implementation;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.exception.TaskIndexUnavailableException;
+import com.example.simplestatustask.lookup.TaskTitleIndex;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.service.TaskSuggestService;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSuggestServiceImplementation implements TaskSuggestService {
+    private final TaskTitleIndex taskTitleIndex;
+    private final TaskService taskService;
+
+    // Titles are capped at 100 characters by TaskCreateDto, so a longer prefix matches nothing
+    private static final int MAX_PREFIX_LENGTH = 100;
+
+    @Value("${task.suggest.max-limit:20}")
+    private int maxLimit;
+
+    /**
+     * Ranks the IDs in the title index, then loads those tasks with one multi-get. Tasks deleted
+     * or renamed through another instance since the last refresh are left out.
+     *
+     * @param prefix Start of the title
+     * @param limit Maximum number of tasks to return
+     * @return Matching tasks, most recently updated first
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<TaskResponseDto> suggestTasks(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Prefix must be 1 to " + MAX_PREFIX_LENGTH + " characters and not blank");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        if (!taskTitleIndex.isReady()) {
+            throw new TaskIndexUnavailableException("Task title index is still loading");
+        }
+
+        long[] ids = taskTitleIndex.suggest(TenantContext.current(), prefix, limit);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            rank.put(ids[i], i);
+        }
+        List<TaskResponseDto> tasks = taskService.getTasksByIds(Arrays.stream(ids).boxed().toList()).getTasks().stream()
+                .filter(task -> TaskTitleIndex.matches(task.getTitle(), prefix))
+                .sorted(Comparator.comparing(task -> rank.get(task.getId())))
+                .toList();
+        log.debug("Suggested {} tasks for prefix of length {}", tasks.size(), prefix.length());
+        return tasks;
+    }
+}
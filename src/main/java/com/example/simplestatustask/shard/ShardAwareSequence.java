@@ -0,0 +1,36 @@
+package com.example.simplestatustask.shard;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates IDs from a database sequence that exists once per shard. Once sharding is enabled,
+ * task IDs get the virtual shard and the creating shard packed around the sequence value (see
+ * {@link TaskShardRouter}); other IDs are only unique within their shard and keep a separate
+ * pool of values per shard.
+ */
+@IdGeneratorType(ShardAwareSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface ShardAwareSequence {
+
+    /**
+     * @return Sequence the values come from; each shard has its own
+     */
+    String sequenceName();
+
+    /**
+     * @return Values fetched per sequence call; must match the sequence's increment
+     */
+    int allocationSize() default 1;
+
+    /**
+     * @return Whether the IDs are task IDs, which carry their shard
+     */
+    boolean taskId() default true;
+}
@@ -0,0 +1,84 @@
+package com.example.simplestatustask.shard;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.AbstractOptimizer;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sequence generator behind {@link ShardAwareSequence}. Without sharding it behaves exactly like
+ * the plain sequence generator, so existing IDs and new ones stay in the same range. With sharding,
+ * a pooled allocation is kept per shard: a block fetched from one shard's sequence must never be
+ * handed out on another, where the same values come up again.
+ */
+public class ShardAwareSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Hibernate setting switching on shard-aware IDs; set by ShardingConfig
+     */
+    public static final String SHARDED_IDS = "task.sharding.ids";
+
+    private final String sequenceName;
+    private final int allocationSize;
+    private final boolean taskId;
+    private final Map<Integer, Optimizer> shardOptimizers = new ConcurrentHashMap<>();
+    private boolean sharded;
+
+    public ShardAwareSequenceGenerator(ShardAwareSequence config) {
+        this.sequenceName = config.sequenceName();
+        this.allocationSize = config.allocationSize();
+        this.taskId = config.taskId();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        // Task IDs pack values one at a time, so pooled allocation has nothing to gain there
+        parameters.put(INCREMENT_PARAM, String.valueOf(taskId ? 1 : allocationSize));
+        super.configure(type, parameters, serviceRegistry);
+        sharded = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(SHARDED_IDS, StandardConverters.BOOLEAN, false);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (!sharded) {
+            return super.generate(session, object);
+        }
+        ShardContext.Key key = ShardContext.current();
+        key = key != null ? key : ShardContext.DEFAULT;
+        if (taskId) {
+            long sequenceValue = ((Number) super.generate(session, object)).longValue();
+            return TaskShardRouter.composeId(key, sequenceValue);
+        }
+        if (allocationSize <= 1) {
+            return super.generate(session, object);
+        }
+        return shardOptimizers.computeIfAbsent(key.shard(), shard -> newOptimizer())
+                .generate(getDatabaseStructure().buildCallback(session));
+    }
+
+    private Optimizer newOptimizer() {
+        PooledOptimizer optimizer = new PooledOptimizer(((AbstractOptimizer) getOptimizer()).getReturnClass(), allocationSize);
+        optimizer.injectInitialValue(getDatabaseStructure().getInitialValue());
+        return optimizer;
+    }
+
+    /**
+     * Bulk inserts would take raw sequence values and bypass the shard bits
+     */
+    @Override
+    public boolean supportsBulkInsertionIdentifierGeneration() {
+        return !sharded || !taskId;
+    }
+}
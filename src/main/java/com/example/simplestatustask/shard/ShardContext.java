@@ -0,0 +1,62 @@
+package com.example.simplestatustask.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the work on the current thread runs against.
+ * Set by {@link TaskShardRouter} around every routed call; {@link ShardRoutingDataSource} reads it
+ * when a connection is taken and {@link ShardAwareSequenceGenerator} when a task ID is generated.
+ * A transaction stays on the shard that was current when it began, so the key must be in place
+ * before the transaction starts.
+ */
+public final class ShardContext {
+
+    /**
+     * Routing key of a call
+     *
+     * @param shard Physical shard, 0 being spring.datasource
+     * @param virtualShard Virtual shard new tasks are created in, or -1 where no task may be created
+     */
+    public record Key(int shard, int virtualShard) {
+    }
+
+    /**
+     * Key of work that was not routed: the first shard, where tasks from before sharding live
+     */
+    static final Key DEFAULT = new Key(0, 0);
+
+    private static final ThreadLocal<Key> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Key of the current routed call
+     *
+     * @return Key, or null outside of a routed call
+     */
+    public static Key current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs work on a shard and restores the previous key afterwards
+     *
+     * @param key Shard to run on
+     * @param work Work to run; must open its own transaction
+     * @return Result of the work
+     */
+    static <T> T callAs(Key key, Supplier<T> work) {
+        Key previous = CURRENT.get();
+        CURRENT.set(key);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.simplestatustask.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard of the current {@link ShardContext}; unrouted work goes to
+ * the first shard, which also holds the shard map and every task from before sharding
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    /**
+     * @param shards Datasource of every shard, by shard number
+     */
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return Datasource of every shard, by shard number
+     */
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * Closes the connection pools of every shard
+     *
+     * @throws Exception if a pool fails to close
+     */
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ShardContext.Key key = ShardContext.current();
+        return key != null ? key.shard() : ShardContext.DEFAULT.shard();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.simplestatustask.shard;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the schema on the other shards when Hibernate generates it (ddl-auto create or
+ * create-drop, as in dev and tests). Hibernate only exports to the first shard by itself;
+ * with Flyway every shard is migrated by ShardingConfig instead.
+ */
+@Component
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardSchemaInitializer {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskShardRouter router;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                  TaskShardRouter router,
+                                  @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.router = router;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @PostConstruct
+    public void exportToOtherShards() {
+        if (!ddlAuto.startsWith("create")) {
+            return;
+        }
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (int shard = 1; shard < router.shardCount(); shard++) {
+            router.onShard(shard, () -> {
+                sessionFactory.getSchemaManager().exportMappedObjects(true);
+                return null;
+            });
+            log.info("Created schema on shard {}", shard);
+        }
+    }
+}
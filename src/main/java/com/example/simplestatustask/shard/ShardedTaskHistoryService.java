@@ -0,0 +1,55 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskHistoryService;
+import com.example.simplestatustask.service.implementation.TaskHistoryServiceImplementation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link TaskHistoryService} over several shards. A task's history lives with the task.
+ * Exports stream one shard after another into the same output, so lines are ordered per shard
+ * rather than overall; each line carries its own timestamp.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedTaskHistoryService implements TaskHistoryService {
+    private final TaskHistoryServiceImplementation taskHistoryService;
+    private final TaskShardRouter router;
+
+    @Override
+    public List<TaskStatusHistoryDto> getTaskHistory(Long taskId) {
+        return router.onTask(taskId, () -> taskHistoryService.getTaskHistory(taskId));
+    }
+
+    @Override
+    public long writeHistory(LocalDateTime from, LocalDateTime to, TaskStatus toStatus, OutputStream out)
+            throws IOException {
+        long written = 0;
+        try {
+            for (int shard = 0; shard < router.shardCount(); shard++) {
+                written += router.onShard(shard, () -> {
+                    try {
+                        return taskHistoryService.writeHistory(from, to, toStatus, out);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskFacetsDto;
+import com.example.simplestatustask.dto.TaskFilterResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskLabelService;
+import com.example.simplestatustask.service.implementation.TaskLabelServiceImplementation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * {@link TaskLabelService} over several shards. A task's labels live with the task.
+ * Filters and facets need no routing: the bitmap index is loaded from every shard, and the
+ * page it finds is loaded through the sharded task service.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedTaskLabelService implements TaskLabelService {
+    private final TaskLabelServiceImplementation taskLabelService;
+    private final TaskShardRouter router;
+
+    @Override
+    public List<String> getLabels(Long id) {
+        return router.onTask(id, () -> taskLabelService.getLabels(id));
+    }
+
+    @Override
+    public List<String> addLabel(Long id, String label) {
+        return router.onTaskWrite(id, () -> taskLabelService.addLabel(id, label));
+    }
+
+    @Override
+    public void removeLabel(Long id, String label) {
+        router.onTaskWrite(id, () -> {
+            taskLabelService.removeLabel(id, label);
+            return null;
+        });
+    }
+
+    @Override
+    public TaskFilterResponseDto filterTasks(TaskStatus status, List<String> labels, Long after, int limit) {
+        return taskLabelService.filterTasks(status, labels, after, limit);
+    }
+
+    @Override
+    public TaskFacetsDto getFacets(TaskStatus status, List<String> labels, int labelLimit) {
+        return taskLabelService.getFacets(status, labels, labelLimit);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskQueueService;
+import com.example.simplestatustask.service.implementation.TaskQueueServiceImplementation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link TaskQueueService} over several shards. Claims and sweeps visit the shards one after
+ * another, starting from a random one so workers do not all drain the same shard first;
+ * leases on one task go to the shard its ID names.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedTaskQueueService implements TaskQueueService {
+    private final TaskQueueServiceImplementation taskQueueService;
+    private final TaskShardRouter router;
+
+    /**
+     * Claims from one shard after another until the limit is reached or every shard was asked.
+     * The reported lease expiry is the first shard's; leases taken on later shards end slightly later.
+     *
+     * @param owner Worker identifier
+     * @param limit Maximum number of tasks to claim
+     * @param leaseSeconds Lease duration, or null for the default
+     * @return Claimed tasks with their lease
+     */
+    @Override
+    public TaskClaimResponseDto claimTasks(String owner, int limit, Integer leaseSeconds) {
+        List<TaskResponseDto> claimed = new ArrayList<>();
+        LocalDateTime leaseExpiresAt = null;
+        int start = ThreadLocalRandom.current().nextInt(router.shardCount());
+        for (int i = 0; i < router.shardCount() && claimed.size() < limit; i++) {
+            int remaining = limit - claimed.size();
+            TaskClaimResponseDto shardClaim = router.onShard((start + i) % router.shardCount(),
+                    () -> taskQueueService.claimTasks(owner, remaining, leaseSeconds));
+            if (leaseExpiresAt == null) {
+                leaseExpiresAt = shardClaim.getLeaseExpiresAt();
+            }
+            claimed.addAll(shardClaim.getTasks());
+        }
+        return new TaskClaimResponseDto(owner, leaseExpiresAt, claimed);
+    }
+
+    @Override
+    public TaskLeaseResponseDto heartbeat(Long id, String owner, Integer leaseSeconds) {
+        return router.onTaskWrite(id, () -> taskQueueService.heartbeat(id, owner, leaseSeconds));
+    }
+
+    @Override
+    public TaskTransitionResponseDto releaseTask(Long id, String owner, TaskStatus status) {
+        return router.onTaskWrite(id, () -> taskQueueService.releaseTask(id, owner, status));
+    }
+
+    @Override
+    public List<String> findTenantsWithExpiredLeases() {
+        LinkedHashSet<String> tenants = new LinkedHashSet<>();
+        router.onEachShard(taskQueueService::findTenantsWithExpiredLeases).forEach(tenants::addAll);
+        return List.copyOf(tenants);
+    }
+
+    /**
+     * Requeues up to batchSize tasks in total, taking from one shard after another,
+     * so a short result still means every shard is drained
+     *
+     * @param batchSize Maximum number of tasks to requeue
+     * @return Number of tasks requeued
+     */
+    @Override
+    public int requeueExpiredLeases(int batchSize) {
+        int requeued = 0;
+        for (int shard = 0; shard < router.shardCount() && requeued < batchSize; shard++) {
+            int remaining = batchSize - requeued;
+            requeued += router.onShard(shard, () -> taskQueueService.requeueExpiredLeases(remaining));
+        }
+        return requeued;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskHistogramBucketDto;
+import com.example.simplestatustask.dto.TaskHistogramDto;
+import com.example.simplestatustask.enums.TaskHistogramBucket;
+import com.example.simplestatustask.service.TaskReportService;
+import com.example.simplestatustask.service.implementation.TaskReportServiceImplementation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TaskReportService} over several shards. Exports stream one shard after another into the
+ * same output, so lines are ordered by creation time per shard rather than overall; histograms
+ * are the per-bucket sums of every shard's counts.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedTaskReportService implements TaskReportService {
+    private final TaskReportServiceImplementation taskReportService;
+    private final TaskShardRouter router;
+
+    @Override
+    public long writeTasksCreated(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        long written = 0;
+        try {
+            for (int shard = 0; shard < router.shardCount(); shard++) {
+                written += router.onShard(shard, () -> {
+                    try {
+                        return taskReportService.writeTasksCreated(from, to, out);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return written;
+    }
+
+    @Override
+    public TaskHistogramDto getCreatedHistogram(LocalDateTime from, LocalDateTime to, TaskHistogramBucket bucket) {
+        Map<LocalDateTime, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (TaskHistogramDto shard : router.onEachShard(() -> taskReportService.getCreatedHistogram(from, to, bucket))) {
+            for (TaskHistogramBucketDto entry : shard.getBuckets()) {
+                counts.merge(entry.getBucketStart(), entry.getCount(), Long::sum);
+            }
+            total += shard.getTotal();
+        }
+        List<TaskHistogramBucketDto> buckets = counts.entrySet().stream()
+                .map(entry -> new TaskHistogramBucketDto(entry.getKey(), entry.getValue()))
+                .toList();
+        return new TaskHistogramDto(bucket.getValue(), from, to, total, buckets);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.ChangeWatermark;
+import com.example.simplestatustask.service.TaskChangeFeedService;
+import com.example.simplestatustask.service.TaskChanges;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.service.implementation.TaskServiceImplementation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link TaskService} over several shards. Calls on one task go to the shard its ID names;
+ * lists, counts and the change feed ask every shard in parallel and merge the answers.
+ * Each delegated call opens its transaction on the shard it was routed to, which is why this
+ * class has none of its own.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardedTaskService implements TaskService {
+
+    private static final Comparator<TaskResponseDto> MOST_RECENTLY_UPDATED =
+            Comparator.comparing(TaskResponseDto::getUpdatedAt).reversed();
+
+    // Same order as idx_tasks_next on every shard
+    private static final Comparator<TaskResponseDto> MOST_URGENT =
+            Comparator.comparing(TaskResponseDto::getPriority, Comparator.reverseOrder())
+                    .thenComparing(TaskResponseDto::getDueAt, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(TaskResponseDto::getId);
+
+    private final TaskServiceImplementation taskService;
+    private final TaskChangeFeedService taskChangeFeedService;
+    private final TaskShardRouter router;
+    private final int maxLookupIds;
+
+    public ShardedTaskService(TaskServiceImplementation taskService,
+                              TaskChangeFeedService taskChangeFeedService,
+                              TaskShardRouter router,
+                              @Value("${task.lookup.max-ids:1000}") int maxLookupIds) {
+        this.taskService = taskService;
+        this.taskChangeFeedService = taskChangeFeedService;
+        this.router = router;
+        this.maxLookupIds = maxLookupIds;
+    }
+
+    @Override
+    public TaskResponseDto createTask(TaskCreateDto createDto) {
+        return router.onNewTask(() -> taskService.createTask(createDto));
+    }
+
+    @Override
+    public TaskResponseDto getTaskById(Long id) {
+        return router.onTask(id, () -> taskService.getTaskById(id));
+    }
+
+    @Override
+    public TaskResponseDto getTaskSummaryById(Long id) {
+        return router.onTask(id, () -> taskService.getTaskSummaryById(id));
+    }
+
+    /**
+     * Looks the IDs up on their shards in parallel, one multi-load per shard
+     *
+     * @param ids Task IDs; duplicates are ignored
+     * @return Found tasks in request order, and the IDs that do not exist
+     */
+    @Override
+    public TaskLookupResponseDto getTasksByIds(List<Long> ids) {
+        LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty() || unique.size() > maxLookupIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxLookupIds + " task IDs are required");
+        }
+        Map<Integer, List<Long>> idsByShard = new LinkedHashMap<>();
+        for (Long id : unique) {
+            idsByShard.computeIfAbsent(router.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        Map<Integer, Supplier<TaskLookupResponseDto>> lookups = new LinkedHashMap<>();
+        idsByShard.forEach((shard, shardIds) -> lookups.put(shard, () -> taskService.getTasksByIds(shardIds)));
+
+        Map<Long, TaskResponseDto> found = new HashMap<>();
+        for (TaskLookupResponseDto shardResult : router.scatter(lookups).values()) {
+            shardResult.getTasks().forEach(task -> found.put(task.getId(), task));
+        }
+        List<TaskResponseDto> tasks = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : unique) {
+            TaskResponseDto task = found.get(id);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new TaskLookupResponseDto(tasks, missingIds);
+    }
+
+    @Override
+    public List<TaskResponseDto> getTasksByStatus(TaskStatus status) {
+        return mergeByUpdatedAt(router.onEachShard(() -> taskService.getTasksByStatus(status)));
+    }
+
+    @Override
+    public List<TaskResponseDto> getTaskSummariesByStatus(TaskStatus status) {
+        return mergeByUpdatedAt(router.onEachShard(() -> taskService.getTaskSummariesByStatus(status)));
+    }
+
+    /**
+     * Takes the top tasks of every shard in parallel and keeps the overall top ones,
+     * so each shard reads at most limit index entries
+     *
+     * @param status Task status to filter by
+     * @param limit Number of tasks to return
+     * @return Tasks as response DTOs, most urgent first
+     */
+    @Override
+    public List<TaskResponseDto> getNextTasks(TaskStatus status, int limit) {
+        Map<Long, TaskResponseDto> merged = new LinkedHashMap<>();
+        router.onEachShard(() -> taskService.getNextTasks(status, limit)).stream()
+                .flatMap(List::stream)
+                .sorted(MOST_URGENT)
+                .forEach(task -> merged.putIfAbsent(task.getId(), task));
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public Map<TaskStatus, Long> getStatusCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (Map<TaskStatus, Long> shardCounts : router.onEachShard(taskService::getStatusCounts)) {
+            shardCounts.forEach((status, count) -> counts.merge(status, count, Long::sum));
+        }
+        return counts;
+    }
+
+    @Override
+    public TaskResponseDto updateTask(Long id, TaskUpdateDto updateDto) {
+        return router.onTaskWrite(id, () -> taskService.updateTask(id, updateDto));
+    }
+
+    @Override
+    public void deleteTask(Long id) {
+        router.onTaskWrite(id, () -> {
+            taskService.deleteTask(id);
+            return null;
+        });
+    }
+
+    @Override
+    public TaskTransitionResponseDto transitionTask(Long id, TaskTransitionDto transitionDto) {
+        return router.onTaskWrite(id, () -> taskService.transitionTask(id, transitionDto));
+    }
+
+    @Override
+    public TaskScheduleResponseDto scheduleTransition(Long id, TaskScheduleDto scheduleDto) {
+        return router.onTaskWrite(id, () -> taskService.scheduleTransition(id, scheduleDto));
+    }
+
+    @Override
+    public void cancelScheduledTransition(Long id) {
+        router.onTaskWrite(id, () -> {
+            taskService.cancelScheduledTransition(id);
+            return null;
+        });
+    }
+
+    /**
+     * Reads a page after the token from every shard and keeps the first changes of the merge.
+     * Each shard returns its own first limit changes, so the first limit of the merge are exact.
+     *
+     * @param since Opaque token from a previous call, or null for a full sync
+     * @param limit Maximum number of changes to return
+     * @return Page of changes with the token to resume from
+     */
+    @Override
+    public TaskChangesResponseDto getChangesSince(String since, int limit) {
+        ChangeWatermark watermark = ChangeWatermark.decode(since);
+        List<TaskChanges> shardChanges = router.onEachShard(() -> taskChangeFeedService.readChanges(watermark, limit));
+
+        List<TaskChanges.Entry> entries = new ArrayList<>();
+        boolean hasMore = false;
+        for (TaskChanges changes : shardChanges) {
+            entries.addAll(changes.entries());
+            hasMore |= changes.hasMore();
+        }
+        entries.sort(Comparator.comparing(TaskChanges.Entry::watermark));
+
+        // A task caught mid-move by the rebalancer is on two shards; it is reported once
+        List<TaskChanges.Entry> merged = new ArrayList<>(limit);
+        for (TaskChanges.Entry entry : entries) {
+            if (!merged.isEmpty() && merged.get(merged.size() - 1).equals(entry)) {
+                continue;
+            }
+            if (merged.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            merged.add(entry);
+        }
+        return taskChangeFeedService.toPage(new TaskChanges(merged, hasMore), watermark);
+    }
+
+    /**
+     * Merges per-shard lists that are each ordered most recently updated first
+     */
+    private static List<TaskResponseDto> mergeByUpdatedAt(List<List<TaskResponseDto>> shardLists) {
+        Map<Long, TaskResponseDto> merged = new LinkedHashMap<>();
+        shardLists.stream()
+                .flatMap(List::stream)
+                .sorted(MOST_RECENTLY_UPDATED)
+                .forEach(task -> merged.putIfAbsent(task.getId(), task));
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskStatsService;
+import com.example.simplestatustask.service.implementation.TaskStatsServiceImplementation;
+import com.example.simplestatustask.stats.TaskStatusCounters;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TaskStatsService} over several shards. Every shard keeps the counters and hourly rows
+ * of the tasks written to it; the statistics are their sums. A task moved by the rebalancer
+ * stays counted on its old shard until the next drift correction, which leaves the sums intact.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedTaskStatsService implements TaskStatsService {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final TaskStatsServiceImplementation taskStatsService;
+    private final TaskStatusCounters taskStatusCounters;
+    private final TaskShardRouter router;
+
+    @Override
+    public TaskStatsDto getStats(int hours) {
+        List<TaskHourlyStatsDto> hourly = getHourlyStats(hours);
+        Map<TaskStatus, Long> counts = taskStatusCounters.snapshot(TenantContext.current());
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        ZonedDateTime reconciledAt = taskStatusCounters.getReconciledAt();
+        return new TaskStatsDto(counts, total, hourly, reconciledAt == null ? null : reconciledAt.toLocalDateTime());
+    }
+
+    /**
+     * Adds up the same hours from every shard
+     *
+     * @param hours Number of hours to return, ending with the current one
+     * @return One entry per hour, oldest first
+     */
+    @Override
+    public List<TaskHourlyStatsDto> getHourlyStats(int hours) {
+        Map<LocalDateTime, TaskHourlyStatsDto> byHour = new LinkedHashMap<>();
+        for (List<TaskHourlyStatsDto> shardHours : router.onEachShard(() -> taskStatsService.getHourlyStats(hours))) {
+            for (TaskHourlyStatsDto hour : shardHours) {
+                byHour.merge(hour.getHourStart(), hour, (sum, next) -> new TaskHourlyStatsDto(sum.getHourStart(),
+                        sum.getCreated() + next.getCreated(), sum.getCompleted() + next.getCompleted()));
+            }
+        }
+        return List.copyOf(byHour.values());
+    }
+
+    @Override
+    public void reconcile() {
+        Map<String, Map<TaskStatus, Long>> included = taskStatusCounters.pendingDeltas();
+        Map<String, Map<TaskStatus, Long>> persisted = getPersistedCountsByTenant();
+        taskStatusCounters.rebase(persisted, included, ZonedDateTime.now(ALMATY_ZONE));
+        log.debug("Reconciled task counts of {} tenants over {} shards", persisted.size(), router.shardCount());
+    }
+
+    @Override
+    public Map<TaskStatus, Long> getPersistedCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (Map<TaskStatus, Long> shardCounts : router.onEachShard(taskStatsService::getPersistedCounts)) {
+            shardCounts.forEach((status, count) -> counts.merge(status, count, Long::sum));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Map<TaskStatus, Long>> getPersistedCountsByTenant() {
+        Map<String, Map<TaskStatus, Long>> counts = new HashMap<>();
+        for (Map<String, Map<TaskStatus, Long>> shardCounts : router.onEachShard(taskStatsService::getPersistedCountsByTenant)) {
+            shardCounts.forEach((tenantId, tenantCounts) -> tenantCounts.forEach((status, count) ->
+                    counts.computeIfAbsent(tenantId, tenant -> new EnumMap<>(TaskStatus.class))
+                            .merge(status, count, Long::sum)));
+        }
+        return counts;
+    }
+
+    @Override
+    public long correctCountDrift() {
+        return router.onEachShard(taskStatsService::correctCountDrift).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public void recountHour(ZonedDateTime hourStart) {
+        router.forEachShard(() -> taskStatsService.recountHour(hourStart));
+    }
+
+    @Override
+    public void prepareHours(int hoursAhead) {
+        router.forEachShard(() -> taskStatsService.prepareHours(hoursAhead));
+    }
+}
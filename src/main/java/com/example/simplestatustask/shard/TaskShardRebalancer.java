@@ -0,0 +1,263 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.models.TaskShardAssignment;
+import com.example.simplestatustask.repository.TaskShardAssignmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves virtual shards between shards so each holds an equal share.
+ * <p>
+ * A move marks the virtual shard as moving (writes to its tasks get 503 from then on), waits for
+ * every instance to pick that up, copies the rows to the target in keyset-ordered chunks, points
+ * the map at the target, waits again, and finally deletes the rows from the source. Task IDs
+ * never change. Reads keep working throughout; lists may show a moved task twice until the
+ * source rows are gone. Claims and the lease reaper write in bulk and are not held off by the
+ * moving flag, so queue workers should be paused while a rebalance runs.
+ */
+@Component
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@Slf4j
+public class TaskShardRebalancer {
+
+    /**
+     * Tables holding rows of a task, with the column naming the task and the unique keyset to copy by
+     */
+    private record TaskTable(String name, String taskIdColumn, String keyset, boolean renumberIds) {
+    }
+
+    private static final List<TaskTable> TABLES = List.of(
+            new TaskTable("tasks", "id", "id", false),
+            new TaskTable("task_labels", "task_id", "task_id, label", false),
+            new TaskTable("task_tombstones", "task_id", "task_id", false),
+            // Status history IDs come from a per-shard sequence; copies take fresh ones on the target
+            new TaskTable("task_status_history", "task_id", "task_id, id", true));
+
+    private static final String HISTORY_SEQUENCE = "task_status_history_sequence";
+
+    private final TaskShardRouter router;
+    private final TaskShardAssignmentRepository taskShardAssignmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long settleMs;
+    private final int chunkSize;
+
+    public TaskShardRebalancer(TaskShardRouter router,
+                               TaskShardAssignmentRepository taskShardAssignmentRepository,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${task.sharding.rebalance.settle-ms:10000}") long settleMs,
+                               @Value("${task.sharding.rebalance.chunk-size:1000}") int chunkSize) {
+        this.router = router;
+        this.taskShardAssignmentRepository = taskShardAssignmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.settleMs = settleMs;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Works out the fewest moves that leave every shard with an equal share of virtual shards,
+     * give or take one
+     *
+     * @return Target shard by virtual shard, in the order to move them
+     */
+    public Map<Integer, Integer> plan() {
+        return plan(router.assignments(), router.shardCount());
+    }
+
+    /**
+     * Plans moves for a given placement
+     *
+     * @param shardOf Current shard of every virtual shard
+     * @param shardCount Number of shards
+     * @return Target shard by virtual shard, in the order to move them
+     */
+    static Map<Integer, Integer> plan(int[] shardOf, int shardCount) {
+        List<List<Integer>> held = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            held.add(new ArrayList<>());
+        }
+        for (int virtualShard = 0; virtualShard < shardOf.length; virtualShard++) {
+            held.get(shardOf[virtualShard]).add(virtualShard);
+        }
+        // The first (length % shardCount) shards may keep one extra
+        int[] quota = new int[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            quota[shard] = shardOf.length / shardCount + (shard < shardOf.length % shardCount ? 1 : 0);
+        }
+
+        List<Integer> surplus = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            List<Integer> virtualShards = held.get(shard);
+            while (virtualShards.size() > quota[shard]) {
+                surplus.add(virtualShards.remove(virtualShards.size() - 1));
+            }
+        }
+        Map<Integer, Integer> moves = new LinkedHashMap<>();
+        int target = 0;
+        for (Integer virtualShard : surplus) {
+            while (held.get(target).size() >= quota[target]) {
+                target++;
+            }
+            held.get(target).add(virtualShard);
+            moves.put(virtualShard, target);
+        }
+        return moves;
+    }
+
+    /**
+     * Carries out a plan, one virtual shard at a time
+     *
+     * @param plan Target shard by virtual shard
+     * @return Number of tasks moved
+     */
+    public long apply(Map<Integer, Integer> plan) {
+        long moved = 0;
+        for (Map.Entry<Integer, Integer> move : plan.entrySet()) {
+            moved += move(move.getKey(), move.getValue());
+        }
+        return moved;
+    }
+
+    /**
+     * Moves one virtual shard. A move that failed part-way can simply be run again: the target
+     * is cleared before copying, and the source keeps its rows until the map points at the target.
+     *
+     * @param virtualShard Virtual shard to move
+     * @param target Shard to move it to
+     * @return Number of tasks moved
+     */
+    public long move(int virtualShard, int target) {
+        if (target < 0 || target >= router.shardCount()) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (router.shardCount() - 1));
+        }
+        int source = router.shardOfVirtual(virtualShard);
+        if (source == target) {
+            return 0;
+        }
+        long from = (long) virtualShard << TaskShardRouter.SEQUENCE_BITS;
+        long to = from + (1L << TaskShardRouter.SEQUENCE_BITS);
+        log.info("Moving virtual shard {} from shard {} to shard {}", virtualShard, source, target);
+
+        publish(new TaskShardAssignment(virtualShard, source, true));
+        deleteRange(target, from, to);
+        long moved = 0;
+        for (TaskTable table : TABLES) {
+            long copied = copy(table, source, target, from, to);
+            if (table.name().equals("tasks")) {
+                moved = copied;
+            }
+        }
+        publish(new TaskShardAssignment(virtualShard, target, false));
+        deleteRange(source, from, to);
+
+        log.info("Moved virtual shard {} ({} tasks) to shard {}", virtualShard, moved, target);
+        return moved;
+    }
+
+    /**
+     * Saves a map row, applies it locally and waits for the other instances to load it
+     */
+    private void publish(TaskShardAssignment assignment) {
+        router.onShard(0, () -> {
+            taskShardAssignmentRepository.save(assignment);
+            router.apply(taskShardAssignmentRepository.findAll());
+            return null;
+        });
+        if (settleMs > 0) {
+            try {
+                Thread.sleep(settleMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while moving virtual shard " + assignment.getVirtualShard(), ex);
+            }
+        }
+    }
+
+    private long copy(TaskTable table, int source, int target, long from, long to) {
+        String select = "SELECT * FROM " + table.name() + " WHERE " + table.taskIdColumn() + " >= ? AND "
+                + table.taskIdColumn() + " < ? AND (" + table.keyset() + ") > (" + placeholders(table.keyset()) + ")"
+                + " ORDER BY " + table.keyset() + " LIMIT " + chunkSize;
+        String[] keyColumns = table.keyset().split(",\\s*");
+        Object[] after = new Object[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            after[i] = lowestKey(keyColumns[i]);
+        }
+
+        long copied = 0;
+        while (true) {
+            Object[] arguments = new Object[2 + after.length];
+            arguments[0] = from;
+            arguments[1] = to;
+            System.arraycopy(after, 0, arguments, 2, after.length);
+            List<Map<String, Object>> rows = router.onShard(source, () -> jdbcTemplate.queryForList(select, arguments));
+            if (rows.isEmpty()) {
+                return copied;
+            }
+            insert(table, target, rows);
+            copied += rows.size();
+
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            for (int i = 0; i < keyColumns.length; i++) {
+                after[i] = last.get(keyColumns[i]);
+            }
+        }
+    }
+
+    private void insert(TaskTable table, int target, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        if (table.renumberIds()) {
+            columns.removeIf(column -> column.equalsIgnoreCase("id"));
+        }
+        String sql = "INSERT INTO " + table.name() + " (" + (table.renumberIds() ? "id, " : "")
+                + String.join(", ", columns) + ") VALUES (" + (table.renumberIds() ? nextHistoryId() + ", " : "")
+                + placeholders(String.join(",", columns)) + ")";
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList();
+        router.onShard(target, () -> transactionTemplate.execute(tx -> jdbcTemplate.batchUpdate(sql, values)));
+    }
+
+    private void deleteRange(int shard, long from, long to) {
+        router.onShard(shard, () -> transactionTemplate.execute(tx -> {
+            int deleted = 0;
+            for (TaskTable table : TABLES) {
+                deleted += jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE " + table.taskIdColumn()
+                        + " >= ? AND " + table.taskIdColumn() + " < ?", from, to);
+            }
+            return deleted;
+        }));
+    }
+
+    private String nextHistoryId() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString(HISTORY_SEQUENCE);
+    }
+
+    /**
+     * Value below every key of the column: key columns are IDs, except label names, which are never empty
+     */
+    private static Object lowestKey(String column) {
+        return column.equals("label") ? "" : Long.MIN_VALUE;
+    }
+
+    private static String placeholders(String columns) {
+        return String.join(", ", Collections.nCopies(columns.split(",").length, "?"));
+    }
+}
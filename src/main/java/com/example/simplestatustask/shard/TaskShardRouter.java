@@ -0,0 +1,341 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.exception.ShardUnavailableException;
+import com.example.simplestatustask.models.TaskShardAssignment;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Maps tasks to shards and runs work on them.
+ * <p>
+ * A task ID is {@code virtualShard << 42 | sequence << 6 | originShard}: the virtual shard picks
+ * the physical shard through task_shard_map (virtual shard modulo shard count when unmapped), the
+ * sequence comes from the shard that created the task, and the origin shard keeps two shards from
+ * ever producing the same ID. Moving a virtual shard to another database therefore never changes
+ * an ID. IDs stay below 2^52, so JSON clients read them exactly.
+ * <p>
+ * With sharding disabled there is a single shard and every call runs inline, unrouted.
+ */
+@Slf4j
+public class TaskShardRouter implements DisposableBean {
+
+    public static final int VIRTUAL_SHARD_BITS = 10;
+    public static final int VIRTUAL_SHARDS = 1 << VIRTUAL_SHARD_BITS;
+    public static final int SEQUENCE_BITS = 42;
+    public static final int ORIGIN_BITS = 6;
+    public static final int MAX_SHARDS = 1 << ORIGIN_BITS;
+
+    private static final long MAX_SEQUENCE = (1L << (SEQUENCE_BITS - ORIGIN_BITS)) - 1;
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final ExecutorService scatterExecutor;
+
+    private volatile Assignment assignment;
+
+    /**
+     * Virtual shard to shard mapping; replaced as a whole so readers never see half an update
+     *
+     * @param shardOf Shard of every virtual shard
+     * @param moving Virtual shards whose tasks are being copied; no writes
+     * @param creatable Virtual shards new tasks may be placed in
+     */
+    private record Assignment(int[] shardOf, BitSet moving, int[] creatable) {
+    }
+
+    public TaskShardRouter(boolean enabled, int shardCount) {
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported");
+        }
+        this.enabled = enabled;
+        this.shardCount = shardCount;
+        this.scatterExecutor = enabled && shardCount > 1 ? Executors.newFixedThreadPool(shardCount, scatterThreads()) : null;
+        apply(List.of());
+    }
+
+    /**
+     * Whether tasks are spread over several datasources
+     *
+     * @return false when every call runs inline against the one datasource
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Virtual shard encoded in a task ID
+     *
+     * @param id Task ID
+     * @return Virtual shard; 0 for IDs from before sharding
+     */
+    public static int virtualShardOf(long id) {
+        long virtualShard = id >>> SEQUENCE_BITS;
+        return virtualShard < VIRTUAL_SHARDS ? (int) virtualShard : 0;
+    }
+
+    /**
+     * Sequence value encoded in a task ID
+     *
+     * @param id Task ID
+     * @return Value of the creating shard's task_sequence; for IDs from before sharding, part of it
+     */
+    public static long sequenceOf(long id) {
+        return (id >>> ORIGIN_BITS) & MAX_SEQUENCE;
+    }
+
+    /**
+     * Builds a task ID
+     *
+     * @param key Shard creating the task and the virtual shard it goes to
+     * @param sequenceValue Next value of the creating shard's task_sequence
+     * @return Task ID
+     */
+    public static long composeId(ShardContext.Key key, long sequenceValue) {
+        if (key.virtualShard() < 0) {
+            throw new IllegalStateException("Tasks can only be created through TaskShardRouter.onNewTask");
+        }
+        if (sequenceValue < 1 || sequenceValue > MAX_SEQUENCE) {
+            throw new IllegalStateException("task_sequence value " + sequenceValue + " does not fit in a task ID");
+        }
+        return ((long) key.virtualShard() << SEQUENCE_BITS) | (sequenceValue << ORIGIN_BITS) | key.shard();
+    }
+
+    /**
+     * Shard holding a task
+     *
+     * @param id Task ID
+     * @return Physical shard
+     */
+    public int shardOf(long id) {
+        return shardOfVirtual(virtualShardOf(id));
+    }
+
+    /**
+     * Shard holding a virtual shard
+     *
+     * @param virtualShard Virtual shard
+     * @return Physical shard
+     */
+    public int shardOfVirtual(int virtualShard) {
+        return assignment.shardOf()[virtualShard];
+    }
+
+    /**
+     * Whether writes to a virtual shard are refused because it is being moved
+     *
+     * @param virtualShard Virtual shard
+     * @return true while the move is in progress
+     */
+    public boolean isMoving(int virtualShard) {
+        return assignment.moving().get(virtualShard);
+    }
+
+    /**
+     * Current shard of every virtual shard
+     *
+     * @return Copy indexed by virtual shard
+     */
+    public int[] assignments() {
+        return assignment.shardOf().clone();
+    }
+
+    /**
+     * Replaces the mapping with task_shard_map rows; unmapped virtual shards fall back to
+     * virtual shard modulo shard count, and rows naming a shard that is not configured are ignored
+     *
+     * @param rows Rows of task_shard_map
+     */
+    public void apply(List<TaskShardAssignment> rows) {
+        int[] shardOf = new int[VIRTUAL_SHARDS];
+        for (int virtualShard = 0; virtualShard < VIRTUAL_SHARDS; virtualShard++) {
+            shardOf[virtualShard] = virtualShard % shardCount;
+        }
+        BitSet moving = new BitSet(VIRTUAL_SHARDS);
+        for (TaskShardAssignment row : rows) {
+            int virtualShard = row.getVirtualShard();
+            if (virtualShard < 0 || virtualShard >= VIRTUAL_SHARDS || row.getShard() < 0 || row.getShard() >= shardCount) {
+                log.warn("Ignoring task_shard_map row {} -> {}: no such shard", virtualShard, row.getShard());
+                continue;
+            }
+            shardOf[virtualShard] = row.getShard();
+            moving.set(virtualShard, row.isMoving());
+        }
+        int[] creatable = new int[VIRTUAL_SHARDS - moving.cardinality()];
+        int next = 0;
+        for (int virtualShard = 0; virtualShard < VIRTUAL_SHARDS; virtualShard++) {
+            if (!moving.get(virtualShard)) {
+                creatable[next++] = virtualShard;
+            }
+        }
+        assignment = new Assignment(shardOf, moving, creatable);
+    }
+
+    /**
+     * Runs a read of one task on the shard holding it
+     *
+     * @param id Task ID
+     * @param work Work to run; must open its own transaction
+     * @return Result of the work
+     */
+    public <T> T onTask(long id, Supplier<T> work) {
+        return route(new ShardContext.Key(shardOf(id), -1), work);
+    }
+
+    /**
+     * Runs a write of one task on the shard holding it
+     *
+     * @param id Task ID
+     * @param work Work to run; must open its own transaction
+     * @return Result of the work
+     * @throws ShardUnavailableException while the task's virtual shard is being moved
+     */
+    public <T> T onTaskWrite(long id, Supplier<T> work) {
+        if (enabled && isMoving(virtualShardOf(id))) {
+            throw new ShardUnavailableException("Task " + id + " is being moved to another shard, retry shortly");
+        }
+        return onTask(id, work);
+    }
+
+    /**
+     * Runs the creation of a task in a random virtual shard that is not being moved,
+     * so new tasks spread over the shards in proportion to the virtual shards they hold
+     *
+     * @param work Work to run; must open its own transaction
+     * @return Result of the work
+     */
+    public <T> T onNewTask(Supplier<T> work) {
+        int[] creatable = assignment.creatable();
+        if (enabled && creatable.length == 0) {
+            throw new ShardUnavailableException("Every virtual shard is being moved, retry shortly");
+        }
+        int virtualShard = enabled ? creatable[ThreadLocalRandom.current().nextInt(creatable.length)] : 0;
+        return route(new ShardContext.Key(shardOfVirtual(virtualShard), virtualShard), work);
+    }
+
+    /**
+     * Runs work on one shard
+     *
+     * @param shard Physical shard
+     * @param work Work to run; must open its own transaction
+     * @return Result of the work
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return route(new ShardContext.Key(shard, -1), work);
+    }
+
+    /**
+     * Runs work on several shards, in parallel when there is more than one.
+     * The caller's tenant goes along; the first failure is rethrown once every shard has finished.
+     *
+     * @param work Work per shard; each must open its own transaction
+     * @return Results by shard, in the order given
+     */
+    public <T> Map<Integer, T> scatter(Map<Integer, Supplier<T>> work) {
+        Map<Integer, T> results = new LinkedHashMap<>();
+        // Nested scatters run inline rather than wait for a pool thread held by their parent
+        if (scatterExecutor == null || work.size() == 1 || ShardContext.current() != null) {
+            work.forEach((shard, shardWork) -> results.put(shard, onShard(shard, shardWork)));
+            return results;
+        }
+        String tenant = TenantContext.current();
+        Map<Integer, Future<T>> futures = new LinkedHashMap<>();
+        work.forEach((shard, shardWork) -> futures.put(shard, scatterExecutor.submit(
+                () -> TenantContext.callAs(tenant, () -> onShard(shard, shardWork)))));
+
+        RuntimeException failure = null;
+        for (Map.Entry<Integer, Future<T>> future : futures.entrySet()) {
+            try {
+                results.put(future.getKey(), future.getValue().get());
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause() instanceof RuntimeException runtime
+                            ? runtime
+                            : new IllegalStateException("Shard " + future.getKey() + " failed", ex.getCause());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shard " + future.getKey(), ex);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Runs the same work on every shard, in parallel when there is more than one
+     *
+     * @param work Work to run; must open its own transaction
+     * @return Results in shard order
+     */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        Map<Integer, Supplier<T>> perShard = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            perShard.put(shard, work);
+        }
+        return new ArrayList<>(scatter(perShard).values());
+    }
+
+    /**
+     * Runs the same work on every shard, in parallel when there is more than one
+     *
+     * @param work Work to run; must open its own transaction
+     */
+    public void forEachShard(Runnable work) {
+        onEachShard(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private <T> T route(ShardContext.Key key, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        // A transaction keeps the connection it began with; joining it would silently use the wrong shard
+        ShardContext.Key current = ShardContext.current();
+        int currentShard = current != null ? current.shard() : ShardContext.DEFAULT.shard();
+        if (currentShard != key.shard() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + key.shard()
+                    + " inside a transaction on shard " + currentShard);
+        }
+        return ShardContext.callAs(key, work);
+    }
+
+    private static ThreadFactory scatterThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
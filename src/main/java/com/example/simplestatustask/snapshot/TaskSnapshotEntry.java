@@ -0,0 +1,14 @@
+package com.example.simplestatustask.snapshot;
+
+import com.example.simplestatustask.models.Task;
+
+import java.util.List;
+
+/**
+ * One task of a snapshot together with its labels
+ *
+ * @param task Detached task
+ * @param labels Label names, in alphabetical order
+ */
+public record TaskSnapshotEntry(Task task, List<String> labels) {
+}
@@ -0,0 +1,432 @@
+package com.example.simplestatustask.snapshot;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.Task;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout of a task snapshot file:
+ * <pre>
+ * header  := magic:int version:int
+ * block   := rows:int rawBytes:int compressedBytes:int crc32c:int deflated[compressedBytes]
+ * end     := rows:int = 0
+ * trailer := taskCount:long magic:int
+ * </pre>
+ * A block holds up to {@link #BLOCK_ROWS} tasks column by column, so similar values sit next
+ * to each other and deflate well: IDs and timestamps as zigzag varint deltas, tenant and
+ * status through a per-block dictionary, strings length-prefixed. The checksum covers the
+ * compressed bytes; the trailer lets the task count be read without scanning the file.
+ * Version 2 appends the priority and due date columns; version 3 appends the scheduled
+ * transition's time, expected status and target status, then the labels of every task as a
+ * count and codes into a per-block dictionary. Older files read with the defaults.
+ */
+final class TaskSnapshotFormat {
+
+    static final int MAGIC = 0x54534b53;
+    static final int VERSION = 3;
+    static final int MIN_VERSION = 1;
+    static final int BLOCK_ROWS = 4096;
+    static final int TRAILER_BYTES = 12;
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private TaskSnapshotFormat() {
+    }
+
+    /**
+     * Encodes tasks column by column
+     *
+     * @param entries Tasks of one block with their labels
+     * @param out Buffer to append to; reset by the caller
+     */
+    static void encodeBlock(List<TaskSnapshotEntry> entries, ColumnBuffer out) {
+        List<Task> tasks = entries.stream().map(TaskSnapshotEntry::task).toList();
+        long previous = 0;
+        for (Task task : tasks) {
+            out.putVarLong(zigzag(task.getId() - previous));
+            previous = task.getId();
+        }
+        encodeDictionary(tasks.stream().map(Task::getTenantId).toList(), out);
+        encodeDictionary(tasks.stream().map(task -> task.getStatus().name()).toList(), out);
+        for (Task task : tasks) {
+            out.putString(task.getTitle());
+        }
+        for (Task task : tasks) {
+            out.putNullableString(task.getDescription());
+        }
+        previous = 0;
+        for (Task task : tasks) {
+            long nanos = epochNanos(task.getCreatedAt().toInstant(ZoneOffset.UTC));
+            out.putVarLong(zigzag(nanos - previous));
+            previous = nanos;
+        }
+        previous = 0;
+        for (Task task : tasks) {
+            long nanos = epochNanos(task.getUpdatedAt().toInstant());
+            out.putVarLong(zigzag(nanos - previous));
+            previous = nanos;
+        }
+        for (Task task : tasks) {
+            out.putNullableString(task.getLeaseOwner());
+        }
+        // 0 marks a missing lease; present values are shifted by one
+        previous = 0;
+        for (Task task : tasks) {
+            if (task.getLeaseExpiresAt() == null) {
+                out.putVarLong(0);
+            } else {
+                long nanos = epochNanos(task.getLeaseExpiresAt().toInstant());
+                out.putVarLong(zigzag(nanos - previous) + 1);
+                previous = nanos;
+            }
+        }
+        for (Task task : tasks) {
+            out.putVarLong(zigzag(task.getPriority()));
+        }
+        // 0 marks a missing due date, as for leases
+        previous = 0;
+        for (Task task : tasks) {
+            if (task.getDueAt() == null) {
+                out.putVarLong(0);
+            } else {
+                long nanos = epochNanos(task.getDueAt().toInstant());
+                out.putVarLong(zigzag(nanos - previous) + 1);
+                previous = nanos;
+            }
+        }
+        // 0 marks an unscheduled task, as for leases
+        previous = 0;
+        for (Task task : tasks) {
+            if (task.getScheduledTransitionAt() == null) {
+                out.putVarLong(0);
+            } else {
+                long nanos = epochNanos(task.getScheduledTransitionAt().toInstant());
+                out.putVarLong(zigzag(nanos - previous) + 1);
+                previous = nanos;
+            }
+        }
+        encodeNullableDictionary(tasks.stream().map(task -> nameOf(task.getScheduledExpectedStatus())).toList(), out);
+        encodeNullableDictionary(tasks.stream().map(task -> nameOf(task.getScheduledTargetStatus())).toList(), out);
+        encodeLabels(entries.stream().map(TaskSnapshotEntry::labels).toList(), out);
+    }
+
+    /**
+     * Decodes a block written by {@link #encodeBlock}
+     *
+     * @param in Uncompressed block
+     * @param rows Number of tasks in the block
+     * @param version Format version of the file
+     * @return Detached tasks with their labels, in the order they were written
+     * @throws IOException if the block is malformed
+     */
+    static List<TaskSnapshotEntry> decodeBlock(ByteBuffer in, int rows, int version) throws IOException {
+        try {
+            Task[] tasks = new Task[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unzigzag(getVarLong(in));
+                tasks[i] = new Task();
+                tasks[i].setId(previous);
+            }
+            String[] tenants = decodeDictionary(in, rows);
+            String[] statuses = decodeDictionary(in, rows);
+            for (int i = 0; i < rows; i++) {
+                tasks[i].setTenantId(tenants[i]);
+                tasks[i].setStatus(TaskStatus.valueOf(statuses[i]));
+            }
+            for (Task task : tasks) {
+                task.setTitle(getString(in));
+            }
+            for (Task task : tasks) {
+                task.setDescription(getNullableString(in));
+            }
+            previous = 0;
+            for (Task task : tasks) {
+                previous += unzigzag(getVarLong(in));
+                task.setCreatedAt(LocalDateTime.ofInstant(fromEpochNanos(previous), ZoneOffset.UTC));
+            }
+            previous = 0;
+            for (Task task : tasks) {
+                previous += unzigzag(getVarLong(in));
+                task.setUpdatedAt(fromEpochNanos(previous).atZone(ALMATY_ZONE));
+            }
+            for (Task task : tasks) {
+                task.setLeaseOwner(getNullableString(in));
+            }
+            previous = 0;
+            for (Task task : tasks) {
+                long value = getVarLong(in);
+                if (value != 0) {
+                    previous += unzigzag(value - 1);
+                    task.setLeaseExpiresAt(fromEpochNanos(previous).atZone(ALMATY_ZONE));
+                }
+            }
+            if (version >= 2) {
+                for (Task task : tasks) {
+                    task.setPriority(Math.toIntExact(unzigzag(getVarLong(in))));
+                }
+                previous = 0;
+                for (Task task : tasks) {
+                    long value = getVarLong(in);
+                    if (value != 0) {
+                        previous += unzigzag(value - 1);
+                        task.setDueAt(fromEpochNanos(previous).atZone(ALMATY_ZONE));
+                    }
+                }
+            }
+            if (version >= 3) {
+                previous = 0;
+                for (Task task : tasks) {
+                    long value = getVarLong(in);
+                    if (value != 0) {
+                        previous += unzigzag(value - 1);
+                        task.setScheduledTransitionAt(fromEpochNanos(previous).atZone(ALMATY_ZONE));
+                    }
+                }
+                String[] expected = decodeNullableDictionary(in, rows);
+                String[] target = decodeNullableDictionary(in, rows);
+                for (int i = 0; i < rows; i++) {
+                    tasks[i].setScheduledExpectedStatus(expected[i] != null ? TaskStatus.valueOf(expected[i]) : null);
+                    tasks[i].setScheduledTargetStatus(target[i] != null ? TaskStatus.valueOf(target[i]) : null);
+                }
+            }
+            List<List<String>> labels = version >= 3 ? decodeLabels(in, rows) : null;
+            if (in.hasRemaining()) {
+                throw new IOException("Snapshot block has " + in.remaining() + " trailing bytes");
+            }
+            List<TaskSnapshotEntry> entries = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                entries.add(new TaskSnapshotEntry(tasks[i], labels != null ? labels.get(i) : List.of()));
+            }
+            return entries;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IOException("Malformed snapshot block", ex);
+        }
+    }
+
+    private static void encodeDictionary(List<String> values, ColumnBuffer out) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] indexes = new int[values.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = codes.computeIfAbsent(values.get(i), value -> {
+                dictionary.add(value);
+                return dictionary.size() - 1;
+            });
+        }
+        out.putVarLong(dictionary.size());
+        for (String value : dictionary) {
+            out.putString(value);
+        }
+        for (int index : indexes) {
+            out.putVarLong(index);
+        }
+    }
+
+    private static String[] decodeDictionary(ByteBuffer in, int rows) throws IOException {
+        String[] dictionary = new String[Math.toIntExact(getVarLong(in))];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = getString(in);
+        }
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = dictionary[Math.toIntExact(getVarLong(in))];
+        }
+        return values;
+    }
+
+    /**
+     * Dictionary whose code 0 stands for null; the values are numbered from 1
+     */
+    private static void encodeNullableDictionary(List<String> values, ColumnBuffer out) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] indexes = new int[values.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = values.get(i) == null ? 0 : codes.computeIfAbsent(values.get(i), value -> {
+                dictionary.add(value);
+                return dictionary.size();
+            });
+        }
+        out.putVarLong(dictionary.size());
+        for (String value : dictionary) {
+            out.putString(value);
+        }
+        for (int index : indexes) {
+            out.putVarLong(index);
+        }
+    }
+
+    private static String[] decodeNullableDictionary(ByteBuffer in, int rows) throws IOException {
+        String[] dictionary = new String[Math.toIntExact(getVarLong(in)) + 1];
+        for (int i = 1; i < dictionary.length; i++) {
+            dictionary[i] = getString(in);
+        }
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = dictionary[Math.toIntExact(getVarLong(in))];
+        }
+        return values;
+    }
+
+    private static void encodeLabels(List<List<String>> labels, ColumnBuffer out) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (List<String> taskLabels : labels) {
+            for (String label : taskLabels) {
+                codes.computeIfAbsent(label, value -> {
+                    dictionary.add(value);
+                    return dictionary.size() - 1;
+                });
+            }
+        }
+        out.putVarLong(dictionary.size());
+        for (String value : dictionary) {
+            out.putString(value);
+        }
+        for (List<String> taskLabels : labels) {
+            out.putVarLong(taskLabels.size());
+            for (String label : taskLabels) {
+                out.putVarLong(codes.get(label));
+            }
+        }
+    }
+
+    private static List<List<String>> decodeLabels(ByteBuffer in, int rows) throws IOException {
+        String[] dictionary = new String[Math.toIntExact(getVarLong(in))];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = getString(in);
+        }
+        List<List<String>> labels = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String[] taskLabels = new String[Math.toIntExact(getVarLong(in))];
+            for (int j = 0; j < taskLabels.length; j++) {
+                taskLabels[j] = dictionary[Math.toIntExact(getVarLong(in))];
+            }
+            labels.add(List.of(taskLabels));
+        }
+        return labels;
+    }
+
+    private static String nameOf(TaskStatus status) {
+        return status != null ? status.name() : null;
+    }
+
+    private static long epochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static Instant fromEpochNanos(long nanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long getVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint longer than 64 bits");
+    }
+
+    private static String getString(ByteBuffer in) throws IOException {
+        int length = Math.toIntExact(getVarLong(in));
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static String getNullableString(ByteBuffer in) throws IOException {
+        long length = getVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        int bytes = Math.toIntExact(length - 1);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), bytes, StandardCharsets.UTF_8);
+        in.position(in.position() + bytes);
+        return value;
+    }
+
+    /**
+     * Growable byte array the columns are encoded into
+     */
+    static final class ColumnBuffer {
+
+        private byte[] bytes = new byte[1 << 16];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7fL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void putString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(utf8.length);
+            putBytes(utf8);
+        }
+
+        void putNullableString(String value) {
+            if (value == null) {
+                putVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(utf8.length + 1L);
+            putBytes(utf8);
+        }
+
+        private void putBytes(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
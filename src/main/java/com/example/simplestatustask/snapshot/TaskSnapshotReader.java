@@ -0,0 +1,153 @@
+package com.example.simplestatustask.snapshot;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a snapshot block by block, checking every checksum and the trailer's task count
+ */
+public class TaskSnapshotReader implements Closeable {
+
+    // Guards against allocating absurd buffers for a corrupt header
+    private static final int MAX_BLOCK_BYTES = 1 << 28;
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater(true);
+    private byte[] compressed = new byte[1 << 16];
+    private byte[] raw = new byte[1 << 16];
+    private final int version;
+    private long taskCount;
+    private boolean finished;
+
+    /**
+     * Reads and checks the header
+     *
+     * @param in Source; closed with the reader
+     * @throws IOException if the stream is not a snapshot of a supported version
+     */
+    public TaskSnapshotReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != TaskSnapshotFormat.MAGIC) {
+            throw new IOException("Not a task snapshot, or an unsupported version");
+        }
+        this.version = this.in.readInt();
+        if (version < TaskSnapshotFormat.MIN_VERSION || version > TaskSnapshotFormat.VERSION) {
+            throw new IOException("Not a task snapshot, or an unsupported version");
+        }
+    }
+
+    /**
+     * Reads the next block
+     *
+     * @return Detached tasks of the block with their labels, or null after the last one
+     * @throws IOException if the snapshot is truncated or corrupt
+     */
+    public List<TaskSnapshotEntry> nextBlock() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rows = in.readInt();
+        if (rows == 0) {
+            long expected = in.readLong();
+            if (in.readInt() != TaskSnapshotFormat.MAGIC || expected != taskCount) {
+                throw new IOException("Snapshot trailer does not match its " + taskCount + " tasks");
+            }
+            finished = true;
+            return null;
+        }
+        int rawBytes = in.readInt();
+        int compressedBytes = in.readInt();
+        int checksum = in.readInt();
+        if (rows < 0 || rows > TaskSnapshotFormat.BLOCK_ROWS || rawBytes < 0 || rawBytes > MAX_BLOCK_BYTES
+                || compressedBytes < 0 || compressedBytes > MAX_BLOCK_BYTES) {
+            throw new IOException("Corrupt snapshot block header after " + taskCount + " tasks");
+        }
+        if (compressed.length < compressedBytes) {
+            compressed = new byte[compressedBytes];
+        }
+        in.readFully(compressed, 0, compressedBytes);
+        CRC32C crc = new CRC32C();
+        crc.update(compressed, 0, compressedBytes);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Snapshot block checksum mismatch after " + taskCount + " tasks");
+        }
+
+        if (raw.length < rawBytes) {
+            raw = new byte[rawBytes];
+        }
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedBytes);
+        try {
+            int inflated = 0;
+            while (inflated < rawBytes && !inflater.finished()) {
+                int n = inflater.inflate(raw, inflated, rawBytes - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != rawBytes) {
+                throw new IOException("Snapshot block inflated to " + inflated + " bytes instead of " + rawBytes);
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Snapshot block is not valid deflate data", ex);
+        }
+        List<TaskSnapshotEntry> entries = TaskSnapshotFormat.decodeBlock(ByteBuffer.wrap(raw, 0, rawBytes).slice(), rows, version);
+        taskCount += rows;
+        return entries;
+    }
+
+    /**
+     * Tasks read so far; the whole snapshot once {@link #nextBlock()} has returned null
+     *
+     * @return Number of tasks
+     */
+    public long taskCount() {
+        return taskCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    /**
+     * Task count from the trailer, without reading the blocks
+     *
+     * @param file Snapshot file
+     * @return Number of tasks
+     * @throws IOException if the file does not end with a snapshot trailer
+     */
+    public static long taskCount(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 + 4 + TaskSnapshotFormat.TRAILER_BYTES) {
+                throw new EOFException("Snapshot " + file.getFileName() + " is truncated");
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(TaskSnapshotFormat.TRAILER_BYTES);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, size - TaskSnapshotFormat.TRAILER_BYTES + trailer.position()) < 0) {
+                    throw new EOFException("Snapshot " + file.getFileName() + " is truncated");
+                }
+            }
+            trailer.flip();
+            long count = trailer.getLong();
+            if (trailer.getInt() != TaskSnapshotFormat.MAGIC) {
+                throw new IOException("Snapshot " + file.getFileName() + " has no trailer");
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.simplestatustask.snapshot;
+
+import com.example.simplestatustask.dto.TaskSnapshotDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.TaskSnapshotConflictException;
+import com.example.simplestatustask.jobs.TaskStatsMaintainer;
+import com.example.simplestatustask.lookup.TaskBitmapIndex;
+import com.example.simplestatustask.lookup.TaskIdFilter;
+import com.example.simplestatustask.lookup.TaskTitleIndex;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskLabel;
+import com.example.simplestatustask.repository.TaskLabelRepository;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import com.example.simplestatustask.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Exports every task of every tenant and shard to a snapshot file, and restores one into an
+ * empty database for disaster recovery or to seed a test environment.
+ * <p>
+ * An export reads each shard in one repeatable-read transaction, so per shard it is a
+ * consistent point in time; pages are detached as soon as they are written. A restore inserts
+ * each block and its labels with one JDBC batch each per shard, drops tombstones left for the
+ * restored IDs, moves task_sequence past the restored IDs, and brings the caches, the ID filter,
+ * the label and title indexes and the statistics up to date. Status history, tombstones and
+ * outbox events are not part of a snapshot.
+ * <p>
+ * Exports and restores run one at a time on a worker thread of their own, away from the
+ * calling request's tenant-bound persistence context.
+ */
+@Service
+@ConditionalOnProperty(name = "task.snapshot.enabled", havingValue = "true")
+@Slf4j
+public class TaskSnapshotService implements DisposableBean {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]{0,100}\\.snapshot");
+    private static final DateTimeFormatter EXPORT_NAME = DateTimeFormatter.ofPattern("'tasks-'yyyyMMdd'T'HHmmssSSS'.snapshot'");
+    private static final String TASK_SEQUENCE = "task_sequence";
+    private static final String INSERT = "INSERT INTO tasks (id, tenant_id, title, description, status, created_at, "
+            + "updated_at, lease_owner, lease_expires_at, priority, due_at, scheduled_transition_at, "
+            + "scheduled_expected_status, scheduled_target_status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LABEL = "INSERT INTO task_labels (tenant_id, task_id, label) VALUES (?, ?, ?)";
+    private static final String DELETE_TOMBSTONE = "DELETE FROM task_tombstones WHERE task_id = ?";
+
+    private final TaskRepository taskRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final TaskShardRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate exportTransaction;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskIdFilter taskIdFilter;
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final TaskTitleIndex taskTitleIndex;
+    private final TaskStatsMaintainer taskStatsMaintainer;
+    private final Path directory;
+    private final int pageSize;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TaskSnapshotService(TaskRepository taskRepository,
+                               TaskLabelRepository taskLabelRepository,
+                               TaskShardRouter router,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               EntityManager entityManager,
+                               EntityManagerFactory entityManagerFactory,
+                               TaskIdFilter taskIdFilter,
+                               TaskBitmapIndex taskBitmapIndex,
+                               TaskTitleIndex taskTitleIndex,
+                               TaskStatsMaintainer taskStatsMaintainer,
+                               @Value("${task.snapshot.dir:./snapshots}") String directory,
+                               @Value("${task.snapshot.page-size:1000}") int pageSize) {
+        this.taskRepository = taskRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.exportTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.exportTransaction.setReadOnly(true);
+        this.exportTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskIdFilter = taskIdFilter;
+        this.taskBitmapIndex = taskBitmapIndex;
+        this.taskTitleIndex = taskTitleIndex;
+        this.taskStatsMaintainer = taskStatsMaintainer;
+        this.directory = Path.of(directory);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Writes every task to a new snapshot file; the file only appears once it is complete
+     *
+     * @return The new snapshot
+     */
+    public TaskSnapshotDto export() {
+        return onWorker(this::exportOnWorker);
+    }
+
+    private TaskSnapshotDto exportOnWorker() {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(LocalDateTime.now(ALMATY_ZONE).format(EXPORT_NAME));
+            Path tmp = Files.createTempFile(directory, "export-", ".tmp");
+            try {
+                try (TaskSnapshotWriter writer = new TaskSnapshotWriter(
+                        new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                    TenantContext.runAs(TenantContext.ROOT, () -> {
+                        for (int shard = 0; shard < router.shardCount(); shard++) {
+                            router.onShard(shard, () -> exportTransaction.execute(tx -> exportShard(writer)));
+                        }
+                    });
+                }
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            TaskSnapshotDto snapshot = describe(target);
+            log.info("Exported {} tasks to {} ({} bytes) in {} ms", snapshot.getTaskCount(), snapshot.getName(),
+                    snapshot.getSizeBytes(), (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not export tasks", ex);
+        }
+    }
+
+    /**
+     * Snapshot files in the snapshot directory, newest first
+     *
+     * @return Snapshots
+     */
+    public List<TaskSnapshotDto> list() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<TaskSnapshotDto> snapshots = new ArrayList<>();
+            for (Path file : files.filter(file -> NAME.matcher(file.getFileName().toString()).matches()).toList()) {
+                snapshots.add(describe(file));
+            }
+            snapshots.sort(Comparator.comparing(TaskSnapshotDto::getModifiedAt).reversed());
+            return snapshots;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list snapshots in " + directory, ex);
+        }
+    }
+
+    /**
+     * Path of a snapshot file
+     *
+     * @param name File name
+     * @return Path, if the snapshot exists
+     * @throws IllegalArgumentException if the name is not a snapshot file name
+     */
+    public Optional<Path> find(String name) {
+        Path file = resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Stores an uploaded snapshot, copying the body straight into the file channel; the file
+     * only appears once it is complete and has a valid trailer
+     *
+     * @param name File name
+     * @param body Request body
+     * @return The stored snapshot
+     * @throws IllegalArgumentException if the name is invalid or the body is not a snapshot
+     */
+    public TaskSnapshotDto upload(String name, InputStream body) {
+        Path target = resolve(name);
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "upload-", ".tmp");
+            try {
+                try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                     ReadableByteChannel source = Channels.newChannel(body)) {
+                    long position = 0;
+                    long copied;
+                    while ((copied = file.transferFrom(source, position, 1L << 30)) > 0) {
+                        position += copied;
+                    }
+                    file.force(true);
+                }
+                try {
+                    TaskSnapshotReader.taskCount(tmp);
+                } catch (IOException ex) {
+                    throw new IllegalArgumentException("Upload is not a task snapshot: " + ex.getMessage());
+                }
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return describe(target);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store snapshot " + name, ex);
+        }
+    }
+
+    /**
+     * Loads a snapshot into a database without tasks
+     *
+     * @param name File name
+     * @return The restored snapshot, if it exists
+     * @throws TaskSnapshotConflictException if any shard already holds tasks
+     */
+    public Optional<TaskSnapshotDto> restore(String name) {
+        Optional<Path> file = find(name);
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(onWorker(() -> restoreOnWorker(name, file.get())));
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+
+    private TaskSnapshotDto restoreOnWorker(String name, Path file) {
+        long existing = router.onEachShard(() -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+        if (existing > 0) {
+            throw new TaskSnapshotConflictException("Snapshots can only be restored into a database without tasks; "
+                    + existing + " tasks exist");
+        }
+
+        long start = System.nanoTime();
+        long maxSequence = 0;
+        try (TaskSnapshotReader reader = new TaskSnapshotReader(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            List<TaskSnapshotEntry> block;
+            while ((block = reader.nextBlock()) != null) {
+                maxSequence = Math.max(maxSequence, insert(block));
+            }
+            advanceSequences(maxSequence);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            taskStatsMaintainer.correctDrift(ZonedDateTime.now(ALMATY_ZONE));
+            log.info("Restored {} tasks from {} in {} ms", reader.taskCount(), name,
+                    (System.nanoTime() - start) / 1_000_000);
+            return describe(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not restore snapshot " + name, ex);
+        }
+    }
+
+    private <T> T onWorker(Supplier<T> work) {
+        try {
+            return worker.submit(work::get).get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException("Snapshot operation failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the snapshot operation", ex);
+        }
+    }
+
+    private Void exportShard(TaskSnapshotWriter writer) {
+        long after = Long.MIN_VALUE;
+        List<Task> page;
+        while (!(page = taskRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize))).isEmpty()) {
+            Map<Long, List<String>> labels = new HashMap<>();
+            for (TaskLabel label : taskLabelRepository.findByTaskIdIn(page.stream().map(Task::getId).toList())) {
+                labels.computeIfAbsent(label.getTaskId(), id -> new ArrayList<>()).add(label.getLabel());
+            }
+            for (Task task : page) {
+                try {
+                    writer.write(task, labels.getOrDefault(task.getId(), List.of()));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            after = page.get(page.size() - 1).getId();
+            entityManager.clear();
+        }
+        return null;
+    }
+
+    /**
+     * Inserts one block, one batch each of tasks, tombstone deletes and labels per shard it touches
+     *
+     * @return Highest task_sequence value the block's IDs were built from
+     */
+    private long insert(List<TaskSnapshotEntry> block) {
+        List<List<Object[]>> byShard = new ArrayList<>();
+        List<List<Object[]>> labelsByShard = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            byShard.add(new ArrayList<>());
+            labelsByShard.add(new ArrayList<>());
+        }
+        Map<Long, Set<String>> labels = new HashMap<>();
+        long maxSequence = 0;
+        for (TaskSnapshotEntry entry : block) {
+            Task task = entry.task();
+            long id = task.getId();
+            for (String label : entry.labels()) {
+                labelsByShard.get(router.shardOf(id)).add(new Object[]{task.getTenantId(), id, label});
+            }
+            labels.put(id, Set.copyOf(entry.labels()));
+            maxSequence = Math.max(maxSequence, router.isEnabled() ? TaskShardRouter.sequenceOf(id) : id);
+            byShard.get(router.shardOf(id)).add(new Object[]{
+                    id, task.getTenantId(), task.getTitle(), task.getDescription(), task.getStatus().name(),
+                    task.getCreatedAt().atZone(ALMATY_ZONE).toOffsetDateTime(),
+                    task.getUpdatedAt().toOffsetDateTime(),
+                    task.getLeaseOwner(),
+                    task.getLeaseExpiresAt() != null ? task.getLeaseExpiresAt().toOffsetDateTime() : null,
+                    task.getPriority(),
+                    task.getDueAt() != null ? task.getDueAt().toOffsetDateTime() : null,
+                    task.getScheduledTransitionAt() != null ? task.getScheduledTransitionAt().toOffsetDateTime() : null,
+                    task.getScheduledExpectedStatus() != null ? task.getScheduledExpectedStatus().name() : null,
+                    task.getScheduledTargetStatus() != null ? task.getScheduledTargetStatus().name() : null});
+        }
+        for (int shard = 0; shard < byShard.size(); shard++) {
+            List<Object[]> rows = byShard.get(shard);
+            List<Object[]> labelRows = labelsByShard.get(shard);
+            if (!rows.isEmpty()) {
+                router.onShard(shard, () -> transactionTemplate.execute(tx -> {
+                    jdbcTemplate.batchUpdate(INSERT, rows);
+                    // A restored task is live again, and deleting it later records a fresh tombstone
+                    jdbcTemplate.batchUpdate(DELETE_TOMBSTONE, rows.stream().map(row -> new Object[]{row[0]}).toList());
+                    return jdbcTemplate.batchUpdate(INSERT_LABEL, labelRows);
+                }));
+            }
+            for (Object[] row : rows) {
+                taskIdFilter.add((Long) row[0]);
+                taskBitmapIndex.put((String) row[1], (Long) row[0], TaskStatus.valueOf((String) row[4]),
+                        labels.get((Long) row[0]));
+                taskTitleIndex.put((String) row[1], (Long) row[0], (String) row[2],
+                        ((OffsetDateTime) row[6]).atZoneSameInstant(ALMATY_ZONE));
+            }
+        }
+        return maxSequence;
+    }
+
+    /**
+     * Restarts task_sequence on every shard past the restored IDs, unless it already is
+     */
+    private void advanceSequences(long maxSequence) {
+        String nextValue = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(TASK_SEQUENCE);
+        router.forEachShard(() -> {
+            long current = jdbcTemplate.queryForObject(nextValue, Long.class);
+            if (current <= maxSequence) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + TASK_SEQUENCE + " RESTART WITH " + (maxSequence + 1));
+            }
+        });
+    }
+
+    private Path resolve(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Snapshot names consist of letters, digits, '.', '_' and '-' "
+                    + "and end with .snapshot");
+        }
+        return directory.resolve(name);
+    }
+
+    private static TaskSnapshotDto describe(Path file) throws IOException {
+        return new TaskSnapshotDto(file.getFileName().toString(), Files.size(file), TaskSnapshotReader.taskCount(file),
+                LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ALMATY_ZONE));
+    }
+}
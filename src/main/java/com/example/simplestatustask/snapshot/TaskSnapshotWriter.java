@@ -0,0 +1,100 @@
+package com.example.simplestatustask.snapshot;
+
+import com.example.simplestatustask.models.Task;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+/**
+ * Streams tasks into a snapshot, one compressed block per {@link TaskSnapshotFormat#BLOCK_ROWS}
+ * tasks; only the current block is held in memory. {@link #close()} writes the trailer.
+ */
+public class TaskSnapshotWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final TaskSnapshotFormat.ColumnBuffer raw = new TaskSnapshotFormat.ColumnBuffer();
+    private final List<TaskSnapshotEntry> block = new ArrayList<>(TaskSnapshotFormat.BLOCK_ROWS);
+    private byte[] compressed = new byte[1 << 16];
+    private long taskCount;
+
+    /**
+     * Writes the header
+     *
+     * @param out Destination; closed with the writer
+     * @throws IOException if the header cannot be written
+     */
+    public TaskSnapshotWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(TaskSnapshotFormat.MAGIC);
+        this.out.writeInt(TaskSnapshotFormat.VERSION);
+    }
+
+    /**
+     * Adds a task; its description must already be loaded
+     *
+     * @param task Task to write
+     * @param labels Labels of the task
+     * @throws IOException if a full block cannot be written
+     */
+    public void write(Task task, List<String> labels) throws IOException {
+        block.add(new TaskSnapshotEntry(task, labels));
+        if (block.size() == TaskSnapshotFormat.BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    public long taskCount() {
+        return taskCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            out.writeInt(0);
+            out.writeLong(taskCount);
+            out.writeInt(TaskSnapshotFormat.MAGIC);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        raw.reset();
+        TaskSnapshotFormat.encodeBlock(block, raw);
+
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, raw.size());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(compressed, 0, length);
+
+        out.writeInt(block.size());
+        out.writeInt(raw.size());
+        out.writeInt(length);
+        out.writeInt((int) crc.getValue());
+        out.write(compressed, 0, length);
+        taskCount += block.size();
+        block.clear();
+    }
+}
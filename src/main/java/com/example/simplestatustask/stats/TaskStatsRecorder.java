@@ -0,0 +1,193 @@
+package com.example.simplestatustask.stats;
+
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.models.TaskHourlyStats;
+import com.example.simplestatustask.models.TaskStatusCount;
+import com.example.simplestatustask.repository.TaskHourlyStatsRepository;
+import com.example.simplestatustask.repository.TaskStatusCountRepository;
+import com.example.simplestatustask.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps task_status_counts and task_hourly_stats in step with task writes, inside the
+ * transaction that made them. Changes are summed per transaction and tenant and applied just
+ * before commit, one UPDATE per touched row, so a claim of a hundred tasks costs two counter
+ * updates rather than two hundred. Rows are updated in key order and each transaction uses
+ * a single random slot, so concurrent writers cannot deadlock on the counters.
+ * A tenant's first write creates its rows in a short transaction of its own, so two writers
+ * racing to create them never fail the task write. After commit the same deltas go to
+ * {@link TaskStatusCounters}. Changes made as {@link TenantContext#ROOT} cannot be told apart
+ * by tenant and are left to drift correction.
+ */
+@Component
+@Slf4j
+public class TaskStatsRecorder {
+
+    // Almaty timezone constant
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private final TaskStatusCountRepository taskStatusCountRepository;
+    private final TaskHourlyStatsRepository taskHourlyStatsRepository;
+    private final TaskStatusCounters taskStatusCounters;
+    private final TransactionTemplate newTransaction;
+
+    public TaskStatsRecorder(TaskStatusCountRepository taskStatusCountRepository,
+                             TaskHourlyStatsRepository taskHourlyStatsRepository,
+                             TaskStatusCounters taskStatusCounters,
+                             PlatformTransactionManager transactionManager) {
+        this.taskStatusCountRepository = taskStatusCountRepository;
+        this.taskHourlyStatsRepository = taskHourlyStatsRepository;
+        this.taskStatusCounters = taskStatusCounters;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds the change to the deltas of the current transaction
+     *
+     * @param event Task change published by the service
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        // Published inside the tenant's unit of work
+        String tenantId = TenantContext.current();
+        if (TenantContext.ROOT.equals(tenantId)) {
+            return;
+        }
+        PendingStats pending = pendingStats();
+        ZonedDateTime hour = event.occurredAt().withZoneSameInstant(ALMATY_ZONE).truncatedTo(ChronoUnit.HOURS);
+        if (event.type() == TaskEventType.CREATED) {
+            pending.addCount(tenantId, event.status(), 1);
+            pending.addHourly(tenantId, hour, 1, event.status() == TaskStatus.COMPLETED ? 1 : 0);
+        } else if (event.type() == TaskEventType.DELETED) {
+            pending.addCount(tenantId, event.status(), -1);
+        } else if (event.previousStatus() != event.status()) {
+            pending.addCount(tenantId, event.previousStatus(), -1);
+            pending.addCount(tenantId, event.status(), 1);
+            if (event.status() == TaskStatus.COMPLETED) {
+                pending.addHourly(tenantId, hour, 0, 1);
+            }
+        }
+    }
+
+    private PendingStats pendingStats() {
+        PendingStats pending = (PendingStats) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingStats();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Creates the missing slots of a tenant's status in a transaction of its own
+     */
+    private void createSlots(String tenantId, TaskStatus status) {
+        try {
+            newTransaction.executeWithoutResult(tx -> {
+                Set<Integer> existing = taskStatusCountRepository.findByTenantIdAndStatus(tenantId, status).stream()
+                        .map(TaskStatusCount::getSlot)
+                        .collect(Collectors.toSet());
+                List<TaskStatusCount> missing = new ArrayList<>(TaskStatusCount.SLOTS);
+                for (int slot = 0; slot < TaskStatusCount.SLOTS; slot++) {
+                    if (!existing.contains(slot)) {
+                        missing.add(new TaskStatusCount(tenantId, status, slot, 0));
+                    }
+                }
+                taskStatusCountRepository.saveAllAndFlush(missing);
+            });
+            log.debug("Created {} counter slots for tenant {}", status, tenantId);
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("{} counter slots of tenant {} were created concurrently", status, tenantId);
+        }
+    }
+
+    /**
+     * Creates a tenant's hour in a transaction of its own
+     */
+    private void createHour(String tenantId, ZonedDateTime hour) {
+        try {
+            newTransaction.executeWithoutResult(tx ->
+                    taskHourlyStatsRepository.saveAndFlush(new TaskHourlyStats(tenantId, hour, 0, 0)));
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Hour {} of tenant {} was created concurrently", hour, tenantId);
+        }
+    }
+
+    /**
+     * Deltas of one transaction; sorted maps give the lock order
+     */
+    private final class PendingStats implements TransactionSynchronization {
+
+        private final Map<String, Map<TaskStatus, Long>> counts = new TreeMap<>();
+        private final Map<String, Map<ZonedDateTime, long[]>> hourly = new TreeMap<>();
+
+        void addCount(String tenantId, TaskStatus status, long delta) {
+            counts.computeIfAbsent(tenantId, tenant -> new TreeMap<>(Comparator.comparing(TaskStatus::name)))
+                    .merge(status, delta, Long::sum);
+        }
+
+        void addHourly(String tenantId, ZonedDateTime hour, long created, long completed) {
+            long[] totals = hourly.computeIfAbsent(tenantId, tenant -> new TreeMap<>())
+                    .computeIfAbsent(hour, h -> new long[2]);
+            totals[0] += created;
+            totals[1] += completed;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            int slot = ThreadLocalRandom.current().nextInt(TaskStatusCount.SLOTS);
+            counts.forEach((tenantId, tenantCounts) -> tenantCounts.forEach((status, delta) -> {
+                if (delta != 0 && taskStatusCountRepository.increment(tenantId, status, slot, delta) == 0) {
+                    createSlots(tenantId, status);
+                    taskStatusCountRepository.increment(tenantId, status, slot, delta);
+                }
+            }));
+            hourly.forEach((tenantId, hours) -> hours.forEach((hour, totals) -> {
+                // Hours are created ahead by TaskStatsMaintainer for tenants it knows
+                if (taskHourlyStatsRepository.increment(tenantId, hour, totals[0], totals[1]) == 0) {
+                    createHour(tenantId, hour);
+                    taskHourlyStatsRepository.increment(tenantId, hour, totals[0], totals[1]);
+                }
+            }));
+            log.debug("Applied status count deltas {} to slot {}", counts, slot);
+        }
+
+        @Override
+        public void afterCommit() {
+            counts.forEach((tenantId, tenantCounts) ->
+                    tenantCounts.forEach((status, delta) -> taskStatusCounters.add(tenantId, status, delta)));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(TaskStatsRecorder.this);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.simplestatustask.stats;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process task counts per tenant and status, read without touching the database.
+ * A count is the baseline loaded from task_status_counts at the last reconcile plus the deltas
+ * this instance committed since then. Deltas go to striped {@link LongAdder}s, so concurrent
+ * writers never contend on a single counter. Writes made by other instances show up at the
+ * next reconcile.
+ */
+@Component
+public class TaskStatusCounters {
+
+    private final ConcurrentMap<String, Map<TaskStatus, LongAdder>> deltas = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Map<TaskStatus, Long>> baseline = Map.of();
+    private volatile ZonedDateTime reconciledAt;
+
+    /**
+     * Adds a committed change to a count
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @param status Counted status
+     * @param delta Amount to add; negative to subtract
+     */
+    public void add(String tenantId, TaskStatus status, long delta) {
+        adders(tenantId).get(status).add(delta);
+    }
+
+    /**
+     * Current count of a status
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @param status Counted status
+     * @return Baseline plus local deltas
+     */
+    public long get(String tenantId, TaskStatus status) {
+        Map<TaskStatus, LongAdder> tenantDeltas = deltas.get(tenantId);
+        long delta = tenantDeltas != null ? tenantDeltas.get(status).sum() : 0;
+        return baseline.getOrDefault(tenantId, Map.of()).getOrDefault(status, 0L) + delta;
+    }
+
+    /**
+     * Current count of every status of a tenant
+     *
+     * @param tenantId Tenant whose tasks are counted
+     * @return Counts in status order
+     */
+    public Map<TaskStatus, Long> snapshot(String tenantId) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, get(tenantId, status));
+        }
+        return counts;
+    }
+
+    /**
+     * Local deltas accumulated since the last reconcile, to be passed back to
+     * {@link #rebase(Map, Map, ZonedDateTime)} once the persisted counts are loaded
+     *
+     * @return Sum of the deltas per tenant and status
+     */
+    public Map<String, Map<TaskStatus, Long>> pendingDeltas() {
+        Map<String, Map<TaskStatus, Long>> pending = new HashMap<>();
+        deltas.forEach((tenantId, adders) -> {
+            Map<TaskStatus, Long> tenantPending = new EnumMap<>(TaskStatus.class);
+            adders.forEach((status, adder) -> tenantPending.put(status, adder.sum()));
+            pending.put(tenantId, tenantPending);
+        });
+        return pending;
+    }
+
+    /**
+     * Replaces the baseline with persisted counts and drops the deltas they already include.
+     * Deltas committed after {@link #pendingDeltas()} was read stay in the adders, so no
+     * local write is lost; one committed between that read and the load is counted twice
+     * until the next reconcile.
+     *
+     * @param persisted Counts per tenant loaded from task_status_counts
+     * @param included Deltas read before the counts were loaded
+     * @param loadedAt Time the counts were loaded
+     */
+    public void rebase(Map<String, Map<TaskStatus, Long>> persisted, Map<String, Map<TaskStatus, Long>> included,
+                       ZonedDateTime loadedAt) {
+        included.forEach((tenantId, tenantIncluded) ->
+                tenantIncluded.forEach((status, delta) -> adders(tenantId).get(status).add(-delta)));
+        Map<String, Map<TaskStatus, Long>> copy = new HashMap<>();
+        persisted.forEach((tenantId, counts) -> copy.put(tenantId, Map.copyOf(counts)));
+        baseline = Map.copyOf(copy);
+        reconciledAt = loadedAt;
+    }
+
+    /**
+     * Time of the last reconcile
+     *
+     * @return Load time of the baseline, or null before the first reconcile
+     */
+    public ZonedDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    private Map<TaskStatus, LongAdder> adders(String tenantId) {
+        return deltas.computeIfAbsent(tenantId, tenant -> {
+            Map<TaskStatus, LongAdder> adders = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                adders.put(status, new LongAdder());
+            }
+            return adders;
+        });
+    }
+}
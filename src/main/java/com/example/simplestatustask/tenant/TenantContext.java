@@ -0,0 +1,87 @@
+package com.example.simplestatustask.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant of the work running on the current thread.
+ * Set per request by {@link TenantFilter}; background jobs set it explicitly around each unit of work.
+ * Hibernate reads it through {@link TenantIdentifierResolver} when a session opens, so it must be
+ * in place before the transaction starts.
+ */
+public final class TenantContext {
+
+    /**
+     * Tenant of requests without an X-Tenant-Id header and of rows written before tenancy existed
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Pseudo-tenant that sees every tenant's rows; only for background jobs that work across tenants
+     */
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Tenant of the current thread
+     *
+     * @return The tenant set for this thread, or {@link #DEFAULT_TENANT}
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    /**
+     * Binds a tenant to the current thread until {@link #clear()}
+     *
+     * @param tenant Tenant of the request
+     */
+    static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    /**
+     * Unbinds the tenant of the current thread
+     */
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs work as a tenant and restores the previous tenant afterwards
+     *
+     * @param tenant Tenant to act as
+     * @param work Work to run; must open its own transaction
+     * @return Result of the work
+     */
+    public static <T> T callAs(String tenant, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs work as a tenant and restores the previous tenant afterwards
+     *
+     * @param tenant Tenant to act as
+     * @param work Work to run; must open its own transaction
+     */
+    public static void runAs(String tenant, Runnable work) {
+        callAs(tenant, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
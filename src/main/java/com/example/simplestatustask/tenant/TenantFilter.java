@@ -0,0 +1,72 @@
+package com.example.simplestatustask.tenant;
+
+import com.example.simplestatustask.dto.ErrorResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant of each request from the X-Tenant-Id header.
+ * Runs before anything opens a Hibernate session, so the whole request sees one tenant.
+ * Requests without the header belong to {@link TenantContext#DEFAULT_TENANT}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    // Lower case and at most 50 characters, so "tasks_tenant_" + tenant is a valid PostgreSQL identifier
+    private static final Pattern TENANT_PATTERN = Pattern.compile("[a-z0-9][a-z0-9_]{0,49}");
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(TENANT_HEADER);
+        if (tenant == null || tenant.isBlank()) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        } else if (!isValid(tenant)) {
+            log.debug("Rejected tenant header: {}", tenant);
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDto(HttpStatus.BAD_REQUEST.value(),
+                    "Invalid " + TENANT_HEADER + ": lower-case letters, digits and underscores, at most 50",
+                    request.getRequestURI()));
+            return;
+        }
+
+        TenantContext.set(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * Whether a tenant ID may be used
+     *
+     * @param tenant Tenant ID
+     * @return true for 1-50 lower-case letters, digits and underscores, starting with a letter or digit
+     */
+    public static boolean isValid(String tenant) {
+        return tenant != null && TENANT_PATTERN.matcher(tenant).matches();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.simplestatustask.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Advice for a DataSource proxy that adds statement execution time to the
+ * {@link RequestTimings.Phase#DB} phase.
+ * <p>
+ * Only connections handed out to a sampled request are wrapped; everyone else, background
+ * jobs included, gets the pool's connection untouched. Hibernate acquires its connection on
+ * the first statement of a request, well inside {@link ServerTimingFilter}.
+ */
+public class JdbcTimingInterceptor implements MethodInterceptor {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (invocation.getMethod().getName().equals("getConnection") && result instanceof Connection connection
+                && RequestTimings.current() != null) {
+            return timed(connection);
+        }
+        return result;
+    }
+
+    private static Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(JdbcTimingInterceptor.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return timed(statement, CallableStatement.class);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return timed(statement, PreparedStatement.class);
+                    }
+                    if (result instanceof Statement statement) {
+                        return timed(statement, Statement.class);
+                    }
+                    return result;
+                });
+    }
+
+    private static <S extends Statement> S timed(S statement, Class<S> type) {
+        return type.cast(Proxy.newProxyInstance(JdbcTimingInterceptor.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) -> {
+                    if (!EXECUTE_METHODS.contains(method.getName())) {
+                        return invoke(statement, method, args);
+                    }
+                    long start = RequestTimings.start();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        RequestTimings.stop(RequestTimings.Phase.DB, start);
+                    }
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
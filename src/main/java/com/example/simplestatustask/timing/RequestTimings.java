@@ -0,0 +1,204 @@
+package com.example.simplestatustask.timing;
+
+import java.util.Locale;
+
+/**
+ * Time spent by one sampled request, per phase.
+ * <p>
+ * Bound to the request thread by {@link ServerTimingFilter}. The instrumentation brackets its
+ * work with {@link #start()} and {@link #stop}, which do nothing on threads without timings -
+ * requests that were not sampled, and background jobs. Phases may nest: the controller time
+ * includes the database and mapper time spent inside it.
+ */
+public final class RequestTimings {
+
+    /**
+     * Measured phase and its Server-Timing metric name
+     */
+    public enum Phase {
+        DB("db"),
+        MAPPER("mapper"),
+        CONTROLLER("controller"),
+        SERIALIZE("serialize");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    // Returned by start() when nothing is being timed
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] counts = new int[Phase.values().length];
+    private long handlerStartedAt = NOT_TIMED;
+    private long bodyStartedAt = NOT_TIMED;
+    private long totalNanos = -1;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Starts timing a request on the current thread
+     *
+     * @return Timings of the request
+     */
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Stops timing on the current thread and fixes the total
+     *
+     * @param timings Timings returned by {@link #begin()}
+     */
+    static void end(RequestTimings timings) {
+        CURRENT.remove();
+        timings.totalNanos = System.nanoTime() - timings.startedAt;
+    }
+
+    /**
+     * Timings of the request on the current thread
+     *
+     * @return Timings, or null when the request is not sampled
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start of a measurement
+     *
+     * @return Value to pass to {@link #stop}
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Adds the time since {@link #start()} to a phase
+     *
+     * @param phase Phase the time belongs to
+     * @param start Value returned by {@link #start()}
+     */
+    public static void stop(Phase phase, long start) {
+        if (start == NOT_TIMED) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The handler is about to be invoked
+     */
+    void handlerStarted() {
+        handlerStartedAt = System.nanoTime();
+    }
+
+    /**
+     * The handler returned and its body is about to be written; ends the controller phase
+     */
+    void bodyStarted() {
+        long now = System.nanoTime();
+        if (handlerStartedAt != NOT_TIMED) {
+            add(Phase.CONTROLLER, now - handlerStartedAt);
+            handlerStartedAt = NOT_TIMED;
+        }
+        bodyStartedAt = now;
+    }
+
+    /**
+     * The request is complete; ends whichever of the controller and serialize phases is open
+     */
+    void handlerCompleted() {
+        long now = System.nanoTime();
+        if (bodyStartedAt != NOT_TIMED) {
+            add(Phase.SERIALIZE, now - bodyStartedAt);
+            bodyStartedAt = NOT_TIMED;
+        } else if (handlerStartedAt != NOT_TIMED) {
+            // Handlers writing the response themselves never reach bodyStarted()
+            add(Phase.CONTROLLER, now - handlerStartedAt);
+            handlerStartedAt = NOT_TIMED;
+        }
+    }
+
+    private void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    /**
+     * Time spent in a phase
+     *
+     * @param phase Phase
+     * @return Nanoseconds
+     */
+    public long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Number of measurements in a phase, e.g. statements executed
+     *
+     * @param phase Phase
+     * @return Count
+     */
+    public int count(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    /**
+     * Time from {@link #begin()} to {@link #end}
+     *
+     * @return Nanoseconds, or -1 while the request is running
+     */
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Server-Timing header value, e.g.
+     * {@code db;dur=1.204;desc="3 statements", controller;dur=2.530, serialize;dur=0.310, total;dur=3.102}.
+     * Phases that did not occur are left out.
+     *
+     * @return Header value
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : Phase.values()) {
+            int count = counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            appendMetric(header, phase.metric(), nanos[phase.ordinal()]);
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(count).append(count == 1 ? " statement\"" : " statements\"");
+            }
+        }
+        if (totalNanos >= 0) {
+            appendMetric(header, "total", totalNanos);
+        }
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String metric, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
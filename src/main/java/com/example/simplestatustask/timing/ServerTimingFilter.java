@@ -0,0 +1,107 @@
+package com.example.simplestatustask.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times a sample of the /tasks requests and reports the breakdown in a Server-Timing header.
+ * <p>
+ * The body of a sampled response is buffered so that the header, which must precede the body,
+ * can still include the serialization time. Streams are never buffered, since they may be far
+ * too large: a response whose content type is {@code application/x-ndjson} once the handler
+ * starts writing goes straight to the client, without a Server-Timing header. Requests slower
+ * than the threshold are also logged at debug level.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "task.timing.enabled", havingValue = "true")
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String TASKS_PATH = "/tasks";
+    private static final MediaType STREAM_TYPE = MediaType.parseMediaType("application/x-ndjson");
+
+    private final double sampleRate;
+    private final long logThresholdNanos;
+
+    public ServerTimingFilter(@Value("${task.timing.sample-rate:1.0}") double sampleRate,
+                              @Value("${task.timing.log-threshold-ms:500}") long logThresholdMs) {
+        this.sampleRate = sampleRate;
+        this.logThresholdNanos = logThresholdMs * 1_000_000L;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals(TASKS_PATH) || path.startsWith(TASKS_PATH + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        SampledResponse bufferedResponse = new SampledResponse(response);
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            chain.doFilter(request, bufferedResponse);
+        } finally {
+            RequestTimings.end(timings);
+            String header = timings.toHeader();
+            if (!bufferedResponse.isStreamed() && !response.isCommitted()) {
+                response.setHeader(SERVER_TIMING_HEADER, header);
+            }
+            if (timings.totalNanos() >= logThresholdNanos) {
+                log.debug("Slow request {} {} ({}): {}", request.getMethod(), request.getRequestURI(),
+                        bufferedResponse.getStatus(), header);
+            }
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Buffers the body, unless the handler set a streamed content type before writing it
+     */
+    private static final class SampledResponse extends ContentCachingResponseWrapper {
+
+        private SampledResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isStreamed() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isStreamed() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        private boolean isStreamed() {
+            String contentType = getContentType();
+            return contentType != null && STREAM_TYPE.isCompatibleWith(MediaType.parseMediaType(contentType));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+-- Append-only log of task status changes, written in the same transaction as the change.
+-- Range-partitioned by month on changed_at so old months can be detached or dropped whole;
+-- TaskHistoryPartitionMaintainer creates upcoming partitions ahead of time.
+CREATE SEQUENCE IF NOT EXISTS task_status_history_sequence START WITH 1 INCREMENT BY 50;
+
+-- No primary key or foreign key: a unique index on a partitioned table must include the
+-- partition key, and history has to outlive deleted tasks
+CREATE TABLE IF NOT EXISTS task_status_history (
+    id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL,
+    from_status VARCHAR(20),
+    to_status VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+) PARTITION BY RANGE (changed_at);
+
+-- Catches rows if the maintainer ever falls behind, so inserts never fail
+CREATE TABLE IF NOT EXISTS task_status_history_default PARTITION OF task_status_history DEFAULT;
+
+-- Rows arrive in changed_at order, so a BRIN index answers time-range scans for a few
+-- kilobytes per partition instead of a B-tree the size of the data
+CREATE INDEX IF NOT EXISTS idx_task_status_history_changed_at
+    ON task_status_history USING BRIN (changed_at) WITH (pages_per_range = 32);
+
+-- Per-task timeline
+CREATE INDEX IF NOT EXISTS idx_task_status_history_task_id ON task_status_history (task_id, changed_at);
+
+-- Partitions for the current and the next two months; later ones come from the maintainer
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR i IN 0..2 LOOP
+        month_start := (date_trunc('month', now()) + make_interval(months => i))::date;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF task_status_history FOR VALUES FROM (%L) TO (%L)',
+            'task_status_history_' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
@@ -0,0 +1,29 @@
+-- Incrementally maintained task statistics, updated in the same transaction as each task write.
+-- Each status is spread over 16 slots (TaskStatusCount.SLOTS); a writer adds to one random slot,
+-- so concurrent writers rarely queue on the same row. The count is the sum over the slots.
+CREATE TABLE IF NOT EXISTS task_status_counts (
+    status VARCHAR(20) NOT NULL,
+    slot INTEGER NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (status, slot)
+);
+
+INSERT INTO task_status_counts (status, slot, task_count)
+SELECT s.status, g.slot, 0
+FROM (VALUES ('PENDING'), ('IN_PROGRESS'), ('COMPLETED')) AS s(status)
+CROSS JOIN generate_series(0, 15) AS g(slot)
+ON CONFLICT DO NOTHING;
+
+-- Seed slot 0 with the current counts
+UPDATE task_status_counts c
+SET task_count = t.task_count
+FROM (SELECT status, count(*) AS task_count FROM tasks GROUP BY status) t
+WHERE c.status = t.status AND c.slot = 0;
+
+-- Created/completed per hour; rows are created ahead of time by TaskStatsMaintainer,
+-- so writers only ever update
+CREATE TABLE IF NOT EXISTS task_hourly_stats (
+    bucket_start TIMESTAMP WITH TIME ZONE PRIMARY KEY,
+    created_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0
+);
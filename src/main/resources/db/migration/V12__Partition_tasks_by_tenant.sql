@@ -0,0 +1,69 @@
+-- Multi-tenant task storage. Rows written before this migration belong to tenant 'default'.
+--
+-- tasks is LIST-partitioned by tenant_id. Large tenants get a dedicated partition
+-- (tasks_tenant_<tenant>, created by TenantPartitionMaintainer), so their indexes never slow
+-- down anyone else and purging them is DETACH + DROP. Everyone else shares the DEFAULT
+-- partition, itself HASH-partitioned by tenant_id into 16 buckets to keep each index small.
+-- Every application query filters on tenant_id, so PostgreSQL prunes to a single partition.
+
+CREATE TABLE tasks_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('task_sequence'),
+    tenant_id VARCHAR(64) NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    description TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT (now() AT TIME ZONE 'Asia/Almaty'),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT (now() AT TIME ZONE 'Asia/Almaty'),
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    -- The partition key must be part of the primary key; IDs stay globally unique via task_sequence
+    CONSTRAINT tasks_tenant_id_pkey PRIMARY KEY (tenant_id, id),
+    CONSTRAINT chk_task_status CHECK (status IN ('PENDING', 'IN_PROGRESS', 'COMPLETED')),
+    CONSTRAINT chk_task_title_length CHECK (char_length(title) <= 100 AND char_length(title) > 0)
+) PARTITION BY LIST (tenant_id);
+
+CREATE TABLE tasks_shared PARTITION OF tasks_partitioned DEFAULT PARTITION BY HASH (tenant_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE tasks_shared_%s PARTITION OF tasks_shared '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO tasks_partitioned (id, tenant_id, title, description, status, created_at, updated_at,
+                               lease_owner, lease_expires_at)
+SELECT id, 'default', title, description, status, created_at, updated_at, lease_owner, lease_expires_at
+FROM tasks;
+
+-- Drops the old indexes and trigger with it; task_sequence is not owned by the table and stays
+DROP TABLE tasks;
+ALTER TABLE tasks_partitioned RENAME TO tasks;
+
+-- Indexes are created on every partition. All but one lead with tenant_id.
+CREATE INDEX idx_tasks_status ON tasks(tenant_id, status);
+CREATE INDEX idx_tasks_title ON tasks(tenant_id, title);
+CREATE INDEX idx_tasks_updated_at_id ON tasks(tenant_id, updated_at, id);
+CREATE INDEX idx_tasks_pending_created_at ON tasks(tenant_id, created_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_tasks_lease_expires_at ON tasks(tenant_id, lease_expires_at) WHERE lease_expires_at IS NOT NULL;
+-- Cross-tenant: the task ID filter picks up recent creates of every tenant
+CREATE INDEX idx_tasks_created_at ON tasks(created_at);
+
+CREATE TRIGGER update_tasks_updated_at
+    BEFORE UPDATE ON tasks
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Tables derived from tasks carry the tenant too
+ALTER TABLE task_tombstones ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE task_tombstones ALTER COLUMN tenant_id DROP DEFAULT;
+DROP INDEX IF EXISTS idx_task_tombstones_deleted_at_id;
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_tenant_deleted_at_id ON task_tombstones(tenant_id, deleted_at, task_id);
+
+ALTER TABLE task_status_history ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE task_status_history ALTER COLUMN tenant_id DROP DEFAULT;
+
+-- Not a discriminator: the relay delivers every tenant's events, and consumers need to know whose they are
+ALTER TABLE task_outbox ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE task_outbox ALTER COLUMN tenant_id DROP DEFAULT;
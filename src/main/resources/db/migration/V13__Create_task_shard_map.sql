@@ -0,0 +1,10 @@
+-- Placement of virtual shards (the high bits of a task ID) on physical shards, read from the
+-- first shard only. Virtual shards without a row live on virtual_shard % shard count; rows are
+-- written by the rebalancer. Created on every shard so they all share one schema version.
+CREATE TABLE IF NOT EXISTS task_shard_map (
+    virtual_shard INTEGER PRIMARY KEY,
+    shard INTEGER NOT NULL,
+    moving BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT chk_task_shard_map_virtual_shard CHECK (virtual_shard BETWEEN 0 AND 1023),
+    CONSTRAINT chk_task_shard_map_shard CHECK (shard BETWEEN 0 AND 63)
+);
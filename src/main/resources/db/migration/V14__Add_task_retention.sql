@@ -0,0 +1,17 @@
+-- Retention purge (TaskRetentionPurger) walks each tenant's tasks of one status in
+-- (updated_at, id) order. The index also serves the per-status counts, so it replaces
+-- idx_tasks_status rather than adding one more index to every write.
+DROP INDEX IF EXISTS idx_tasks_status;
+CREATE INDEX IF NOT EXISTS idx_tasks_status_updated_at_id ON tasks(tenant_id, status, updated_at, id);
+
+-- Where the purge of each tenant and status stopped; moved in the transaction that deletes a batch,
+-- so a restarted purge resumes there instead of rescanning index entries of deleted rows
+CREATE TABLE IF NOT EXISTS task_retention_cursors (
+    tenant_id VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_id BIGINT NOT NULL,
+    purged_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (tenant_id, status)
+);
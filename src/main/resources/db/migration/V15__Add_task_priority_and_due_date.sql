@@ -0,0 +1,8 @@
+-- Urgency of a task: higher priority first, then the earliest due date, tasks without one last
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS priority INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS due_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE tasks ADD CONSTRAINT chk_tasks_priority CHECK (priority BETWEEN 0 AND 100);
+
+-- Matches ORDER BY priority DESC, due_at, id of GET /tasks/next within a tenant and status;
+-- the query reads only IDs from it, so the top N are an index-only scan of N entries
+CREATE INDEX IF NOT EXISTS idx_tasks_next ON tasks(tenant_id, status, priority DESC, due_at, id);
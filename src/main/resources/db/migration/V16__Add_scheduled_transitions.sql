@@ -0,0 +1,13 @@
+-- A scheduled transition moves a task to the target status once it is due,
+-- provided the task still has the expected status then
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS scheduled_transition_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS scheduled_expected_status VARCHAR(20);
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS scheduled_target_status VARCHAR(20);
+ALTER TABLE tasks ADD CONSTRAINT chk_tasks_scheduled_transition CHECK (
+    (scheduled_transition_at IS NULL) = (scheduled_expected_status IS NULL)
+    AND (scheduled_transition_at IS NULL) = (scheduled_target_status IS NULL));
+
+-- The transition scheduler loads the next horizon in due order across tenants and sweeps what is
+-- overdue; only scheduled rows are indexed, so neither scan walks past unscheduled tasks
+CREATE INDEX IF NOT EXISTS idx_tasks_scheduled_transition_at ON tasks(scheduled_transition_at, id)
+    INCLUDE (tenant_id) WHERE scheduled_transition_at IS NOT NULL;
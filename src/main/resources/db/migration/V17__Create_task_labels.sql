@@ -0,0 +1,14 @@
+-- Labels of a task, many per task. Deleting a task deletes its labels.
+CREATE TABLE IF NOT EXISTS task_labels (
+    tenant_id VARCHAR(64) NOT NULL,
+    task_id BIGINT NOT NULL,
+    label VARCHAR(50) NOT NULL,
+    PRIMARY KEY (task_id, label),
+    CONSTRAINT fk_task_labels_task FOREIGN KEY (tenant_id, task_id)
+        REFERENCES tasks(tenant_id, id) ON DELETE CASCADE
+);
+
+-- Cross-tenant: the task bitmap index picks up changes and deletes of every tenant made by
+-- other instances. Label changes stamp the task's updated_at, so the first index covers them too.
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at ON tasks(updated_at);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted_at ON task_tombstones(deleted_at);
@@ -0,0 +1,5 @@
+-- Created-time reports of one tenant: GET /tasks?createdFrom=&createdTo= pages through the range
+-- in (created_at, id) order and GET /tasks/histogram counts it per hour or day. B-tree rather
+-- than BRIN: keyset paging needs the order, and the shared partitions interleave tenants, so
+-- block ranges of created_at alone would not narrow a scan to one tenant's rows.
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at_id ON tasks(tenant_id, created_at, id);
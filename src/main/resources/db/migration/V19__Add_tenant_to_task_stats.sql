@@ -0,0 +1,45 @@
+-- Task statistics are per tenant: GET /tasks/stats answers for the caller's tenant only.
+-- Both tables are rebuilt with tenant_id leading the key and reseeded from tasks and history.
+DROP TABLE IF EXISTS task_status_counts;
+DROP TABLE IF EXISTS task_hourly_stats;
+
+-- A tenant's 16 slots per status are created on its first write (TaskStatsRecorder)
+CREATE TABLE task_status_counts (
+    tenant_id VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    slot INTEGER NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, status, slot)
+);
+
+INSERT INTO task_status_counts (tenant_id, status, slot, task_count)
+SELECT t.tenant_id, s.status, g.slot, 0
+FROM (SELECT DISTINCT tenant_id FROM tasks) t
+CROSS JOIN (VALUES ('PENDING'), ('IN_PROGRESS'), ('COMPLETED')) AS s(status)
+CROSS JOIN generate_series(0, 15) AS g(slot);
+
+-- Seed slot 0 with the current counts
+UPDATE task_status_counts c
+SET task_count = t.task_count
+FROM (SELECT tenant_id, status, count(*) AS task_count FROM tasks GROUP BY tenant_id, status) t
+WHERE c.tenant_id = t.tenant_id AND c.status = t.status AND c.slot = 0;
+
+CREATE TABLE task_hourly_stats (
+    tenant_id VARCHAR(64) NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, bucket_start)
+);
+
+-- TaskStatsMaintainer prepares and recounts an hour across every tenant
+CREATE INDEX IF NOT EXISTS idx_task_hourly_stats_bucket_start ON task_hourly_stats (bucket_start);
+
+-- Rebuild the hours from the history, bucketed on the Almaty hour
+INSERT INTO task_hourly_stats (tenant_id, bucket_start, created_count, completed_count)
+SELECT tenant_id,
+       date_trunc('hour', changed_at AT TIME ZONE 'Asia/Almaty') AT TIME ZONE 'Asia/Almaty',
+       count(*) FILTER (WHERE from_status IS NULL),
+       count(*) FILTER (WHERE to_status = 'COMPLETED')
+FROM task_status_history
+GROUP BY 1, 2;
@@ -0,0 +1,12 @@
+-- Keyset index for the delta-sync feed: (updated_at, id) is the change watermark.
+-- It also serves every query the single-column updated_at index did, so that one goes.
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at_id ON tasks(updated_at, id);
+DROP INDEX IF EXISTS idx_tasks_updated_at;
+
+-- Tombstones let sync clients learn about deletes; one row per deleted task
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT (now() AT TIME ZONE 'Asia/Almaty')
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted_at_id ON task_tombstones(deleted_at, task_id);
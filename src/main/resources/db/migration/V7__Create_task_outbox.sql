@@ -0,0 +1,18 @@
+-- Transactional outbox: one row per task change, written in the same transaction as the change
+-- and drained by TaskOutboxRelay. IDs come from a pooled sequence so inserts need no extra round trip.
+CREATE SEQUENCE IF NOT EXISTS task_outbox_sequence START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_outbox (
+    id BIGINT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    delivered_at TIMESTAMP WITH TIME ZONE
+);
+
+-- The relay only ever scans undelivered rows in id order; keep that index small
+CREATE INDEX IF NOT EXISTS idx_task_outbox_pending ON task_outbox(id) WHERE delivered_at IS NULL;
+
+-- Pruning walks delivered rows oldest first
+CREATE INDEX IF NOT EXISTS idx_task_outbox_delivered_at ON task_outbox(delivered_at) WHERE delivered_at IS NOT NULL;
@@ -0,0 +1,10 @@
+-- Work-queue leases: a worker that claims a task owns it until lease_expires_at
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(100);
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP WITH TIME ZONE;
+
+-- Claim order is oldest pending first; only pending rows are indexed, so the claim
+-- scan never walks past in-progress or completed work
+CREATE INDEX IF NOT EXISTS idx_tasks_pending_created_at ON tasks(created_at, id) WHERE status = 'PENDING';
+
+-- The lease reaper sweeps expired leases in expiry order
+CREATE INDEX IF NOT EXISTS idx_tasks_lease_expires_at ON tasks(lease_expires_at) WHERE lease_expires_at IS NOT NULL;
@@ -0,0 +1,12 @@
+-- The second-level cache holds the updated_at value Hibernate wrote. The original trigger
+-- replaced it on every update, so cached tasks disagreed with the row. Only stamp updated_at
+-- when the writer left it unchanged (manual SQL, scripts); application writes always set it.
+CREATE OR REPLACE FUNCTION update_updated_at_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.updated_at IS NOT DISTINCT FROM OLD.updated_at THEN
+        NEW.updated_at = now() AT TIME ZONE 'Asia/Almaty';
+    END IF;
+RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
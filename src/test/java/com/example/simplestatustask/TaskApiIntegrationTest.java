@@ -1,19 +1,47 @@
 package com.example.simplestatustask;
 
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
 import com.example.simplestatustask.dto.TaskUpdateDto;
 import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.jobs.TaskLeaseReaper;
+import com.example.simplestatustask.jobs.TaskStatsMaintainer;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskStatusCount;
+import com.example.simplestatustask.protobuf.TaskProtobufCodec;
+import com.example.simplestatustask.protobuf.TaskProtobufHttpMessageConverter;
 import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskStatusCountRepository;
+import com.example.simplestatustask.service.TaskScheduleService;
+import com.example.simplestatustask.tenant.TenantFilter;
+import com.example.simplestatustask.util.SqlStatementCounter;
+import com.example.simplestatustask.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +57,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
 class TaskApiIntegrationTest {
 
     @Autowired
@@ -40,6 +69,24 @@ class TaskApiIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskLeaseReaper taskLeaseReaper;
+
+    @Autowired
+    private TaskStatsMaintainer taskStatsMaintainer;
+
+    @Autowired
+    private TaskScheduleService taskScheduleService;
+
+    @Autowired
+    private TaskStatusCountRepository taskStatusCountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     @DisplayName("Full Task API flow: create, get, update, delete")
     void taskApiFullFlow() throws Exception {
@@ -78,4 +125,707 @@ class TaskApiIntegrationTest {
         // --- Verify Deletion ---
         assertThat(taskRepository.findById(taskId)).isNotPresent();
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Change feed returns upserts and tombstones after a token")
+    void changeFeedFlow() throws Exception {
+        // --- Take a watermark covering everything so far ---
+        String token = drainChanges(null);
+
+        // --- Create two tasks and delete one of them ---
+        Long keptId = createTask("Sync Kept");
+        Long deletedId = createTask("Sync Deleted");
+        mockMvc.perform(delete("/tasks/{id}", deletedId))
+                .andExpect(status().isNoContent());
+
+        // --- Only the delta since the token comes back ---
+        MvcResult result = mockMvc.perform(get("/tasks/changes").param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].id").value(keptId))
+                .andExpect(jsonPath("$.deleted.length()").value(1))
+                .andExpect(jsonPath("$.deleted[0].id").value(deletedId))
+                .andReturn();
+        String nextToken = objectMapper.readTree(result.getResponse().getContentAsString()).get("nextToken").asText();
+
+        // --- Nothing new after the returned token ---
+        mockMvc.perform(get("/tasks/changes").param("since", nextToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(0))
+                .andExpect(jsonPath("$.deleted.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("Status transitions are compare-and-set and follow the state machine")
+    void statusTransitionFlow() throws Exception {
+        Long taskId = createTask("Transition Task");
+
+        // --- PENDING -> IN_PROGRESS succeeds ---
+        mockMvc.perform(post("/tasks/{id}/transitions", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"PENDING\",\"targetStatus\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+
+        // --- Repeating it with the now stale expected status conflicts ---
+        mockMvc.perform(post("/tasks/{id}/transitions", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"PENDING\",\"targetStatus\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isConflict());
+
+        // --- Complete it; a completed task cannot go back ---
+        mockMvc.perform(post("/tasks/{id}/transitions", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"IN_PROGRESS\",\"targetStatus\":\"COMPLETED\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/tasks/{id}", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PENDING\"}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/tasks/{id}", taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+
+        // --- Unknown task is a 404, not a conflict ---
+        mockMvc.perform(post("/tasks/{id}/transitions", Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"PENDING\",\"targetStatus\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Work queue: claim skips leased tasks, leases are owner-checked and expire")
+    void workQueueFlow() throws Exception {
+        // --- Empty the queue so only this test's tasks are pending ---
+        drainQueue();
+        Long firstId = createTask("Queue First");
+        Long secondId = createTask("Queue Second");
+
+        // --- Claim both, oldest first ---
+        mockMvc.perform(post("/tasks/claim").param("owner", "worker-1").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(2))
+                .andExpect(jsonPath("$.tasks[0].id").value(firstId))
+                .andExpect(jsonPath("$.tasks[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.tasks[1].id").value(secondId));
+
+        // --- Leased tasks are not handed out again ---
+        mockMvc.perform(post("/tasks/claim").param("owner", "worker-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(0));
+
+        // --- Only the owner may heartbeat or release ---
+        mockMvc.perform(post("/tasks/{id}/lease/heartbeat", firstId).param("owner", "worker-2"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/tasks/{id}/lease/heartbeat", firstId).param("owner", "worker-1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/tasks/{id}/lease/release", firstId).param("owner", "worker-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+
+        // --- An expired lease is swept back to PENDING and the old owner loses it ---
+        Task second = taskRepository.findById(secondId).orElseThrow();
+        second.setLeaseExpiresAt(ZonedDateTime.now(ZoneId.of("Asia/Almaty")).minusMinutes(1));
+        taskRepository.save(second);
+        assertThat(taskLeaseReaper.sweep()).isEqualTo(1);
+
+        mockMvc.perform(get("/tasks/{id}", secondId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        mockMvc.perform(post("/tasks/{id}/lease/release", secondId).param("owner", "worker-1"))
+                .andExpect(status().isConflict());
+
+        // --- Unknown task is a 404 ---
+        mockMvc.perform(post("/tasks/{id}/lease/heartbeat", Long.MAX_VALUE).param("owner", "worker-1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Work queue: a status change outside the queue ends the lease, so a later IN_PROGRESS is not reaped")
+    void statusChangeEndsLeaseFlow() throws Exception {
+        drainQueue();
+        Long transitioned = createTask("Lease Transitioned");
+        Long updated = createTask("Lease Updated");
+        Long scheduled = createTask("Lease Scheduled");
+        mockMvc.perform(post("/tasks/claim").param("owner", "worker-1").param("limit", "3").param("leaseSeconds", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(3));
+
+        // --- IN_PROGRESS -> PENDING through a transition, an update and a scheduled transition ---
+        transition(transitioned, "IN_PROGRESS", "PENDING");
+        mockMvc.perform(put("/tasks/{id}", updated)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PENDING\"}"))
+                .andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE tasks SET scheduled_transition_at = ?, scheduled_expected_status = 'IN_PROGRESS', " +
+                "scheduled_target_status = 'PENDING' WHERE id = ?",
+                ZonedDateTime.now(ZoneId.of("Asia/Almaty")).minusMinutes(1).toOffsetDateTime(), scheduled);
+        assertThat(taskScheduleService.fireDueTransitions(List.of(scheduled))).isEqualTo(1);
+
+        // --- ... and back to IN_PROGRESS outside the queue ---
+        transition(transitioned, "PENDING", "IN_PROGRESS");
+        transition(scheduled, "PENDING", "IN_PROGRESS");
+        mockMvc.perform(put("/tasks/{id}", updated)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE id IN (?, ?, ?) " +
+                "AND (lease_owner IS NOT NULL OR lease_expires_at IS NOT NULL)",
+                Long.class, transitioned, updated, scheduled)).isZero();
+
+        // --- Once the claim's lease would have run out, the reaper leaves them alone ---
+        Thread.sleep(1_100);
+        assertThat(taskLeaseReaper.sweep()).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM tasks WHERE id IN (?, ?, ?)",
+                String.class, transitioned, updated, scheduled)).containsOnly("IN_PROGRESS");
+        mockMvc.perform(post("/tasks/{id}/lease/release", transitioned).param("owner", "worker-1"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Tenants: X-Tenant-Id scopes reads, writes, counts, the change feed and the queue")
+    void tenantIsolationFlow() throws Exception {
+        // --- A task created by one tenant ---
+        TaskCreateDto createDto = new TaskCreateDto("Acme Task", "Tenant Desc", TaskStatus.PENDING);
+        MvcResult result = mockMvc.perform(post("/tasks")
+                        .header(TenantFilter.TENANT_HEADER, "acme")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long taskId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        // --- Is invisible to other tenants, including the default one ---
+        mockMvc.perform(get("/tasks/{id}", taskId).header(TenantFilter.TENANT_HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Acme Task"));
+        mockMvc.perform(get("/tasks/{id}", taskId).header(TenantFilter.TENANT_HEADER, "globex"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks/{id}", taskId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/tasks/{id}", taskId).header(TenantFilter.TENANT_HEADER, "globex"))
+                .andExpect(status().isNotFound());
+
+        // --- Counts, the change feed and the queue only see the tenant's own tasks ---
+        mockMvc.perform(get("/tasks/status-counts").header(TenantFilter.TENANT_HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.PENDING").value(1));
+        mockMvc.perform(get("/tasks/status-counts").header(TenantFilter.TENANT_HEADER, "globex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.PENDING").value(0));
+        mockMvc.perform(get("/tasks/changes").param("since", "").header(TenantFilter.TENANT_HEADER, "globex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(0));
+        mockMvc.perform(post("/tasks/claim").param("owner", "globex-worker").header(TenantFilter.TENANT_HEADER, "globex"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(0));
+        mockMvc.perform(post("/tasks/claim").param("owner", "acme-worker").header(TenantFilter.TENANT_HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(taskId));
+
+        // --- A malformed tenant is rejected before reaching the controller ---
+        mockMvc.perform(get("/tasks/{id}", taskId).header(TenantFilter.TENANT_HEADER, "Acme Corp"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Binary formats: protobuf in, Smile/CBOR/protobuf out, JSON by default")
+    void binaryContentNegotiationFlow() throws Exception {
+        // --- Create over protobuf, answer in protobuf ---
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        TaskProtobufCodec.writeCreate(new TaskCreateDto("Binary Task", "Binary Desc", TaskStatus.PENDING), body);
+        MvcResult createResult = mockMvc.perform(post("/tasks")
+                        .contentType(TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .content(body.toByteArray()))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn();
+        TaskResponseDto created = TaskProtobufCodec.readResponse(
+                new ByteArrayInputStream(createResult.getResponse().getContentAsByteArray()));
+        assertThat(created.getTitle()).isEqualTo("Binary Task");
+        assertThat(created.getStatus()).isEqualTo(TaskStatus.PENDING);
+
+        // --- Smile and CBOR carry the same document as JSON ---
+        MvcResult smileResult = mockMvc.perform(get("/tasks/{id}", created.getId())
+                        .accept(MediaType.parseMediaType("application/x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andReturn();
+        TaskResponseDto fromSmile = objectMapper.copyWith(new SmileFactory())
+                .readValue(smileResult.getResponse().getContentAsByteArray(), TaskResponseDto.class);
+        assertThat(fromSmile).usingRecursiveComparison().ignoringFields("createdAt", "updatedAt").isEqualTo(created);
+
+        MvcResult cborResult = mockMvc.perform(get("/tasks/{id}", created.getId())
+                        .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andReturn();
+        TaskResponseDto fromCbor = objectMapper.copyWith(new CBORFactory())
+                .readValue(cborResult.getResponse().getContentAsByteArray(), TaskResponseDto.class);
+        assertThat(fromCbor).usingRecursiveComparison().ignoringFields("createdAt", "updatedAt").isEqualTo(created);
+
+        // --- Lists are written as a protobuf TaskList ---
+        MvcResult listResult = mockMvc.perform(get("/tasks").param("status", "PENDING")
+                        .accept(TaskProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(TaskProtobufCodec.readList(
+                new ByteArrayInputStream(listResult.getResponse().getContentAsByteArray())))
+                .extracting(TaskResponseDto::getId).contains(created.getId());
+
+        // --- Without an Accept header the answer is still JSON ---
+        mockMvc.perform(get("/tasks/{id}", created.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.title").value("Binary Task"));
+    }
+
+    @Test
+    @DisplayName("Status history: every status change is recorded, kept after delete and streamable by time")
+    void statusHistoryFlow() throws Exception {
+        Long taskId = createTask("History Task");
+
+        // --- Transition, then update, then delete ---
+        mockMvc.perform(post("/tasks/{id}/transitions", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS))))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/tasks/{id}", taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskUpdateDto("History Task", "Done", TaskStatus.COMPLETED))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/tasks/{id}", taskId))
+                .andExpect(status().isNoContent());
+
+        // --- The timeline survives the delete ---
+        mockMvc.perform(get("/tasks/{id}/history", taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].toStatus").value("PENDING"))
+                .andExpect(jsonPath("$[1].fromStatus").value("PENDING"))
+                .andExpect(jsonPath("$[1].toStatus").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$[2].toStatus").value("COMPLETED"));
+
+        // --- Range stream, filtered to completions ---
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Almaty"));
+        MvcResult stream = mockMvc.perform(get("/tasks/history")
+                        .param("from", now.minusHours(1).toString())
+                        .param("to", now.plusHours(1).toString())
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+        String[] lines = stream.getResponse().getContentAsString().split("\n");
+        assertThat(lines).isNotEmpty();
+        assertThat(lines)
+                .extracting(line -> objectMapper.readValue(line, TaskStatusHistoryDto.class))
+                .allMatch(entry -> entry.getToStatus() == TaskStatus.COMPLETED)
+                .anyMatch(entry -> entry.getTaskId().equals(taskId));
+
+        // --- A task that never existed has no history ---
+        mockMvc.perform(get("/tasks/{id}/history", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Stats flow: counters follow every write and drift is corrected")
+    void statsFlow() throws Exception {
+        taskStatsMaintainer.correctDrift(ZonedDateTime.now(ZoneId.of("Asia/Almaty")));
+        JsonNode before = getStats();
+
+        // --- Create, complete and delete through the API ---
+        Long kept = createTask("Stats Kept");
+        Long removed = createTask("Stats Removed");
+        mockMvc.perform(put("/tasks/{id}", kept)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskUpdateDto("Stats Kept", "Done", TaskStatus.COMPLETED))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/tasks/{id}", removed))
+                .andExpect(status().isNoContent());
+
+        JsonNode after = getStats();
+        assertThat(countOf(after, "PENDING")).isEqualTo(countOf(before, "PENDING"));
+        assertThat(countOf(after, "COMPLETED")).isEqualTo(countOf(before, "COMPLETED") + 1);
+        assertThat(after.get("total").asLong()).isEqualTo(before.get("total").asLong() + 1);
+        assertThat(after.get("hourly")).hasSize(24);
+        assertThat(currentHour(after).get("created").asLong()).isEqualTo(currentHour(before).get("created").asLong() + 2);
+        assertThat(currentHour(after).get("completed").asLong()).isEqualTo(currentHour(before).get("completed").asLong() + 1);
+
+        // --- Another tenant's writes only show up in its own stats ---
+        mockMvc.perform(post("/tasks")
+                        .header(TenantFilter.TENANT_HEADER, "stats_other")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskCreateDto("Stats Other", "", TaskStatus.PENDING))))
+                .andExpect(status().isCreated());
+        JsonNode other = objectMapper.readTree(mockMvc.perform(get("/tasks/stats").header(TenantFilter.TENANT_HEADER, "stats_other"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(other.get("total").asLong()).isEqualTo(1);
+        assertThat(currentHour(other).get("created").asLong()).isEqualTo(1);
+        JsonNode unchanged = getStats();
+        assertThat(unchanged.get("counts")).isEqualTo(after.get("counts"));
+        assertThat(currentHour(unchanged)).isEqualTo(currentHour(after));
+
+        // --- A write that bypasses the service is picked up by drift correction ---
+        taskRepository.save(TestDataBuilder.createTask(null, "Stats Direct", "", TaskStatus.PENDING));
+        assertThat(countOf(getStats(), "PENDING")).isEqualTo(countOf(before, "PENDING"));
+
+        assertThat(taskStatsMaintainer.correctDrift(ZonedDateTime.now(ZoneId.of("Asia/Almaty")))).isEqualTo(1);
+        assertThat(countOf(getStats(), "PENDING")).isEqualTo(countOf(before, "PENDING") + 1);
+
+        mockMvc.perform(get("/tasks/stats").param("hours", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getStats() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tasks/stats"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static long countOf(JsonNode stats, String status) {
+        return stats.get("counts").path(status).asLong();
+    }
+
+    private static JsonNode currentHour(JsonNode stats) {
+        JsonNode hourly = stats.get("hourly");
+        return hourly.get(hourly.size() - 1);
+    }
+
+    @Test
+    @DisplayName("Round trips: every TaskService call issues exactly the statements it needs")
+    void statementCountsPerServiceCall() throws Exception {
+        // Counter slots and hours as the migration and the stats job leave them, so every
+        // counter write is a single UPDATE instead of depending on which slot was picked
+        seedCounterSlots();
+        taskStatsMaintainer.correctDrift(ZonedDateTime.now(ZoneId.of("Asia/Almaty")));
+
+        // --- Create: task, history and outbox rows, one status counter and one hourly counter ---
+        TaskCreateDto createDto = new TaskCreateDto("Counted Task", "Counted Desc", TaskStatus.PENDING);
+        MvcResult[] created = new MvcResult[1];
+        SqlStatementCounter.record(() -> created[0] = mockMvc.perform(counted(post("/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn()).assertCounts(0, 3, 2, 0);
+        Long taskId = objectMapper.readTree(created[0].getResponse().getContentAsString()).get("id").asLong();
+
+        // --- Reads: the new task is in the entity cache, only the unknown ID is selected ---
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/{id}", taskId)))
+                .andExpect(status().isOk())).assertCounts(0, 0, 0, 0);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks")).param("ids", taskId + "," + Long.MAX_VALUE))
+                .andExpect(status().isOk())).assertCounts(1, 0, 0, 0);
+
+        // --- Cold reads: one select each; the description only when the response carries it ---
+        evictTasks();
+        assertThat(SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/{id}", taskId)).param("fields", "id,title"))
+                .andExpect(status().isOk())).assertCounts(1, 0, 0, 0).sql())
+                .noneMatch(sql -> sql.contains("description"));
+        evictTasks();
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/{id}", taskId)))
+                .andExpect(status().isOk())).assertCounts(1, 0, 0, 0);
+
+        // --- Status lists: one query, then the query cache until the next write ---
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks")).param("status", "PENDING"))
+                .andExpect(status().isOk())).assertCounts(1, 0, 0, 0);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks")).param("status", "PENDING"))
+                .andExpect(status().isOk())).assertCounts(0, 0, 0, 0);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks")).param("status", "PENDING").param("fields", "id,title"))
+                .andExpect(status().isOk())).assertCounts(1, 0, 0, 0);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/status-counts")))
+                .andExpect(status().isOk())).assertCounts(TaskStatus.values().length, 0, 0, 0);
+
+        // --- Update: with a cold cache the task and its description come in one select,
+        // then one counter per status touched ---
+        evictTasks();
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(put("/tasks/{id}", taskId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Counted Again\",\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk())).assertCounts(1, 2, 3, 0);
+
+        // --- Transition: a single conditional UPDATE; the task is only consulted on a miss ---
+        MvcResult bystander = mockMvc.perform(counted(post("/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto("Bystander", "Cached", TaskStatus.PENDING))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long bystanderId = objectMapper.readTree(bystander.getResponse().getContentAsString()).get("id").asLong();
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(post("/tasks/{id}/transitions", taskId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"IN_PROGRESS\",\"targetStatus\":\"COMPLETED\"}"))
+                .andExpect(status().isOk())).assertCounts(0, 2, 4, 0);
+        // Only the transitioned task leaves the entity cache; other tasks are still served from it
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/{id}", bystanderId)))
+                .andExpect(status().isOk())).assertCounts(0, 0, 0, 0);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/{id}", taskId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))).assertCounts(1, 0, 0, 0);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(post("/tasks/{id}/transitions", taskId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"IN_PROGRESS\",\"targetStatus\":\"COMPLETED\"}"))
+                .andExpect(status().isConflict())).assertCounts(1, 0, 1, 0);
+
+        // --- Change feed: one keyset query per stream ---
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(get("/tasks/changes")).param("since", ""))
+                .andExpect(status().isOk())).assertCounts(2, 0, 0, 0);
+
+        // --- Delete: loaded with its description in one select rather than existsById + deleteById.
+        // The tombstone is new, so it is inserted without being selected first ---
+        evictTasks();
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(delete("/tasks/{id}", taskId)))
+                .andExpect(status().isNoContent())).assertCounts(1, 2, 1, 1);
+        SqlStatementCounter.record(() -> mockMvc.perform(counted(delete("/tasks/{id}", taskId)))
+                .andExpect(status().isNotFound())).assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Labels: filters and facets follow label, status and delete changes")
+    void labelFilterFlow() throws Exception {
+        // --- Tasks of other tenants can be neither labelled nor found ---
+        Long elsewhere = createTask("Labelled elsewhere");
+        mockMvc.perform(labelled(put("/tasks/{id}/labels/{label}", elsewhere, "backend")))
+                .andExpect(status().isNotFound());
+
+        Long[] ids = new Long[2];
+        for (int i = 0; i < ids.length; i++) {
+            MvcResult result = mockMvc.perform(labelled(post("/tasks"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new TaskCreateDto("Labelled " + i, "Label Desc", TaskStatus.PENDING))))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ids[i] = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+            mockMvc.perform(labelled(put("/tasks/{id}/labels/{label}", ids[i], "backend")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(labelled(put("/tasks/{id}/labels/{label}", ids[1], "urgent")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(labelled(put("/tasks/{id}/labels/{label}", ids[1], "not valid")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(labelled(get("/tasks/filter")).param("labels", "backend,urgent").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(ids[1]));
+        mockMvc.perform(labelled(get("/tasks/filter")).param("labels", "backend").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.nextAfter").value(ids[0]));
+
+        // --- Status changes and deletes reach the index once committed ---
+        mockMvc.perform(labelled(post("/tasks/{id}/transitions", ids[1]))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS))))
+                .andExpect(status().isOk());
+        mockMvc.perform(labelled(get("/tasks/facets")).param("labels", "backend"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.statuses.PENDING").value(1))
+                .andExpect(jsonPath("$.statuses.IN_PROGRESS").value(1))
+                .andExpect(jsonPath("$.labels.backend").value(2))
+                .andExpect(jsonPath("$.labels.urgent").value(1));
+
+        mockMvc.perform(labelled(delete("/tasks/{id}/labels/{label}", ids[1], "urgent")))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(labelled(delete("/tasks/{id}", ids[0])))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(labelled(get("/tasks/{id}/labels", ids[1])))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("backend"));
+        mockMvc.perform(labelled(get("/tasks/facets")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.labels.backend").value(1))
+                .andExpect(jsonPath("$.labels.urgent").doesNotExist());
+        mockMvc.perform(get("/tasks/filter").param("labels", "backend"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+
+    @Test
+    @DisplayName("Suggest tasks by title prefix as titles change")
+    void suggestFlow() throws Exception {
+        Long first = createTask("Typeahead first");
+        Long second = createTask("typeahead second");
+        createTask("Other typeahead");
+
+        // The later task ranks first, by update time or, within the same second, by ID
+        mockMvc.perform(get("/tasks/suggest").param("prefix", "TYPEAHEAD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(second))
+                .andExpect(jsonPath("$[1].id").value(first));
+        mockMvc.perform(get("/tasks/suggest").param("prefix", " "))
+                .andExpect(status().isBadRequest());
+
+        // --- Renames and deletes reach the index once committed ---
+        mockMvc.perform(put("/tasks/{id}", first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskUpdateDto("Renamed first", "Desc", TaskStatus.PENDING))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/tasks/{id}", second))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/tasks/suggest").param("prefix", "typeahead"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/tasks/suggest").param("prefix", "renamed f").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(first));
+    }
+
+    @Test
+    @DisplayName("Created-time reports: keyset stream and Almaty hour and day histograms")
+    void createdReportFlow() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            MvcResult result = mockMvc.perform(reported(post("/tasks"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new TaskCreateDto("Reported " + i, "Report Desc", TaskStatus.PENDING))))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ids[i] = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        }
+        // Two tasks share a creation time, so the stream has to break the tie by ID across pages
+        jdbcTemplate.update("UPDATE tasks SET created_at = ? WHERE id IN (?, ?)",
+                LocalDateTime.of(2025, 6, 2, 3, 0), ids[0], ids[1]);
+        jdbcTemplate.update("UPDATE tasks SET created_at = ? WHERE id = ?",
+                LocalDateTime.of(2025, 6, 1, 23, 30), ids[2]);
+        createTask("Reported elsewhere");
+
+        // --- Stream, oldest first, over more than one page ---
+        MvcResult stream = mockMvc.perform(reported(get("/tasks"))
+                        .param("createdFrom", "2025-06-01T00:00:00")
+                        .param("createdTo", "2025-06-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+        String[] lines = stream.getResponse().getContentAsString().split("\n");
+        assertThat(lines)
+                .extracting(line -> objectMapper.readValue(line, TaskResponseDto.class).getId())
+                .containsExactly(ids[2], ids[0], ids[1]);
+        mockMvc.perform(reported(get("/tasks"))
+                        .param("createdFrom", "2025-06-03T00:00:00")
+                        .param("createdTo", "2025-06-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        // --- Days and hours are Almaty wall-clock buckets, empty ones included ---
+        mockMvc.perform(reported(get("/tasks/histogram"))
+                        .param("createdFrom", "2025-06-01T00:00:00")
+                        .param("createdTo", "2025-06-04T00:00:00")
+                        .param("bucket", "day"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.buckets.length()").value(3))
+                .andExpect(jsonPath("$.buckets[0].bucketStart").value("2025-06-01T00:00:00"))
+                .andExpect(jsonPath("$.buckets[0].count").value(1))
+                .andExpect(jsonPath("$.buckets[1].count").value(2))
+                .andExpect(jsonPath("$.buckets[2].count").value(0));
+        mockMvc.perform(reported(get("/tasks/histogram"))
+                        .param("createdFrom", "2025-06-01T23:15:00")
+                        .param("createdTo", "2025-06-02T04:00:00")
+                        .param("bucket", "hour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.buckets.length()").value(5))
+                .andExpect(jsonPath("$.buckets[0].bucketStart").value("2025-06-01T23:00:00"))
+                .andExpect(jsonPath("$.buckets[0].count").value(1))
+                .andExpect(jsonPath("$.buckets[4].bucketStart").value("2025-06-02T03:00:00"))
+                .andExpect(jsonPath("$.buckets[4].count").value(2));
+        mockMvc.perform(reported(get("/tasks/histogram"))
+                        .param("createdFrom", "2020-01-01T00:00:00")
+                        .param("createdTo", "2025-01-01T00:00:00")
+                        .param("bucket", "hour"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(reported(get("/tasks/histogram"))
+                        .param("createdFrom", "2025-06-01T00:00:00")
+                        .param("createdTo", "2025-06-02T00:00:00")
+                        .param("bucket", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Request in a tenant of its own, so that the label index only holds this test's tasks
+     */
+    private static MockHttpServletRequestBuilder labelled(MockHttpServletRequestBuilder request) {
+        return request.header(TenantFilter.TENANT_HEADER, "labels");
+    }
+
+    /**
+     * Request in a tenant of its own, so that cached queries of other tests do not change the counts
+     */
+    private static MockHttpServletRequestBuilder counted(MockHttpServletRequestBuilder request) {
+        return request.header(TenantFilter.TENANT_HEADER, "round_trips");
+    }
+
+    /**
+     * Request in a tenant of its own, so that the reports only see this test's tasks
+     */
+    private static MockHttpServletRequestBuilder reported(MockHttpServletRequestBuilder request) {
+        return request.header(TenantFilter.TENANT_HEADER, "reports");
+    }
+
+    private void evictTasks() {
+        entityManagerFactory.getCache().evict(Task.class);
+    }
+
+    private void seedCounterSlots() {
+        for (TaskStatus status : TaskStatus.values()) {
+            for (int slot = 0; slot < TaskStatusCount.SLOTS; slot++) {
+                if (!taskStatusCountRepository.existsById(new TaskStatusCount.Key("round_trips", status, slot))) {
+                    taskStatusCountRepository.save(new TaskStatusCount("round_trips", status, slot, 0));
+                }
+            }
+        }
+    }
+
+    private void drainQueue() throws Exception {
+        int claimed;
+        do {
+            MvcResult result = mockMvc.perform(post("/tasks/claim").param("owner", "drain").param("limit", "100"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            claimed = objectMapper.readTree(result.getResponse().getContentAsString()).get("tasks").size();
+        } while (claimed > 0);
+    }
+
+    private void transition(Long id, String expected, String target) throws Exception {
+        mockMvc.perform(post("/tasks/{id}/transitions", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"" + expected + "\",\"targetStatus\":\"" + target + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private Long createTask(String title) throws Exception {
+        TaskCreateDto createDto = new TaskCreateDto(title, "Sync Desc", TaskStatus.PENDING);
+        MvcResult result = mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private String drainChanges(String token) throws Exception {
+        boolean hasMore = true;
+        while (hasMore) {
+            MvcResult result = mockMvc.perform(get("/tasks/changes").param("since", token == null ? "" : token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            var body = objectMapper.readTree(result.getResponse().getContentAsString());
+            token = body.get("nextToken").asText();
+            hasMore = body.get("hasMore").asBoolean();
+        }
+        return token;
+    }
+}
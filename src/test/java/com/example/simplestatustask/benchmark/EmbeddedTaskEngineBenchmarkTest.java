@@ -0,0 +1,83 @@
+package com.example.simplestatustask.benchmark;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.embedded.EmbeddedTaskEngine;
+import com.example.simplestatustask.embedded.EmbeddedTaskService;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency of create, get and update through the JPA service against H2 and through the
+ * embedded engine, with and without fsync
+ *
+ * - Tagged "benchmark": skipped by the default build, run with mvn -Pbenchmark test
+ * - Single-threaded, so every embedded write pays its own fsync; group commit only helps concurrent writers
+ * - A warm-up pass precedes every measured pass; numbers are printed, not asserted
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class EmbeddedTaskEngineBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 10_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Compare the JPA service with the embedded engine")
+    void compareStorage() {
+        System.out.printf("%-24s %12s %12s %12s%n", "storage", "create us", "get us", "update us");
+        measure("jpa (h2)", taskService);
+        try (EmbeddedTaskEngine engine = new EmbeddedTaskEngine(directory.resolve("nosync"), 1 << 26, false, Clock.systemUTC())) {
+            measure("embedded, no fsync", new EmbeddedTaskService(engine, 1000));
+        }
+        try (EmbeddedTaskEngine engine = new EmbeddedTaskEngine(directory.resolve("fsync"), 1 << 26, true, Clock.systemUTC())) {
+            measure("embedded, fsync", new EmbeddedTaskService(engine, 1000));
+        }
+    }
+
+    private static void measure(String name, TaskService service) {
+        pass(service, WARMUP_ROUNDS);
+        double[] micros = pass(service, MEASURED_ROUNDS);
+        System.out.printf("%-24s %12.1f %12.1f %12.1f%n", name, micros[0], micros[1], micros[2]);
+    }
+
+    private static double[] pass(TaskService service, int rounds) {
+        List<Long> ids = new ArrayList<>(rounds);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            ids.add(service.createTask(new TaskCreateDto("Task " + i, "Benchmark", TaskStatus.PENDING)).getId());
+        }
+        long created = System.nanoTime();
+        for (Long id : ids) {
+            service.getTaskById(id);
+        }
+        long read = System.nanoTime();
+        for (Long id : ids) {
+            service.updateTask(id, new TaskUpdateDto(null, null, TaskStatus.IN_PROGRESS));
+        }
+        long updated = System.nanoTime();
+        return new double[]{
+                (created - start) / 1_000.0 / rounds,
+                (read - created) / 1_000.0 / rounds,
+                (updated - read) / 1_000.0 / rounds};
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.simplestatustask.benchmark;
+
+import com.example.simplestatustask.config.TimezoneConfig;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.protobuf.TaskProtobufCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and encode/decode time of a task list in JSON, Smile, CBOR and protobuf
+ *
+ * - Tagged "benchmark": skipped by the default build, run with mvn -Pbenchmark test
+ * - Uses the same ObjectMapper settings as the application
+ * - A warm-up pass precedes every measured pass; numbers are printed, not asserted
+ */
+@Tag("benchmark")
+class PayloadFormatBenchmarkTest {
+
+    private static final int TASKS = 500;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 2_000;
+
+    private final ObjectMapper json = new TimezoneConfig().objectMapper();
+
+    @Test
+    @DisplayName("Compare task list payloads across formats")
+    void compareFormats() throws IOException {
+        List<TaskResponseDto> tasks = sampleTasks();
+
+        System.out.printf("%-10s %10s %14s %14s%n", "format", "bytes", "encode us/op", "decode us/op");
+        report("json", tasks, jacksonCodec(json));
+        report("smile", tasks, jacksonCodec(json.copyWith(new SmileFactory())));
+        report("cbor", tasks, jacksonCodec(json.copyWith(new CBORFactory())));
+        report("protobuf", tasks, new Codec() {
+            @Override
+            public byte[] encode(List<TaskResponseDto> value) throws IOException {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                TaskProtobufCodec.writeList(value, out);
+                return out.toByteArray();
+            }
+
+            @Override
+            public List<TaskResponseDto> decode(byte[] bytes) throws IOException {
+                return TaskProtobufCodec.readList(new ByteArrayInputStream(bytes));
+            }
+        });
+    }
+
+    private void report(String format, List<TaskResponseDto> tasks, Codec codec) throws IOException {
+        byte[] encoded = codec.encode(tasks);
+        assertThat(codec.decode(encoded)).isEqualTo(tasks);
+
+        run(codec, tasks, encoded, WARMUP_ROUNDS);
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoded = codec.encode(tasks);
+            long encodedAt = System.nanoTime();
+            codec.decode(encoded);
+            decodeNanos += System.nanoTime() - encodedAt;
+            encodeNanos += encodedAt - start;
+        }
+        System.out.printf("%-10s %10d %14.1f %14.1f%n", format, encoded.length,
+                encodeNanos / 1_000.0 / MEASURED_ROUNDS, decodeNanos / 1_000.0 / MEASURED_ROUNDS);
+    }
+
+    private void run(Codec codec, List<TaskResponseDto> tasks, byte[] encoded, int rounds) throws IOException {
+        for (int i = 0; i < rounds; i++) {
+            codec.encode(tasks);
+            codec.decode(encoded);
+        }
+    }
+
+    private static Codec jacksonCodec(ObjectMapper mapper) {
+        TypeReference<List<TaskResponseDto>> listType = new TypeReference<>() {
+        };
+        return new Codec() {
+            @Override
+            public byte[] encode(List<TaskResponseDto> value) throws IOException {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            @Override
+            public List<TaskResponseDto> decode(byte[] bytes) throws IOException {
+                return mapper.readValue(bytes, listType);
+            }
+        };
+    }
+
+    private static List<TaskResponseDto> sampleTasks() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 22, 10, 0);
+        TaskStatus[] statuses = TaskStatus.values();
+        List<TaskResponseDto> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new TaskResponseDto((long) i + 1, "Task " + i,
+                    i % 3 == 0 ? null : "Description for task " + i + " with a few more words in it",
+                    statuses[i % statuses.length], now.plusSeconds(i), now.plusSeconds(i).plusMinutes(5)));
+        }
+        return tasks;
+    }
+
+    private interface Codec {
+        byte[] encode(List<TaskResponseDto> value) throws IOException;
+
+        List<TaskResponseDto> decode(byte[] bytes) throws IOException;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.simplestatustask.benchmark;
+
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.jobs.TaskIdFilterLoader;
+import com.example.simplestatustask.lookup.TaskIdFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.function.Supplier;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cost of GET /tasks/{id} for IDs that do not exist, with and without the task ID filter,
+ * and of creating the exception with and without a stack trace
+ *
+ * - Tagged "benchmark": skipped by the default build, run with mvn -Pbenchmark test
+ * - Requests go through MockMvc against H2, so the database share is a lower bound
+ * - A warm-up pass precedes every measured pass; numbers are printed, not asserted
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskNotFoundBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+    private static final int EXCEPTION_ROUNDS = 1_000_000;
+
+    // Stands in for the newest task; every requested ID is below it and missing
+    private static final long HIGHEST_ID = 10_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskIdFilterLoader taskIdFilterLoader;
+
+    @Autowired
+    private TaskIdFilter taskIdFilter;
+
+    @Test
+    @DisplayName("Compare the 404 path with and without the ID filter")
+    void compareNotFoundPaths() throws Exception {
+        System.out.printf("%-24s %12s%n", "path", "us/request");
+
+        // The filter is disabled in the test profile, so every miss reaches the database
+        requests(WARMUP_ROUNDS);
+        System.out.printf("%-24s %12.1f%n", "database lookup", requests(MEASURED_ROUNDS));
+
+        // A task with a high ID puts the missing IDs inside the known range
+        taskIdFilterLoader.load();
+        taskIdFilter.add(HIGHEST_ID);
+        taskIdFilter.markCompleteUpTo(HIGHEST_ID);
+        requests(WARMUP_ROUNDS);
+        System.out.printf("%-24s %12.1f%n", "id filter", requests(MEASURED_ROUNDS));
+    }
+
+    @Test
+    @DisplayName("Compare exception creation with and without a stack trace")
+    void compareExceptionCost() {
+        System.out.printf("%-24s %12s%n", "exception", "ns/op");
+        System.out.printf("%-24s %12.1f%n", "with stack trace", throwing(() -> new RuntimeException("Task not found")));
+        System.out.printf("%-24s %12.1f%n", "stackless", throwing(() -> new TaskNotFoundException("Task not found")));
+    }
+
+    private double requests(int rounds) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            mockMvc.perform(get("/tasks/{id}", 1_000_000L + i % 1000 * 7919L))
+                    .andExpect(status().isNotFound());
+        }
+        return (System.nanoTime() - start) / 1_000.0 / rounds;
+    }
+
+    private static double throwing(Supplier<RuntimeException> factory) {
+        long sink = 0;
+        for (int i = 0; i < EXCEPTION_ROUNDS; i++) {
+            sink += factory.get().getMessage().length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < EXCEPTION_ROUNDS; i++) {
+            sink += factory.get().getMessage().length();
+        }
+        double nanos = (System.nanoTime() - start) / (double) EXCEPTION_ROUNDS;
+        return sink == 0 ? -1 : nanos;
+    }
+}
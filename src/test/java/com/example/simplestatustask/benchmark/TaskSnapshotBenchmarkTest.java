@@ -0,0 +1,116 @@
+package com.example.simplestatustask.benchmark;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.snapshot.TaskSnapshotEntry;
+import com.example.simplestatustask.snapshot.TaskSnapshotReader;
+import com.example.simplestatustask.snapshot.TaskSnapshotWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput of the snapshot format on local disk: writing, reading back, and copying the
+ * file with FileChannel.transferTo as the download endpoint does
+ *
+ * - Tagged "benchmark": skipped by the default build, run with mvn -Pbenchmark test
+ * - Tasks are generated in memory, so the database is left out
+ * - MB/s are of uncompressed field data (roughly what the rows take in the heap); numbers are printed, not asserted
+ */
+@Tag("benchmark")
+class TaskSnapshotBenchmarkTest {
+
+    private static final int TASKS = 500_000;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Measure snapshot write, read and transfer throughput")
+    void measureThroughput() throws IOException {
+        List<Task> tasks = tasks();
+        long fieldBytes = tasks.stream().mapToLong(TaskSnapshotBenchmarkTest::fieldBytes).sum();
+        Path file = directory.resolve("bench.snapshot");
+        Path copy = directory.resolve("copy.snapshot");
+
+        System.out.printf("%-12s %12s %12s%n", "step", "MB/s", "tasks/s");
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            try (TaskSnapshotWriter writer = new TaskSnapshotWriter(
+                    new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                for (Task task : tasks) {
+                    writer.write(task, List.of());
+                }
+            }
+            print("write", fieldBytes, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long read = 0;
+            try (TaskSnapshotReader reader = new TaskSnapshotReader(
+                    new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                List<TaskSnapshotEntry> block;
+                while ((block = reader.nextBlock()) != null) {
+                    read += block.size();
+                }
+            }
+            print("read", fieldBytes, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(copy, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                long size = source.size();
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
+                }
+            }
+            long transferNanos = System.nanoTime() - start;
+            System.out.printf("%-12s %12.0f %12s   (file %d MB for %d tasks)%n", "transferTo",
+                    Files.size(file) / 1e6 / (transferNanos / 1e9), "-", Files.size(file) / 1_000_000, read);
+        }
+    }
+
+    private static void print(String step, long bytes, long nanos) {
+        System.out.printf("%-12s %12.0f %12.0f%n", step, bytes / 1e6 / (nanos / 1e9), TASKS / (nanos / 1e9));
+    }
+
+    private static long fieldBytes(Task task) {
+        return 8 + task.getTenantId().length() + task.getTitle().length()
+                + (task.getDescription() != null ? task.getDescription().length() : 0) + 2 * 12;
+    }
+
+    private static List<Task> tasks() {
+        ZoneId almaty = ZoneId.of("Asia/Almaty");
+        ZonedDateTime base = ZonedDateTime.now(almaty).minusDays(30);
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            ZonedDateTime updated = base.plusNanos(i * 5_123_457L);
+            tasks.add(Task.builder()
+                    .id((long) i + 1)
+                    .tenantId("tenant_" + i % 20)
+                    .title("Task " + i)
+                    .description(i % 4 == 0 ? null : "Follow up with customer " + i % 997 + " about order " + i)
+                    .status(TaskStatus.values()[i % 3])
+                    .createdAt(LocalDateTime.ofInstant(updated.minusHours(1).toInstant(), almaty))
+                    .updatedAt(updated)
+                    .build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.simplestatustask.benchmark;
+
+import com.example.simplestatustask.lookup.TaskTitleIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+/**
+ * Heap per task and suggest latency of the typeahead title index
+ *
+ * - Tagged "benchmark": skipped by the default build, run with mvn -Pbenchmark test
+ * - Heap is measured as the used heap after a full GC before and after loading, next to the
+ *   size the index accounts for itself; run with a fixed -Xmx for stable numbers
+ * - A warm-up pass precedes every measured pass; numbers are printed, not asserted
+ */
+@Tag("benchmark")
+class TaskTitleIndexBenchmarkTest {
+
+    private static final int TASKS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 10_000;
+    private static final String[] WORDS = {"fix", "add", "update", "remove", "refactor", "review", "deploy",
+            "login", "billing", "report", "export", "search", "cache", "invoice", "profile", "settings"};
+
+    @Test
+    @DisplayName("Measure heap per task and suggest latency")
+    void measureTitleIndex() {
+        Random random = new Random(7);
+        ZonedDateTime start = ZonedDateTime.now(ZoneId.of("Asia/Almaty"));
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        long before = usedHeapAfterGc(memory);
+        TaskTitleIndex index = new TaskTitleIndex(new SimpleMeterRegistry(), 4096);
+        long titleBytes = 0;
+        for (long id = 1; id <= TASKS; id++) {
+            String title = randomTitle(random);
+            titleBytes += title.length();
+            index.put("acme", id, title, start.minusSeconds(random.nextInt(30 * 24 * 3600)));
+        }
+        index.markReady();
+        long retained = usedHeapAfterGc(memory) - before;
+
+        System.out.printf("%-24s %12s%n", "measure", "bytes/task");
+        System.out.printf("%-24s %12.1f%n", "average title", (double) titleBytes / TASKS);
+        System.out.printf("%-24s %12.1f%n", "accounted", index.bytes() / TASKS);
+        System.out.printf("%-24s %12.1f%n", "heap after gc", (double) retained / TASKS);
+
+        System.out.printf("%-24s %12s%n", "prefix", "us/suggest");
+        for (String prefix : new String[]{"f", "fix", "fix lo", "refactor billing"}) {
+            suggest(index, prefix, WARMUP_ROUNDS);
+            System.out.printf("%-24s %12.2f%n", prefix, suggest(index, prefix, MEASURED_ROUNDS));
+        }
+        // Changes wait in the overlay until it is merged
+        for (long id = 1; id <= 4000; id++) {
+            index.put("acme", id, randomTitle(random), start);
+        }
+        suggest(index, "fix", WARMUP_ROUNDS);
+        System.out.printf("%-24s %12.2f%n", "fix, 4000 in overlay", suggest(index, "fix", MEASURED_ROUNDS));
+    }
+
+    private static double suggest(TaskTitleIndex index, String prefix, int rounds) {
+        long found = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            found += index.suggest("acme", prefix, 10).length;
+        }
+        double micros = (System.nanoTime() - begin) / 1_000.0 / rounds;
+        if (found < 0) {
+            throw new IllegalStateException();
+        }
+        return micros;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int words = 2 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.toString();
+    }
+}
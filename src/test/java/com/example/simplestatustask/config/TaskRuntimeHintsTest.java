@@ -0,0 +1,48 @@
+package com.example.simplestatustask.config;
+
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskRuntimeHints
+ *
+ * - Registers the hints into an empty RuntimeHints instance
+ * - Checks them with RuntimeHintsPredicates, as the native build would use them
+ */
+class TaskRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should register Jackson binding hints for DTOs")
+    void registersDtoBindings() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(TaskResponseDto.class.getMethod("getStatus")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(TaskClaimResponseDto.class.getMethod("getTasks")))
+                .accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Should register enum and mapper hints")
+    void registersEnumAndMapper() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(TaskStatus.class.getMethod("valueOf", String.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(TaskRuntimeHints.TASK_MAPPER_IMPL)))
+                .accepts(hints);
+    }
+}
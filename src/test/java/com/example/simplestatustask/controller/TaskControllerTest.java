@@ -1,11 +1,38 @@
 package com.example.simplestatustask.controller;
 
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskClaimResponseDto;
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskFilterResponseDto;
+import com.example.simplestatustask.dto.TaskLeaseResponseDto;
+import com.example.simplestatustask.dto.TaskLookupDto;
+import com.example.simplestatustask.dto.TaskHistogramBucketDto;
+import com.example.simplestatustask.dto.TaskHistogramDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
 import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
+import com.example.simplestatustask.dto.TaskHourlyStatsDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.exception.InvalidStatusTransitionException;
+import com.example.simplestatustask.exception.TaskStatusConflictException;
 import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.exception.GlobalExceptionHandler;
+import com.example.simplestatustask.exception.TaskIndexUnavailableException;
 import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.service.TaskHistoryService;
+import com.example.simplestatustask.service.TaskLabelService;
+import com.example.simplestatustask.service.TaskQueueService;
+import com.example.simplestatustask.service.TaskReportService;
+import com.example.simplestatustask.service.TaskStatsService;
+import com.example.simplestatustask.service.TaskSuggestService;
 import com.example.simplestatustask.service.TaskService;
 import com.example.simplestatustask.util.TestDataBuilder;
+import com.example.simplestatustask.enums.TaskHistogramBucket;
 import com.example.simplestatustask.enums.TaskStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +46,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -43,6 +76,24 @@ class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskQueueService taskQueueService;
+
+    @Mock
+    private TaskHistoryService taskHistoryService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private TaskLabelService taskLabelService;
+
+    @Mock
+    private TaskSuggestService taskSuggestService;
+
+    @Mock
+    private TaskReportService taskReportService;
+
     @InjectMocks
     private TaskController taskController;
 
@@ -55,7 +106,9 @@ class TaskControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(taskController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(taskController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
         objectMapper = new ObjectMapper();
         
         sampleCreateDto = TestDataBuilder.createSampleTaskCreateDto();
@@ -273,4 +326,583 @@ class TaskControllerTest {
 
         verify(taskService, never()).createTask(any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /tasks/changes - Should return changes since token")
+    void getTaskChanges_Success() throws Exception {
+        // Arrange
+        TaskChangesResponseDto changes = new TaskChangesResponseDto(
+                List.of(sampleResponseDto), List.of(new TaskTombstoneDto(7L, null)), "next-token", false);
+        when(taskService.getChangesSince("prev-token", 50)).thenReturn(changes);
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/changes").param("since", "prev-token").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(sampleResponseDto.getId()))
+                .andExpect(jsonPath("$.deleted[0].id").value(7))
+                .andExpect(jsonPath("$.nextToken").value("next-token"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        verify(taskService).getChangesSince("prev-token", 50);
+    }
+
+    @Test
+    @DisplayName("GET /tasks/changes - Should return 400 for a malformed token")
+    void getTaskChanges_InvalidToken() throws Exception {
+        // Arrange
+        when(taskService.getChangesSince("garbage", 100))
+                .thenThrow(new IllegalArgumentException("Invalid change token: garbage"));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/changes").param("since", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/transitions - Should change status")
+    void transitionTask_Success() throws Exception {
+        // Arrange
+        TaskTransitionDto transition = new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+        when(taskService.transitionTask(eq(1L), any(TaskTransitionDto.class)))
+                .thenReturn(new TaskTransitionResponseDto(1L, TaskStatus.PENDING, TaskStatus.IN_PROGRESS, null));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/{id}/transitions", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transition)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.previousStatus").value("PENDING"))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/{id}/schedule - Should schedule a transition")
+    void scheduleTransition_Success() throws Exception {
+        // Arrange
+        LocalDateTime transitionAt = LocalDateTime.of(2025, 6, 23, 9, 0);
+        when(taskService.scheduleTransition(eq(1L), any(TaskScheduleDto.class)))
+                .thenReturn(new TaskScheduleResponseDto(1L, TaskStatus.PENDING, TaskStatus.IN_PROGRESS, transitionAt));
+
+        // Act & Assert
+        mockMvc.perform(put("/tasks/{id}/schedule", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"PENDING\",\"targetStatus\":\"IN_PROGRESS\"," +
+                                "\"scheduledTransitionAt\":\"2025-06-23T09:00:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.targetStatus").value("IN_PROGRESS"));
+
+        verify(taskService).scheduleTransition(eq(1L), argThat(schedule ->
+                transitionAt.equals(schedule.getScheduledTransitionAt())));
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/{id}/schedule - Should return 400 without a transition time")
+    void scheduleTransition_MissingTime() throws Exception {
+        mockMvc.perform(put("/tasks/{id}/schedule", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expectedStatus\":\"PENDING\",\"targetStatus\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("DELETE /tasks/{id}/schedule - Should cancel the scheduled transition")
+    void cancelScheduledTransition_Success() throws Exception {
+        mockMvc.perform(delete("/tasks/{id}/schedule", 1L))
+                .andExpect(status().isNoContent());
+
+        verify(taskService).cancelScheduledTransition(1L);
+    }
+
+    @Test
+    @DisplayName("GET /tasks/filter - Should pass labels and status to the label service")
+    void filterTasks_Success() throws Exception {
+        // Arrange
+        when(taskLabelService.filterTasks(TaskStatus.PENDING, List.of("backend", "urgent"), null, 50))
+                .thenReturn(new TaskFilterResponseDto(1, List.of(sampleResponseDto), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/filter")
+                        .param("status", "PENDING")
+                        .param("labels", "backend,urgent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(sampleResponseDto.getId()));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/facets - Should return 503 while the index is loading")
+    void getFacets_IndexLoading() throws Exception {
+        when(taskLabelService.getFacets(null, null, 20))
+                .thenThrow(new TaskIndexUnavailableException("Task index is still loading"));
+
+        mockMvc.perform(get("/tasks/facets"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/suggest - Should return the suggested tasks")
+    void suggestTasks_Success() throws Exception {
+        when(taskSuggestService.suggestTasks("tes", 10)).thenReturn(List.of(sampleResponseDto));
+
+        mockMvc.perform(get("/tasks/suggest").param("prefix", "tes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(sampleResponseDto.getTitle()));
+    }
+
+    @Test
+    @DisplayName("PUT and DELETE /tasks/{id}/labels/{label} - Should add and remove a label")
+    void labels_AddAndRemove() throws Exception {
+        when(taskLabelService.addLabel(1L, "urgent")).thenReturn(List.of("backend", "urgent"));
+
+        mockMvc.perform(put("/tasks/{id}/labels/{label}", 1L, "urgent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1]").value("urgent"));
+        mockMvc.perform(delete("/tasks/{id}/labels/{label}", 1L, "urgent"))
+                .andExpect(status().isNoContent());
+
+        verify(taskLabelService).removeLabel(1L, "urgent");
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/transitions - Should return 409 for a stale expected status")
+    void transitionTask_Conflict() throws Exception {
+        // Arrange
+        TaskTransitionDto transition = new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+        when(taskService.transitionTask(eq(1L), any(TaskTransitionDto.class)))
+                .thenThrow(new TaskStatusConflictException("Task 1 is no longer in status PENDING"));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/{id}/transitions", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transition)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/transitions - Should return 422 for a forbidden transition")
+    void transitionTask_Forbidden() throws Exception {
+        // Arrange
+        TaskTransitionDto transition = new TaskTransitionDto(TaskStatus.COMPLETED, TaskStatus.PENDING);
+        when(taskService.transitionTask(eq(1L), any(TaskTransitionDto.class)))
+                .thenThrow(new InvalidStatusTransitionException(TaskStatus.COMPLETED, TaskStatus.PENDING));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/{id}/transitions", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transition)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/transitions - Should return 400 when statuses are missing")
+    void transitionTask_MissingStatus() throws Exception {
+        mockMvc.perform(post("/tasks/{id}/transitions", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).transitionTask(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/claim - Should return claimed tasks")
+    void claimTasks_Success() throws Exception {
+        // Arrange
+        when(taskQueueService.claimTasks("worker-1", 5, null))
+                .thenReturn(new TaskClaimResponseDto("worker-1", null, List.of(sampleResponseDto)));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/claim").param("owner", "worker-1").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owner").value("worker-1"))
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(sampleResponseDto.getId()));
+    }
+
+    @Test
+    @DisplayName("POST /tasks/claim - Should return 400 for an invalid limit")
+    void claimTasks_InvalidLimit() throws Exception {
+        // Arrange
+        when(taskQueueService.claimTasks("worker-1", 0, null))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 100"));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/claim").param("owner", "worker-1").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/lease/heartbeat - Should return 409 when the lease is lost")
+    void heartbeat_LeaseLost() throws Exception {
+        // Arrange
+        when(taskQueueService.heartbeat(1L, "worker-2", null))
+                .thenThrow(new TaskStatusConflictException("Task 1 is not leased by worker-2"));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/{id}/lease/heartbeat", 1L).param("owner", "worker-2"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/lease/heartbeat - Should return the extended lease")
+    void heartbeat_Success() throws Exception {
+        // Arrange
+        when(taskQueueService.heartbeat(1L, "worker-1", 30))
+                .thenReturn(new TaskLeaseResponseDto(1L, "worker-1", null));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/{id}/lease/heartbeat", 1L)
+                        .param("owner", "worker-1")
+                        .param("leaseSeconds", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.owner").value("worker-1"));
+    }
+
+    @Test
+    @DisplayName("POST /tasks/{id}/lease/release - Should complete the task by default")
+    void releaseTask_Success() throws Exception {
+        // Arrange
+        when(taskQueueService.releaseTask(1L, "worker-1", TaskStatus.COMPLETED))
+                .thenReturn(new TaskTransitionResponseDto(1L, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, null));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/{id}/lease/release", 1L).param("owner", "worker-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.previousStatus").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("GET /tasks?status= - Should return tasks with the status")
+    void getTasksByStatus_Success() throws Exception {
+        // Arrange
+        when(taskService.getTasksByStatus(TaskStatus.PENDING)).thenReturn(List.of(sampleResponseDto));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(sampleResponseDto.getId()));
+    }
+
+    @Test
+    @DisplayName("GET /tasks - Should return 400 when status is missing")
+    void getTasksByStatus_MissingStatus() throws Exception {
+        mockMvc.perform(get("/tasks"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksByStatus(any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks?fields - Should read summaries and return only the requested fields")
+    void getTaskFieldsByStatus_WithoutDescription() throws Exception {
+        // Arrange
+        when(taskService.getTaskSummariesByStatus(TaskStatus.PENDING)).thenReturn(List.of(sampleResponseDto));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks").param("status", "PENDING").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(sampleResponseDto.getId()))
+                .andExpect(jsonPath("$[0].title").value(sampleResponseDto.getTitle()))
+                .andExpect(jsonPath("$[0].status").doesNotExist())
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        verify(taskService, never()).getTasksByStatus(any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks?fields - Should read full tasks when the description is requested")
+    void getTaskFieldsByStatus_WithDescription() throws Exception {
+        // Arrange
+        when(taskService.getTasksByStatus(TaskStatus.PENDING)).thenReturn(List.of(sampleResponseDto));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks").param("status", "PENDING").param("fields", "id,description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value(sampleResponseDto.getDescription()));
+
+        verify(taskService, never()).getTaskSummariesByStatus(any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks/{id}?fields - Should read the task without its description and return only the requested fields")
+    void getTaskFieldsById_Success() throws Exception {
+        // Arrange
+        when(taskService.getTaskSummaryById(1L)).thenReturn(sampleResponseDto);
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/{id}", 1L).param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(sampleResponseDto.getStatus().name()))
+                .andExpect(jsonPath("$.title").doesNotExist());
+
+        verify(taskService, never()).getTaskById(any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks/{id}?fields - Should read the full task when the description is requested")
+    void getTaskFieldsById_WithDescription() throws Exception {
+        // Arrange
+        when(taskService.getTaskById(1L)).thenReturn(sampleResponseDto);
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/{id}", 1L).param("fields", "id,description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value(sampleResponseDto.getDescription()));
+
+        verify(taskService, never()).getTaskSummaryById(any());
+    }
+
+    @Test
+    @DisplayName("GET /tasks?fields - Should return 400 for an unknown field")
+    void getTaskFieldsByStatus_UnknownField() throws Exception {
+        mockMvc.perform(get("/tasks").param("status", "PENDING").param("fields", "id,owner"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("GET /tasks?ids - Should return found tasks and missing IDs")
+    void getTasksByIds_Success() throws Exception {
+        // Arrange
+        when(taskService.getTasksByIds(List.of(1L, 7L)))
+                .thenReturn(new TaskLookupResponseDto(List.of(sampleResponseDto), List.of(7L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].id").value(sampleResponseDto.getId()))
+                .andExpect(jsonPath("$.missingIds[0]").value(7));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/next - Should return the most urgent pending tasks by default")
+    void getNextTasks_Defaults() throws Exception {
+        // Arrange
+        when(taskService.getNextTasks(TaskStatus.PENDING, 10)).thenReturn(List.of(sampleResponseDto));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/next"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(sampleResponseDto.getId()))
+                .andExpect(jsonPath("$[0].priority").value(0));
+
+        verify(taskService).getNextTasks(TaskStatus.PENDING, 10);
+    }
+
+    @Test
+    @DisplayName("GET /tasks/next - Should return 400 for a limit out of range")
+    void getNextTasks_InvalidLimit() throws Exception {
+        // Arrange
+        when(taskService.getNextTasks(TaskStatus.IN_PROGRESS, 0))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 100"));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/next").param("status", "IN_PROGRESS").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /tasks/lookup - Should look up the IDs in the body")
+    void lookupTasks_Success() throws Exception {
+        // Arrange
+        when(taskService.getTasksByIds(List.of(1L)))
+                .thenReturn(new TaskLookupResponseDto(List.of(sampleResponseDto), List.of()));
+
+        // Act & Assert
+        mockMvc.perform(post("/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskLookupDto(List.of(1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.missingIds.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("POST /tasks/lookup - Should return 400 for an empty ID list")
+    void lookupTasks_EmptyIds() throws Exception {
+        mockMvc.perform(post("/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskLookupDto(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("GET /tasks/{id}/history - Should return the status timeline")
+    void getTaskHistory_Success() throws Exception {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 22, 10, 0);
+        when(taskHistoryService.getTaskHistory(1L)).thenReturn(List.of(
+                new TaskStatusHistoryDto(1L, null, TaskStatus.PENDING, createdAt),
+                new TaskStatusHistoryDto(1L, TaskStatus.PENDING, TaskStatus.IN_PROGRESS, createdAt.plusHours(1))));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/{id}/history", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].fromStatus").value("PENDING"))
+                .andExpect(jsonPath("$[1].toStatus").value("IN_PROGRESS"));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/{id}/history - Should return 404 for an unknown task")
+    void getTaskHistory_NotFound() throws Exception {
+        when(taskHistoryService.getTaskHistory(99L)).thenThrow(new TaskNotFoundException("Task not found with ID: 99"));
+
+        mockMvc.perform(get("/tasks/{id}/history", 99L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /tasks/history - Should stream newline-delimited JSON")
+    void streamHistory_Success() throws Exception {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 7, 1, 0, 0);
+        when(taskHistoryService.writeHistory(eq(from), eq(to), eq(TaskStatus.COMPLETED), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"taskId\":1}\n{\"taskId\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/history")
+                        .param("from", "2025-06-01T00:00:00")
+                        .param("to", "2025-07-01T00:00:00")
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"taskId\":1}\n{\"taskId\":2}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/history - Should return 400 for an empty range")
+    void streamHistory_InvalidRange() throws Exception {
+        mockMvc.perform(get("/tasks/history")
+                        .param("from", "2025-07-01T00:00:00")
+                        .param("to", "2025-06-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("from must be before to"));
+
+        verifyNoInteractions(taskHistoryService);
+    }
+
+    @Test
+    @DisplayName("GET /tasks?createdFrom&createdTo - Should stream newline-delimited JSON")
+    void streamTasksCreated_Success() throws Exception {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 7, 1, 0, 0);
+        when(taskReportService.writeTasksCreated(eq(from), eq(to), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks")
+                        .param("createdFrom", "2025-06-01T00:00:00")
+                        .param("createdTo", "2025-07-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("GET /tasks?createdFrom&createdTo - Should return 400 for an empty range")
+    void streamTasksCreated_InvalidRange() throws Exception {
+        mockMvc.perform(get("/tasks")
+                        .param("createdFrom", "2025-07-01T00:00:00")
+                        .param("createdTo", "2025-07-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("createdFrom must be before createdTo"));
+
+        verifyNoInteractions(taskReportService);
+    }
+
+    @Test
+    @DisplayName("GET /tasks/histogram - Should return counts per bucket")
+    void getCreatedHistogram_Success() throws Exception {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 6, 2, 0, 0);
+        TaskHistogramDto histogram = new TaskHistogramDto("hour", from, to, 5,
+                List.of(new TaskHistogramBucketDto(from, 5)));
+        when(taskReportService.getCreatedHistogram(from, to, TaskHistogramBucket.HOUR)).thenReturn(histogram);
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/histogram")
+                        .param("createdFrom", "2025-06-01T00:00:00")
+                        .param("createdTo", "2025-06-02T00:00:00")
+                        .param("bucket", "HOUR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket").value("hour"))
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.buckets[0].count").value(5));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/histogram - Should return 400 for an unknown bucket")
+    void getCreatedHistogram_UnknownBucket() throws Exception {
+        mockMvc.perform(get("/tasks/histogram")
+                        .param("createdFrom", "2025-06-01T00:00:00")
+                        .param("createdTo", "2025-06-02T00:00:00")
+                        .param("bucket", "minute"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskReportService);
+    }
+
+    @Test
+    @DisplayName("GET /tasks/status-counts - Should return a count per status")
+    void getStatusCounts_Success() throws Exception {
+        // Arrange
+        when(taskService.getStatusCounts()).thenReturn(Map.of(TaskStatus.PENDING, 2L));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/status-counts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.PENDING").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/stats - Should return counts and hourly buckets")
+    void getTaskStats_Success() throws Exception {
+        // Arrange
+        TaskStatsDto stats = new TaskStatsDto(Map.of(TaskStatus.PENDING, 3L, TaskStatus.COMPLETED, 4L), 7,
+                List.of(new TaskHourlyStatsDto(LocalDateTime.of(2025, 6, 22, 10, 0), 5, 2)),
+                LocalDateTime.of(2025, 6, 22, 10, 30));
+        when(taskStatsService.getStats(1)).thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/stats").param("hours", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.PENDING").value(3))
+                .andExpect(jsonPath("$.total").value(7))
+                .andExpect(jsonPath("$.hourly[0].created").value(5))
+                .andExpect(jsonPath("$.hourly[0].completed").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /tasks/stats - Should return 400 for an out-of-range number of hours")
+    void getTaskStats_InvalidHours() throws Exception {
+        // Arrange
+        when(taskStatsService.getStats(1000))
+                .thenThrow(new IllegalArgumentException("hours must be between 1 and 168"));
+
+        // Act & Assert
+        mockMvc.perform(get("/tasks/stats").param("hours", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("hours must be between 1 and 168"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The API in the embedded profile: tasks go to the engine, not the database
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "embedded"})
+class EmbeddedModeIntegrationTest {
+
+    @TempDir
+    static Path dataDirectory;
+
+    @DynamicPropertySource
+    static void embeddedProperties(DynamicPropertyRegistry registry) {
+        registry.add("task.embedded.data-dir", dataDirectory::toString);
+        registry.add("task.embedded.wal.segment-bytes", () -> 1 << 20);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EmbeddedTaskEngine engine;
+
+    @Test
+    @DisplayName("Should serve tasks, history and stats from the embedded engine")
+    void apiUsesEmbeddedEngine() throws Exception {
+        String body = mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TestDataBuilder.createSampleTaskCreateDto())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(body, TaskResponseDto.class).getId();
+
+        mockMvc.perform(get("/tasks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("New Task"));
+        mockMvc.perform(get("/tasks/{id}/history", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].toStatus").value("PENDING"));
+        mockMvc.perform(get("/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").isNumber());
+
+        EmbeddedTask stored = engine.read(store -> store.get(id));
+        assertThat(stored).isNotNull();
+        assertThat(taskRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should answer lease operations with 501")
+    void leasesAreUnavailable() throws Exception {
+        mockMvc.perform(post("/tasks/claim").param("owner", "worker-1"))
+                .andExpect(status().isNotImplemented());
+    }
+}
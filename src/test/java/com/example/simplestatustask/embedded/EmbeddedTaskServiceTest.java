@@ -0,0 +1,187 @@
+package com.example.simplestatustask.embedded;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskStatusHistoryDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.exception.FeatureUnavailableException;
+import com.example.simplestatustask.exception.InvalidStatusTransitionException;
+import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.exception.TaskStatusConflictException;
+import com.example.simplestatustask.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.simplestatustask.util.TestDataBuilder.createTaskCreateDto;
+import static com.example.simplestatustask.util.TestDataBuilder.createTaskUpdateDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the embedded services on a real engine in a temporary directory
+ */
+class EmbeddedTaskServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedTaskEngine engine;
+    private EmbeddedTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("Should create, read, update and delete tasks")
+    void crud() {
+        TaskResponseDto created = taskService.createTask(createTaskCreateDto("Write docs", "README", null));
+        assertThat(created.getId()).isEqualTo(1L);
+        assertThat(created.getStatus()).isEqualTo(TaskStatus.PENDING);
+
+        TaskResponseDto updated = taskService.updateTask(created.getId(),
+                createTaskUpdateDto(null, null, TaskStatus.IN_PROGRESS));
+        assertThat(updated.getTitle()).isEqualTo("Write docs");
+        assertThat(updated.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(taskService.getTasksByStatus(TaskStatus.IN_PROGRESS)).extracting(TaskResponseDto::getId)
+                .containsExactly(created.getId());
+        assertThat(taskService.getStatusCounts()).containsEntry(TaskStatus.IN_PROGRESS, 1L)
+                .containsEntry(TaskStatus.PENDING, 0L);
+
+        taskService.deleteTask(created.getId());
+        assertThatThrownBy(() -> taskService.getTaskById(created.getId()))
+                .isInstanceOf(TaskNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject priorities and due dates instead of dropping them")
+    void priorityAndDueAt_Rejected() {
+        LocalDateTime dueAt = LocalDateTime.of(2025, 6, 30, 18, 0);
+        assertThatThrownBy(() -> taskService.createTask(new TaskCreateDto("Urgent", null, null, 50, null)))
+                .isInstanceOf(FeatureUnavailableException.class);
+        assertThatThrownBy(() -> taskService.createTask(new TaskCreateDto("Due", null, null, null, dueAt)))
+                .isInstanceOf(FeatureUnavailableException.class);
+
+        Long id = taskService.createTask(new TaskCreateDto("Default", null, null, 0, null)).getId();
+        assertThatThrownBy(() -> taskService.updateTask(id, new TaskUpdateDto(null, null, null, 80, null)))
+                .isInstanceOf(FeatureUnavailableException.class);
+        assertThatThrownBy(() -> taskService.updateTask(id, new TaskUpdateDto(null, null, null, null, dueAt)))
+                .isInstanceOf(FeatureUnavailableException.class);
+        assertThat(taskService.getTaskById(id).getTitle()).isEqualTo("Default");
+        assertThat(taskService.getTasksByStatus(TaskStatus.PENDING)).extracting(TaskResponseDto::getId).containsExactly(id);
+    }
+
+    @Test
+    @DisplayName("Should enforce status transitions and expected statuses")
+    void transitions() {
+        Long id = taskService.createTask(createTaskCreateDto("Task", null, TaskStatus.COMPLETED)).getId();
+        assertThatThrownBy(() -> taskService.updateTask(id, createTaskUpdateDto(null, null, TaskStatus.PENDING)))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+
+        Long other = taskService.createTask(createTaskCreateDto("Other", null, null)).getId();
+        taskService.transitionTask(other, new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS));
+        assertThatThrownBy(() -> taskService.transitionTask(other,
+                new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.COMPLETED)))
+                .isInstanceOf(TaskStatusConflictException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep tenants apart")
+    void tenantsAreIsolated() {
+        Long id = TenantContext.callAs("acme", () ->
+                taskService.createTask(createTaskCreateDto("Acme task", null, null)).getId());
+
+        assertThatThrownBy(() -> taskService.getTaskById(id)).isInstanceOf(TaskNotFoundException.class);
+        assertThat(taskService.getTasksByIds(List.of(id)).getMissingIds()).containsExactly(id);
+        assertThat(taskService.getChangesSince(null, 10).getChanged()).isEmpty();
+        assertThat(TenantContext.callAs("acme", () -> taskService.getTaskById(id).getTitle())).isEqualTo("Acme task");
+    }
+
+    @Test
+    @DisplayName("Should page through changes and tombstones without gaps or repeats")
+    void getChangesSince_PagesThroughEverything() {
+        for (int i = 0; i < 5; i++) {
+            taskService.createTask(createTaskCreateDto("Task " + i, null, null));
+        }
+        taskService.updateTask(1L, createTaskUpdateDto("Renamed", null, null));
+        taskService.deleteTask(2L);
+
+        TaskChangesResponseDto first = taskService.getChangesSince(null, 3);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getChanged()).extracting(TaskResponseDto::getId).containsExactly(3L, 4L, 5L);
+
+        TaskChangesResponseDto second = taskService.getChangesSince(first.getNextToken(), 3);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getChanged()).extracting(TaskResponseDto::getId).containsExactly(1L);
+        assertThat(second.getDeleted()).extracting(TaskTombstoneDto::getId).containsExactly(2L);
+
+        TaskChangesResponseDto third = taskService.getChangesSince(second.getNextToken(), 3);
+        assertThat(third.getChanged()).isEmpty();
+        assertThat(third.getNextToken()).isEqualTo(second.getNextToken());
+    }
+
+    @Test
+    @DisplayName("Should recover tasks, history and IDs from the log after a restart")
+    void recovery_FromLog() {
+        Long id = taskService.createTask(createTaskCreateDto("Durable", null, null)).getId();
+        taskService.updateTask(id, createTaskUpdateDto(null, null, TaskStatus.COMPLETED));
+        taskService.deleteTask(taskService.createTask(createTaskCreateDto("Gone", null, null)).getId());
+
+        reopen();
+
+        assertRecovered(id);
+    }
+
+    @Test
+    @DisplayName("Should recover from a snapshot plus the log written after it")
+    void recovery_FromSnapshotAndLog() {
+        Long id = taskService.createTask(createTaskCreateDto("Durable", null, null)).getId();
+        taskService.deleteTask(taskService.createTask(createTaskCreateDto("Gone", null, null)).getId());
+        assertThat(engine.snapshot()).isEqualTo(1);
+        taskService.updateTask(id, createTaskUpdateDto(null, null, TaskStatus.COMPLETED));
+
+        reopen();
+
+        assertThat(new EmbeddedTaskStatsService(engine, 168).getPersistedCounts())
+                .containsEntry(TaskStatus.COMPLETED, 1L).containsEntry(TaskStatus.PENDING, 0L);
+        assertRecovered(id);
+    }
+
+    private void assertRecovered(Long id) {
+        assertThat(taskService.getTaskById(id).getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(taskService.getChangesSince(null, 10).getDeleted()).hasSize(1);
+        assertThat(new EmbeddedTaskHistoryService(engine, new ObjectMapper()).getTaskHistory(id))
+                .extracting(TaskStatusHistoryDto::getToStatus)
+                .containsExactly(TaskStatus.PENDING, TaskStatus.COMPLETED);
+        assertThat(taskService.createTask(createTaskCreateDto("Next", null, null)).getId()).isEqualTo(3L);
+    }
+
+    private void reopen() {
+        engine.close();
+        open();
+    }
+
+    private void open() {
+        engine = new EmbeddedTaskEngine(directory, 1 << 16, true, Clock.systemUTC());
+        taskService = new EmbeddedTaskService(engine, 1000);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.simplestatustask.embedded;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskWriteAheadLog
+ */
+class TaskWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay appended records in order, across segments and restarts")
+    void replay_ReturnsRecordsInOrder() {
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            wal.replay(0, record -> { });
+            for (int i = 0; i < 200; i++) {
+                wal.sync(wal.append(record("record-" + i)));
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            assertThat(wal.replay(0, record -> replayed.add(text(record)))).isEqualTo(200);
+            wal.append(record("record-200"));
+        }
+
+        assertThat(replayed).hasSize(200).startsWith("record-0").endsWith("record-199");
+        List<String> again = new ArrayList<>();
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            wal.replay(0, record -> again.add(text(record)));
+        }
+        assertThat(again).hasSize(201).endsWith("record-200");
+    }
+
+    @Test
+    @DisplayName("Should stop replaying a segment at a torn record")
+    void replay_StopsAtTornRecord() throws IOException {
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            wal.replay(0, record -> { });
+            wal.append(record("first"));
+            wal.append(record("second"));
+            wal.append(record("third"));
+        }
+        // Corrupt a payload byte of the second record: 8-byte header + "first", then its header
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(8 + 5 + 8);
+            file.write('X');
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            wal.replay(0, record -> replayed.add(text(record)));
+        }
+
+        assertThat(replayed).containsExactly("first");
+    }
+
+    @Test
+    @DisplayName("Should skip segments before the requested one and delete them on request")
+    void deleteBefore_DropsCoveredSegments() {
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            wal.replay(0, record -> { });
+            wal.append(record("old"));
+            int segment = wal.roll();
+            wal.append(record("new"));
+
+            assertThat(wal.deleteBefore(segment)).isEqualTo(1);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 4096, true)) {
+            wal.replay(0, record -> replayed.add(text(record)));
+        }
+        assertThat(replayed).containsExactly("new");
+    }
+
+    @Test
+    @DisplayName("Should make every record durable when many writers sync at once")
+    void sync_ConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 1 << 16, true)) {
+            wal.replay(0, record -> { });
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        wal.sync(wal.append(record(thread + ":" + i)));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 1 << 16, true)) {
+            wal.replay(0, record -> replayed.add(text(record)));
+        }
+        assertThat(replayed).hasSize(2000).doesNotHaveDuplicates().contains("0:0", "7:249");
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private static ByteBuffer record(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.shard.TaskShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskHistoryPartitionMaintainer
+ *
+ * - The DDL is PostgreSQL-only, so statements are checked as text against a mocked JdbcTemplate
+ */
+class TaskHistoryPartitionMaintainerTest {
+
+    @Test
+    @DisplayName("Should build a monthly partition with half-open bounds")
+    void partitionDdl_CoversOneMonth() {
+        assertThat(TaskHistoryPartitionMaintainer.partitionDdl(YearMonth.of(2025, 12)))
+                .isEqualTo("CREATE TABLE IF NOT EXISTS task_status_history_2025_12 PARTITION OF task_status_history "
+                        + "FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')");
+    }
+
+    @Test
+    @DisplayName("Should create the current month and the configured months ahead")
+    void ensurePartitions_CreatesMonthsAhead() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        new TaskHistoryPartitionMaintainer(jdbcTemplate, new TaskShardRouter(false, 1), true, 2).ensurePartitions(YearMonth.of(2025, 6));
+
+        verify(jdbcTemplate).execute(TaskHistoryPartitionMaintainer.partitionDdl(YearMonth.of(2025, 6)));
+        verify(jdbcTemplate).execute(TaskHistoryPartitionMaintainer.partitionDdl(YearMonth.of(2025, 7)));
+        verify(jdbcTemplate).execute(TaskHistoryPartitionMaintainer.partitionDdl(YearMonth.of(2025, 8)));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+}
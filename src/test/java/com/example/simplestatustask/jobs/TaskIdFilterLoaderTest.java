@@ -0,0 +1,127 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.lookup.TaskIdFilter;
+import com.example.simplestatustask.shard.TaskShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the ID filter across two instances sharing one database
+ *
+ * - Uses its own in-memory database, since the loader reads every tenant's tasks
+ * - Each instance is a TaskIdFilter with its own loader; creates are JDBC inserts with explicit
+ *   IDs, followed by the filter add the create listener would make on that instance
+ * - A short max-transaction-ms, so checkpoints become trusted within the test
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idfilter;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class TaskIdFilterLoaderTest {
+
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    private static final long MAX_TRANSACTION_MS = 300;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskShardRouter taskShardRouter;
+
+    @Test
+    @DisplayName("Should never reject a task created on another instance, interleaved or committed late")
+    void twoInstances_NoFalseNegatives() throws Exception {
+        insert(1_001, LocalDateTime.now(ALMATY_ZONE));
+        TaskIdFilter filterA = new TaskIdFilter(1_000_000);
+        TaskIdFilter filterB = new TaskIdFilter(1_000_000);
+        TaskIdFilterLoader loaderA = loader(filterA);
+        TaskIdFilterLoader loaderB = loader(filterB);
+        loaderA.load();
+        loaderB.load();
+
+        // Nothing is trusted until a scan has run max-transaction-ms after the load
+        assertThat(filterB.mightExist(1_000)).isTrue();
+        settle(loaderA, loaderB);
+        assertThat(filterB.mightExist(1_000)).isFalse();
+        assertThat(filterB.mightExist(1_001)).isTrue();
+
+        // --- A creates 1002, then B creates 1003 ---
+        insert(1_002, LocalDateTime.now(ALMATY_ZONE));
+        filterA.add(1_002);
+        insert(1_003, LocalDateTime.now(ALMATY_ZONE));
+        filterB.add(1_003);
+        assertThat(filterB.mightExist(1_002)).isTrue();
+        assertThat(filterA.mightExist(1_003)).isTrue();
+
+        // --- 1004 is stamped long ago and still uncommitted when 1005 commits ---
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slowCreate = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+            insert(1_004, LocalDateTime.now(ALMATY_ZONE).minusHours(1));
+            inserted.countDown();
+            await(commit);
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+        insert(1_005, LocalDateTime.now(ALMATY_ZONE));
+        settle(loaderA, loaderB);
+        assertThat(filterB.mightExist(1_004)).isTrue();
+        assertThat(filterB.mightExist(1_002)).isTrue();
+
+        commit.countDown();
+        slowCreate.get(10, TimeUnit.SECONDS);
+        settle(loaderA, loaderB);
+        settle(loaderA, loaderB);
+        assertThat(filterB.getCompleteUpTo()).isEqualTo(1_005);
+        assertThat(filterA.getCompleteUpTo()).isEqualTo(1_005);
+        for (long id = 1_001; id <= 1_005; id++) {
+            assertThat(filterA.mightExist(id)).isTrue();
+            assertThat(filterB.mightExist(id)).isTrue();
+        }
+        assertThat(filterB.mightExist(1_000)).isFalse();
+    }
+
+    private TaskIdFilterLoader loader(TaskIdFilter filter) {
+        return new TaskIdFilterLoader(filter, jdbcTemplate, transactionTemplate, taskShardRouter, true, MAX_TRANSACTION_MS);
+    }
+
+    /**
+     * Waits out max-transaction-ms, then refreshes both instances
+     */
+    private static void settle(TaskIdFilterLoader... loaders) throws InterruptedException {
+        Thread.sleep(MAX_TRANSACTION_MS + 50);
+        for (TaskIdFilterLoader loader : loaders) {
+            loader.refresh();
+        }
+    }
+
+    private void insert(long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO tasks (id, tenant_id, title, status, priority, created_at, updated_at) " +
+                        "VALUES (?, 'default', ?, 'PENDING', 0, ?, ?)",
+                id, "Filtered " + id, createdAt, ZonedDateTime.now(ALMATY_ZONE).toOffsetDateTime());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.TaskRetentionCursor;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskRetentionCursorRepository;
+import com.example.simplestatustask.repository.TaskTombstoneRepository;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the retention purge
+ *
+ * - Uses its own in-memory database, since the purge deletes across every tenant
+ * - Tasks are aged by rewriting updated_at with JDBC; the entity would stamp it with the current time
+ * - Batches of two without pauses, so a handful of tasks spans several batches
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:retention;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "task.retention.max-age.COMPLETED=30d",
+        "task.retention.max-age.PENDING=365d",
+        "task.retention.batch-size=2",
+        "task.retention.min-batch-size=1",
+        "task.retention.pause-factor=0",
+        "task.retention.min-pause-ms=0",
+        "task.retention.target-batch-ms=60000"
+})
+@ActiveProfiles("test")
+class TaskRetentionPurgerTest {
+
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    @Autowired
+    private TaskRetentionPurger taskRetentionPurger;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskRetentionCursorRepository taskRetentionCursorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should delete tasks older than their status' maximum age, in every tenant, and leave tombstones")
+    void purge_DeletesExpiredTasksPerStatus() {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        List<Long> expired = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expired.add(createAged(TenantContext.DEFAULT_TENANT, TaskStatus.COMPLETED, now.minusDays(40 + i)));
+        }
+        expired.add(createAged("acme", TaskStatus.COMPLETED, now.minusDays(31)));
+        Long recentCompleted = createAged(TenantContext.DEFAULT_TENANT, TaskStatus.COMPLETED, now.minusDays(29));
+        Long youngPending = createAged(TenantContext.DEFAULT_TENANT, TaskStatus.PENDING, now.minusDays(60));
+        Long unlimitedInProgress = createAged(TenantContext.DEFAULT_TENANT, TaskStatus.IN_PROGRESS, now.minusDays(400));
+        double purgedBefore = purgedCount(TaskStatus.COMPLETED);
+
+        assertThat(taskRetentionPurger.purge(now)).isEqualTo(6);
+
+        assertThat(existing(expired)).isZero();
+        assertThat(existing(List.of(recentCompleted, youngPending, unlimitedInProgress))).isEqualTo(3);
+        assertThat(TenantContext.callAs(TenantContext.ROOT, () -> taskTombstoneRepository.findAllById(expired)))
+                .hasSize(6);
+        assertThat(purgedCount(TaskStatus.COMPLETED) - purgedBefore).isEqualTo(6);
+
+        // The pass finished, so the cursor is rewound but keeps the running total
+        TaskRetentionCursor cursor = taskRetentionCursorRepository
+                .findById(new TaskRetentionCursor.Key(TenantContext.DEFAULT_TENANT, TaskStatus.COMPLETED))
+                .orElseThrow();
+        assertThat(cursor.getLastId()).isZero();
+        assertThat(cursor.getPurgedCount()).isEqualTo(5);
+
+        assertThat(taskRetentionPurger.purge(now)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should resume from the stored cursor and reach older tasks on the next pass")
+    void purge_ResumesFromCursor() {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        List<Long> oldestFirst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            oldestFirst.add(createAged("resume", TaskStatus.COMPLETED, now.minusDays(50 - i)));
+        }
+        // As left behind by a purge stopped after deleting up to the second task
+        ZonedDateTime secondUpdatedAt = jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM tasks WHERE id = ?", OffsetDateTime.class, oldestFirst.get(1))
+                .atZoneSameInstant(ALMATY_ZONE);
+        taskRetentionCursorRepository.save(TaskRetentionCursor.builder()
+                .tenantId("resume")
+                .status(TaskStatus.COMPLETED)
+                .lastUpdatedAt(secondUpdatedAt)
+                .lastId(oldestFirst.get(1))
+                .purgedCount(2)
+                .updatedAt(now)
+                .build());
+
+        assertThat(taskRetentionPurger.purge(now)).isEqualTo(3);
+        assertThat(existing(oldestFirst.subList(0, 2))).isEqualTo(2);
+        assertThat(existing(oldestFirst.subList(2, 5))).isZero();
+
+        assertThat(taskRetentionPurger.purge(now)).isEqualTo(2);
+        assertThat(existing(oldestFirst)).isZero();
+        assertThat(taskRetentionCursorRepository
+                .findById(new TaskRetentionCursor.Key("resume", TaskStatus.COMPLETED))
+                .orElseThrow().getPurgedCount()).isEqualTo(7);
+    }
+
+    private Long createAged(String tenant, TaskStatus status, ZonedDateTime updatedAt) {
+        Long id = TenantContext.callAs(tenant, () -> taskService.createTask(
+                new TaskCreateDto("Retained", "Retention test", status)).getId());
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ? WHERE id = ?", updatedAt.toOffsetDateTime(), id);
+        return id;
+    }
+
+    private long existing(List<Long> ids) {
+        return TenantContext.callAs(TenantContext.ROOT, () -> taskRepository.findAllById(ids).size());
+    }
+
+    private double purgedCount(TaskStatus status) {
+        return meterRegistry.get("task.retention.purged").tag("status", status.name()).counter().count();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.simplestatustask.jobs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskRetentionThrottle
+ *
+ * - Batches of 100 to 1000, target 200 ms, pauses as long as the batch took, from 10 ms to 5 s
+ */
+class TaskRetentionThrottleTest {
+
+    private final TaskRetentionThrottle throttle = new TaskRetentionThrottle(100, 1000, 200, 1.0, 10, 5000, 1000);
+
+    @Test
+    @DisplayName("Should start at the maximum batch size and halve it after slow batches, down to the minimum")
+    void slowBatches_HalveBatchSize() {
+        assertThat(throttle.batchSize()).isEqualTo(1000);
+
+        assertThat(throttle.afterBatch(400, 0)).isEqualTo(400);
+        assertThat(throttle.batchSize()).isEqualTo(500);
+
+        for (int i = 0; i < 5; i++) {
+            throttle.afterBatch(400, 0);
+        }
+        assertThat(throttle.batchSize()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should grow the batch size by the minimum after fast batches, up to the maximum")
+    void fastBatches_GrowBatchSize() {
+        throttle.afterBatch(400, 0);
+        throttle.afterBatch(400, 0);
+        assertThat(throttle.batchSize()).isEqualTo(250);
+
+        assertThat(throttle.afterBatch(50, 0)).isEqualTo(50);
+        assertThat(throttle.batchSize()).isEqualTo(350);
+
+        for (int i = 0; i < 20; i++) {
+            throttle.afterBatch(50, 0);
+        }
+        assertThat(throttle.batchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should back off while replicas lag, pausing about as long as the lag up to the maximum pause")
+    void replicationLag_BacksOff() {
+        assertThat(throttle.afterBatch(50, 3000)).isEqualTo(3000);
+        assertThat(throttle.batchSize()).isEqualTo(500);
+
+        assertThat(throttle.afterBatch(50, 60000)).isEqualTo(5000);
+        assertThat(throttle.batchSize()).isEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("Should keep the minimum pause after instant batches and ignore lag below the limit")
+    void quickBatch_MinimumPause() {
+        assertThat(throttle.afterBatch(0, 900)).isEqualTo(10);
+        assertThat(throttle.batchSize()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.simplestatustask.jobs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskTimingWheel
+ *
+ * - Ticks of 10 ms, starting at an arbitrary time that is not on a turn boundary
+ */
+class TaskTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1_750_000_123_457L;
+
+    private final TaskTimingWheel wheel = new TaskTimingWheel(TICK, START);
+
+    @Test
+    @DisplayName("Should fire every transition on the first advance at or after its due time, never before")
+    void advance_FiresOnTime() {
+        Random random = new Random(42);
+        Set<Long> pending = new HashSet<>();
+        for (long id = 0; id < 5000; id++) {
+            // Spread over three levels, so transitions cascade down before they fire
+            long dueMillis = START + (long) (random.nextDouble() * TICK * 64 * 64 * 64);
+            wheel.add(new TaskTimingWheel.Entry("default", id, dueMillis));
+            pending.add(id);
+        }
+        assertThat(wheel.size()).isEqualTo(5000);
+
+        long previous = START;
+        long now = START;
+        while (!pending.isEmpty()) {
+            now += 1 + random.nextInt((int) (TICK * 200));
+            for (TaskTimingWheel.Entry entry : wheel.advanceTo(now)) {
+                assertThat(entry.dueMillis()).isLessThanOrEqualTo(now);
+                // Not due yet at the previous advance, or it would have fired then
+                assertThat(Math.floorDiv(entry.dueMillis() + TICK - 1, TICK)).isGreaterThan(Math.floorDiv(previous, TICK));
+                assertThat(pending.remove(entry.taskId())).isTrue();
+            }
+            previous = now;
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fire transitions already due on the next advance")
+    void add_PastDueFiresAtOnce() {
+        wheel.add(new TaskTimingWheel.Entry("default", 1, START - 60_000));
+        wheel.add(new TaskTimingWheel.Entry("acme", 2, START - TICK));
+
+        List<TaskTimingWheel.Entry> fired = wheel.advanceTo(START);
+
+        assertThat(fired).extracting(TaskTimingWheel.Entry::taskId).containsExactlyInAnyOrder(1L, 2L);
+        // Due in the middle of the current tick, so it waits for the next one
+        wheel.add(new TaskTimingWheel.Entry("default", 3, START + 1));
+        assertThat(wheel.advanceTo(START + 1)).isEmpty();
+        assertThat(wheel.advanceTo(START + TICK)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should hold a transition due almost a whole span ahead until it is due")
+    void add_FarAheadFiresOnTime() {
+        long dueMillis = START + wheel.spanMillis() - TICK;
+        wheel.add(new TaskTimingWheel.Entry("default", 1, dueMillis));
+
+        assertThat(wheel.advanceTo(dueMillis - TICK)).isEmpty();
+        assertThat(wheel.advanceTo(dueMillis + TICK)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should hand out everything after a pause longer than the span, and clear on demand")
+    void advance_AfterLongPauseDrains() {
+        wheel.add(new TaskTimingWheel.Entry("default", 1, START + 1000));
+        wheel.add(new TaskTimingWheel.Entry("default", 2, START + 1_000_000));
+        assertThat(wheel.advanceTo(START + 2 * wheel.spanMillis())).hasSize(2);
+
+        wheel.add(new TaskTimingWheel.Entry("default", 3, START + 3 * wheel.spanMillis()));
+        wheel.clear(START);
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advanceTo(START + 4 * wheel.spanMillis())).isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the transition scheduler
+ *
+ * - Uses its own in-memory database, since the scheduler loads every tenant's transitions
+ * - On H2 there are no advisory locks, so this instance always leads
+ * - Ticks and refills are driven by the test with the current time; the service checks due times against the clock
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schedule;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "task.schedule.tick-ms=100",
+        "task.schedule.horizon-ms=60000",
+        "task.schedule.batch-size=2"
+})
+@ActiveProfiles("test")
+class TaskTransitionSchedulerTest {
+
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    @Autowired
+    private TaskTransitionScheduler taskTransitionScheduler;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should fire transitions from the wheel once due, in every tenant, and drop stale ones")
+    void tick_FiresDueTransitions() throws InterruptedException {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        ZonedDateTime dueAt = now.plusNanos(500_000_000L);
+        Long started = createScheduled(TenantContext.DEFAULT_TENANT, TaskStatus.PENDING, TaskStatus.IN_PROGRESS, dueAt);
+        Long completed = createScheduled("acme", TaskStatus.PENDING, TaskStatus.COMPLETED, dueAt);
+        Long stale = createScheduled(TenantContext.DEFAULT_TENANT, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, dueAt);
+        Long tomorrow = createScheduled(TenantContext.DEFAULT_TENANT, TaskStatus.PENDING, TaskStatus.IN_PROGRESS,
+                now.plusDays(1));
+
+        // The transition due tomorrow is beyond the horizon
+        assertThat(taskTransitionScheduler.refill(now)).isGreaterThanOrEqualTo(3);
+        // Scheduled after the refill, so it reaches the wheel through the committed write
+        Long late = createScheduled(TenantContext.DEFAULT_TENANT, TaskStatus.PENDING, TaskStatus.COMPLETED, dueAt);
+
+        Thread.sleep(Math.max(0, dueAt.toInstant().toEpochMilli() - System.currentTimeMillis()) + 200);
+        assertThat(taskTransitionScheduler.tick(System.currentTimeMillis())).isEqualTo(4);
+
+        assertThat(status(TenantContext.DEFAULT_TENANT, started)).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(status("acme", completed)).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(status(TenantContext.DEFAULT_TENANT, late)).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(status(TenantContext.DEFAULT_TENANT, stale)).isEqualTo(TaskStatus.PENDING);
+        assertThat(isScheduled(stale)).isFalse();
+        assertThat(status(TenantContext.DEFAULT_TENANT, tomorrow)).isEqualTo(TaskStatus.PENDING);
+        assertThat(isScheduled(tomorrow)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should sweep overdue transitions written behind the scheduler's back")
+    void refill_SweepsOverdueTransitions() {
+        ZonedDateTime now = ZonedDateTime.now(ALMATY_ZONE);
+        Long id = TenantContext.callAs("sweep", () -> taskService.createTask(
+                new TaskCreateDto("Overdue", "Scheduled by another instance", TaskStatus.PENDING)).getId());
+        jdbcTemplate.update("UPDATE tasks SET scheduled_transition_at = ?, scheduled_expected_status = 'PENDING', " +
+                "scheduled_target_status = 'COMPLETED' WHERE id = ?", now.minusMinutes(1).toOffsetDateTime(), id);
+
+        taskTransitionScheduler.refill(now);
+
+        assertThat(status("sweep", id)).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(isScheduled(id)).isFalse();
+    }
+
+    private Long createScheduled(String tenant, TaskStatus expected, TaskStatus target, ZonedDateTime transitionAt) {
+        return TenantContext.callAs(tenant, () -> {
+            Long id = taskService.createTask(new TaskCreateDto("Scheduled", "Schedule test", TaskStatus.PENDING)).getId();
+            taskService.scheduleTransition(id, new TaskScheduleDto(expected, target, transitionAt.toLocalDateTime()));
+            return id;
+        });
+    }
+
+    private TaskStatus status(String tenant, Long id) {
+        return TenantContext.callAs(tenant, () -> taskService.getTaskById(id).getStatus());
+    }
+
+    private boolean isScheduled(Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE id = ? AND scheduled_transition_at IS NOT NULL",
+                Integer.class, id) == 1;
+    }
+}
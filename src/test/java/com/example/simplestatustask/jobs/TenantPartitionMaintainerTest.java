@@ -0,0 +1,85 @@
+package com.example.simplestatustask.jobs;
+
+import com.example.simplestatustask.shard.TaskShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TenantPartitionMaintainer
+ *
+ * - The DDL is PostgreSQL-only, so statements are checked as text against a mocked JdbcTemplate
+ */
+class TenantPartitionMaintainerTest {
+
+    @Test
+    @DisplayName("Should move a tenant's rows out of the shared partition before attaching its own")
+    void moveStatements_MoveRowsThenAttach() {
+        assertThat(TenantPartitionMaintainer.moveStatements("acme")).containsExactly(
+                "LOCK TABLE tasks_shared IN ACCESS EXCLUSIVE MODE",
+                "LOCK TABLE task_labels IN EXCLUSIVE MODE",
+                "CREATE TEMPORARY TABLE moved_task_labels ON COMMIT DROP AS SELECT * FROM task_labels WHERE tenant_id = 'acme'",
+                "CREATE TABLE tasks_tenant_acme (LIKE tasks INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "ALTER TABLE tasks_tenant_acme ADD CONSTRAINT chk_tenant_acme CHECK (tenant_id = 'acme')",
+                "INSERT INTO tasks_tenant_acme SELECT * FROM tasks_shared WHERE tenant_id = 'acme'",
+                "DELETE FROM tasks_shared WHERE tenant_id = 'acme'",
+                "ALTER TABLE tasks ATTACH PARTITION tasks_tenant_acme FOR VALUES IN ('acme')",
+                "INSERT INTO task_labels SELECT * FROM moved_task_labels");
+    }
+
+    @Test
+    @DisplayName("Should keep the labels the shared-partition delete cascades away and restore them after the attach")
+    void moveStatements_LabelsSurviveTheMove() {
+        List<String> statements = TenantPartitionMaintainer.moveStatements("acme");
+        int lock = statements.indexOf("LOCK TABLE task_labels IN EXCLUSIVE MODE");
+        int copy = indexOfPrefix(statements, "CREATE TEMPORARY TABLE moved_task_labels");
+        int delete = statements.indexOf("DELETE FROM tasks_shared WHERE tenant_id = 'acme'");
+        int attach = indexOfPrefix(statements, "ALTER TABLE tasks ATTACH PARTITION");
+        int restore = statements.indexOf("INSERT INTO task_labels SELECT * FROM moved_task_labels");
+
+        // Locked before the copy, so no label changes between copy and restore are lost or revived
+        assertThat(lock).isNotNegative().isLessThan(copy);
+        assertThat(copy).isLessThan(delete);
+        // Restored only once the tasks the labels reference are back under tasks
+        assertThat(restore).isGreaterThan(attach).isEqualTo(statements.size() - 1);
+        // Dropped with the move transaction, so a later move starts clean
+        assertThat(statements.get(copy)).contains("ON COMMIT DROP").endsWith("WHERE tenant_id = 'acme'");
+    }
+
+    private static int indexOfPrefix(List<String> statements, String prefix) {
+        for (int i = 0; i < statements.size(); i++) {
+            if (statements.get(i).startsWith(prefix)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    @DisplayName("Should create only missing partitions and skip invalid tenant names")
+    void ensureDedicatedPartitions_CreatesMissingOnly() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("tasks_tenant_acme"))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("tasks_tenant_globex"))).thenReturn(false);
+
+        int created = new TenantPartitionMaintainer(jdbcTemplate, transactionTemplate, new TaskShardRouter(false, 1), true,
+                List.of("acme", "globex", "Bad Name")).ensureDedicatedPartitions();
+
+        assertThat(created).isEqualTo(1);
+        TenantPartitionMaintainer.moveStatements("globex").forEach(sql -> verify(jdbcTemplate).execute(sql));
+        verify(jdbcTemplate, never()).execute(contains("tasks_tenant_acme"));
+    }
+}
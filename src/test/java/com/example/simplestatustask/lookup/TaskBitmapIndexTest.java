@@ -0,0 +1,72 @@
+package com.example.simplestatustask.lookup;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit tests for TaskBitmapIndex
+ */
+class TaskBitmapIndexTest {
+
+    private final TaskBitmapIndex index = new TaskBitmapIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put("acme", 1, TaskStatus.PENDING, Set.of("backend", "urgent"));
+        index.put("acme", 2, TaskStatus.PENDING, Set.of("backend"));
+        index.put("acme", 3, TaskStatus.COMPLETED, Set.of("backend", "urgent"));
+        index.put("acme", 4, TaskStatus.IN_PROGRESS, Set.of());
+        index.put("globex", 5, TaskStatus.PENDING, Set.of("backend", "urgent"));
+    }
+
+    @Test
+    @DisplayName("Should filter by every label and the status within the tenant")
+    void filter_IntersectsLabelsAndStatus() {
+        assertThat(index.filter("acme", TaskStatus.PENDING, List.of("backend", "urgent"), 0, 10).ids())
+                .containsExactly(1);
+        assertThat(index.filter("acme", null, List.of("urgent"), 0, 10).ids()).containsExactly(1, 3);
+        assertThat(index.filter("acme", null, List.of("unknown"), 0, 10).total()).isZero();
+        assertThat(index.filter("initech", null, List.of(), 0, 10).total()).isZero();
+
+        TaskBitmapIndex.Page page = index.filter("acme", null, List.of(), 1, 2);
+        assertThat(page.ids()).containsExactly(2, 3);
+        assertThat(page.total()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should count matches per status and per label, most frequent label first")
+    void facets_CountsPerStatusAndLabel() {
+        TaskBitmapIndex.Facets facets = index.facets("acme", null, List.of("backend"), 10);
+
+        assertThat(facets.total()).isEqualTo(3);
+        assertThat(facets.statuses()).containsOnly(entry(TaskStatus.PENDING, 2L),
+                entry(TaskStatus.IN_PROGRESS, 0L), entry(TaskStatus.COMPLETED, 1L));
+        assertThat(facets.labels()).containsExactly(entry("backend", 3L), entry("urgent", 2L));
+        assertThat(index.facets("acme", TaskStatus.PENDING, List.of(), 1).labels())
+                .containsExactly(entry("backend", 2L));
+    }
+
+    @Test
+    @DisplayName("Should follow status changes, label changes and deletes")
+    void changes_UpdateBitmaps() {
+        index.setStatus("acme", 2, TaskStatus.COMPLETED);
+        index.removeLabel("acme", 1, "urgent");
+        index.addLabel("acme", 4, "urgent");
+        index.remove("acme", 3);
+
+        assertThat(index.filter("acme", TaskStatus.COMPLETED, List.of(), 0, 10).ids()).containsExactly(2);
+        assertThat(index.filter("acme", null, List.of("urgent"), 0, 10).ids()).containsExactly(4);
+        assertThat(index.facets("acme", null, List.of(), 10).total()).isEqualTo(3);
+
+        index.put("acme", 4, TaskStatus.IN_PROGRESS, Set.of("backend"));
+        assertThat(index.facets("acme", null, List.of(), 10).labels()).containsOnlyKeys("backend");
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.simplestatustask.lookup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskBitmap, checked against a TreeSet.
+ * IDs mix dense runs, which make bitmap containers, with sparse ones, which stay arrays.
+ */
+class TaskBitmapTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("Should add, remove and list IDs like a sorted set")
+    void addRemove_MatchesSortedSet() {
+        TaskBitmap bitmap = new TaskBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = randomId();
+            assertThat(bitmap.add(id)).isEqualTo(expected.add(id));
+        }
+        for (int i = 0; i < 30_000; i++) {
+            long id = randomId();
+            assertThat(bitmap.remove(id)).isEqualTo(expected.remove(id));
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        assertThat(bitmap.toArray(0, Integer.MAX_VALUE)).containsExactly(toArray(expected));
+        assertThat(bitmap.contains(expected.first())).isTrue();
+        assertThat(bitmap.contains(1L << 40)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should intersect, count the intersection and unite like sorted sets")
+    void andOr_MatchSortedSets() {
+        TaskBitmap left = new TaskBitmap();
+        TaskBitmap right = new TaskBitmap();
+        TreeSet<Long> leftIds = new TreeSet<>();
+        TreeSet<Long> rightIds = new TreeSet<>();
+        for (int i = 0; i < 40_000; i++) {
+            long id = randomId();
+            left.add(id);
+            leftIds.add(id);
+            id = randomId();
+            right.add(id);
+            rightIds.add(id);
+        }
+        TreeSet<Long> both = new TreeSet<>(leftIds);
+        both.retainAll(rightIds);
+        TreeSet<Long> either = new TreeSet<>(leftIds);
+        either.addAll(rightIds);
+
+        assertThat(left.and(right).toArray(0, Integer.MAX_VALUE)).containsExactly(toArray(both));
+        assertThat(left.andCardinality(right)).isEqualTo(both.size());
+        assertThat(right.andCardinality(left)).isEqualTo(both.size());
+        assertThat(left.or(right).toArray(0, Integer.MAX_VALUE)).containsExactly(toArray(either));
+        assertThat(left.or(right).cardinality()).isEqualTo(either.size());
+    }
+
+    @Test
+    @DisplayName("Should page through IDs after a given one")
+    void toArray_PagesAfterId() {
+        TaskBitmap bitmap = new TaskBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = randomId();
+            bitmap.add(id);
+            expected.add(id);
+        }
+
+        long after = 0;
+        TreeSet<Long> seen = new TreeSet<>();
+        long[] page;
+        do {
+            page = bitmap.toArray(after, 777);
+            for (long id : page) {
+                assertThat(id).isGreaterThan(after);
+                seen.add(id);
+            }
+            if (page.length > 0) {
+                after = page[page.length - 1];
+            }
+        } while (page.length == 777);
+
+        assertThat(seen).isEqualTo(expected);
+        assertThat(bitmap.toArray(expected.last(), 10)).isEmpty();
+    }
+
+    /**
+     * Half the IDs fall in two dense runs of 2^16, the rest anywhere in a wide sparse range
+     */
+    private long randomId() {
+        return switch (random.nextInt(4)) {
+            case 0 -> (5L << 16) + random.nextInt(1 << 16);
+            case 1 -> (1L << 42) + random.nextInt(1 << 16);
+            default -> 1 + (random.nextLong() & ((1L << 36) - 1));
+        };
+    }
+
+    private static long[] toArray(TreeSet<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.simplestatustask.lookup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskIdFilter
+ */
+class TaskIdFilterTest {
+
+    private final TaskIdFilter filter = new TaskIdFilter(1_000_000);
+
+    @Test
+    @DisplayName("Should treat every ID as possibly existing until loaded")
+    void mightExist_TrueBeforeReady() {
+        assertThat(filter.mightExist(42)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject IDs that were never added or were removed")
+    void mightExist_ExactAfterReady() {
+        filter.add(1);
+        filter.add(70_000);
+        filter.add(70_001);
+        filter.markReady();
+        filter.markCompleteUpTo(70_001);
+
+        filter.remove(70_000);
+
+        assertThat(filter.mightExist(1)).isTrue();
+        assertThat(filter.mightExist(70_001)).isTrue();
+        assertThat(filter.mightExist(2)).isFalse();
+        assertThat(filter.mightExist(70_000)).isFalse();
+        assertThat(filter.mightExist(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not reject IDs above the watermark or beyond the configured range")
+    void mightExist_TrueOutsideCompleteRange() {
+        filter.add(10);
+        filter.markReady();
+        filter.markCompleteUpTo(10);
+
+        assertThat(filter.mightExist(11)).isTrue();
+
+        // A local create does not vouch for the IDs below it
+        filter.add(13);
+        assertThat(filter.mightExist(12)).isTrue();
+
+        filter.markCompleteUpTo(5_000_000);
+        assertThat(filter.mightExist(12)).isFalse();
+        filter.add(5_000_000);
+        assertThat(filter.mightExist(4_999_999)).isTrue();
+    }
+}
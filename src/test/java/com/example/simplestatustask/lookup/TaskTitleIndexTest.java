@@ -0,0 +1,119 @@
+package com.example.simplestatustask.lookup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskTitleIndex
+ */
+class TaskTitleIndexTest {
+
+    private static final ZonedDateTime T0 = ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneId.of("Asia/Almaty"));
+
+    @Test
+    @DisplayName("Should match title prefixes ignoring case, most recently updated first, per tenant")
+    void suggest_RanksPrefixMatchesByRecency() {
+        TaskTitleIndex index = new TaskTitleIndex(new SimpleMeterRegistry(), 4096);
+        index.put("acme", 1, "Fix login", T0.plusSeconds(10));
+        index.put("acme", 2, "fix logout", T0.plusSeconds(30));
+        index.put("acme", 3, "Feature flags", T0.plusSeconds(20));
+        index.put("acme", 4, "FIX LOGIN PAGE", T0.plusSeconds(20));
+        index.put("globex", 5, "Fix login", T0.plusSeconds(40));
+        index.markReady();
+
+        assertThat(index.suggest("acme", "fix log", 10)).containsExactly(2, 4, 1);
+        assertThat(index.suggest("acme", "FIX LOGIN", 10)).containsExactly(4, 1);
+        assertThat(index.suggest("acme", "f", 2)).containsExactly(2, 4);
+        assertThat(index.suggest("acme", "fixes", 10)).isEmpty();
+        assertThat(index.suggest("initech", "fix", 10)).isEmpty();
+
+        index.touch("acme", 1, T0.plusSeconds(50));
+        index.put("acme", 2, "Refactor logout", T0.plusSeconds(60));
+        index.remove("acme", 4);
+        assertThat(index.suggest("acme", "fix", 10)).containsExactly(1);
+        assertThat(index.suggest("acme", "re", 10)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should agree with a plain scan through random changes and overlay merges")
+    void suggest_MatchesScanThroughMerges() {
+        Random random = new Random(42);
+        TaskTitleIndex index = new TaskTitleIndex(new SimpleMeterRegistry(), 16);
+        Map<Long, String> titles = new HashMap<>();
+        Map<Long, ZonedDateTime> updated = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            put(index, titles, updated, id, randomTitle(random), T0.plusSeconds(random.nextInt(1000)));
+        }
+        index.markReady();
+
+        for (int round = 0; round < 2000; round++) {
+            long id = 1 + random.nextInt(600);
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                put(index, titles, updated, id, randomTitle(random), T0.plusSeconds(random.nextInt(1000)));
+            } else if (operation < 7 && titles.containsKey(id)) {
+                ZonedDateTime at = T0.plusSeconds(random.nextInt(1000));
+                index.touch("acme", id, at);
+                updated.put(id, at);
+            } else {
+                index.remove("acme", id);
+                titles.remove(id);
+                updated.remove(id);
+            }
+
+            String title = randomTitle(random);
+            String prefix = title.substring(0, Math.min(title.length(), 1 + random.nextInt(2)));
+            List<Long> expected = titles.keySet().stream()
+                    .filter(candidate -> titles.get(candidate).toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT)))
+                    .sorted(Comparator.<Long, ZonedDateTime>comparing(updated::get).thenComparing(candidate -> candidate)
+                            .reversed())
+                    .limit(5)
+                    .toList();
+            assertThat(index.suggest("acme", prefix, 5)).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+        }
+        assertThat(index.size()).isEqualTo(titles.size());
+    }
+
+    @Test
+    @DisplayName("Should hold a merged title in about 20 bytes plus the title itself")
+    void bytes_StaySmallPerEntry() {
+        TaskTitleIndex index = new TaskTitleIndex(new SimpleMeterRegistry(), 4096);
+        for (long id = 1; id <= 10_000; id++) {
+            // 30 characters, the typical length of a title
+            index.put("acme", id, "Task title number " + String.format("%012d", id), Instant.EPOCH.atZone(T0.getZone()));
+        }
+        index.markReady();
+
+        assertThat(index.bytes() / index.size()).isLessThanOrEqualTo(30 + 21);
+    }
+
+    private static void put(TaskTitleIndex index, Map<Long, String> titles, Map<Long, ZonedDateTime> updated,
+                            long id, String title, ZonedDateTime at) {
+        index.put("acme", id, title, at);
+        titles.put(id, title);
+        updated.put(id, at);
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            char letter = "abcABé".charAt(random.nextInt(6));
+            title.append(letter);
+        }
+        return title.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.simplestatustask.outbox;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.TaskOutboxEvent;
+import com.example.simplestatustask.repository.TaskOutboxRepository;
+import com.example.simplestatustask.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox tests against a local HTTP stub
+ *
+ * - Task writes go through the real service, so outbox rows come from the same transaction
+ * - The relay is driven explicitly instead of by the scheduler
+ * - The stub records request bodies and can be switched to fail
+ */
+@SpringBootTest(properties = {
+        "task.outbox.sink=http",
+        "task.outbox.prune.delivered-retention-ms=0"
+})
+@ActiveProfiles("test")
+class TaskOutboxRelayTest {
+
+    private static final List<String> RECEIVED = new CopyOnWriteArrayList<>();
+    private static volatile int stubStatus = 200;
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskOutboxRelay taskOutboxRelay;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) {
+        registry.add("task.outbox.http.url", () -> "http://localhost:" + STUB.getAddress().getPort() + "/events");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Start every test from an empty, delivered outbox
+        stubStatus = 200;
+        taskOutboxRelay.relayPending();
+        RECEIVED.clear();
+    }
+
+    @Test
+    @DisplayName("Relay delivers create, update and delete events in order over HTTP")
+    void relayDeliversEventsInOrder() throws Exception {
+        TaskResponseDto task = taskService.createTask(new TaskCreateDto("Outbox Task", "Desc", TaskStatus.PENDING));
+        taskService.updateTask(task.getId(), new TaskUpdateDto(null, null, TaskStatus.IN_PROGRESS));
+        taskService.deleteTask(task.getId());
+
+        int delivered = taskOutboxRelay.relayPending();
+
+        assertThat(delivered).isEqualTo(3);
+        assertThat(RECEIVED).hasSize(1);
+        JsonNode batch = objectMapper.readTree(RECEIVED.get(0));
+        assertThat(batch).hasSize(3);
+        assertThat(batch.findValuesAsText("type")).containsExactly(
+                TaskEventType.CREATED.name(), TaskEventType.UPDATED.name(), TaskEventType.DELETED.name());
+        assertThat(batch.get(1).get("task").get("status").asText()).isEqualTo("IN_PROGRESS");
+        assertThat(taskOutboxRepository.findAll()).allMatch(event -> event.getDeliveredAt() != null);
+        assertThat(meterRegistry.get("task.outbox.relay.delivered").counter().count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Failed deliveries stay pending and are retried")
+    void failedDeliveryIsRetried() {
+        TaskResponseDto task = taskService.createTask(new TaskCreateDto("Retry Task", "Desc", TaskStatus.PENDING));
+
+        stubStatus = 503;
+        assertThat(taskOutboxRelay.relayPending()).isZero();
+        assertThat(pendingFor(task.getId())).hasSize(1);
+
+        stubStatus = 200;
+        assertThat(taskOutboxRelay.relayPending()).isEqualTo(1);
+        assertThat(pendingFor(task.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Delivered events are pruned")
+    void deliveredEventsArePruned() {
+        taskService.createTask(new TaskCreateDto("Prune Task", "Desc", TaskStatus.PENDING));
+        taskOutboxRelay.relayPending();
+
+        assertThat(taskOutboxRelay.pruneDelivered()).isPositive();
+        assertThat(taskOutboxRepository.findAll()).allMatch(event -> event.getDeliveredAt() == null);
+    }
+
+    private List<TaskOutboxEvent> pendingFor(Long taskId) {
+        return taskOutboxRepository.findAll().stream()
+                .filter(event -> event.getTaskId().equals(taskId) && event.getDeliveredAt() == null)
+                .toList();
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/events", exchange -> {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                int status = stubStatus;
+                if (status == 200) {
+                    RECEIVED.add(body);
+                }
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start HTTP stub", ex);
+        }
+    }
+}
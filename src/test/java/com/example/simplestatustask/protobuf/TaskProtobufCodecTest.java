@@ -0,0 +1,76 @@
+package com.example.simplestatustask.protobuf;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.util.TestDataBuilder;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskProtobufCodec
+ *
+ * - Round-trips every message type through bytes
+ * - Checks the wire details other protobuf implementations rely on
+ */
+class TaskProtobufCodecTest {
+
+    @Test
+    @DisplayName("Should round-trip TaskCreate")
+    void create_RoundTrip() throws Exception {
+        TaskCreateDto dto = TestDataBuilder.createTaskCreateDto("Proto", "Описание", TaskStatus.IN_PROGRESS);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskProtobufCodec.writeCreate(dto, out);
+
+        assertThat(TaskProtobufCodec.readCreate(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(dto);
+    }
+
+    @Test
+    @DisplayName("Should round-trip TaskResponse including timestamps")
+    void response_RoundTrip() throws Exception {
+        TaskResponseDto dto = TestDataBuilder.createSampleTaskResponseDto();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskProtobufCodec.writeResponse(dto, out);
+
+        assertThat(TaskProtobufCodec.readResponse(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(dto);
+    }
+
+    @Test
+    @DisplayName("Should round-trip TaskList and keep the order")
+    void list_RoundTrip() throws Exception {
+        List<TaskResponseDto> tasks = List.of(
+                TestDataBuilder.createTaskResponseDto(1L, "First", null, TaskStatus.PENDING),
+                TestDataBuilder.createTaskResponseDto(2L, "Second", "Desc", TaskStatus.COMPLETED));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskProtobufCodec.writeList(tasks, out);
+
+        assertThat(TaskProtobufCodec.readList(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(tasks);
+    }
+
+    @Test
+    @DisplayName("Should keep the PENDING default and skip unknown fields")
+    void create_UnspecifiedStatusAndUnknownField() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.writeString(1, "Minimal");
+        out.writeEnum(3, 0);
+        out.writeString(99, "from a newer client");
+        out.flush();
+
+        TaskCreateDto dto = TaskProtobufCodec.readCreate(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertThat(dto.getTitle()).isEqualTo("Minimal");
+        assertThat(dto.getDescription()).isNull();
+        assertThat(dto.getStatus()).isEqualTo(TaskStatus.PENDING);
+    }
+}
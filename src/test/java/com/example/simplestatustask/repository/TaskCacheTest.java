@@ -0,0 +1,142 @@
+package com.example.simplestatustask.repository;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.tenant.TenantContext;
+import com.example.simplestatustask.util.TestDataBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level and query cache behaviour for tasks
+ *
+ * - Uses @SpringBootTest so the JCache regions from HibernateCacheConfig are in place
+ * - Each repository call runs in its own transaction, like separate requests
+ * - Hit and miss counts come from Hibernate statistics
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskCacheTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve a task loaded before from the second-level cache")
+    void findById_HitsEntityCache() {
+        Task saved = taskRepository.save(TestDataBuilder.createTask(null, "Cached", "", TaskStatus.PENDING));
+        statistics.clear();
+
+        taskRepository.findById(saved.getId());
+        taskRepository.findById(saved.getId());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not serve a stale task after a bulk status update")
+    void compareAndSetStatus_InvalidatesEntityCache() {
+        Task saved = taskRepository.save(TestDataBuilder.createTask(null, "Bulk", "", TaskStatus.PENDING));
+        taskRepository.findById(saved.getId());
+
+        transactionTemplate.executeWithoutResult(tx -> taskRepository.compareAndSetStatus(saved.getId(),
+                TaskStatus.PENDING, TaskStatus.IN_PROGRESS, ZonedDateTime.now(ZoneId.of("Asia/Almaty"))));
+
+        assertThat(taskRepository.findById(saved.getId()))
+                .get().extracting(Task::getStatus).isEqualTo(TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Should cache status counts until a task changes")
+    void countByStatus_HitsQueryCacheUntilInvalidated() {
+        long before = taskRepository.countByStatus(TaskStatus.PENDING);
+        assertThat(taskRepository.countByStatus(TaskStatus.PENDING)).isEqualTo(before);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        taskRepository.save(TestDataBuilder.createTask(null, "New", "", TaskStatus.PENDING));
+
+        assertThat(taskRepository.countByStatus(TaskStatus.PENDING)).isEqualTo(before + 1);
+    }
+
+    @Test
+    @DisplayName("Should drop cached status lists when a task moves to another status")
+    void findTasksByStatusOrderByUpdatedAt_InvalidatedByStatusChange() {
+        Task saved = taskRepository.save(TestDataBuilder.createTask(null, "Board", "", TaskStatus.PENDING));
+        assertThat(taskRepository.findTasksByStatusOrderByUpdatedAt(TaskStatus.PENDING))
+                .extracting(Task::getId).contains(saved.getId());
+        taskRepository.findTasksByStatusOrderByUpdatedAt(TaskStatus.PENDING);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        Task loaded = taskRepository.findById(saved.getId()).orElseThrow();
+        loaded.setStatus(TaskStatus.COMPLETED);
+        taskRepository.save(loaded);
+
+        assertThat(taskRepository.findTasksByStatusOrderByUpdatedAt(TaskStatus.PENDING))
+                .extracting(Task::getId).doesNotContain(saved.getId());
+        assertThat(taskRepository.findByStatus(TaskStatus.COMPLETED))
+                .extracting(Task::getId).contains(saved.getId());
+    }
+
+    @Test
+    @DisplayName("Should multi-load cached tasks from the cache and select only the misses")
+    void multiLoad_SelectsOnlyCacheMisses() {
+        Task first = taskRepository.save(TestDataBuilder.createTask(null, "Multi 1", "Desc 1", TaskStatus.PENDING));
+        Task second = taskRepository.save(TestDataBuilder.createTask(null, "Multi 2", "Desc 2", TaskStatus.PENDING));
+        Task third = taskRepository.save(TestDataBuilder.createTask(null, "Multi 3", "Desc 3", TaskStatus.PENDING));
+        evictFromCache(second.getId());
+        statistics.clear();
+
+        List<Task> loaded = transactionTemplate.execute(tx -> {
+            List<Task> tasks = taskRepository.multiLoad(List.of(third.getId(), Long.MAX_VALUE, second.getId(), first.getId()), true);
+            tasks.forEach(Task::getDescription);
+            return tasks;
+        });
+
+        assertThat(loaded).extracting(Task::getId).containsExactly(third.getId(), second.getId(), first.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * JPA Cache#evict builds a key without a tenant, which never matches a cached task;
+     * evict the default tenant's entry directly
+     */
+    private void evictFromCache(Long id) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Task.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        access.evict(access.generateCacheKey(id, persister, sessionFactory, TenantContext.DEFAULT_TENANT));
+    }
+}
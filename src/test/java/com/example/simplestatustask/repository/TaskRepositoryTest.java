@@ -2,14 +2,23 @@ package com.example.simplestatustask.repository;
 
 import com.example.simplestatustask.enums.TaskStatus;
 import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.tenant.TenantIdentifierResolver;
 import com.example.simplestatustask.util.TestDataBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,14 +30,19 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Uses @DataJpaTest for JPA/H2 integration
  * - Each test runs in a transaction and rolls back
  * - Tests CRUD and custom queries
+ * - Imports the tenant resolver, which the JPA slice does not scan; tests run as the default tenant
  */
 @DataJpaTest
+@Import(TenantIdentifierResolver.class)
 @ActiveProfiles("test")
 class TaskRepositoryTest {
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     @DisplayName("Should save and retrieve a task by ID")
     void saveAndFindById() {
@@ -62,7 +76,8 @@ class TaskRepositoryTest {
     @Test
     @DisplayName("Should find tasks created between two dates")
     void findByCreatedAtBetween() {
-        LocalDateTime now = LocalDateTime.now();
+        // Task#onCreate stamps createdAt with the Almaty wall clock, so the window must use it too
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Almaty"));
         Task t1 = TestDataBuilder.createTask(null, "T1", "", TaskStatus.PENDING);
         t1.setCreatedAt(now.minusDays(2));
         Task t2 = TestDataBuilder.createTask(null, "T2", "", TaskStatus.PENDING);
@@ -70,7 +85,8 @@ class TaskRepositoryTest {
         Task t3 = TestDataBuilder.createTask(null, "T3", "", TaskStatus.PENDING);
         t3.setCreatedAt(now);
         taskRepository.saveAll(List.of(t1, t2, t3));
-        List<Task> found = taskRepository.findByCreatedAtBetween(now.minusDays(2), now);
+        List<Task> found = taskRepository.findByCreatedAtBetween(
+                now.minusDays(2), LocalDateTime.now(ZoneId.of("Asia/Almaty")));
         assertThat(found).hasSizeGreaterThanOrEqualTo(2);
     }
 
@@ -110,9 +126,9 @@ class TaskRepositoryTest {
     @DisplayName("Should find tasks by status ordered by updated date (custom query)")
     void findTasksByStatusOrderByUpdatedAt() {
         Task t1 = TestDataBuilder.createTask(null, "T1", "", TaskStatus.PENDING);
-        t1.setUpdatedAt(LocalDateTime.now().minusHours(2));
+        t1.setUpdatedAt(ZonedDateTime.now().minusHours(2));
         Task t2 = TestDataBuilder.createTask(null, "T2", "", TaskStatus.PENDING);
-        t2.setUpdatedAt(LocalDateTime.now());
+        t2.setUpdatedAt(ZonedDateTime.now());
         taskRepository.saveAll(List.of(t1, t2));
         List<Task> found = taskRepository.findTasksByStatusOrderByUpdatedAt(TaskStatus.PENDING);
         assertThat(found.get(0).getTitle()).isEqualTo("T2");
@@ -126,4 +142,109 @@ class TaskRepositoryTest {
         taskRepository.deleteById(id);
         assertThat(taskRepository.findById(id)).isNotPresent();
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should page changed tasks by (updatedAt, id) keyset")
+    void findChangedAfter() {
+        ZonedDateTime before = ZonedDateTime.now(ZoneId.of("Asia/Almaty")).minusMinutes(5);
+        List<Task> saved = taskRepository.saveAllAndFlush(List.of(
+                TestDataBuilder.createTask(null, "K1", "", TaskStatus.PENDING),
+                TestDataBuilder.createTask(null, "K2", "", TaskStatus.PENDING),
+                TestDataBuilder.createTask(null, "K3", "", TaskStatus.PENDING)));
+        List<Long> expectedOrder = saved.stream()
+                .sorted(Comparator.comparing((Task t) -> t.getUpdatedAt().toInstant()).thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+        ZonedDateTime upTo = ZonedDateTime.now(ZoneId.of("Asia/Almaty")).plusMinutes(1);
+
+        List<Task> page = taskRepository.findChangedAfter(before, 0L, upTo, PageRequest.of(0, 2));
+        assertThat(page).extracting(Task::getId).containsExactlyElementsOf(expectedOrder.subList(0, 2));
+
+        Task last = page.get(1);
+        List<Task> rest = taskRepository.findChangedAfter(last.getUpdatedAt(), last.getId(), upTo, PageRequest.of(0, 2));
+        assertThat(rest).extracting(Task::getId).containsExactly(expectedOrder.get(2));
+    }
+
+    @Test
+    @DisplayName("Should change status only when the expected status matches")
+    void compareAndSetStatus() {
+        Task task = taskRepository.saveAndFlush(TestDataBuilder.createTask(null, "CAS", "", TaskStatus.PENDING));
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Asia/Almaty"));
+
+        int stale = taskRepository.compareAndSetStatus(task.getId(), TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, now);
+        int applied = taskRepository.compareAndSetStatus(task.getId(), TaskStatus.PENDING, TaskStatus.IN_PROGRESS, now);
+
+        assertThat(stale).isZero();
+        assertThat(applied).isEqualTo(1);
+        assertThat(taskRepository.countByStatus(TaskStatus.IN_PROGRESS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should read task summaries by status without the description, newest first")
+    void findSummariesByStatusOrderByUpdatedAtDesc() {
+        Task older = taskRepository.saveAndFlush(TestDataBuilder.createTask(null, "Older", "Long text", TaskStatus.COMPLETED));
+        Task newer = taskRepository.saveAndFlush(TestDataBuilder.createTask(null, "Newer", "Long text", TaskStatus.COMPLETED));
+
+        List<TaskSummaryView> summaries = taskRepository.findSummariesByStatusOrderByUpdatedAtDesc(TaskStatus.COMPLETED);
+
+        assertThat(summaries).extracting(TaskSummaryView::getId).containsExactly(newer.getId(), older.getId());
+        assertThat(summaries.get(0).getTitle()).isEqualTo("Newer");
+        assertThat(summaries.get(0).getStatus()).isEqualTo(TaskStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Should load the description lazily unless the query asks for it")
+    void description_IsLazyOutsideTheFetchGraph() {
+        Task saved = taskRepository.saveAndFlush(TestDataBuilder.createTask(null, "Lazy", "Long text", TaskStatus.PENDING));
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        PersistenceUnitUtil units = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        Task plain = taskRepository.findByTitleContainingIgnoreCase("Lazy").get(0);
+        assertThat(units.isLoaded(plain, "description")).isFalse();
+        assertThat(plain.getDescription()).isEqualTo("Long text");
+
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        Task byId = taskRepository.findById(saved.getId()).orElseThrow();
+        assertThat(units.isLoaded(byId, "description")).isFalse();
+
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        Task withGraph = taskRepository.findWithDescriptionById(saved.getId()).orElseThrow();
+        assertThat(units.isLoaded(withGraph, "description")).isTrue();
+
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        assertThat(taskRepository.multiLoad(List.of(saved.getId()), false))
+                .allSatisfy(task -> assertThat(units.isLoaded(task, "description")).isFalse());
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        assertThat(taskRepository.multiLoad(List.of(saved.getId()), true))
+                .allSatisfy(task -> assertThat(units.isLoaded(task, "description")).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should order next work by priority, then due date with undated tasks last, then ID")
+    void findNextIds_OrdersByUrgency() {
+        ZonedDateTime soon = ZonedDateTime.now(ZoneId.of("Asia/Almaty")).plusHours(1);
+        Task lowDue = saveWithUrgency("Low due", 10, soon);
+        Task highUndated = saveWithUrgency("High undated", 90, null);
+        Task highLater = saveWithUrgency("High later", 90, soon.plusDays(1));
+        Task highSoon = saveWithUrgency("High soon", 90, soon);
+        Task lowUndated = saveWithUrgency("Low undated", 10, null);
+        taskRepository.saveAndFlush(TestDataBuilder.createTask(null, "Done", "", TaskStatus.COMPLETED));
+
+        assertThat(taskRepository.findNextIds(TaskStatus.PENDING, Limit.of(10))).containsExactly(
+                highSoon.getId(), highLater.getId(), highUndated.getId(), lowDue.getId(), lowUndated.getId());
+        assertThat(taskRepository.findNextIds(TaskStatus.PENDING, Limit.of(2)))
+                .containsExactly(highSoon.getId(), highLater.getId());
+    }
+
+    private Task saveWithUrgency(String title, int priority, ZonedDateTime dueAt) {
+        Task task = TestDataBuilder.createTask(null, title, "", TaskStatus.PENDING);
+        task.setPriority(priority);
+        task.setDueAt(dueAt);
+        return taskRepository.saveAndFlush(task);
+    }
+}
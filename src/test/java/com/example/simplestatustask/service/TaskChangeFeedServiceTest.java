@@ -0,0 +1,96 @@
+package com.example.simplestatustask.service;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.models.Task;
+import com.example.simplestatustask.models.TaskTombstone;
+import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskTombstoneRepository;
+import com.example.simplestatustask.service.implementation.TaskChangeFeedServiceImplementation;
+import com.example.simplestatustask.util.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangeFeedServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @InjectMocks
+    private TaskChangeFeedServiceImplementation taskChangeFeedService;
+
+    @Test
+    @DisplayName("Should merge changed and deleted tasks in watermark order")
+    void readChanges_MergesUpsertsAndTombstones() {
+        // Arrange
+        ZonedDateTime base = ZonedDateTime.now().minusMinutes(10);
+        Task first = TestDataBuilder.createTask(1L, "First", "", TaskStatus.PENDING);
+        first.setUpdatedAt(base);
+        Task third = TestDataBuilder.createTask(3L, "Third", "", TaskStatus.PENDING);
+        third.setUpdatedAt(base.plusSeconds(2));
+        TaskTombstone second = TaskTombstone.builder().taskId(2L).deletedAt(base.plusSeconds(1)).build();
+
+        when(taskRepository.findChangedAfter(any(), eq(0L), any(), any())).thenReturn(List.of(first, third));
+        when(taskTombstoneRepository.findDeletedAfter(any(), eq(0L), any(), any())).thenReturn(List.of(second));
+        when(taskMapper.toResponseDto(any(Task.class))).thenReturn(TestDataBuilder.createSampleTaskResponseDto());
+        when(taskMapper.toTombstoneDto(second)).thenReturn(new TaskTombstoneDto(2L, null));
+
+        // Act - limit 2 cuts the merged stream after the tombstone
+        ChangeWatermark start = ChangeWatermark.decode(null);
+        TaskChangesResponseDto result = taskChangeFeedService.toPage(taskChangeFeedService.readChanges(start, 2), start);
+
+        // Assert
+        assertEquals(1, result.getChanged().size());
+        assertEquals(1, result.getDeleted().size());
+        assertTrue(result.isHasMore());
+        ChangeWatermark next = ChangeWatermark.decode(result.getNextToken());
+        assertEquals(2L, next.id());
+        assertEquals(base.plusSeconds(1).toInstant(), next.timestamp());
+        verify(taskMapper).toResponseDto(first);
+        verify(taskMapper, never()).toResponseDto(third);
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark when no changes follow it")
+    void toPage_EmptyKeepsWatermark() {
+        ChangeWatermark watermark = new ChangeWatermark(ZonedDateTime.now().minusMinutes(1).toInstant(), 5L);
+
+        TaskChangesResponseDto result = taskChangeFeedService.toPage(new TaskChanges(List.<TaskChanges.Entry>of(), false), watermark);
+
+        assertEquals(List.<TaskResponseDto>of(), result.getChanged());
+        assertEquals(watermark.encode(), result.getNextToken());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes outside 1 to 1000")
+    void readChanges_InvalidLimit() {
+        ChangeWatermark start = ChangeWatermark.decode(null);
+
+        assertThrows(IllegalArgumentException.class, () -> taskChangeFeedService.readChanges(start, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskChangeFeedService.readChanges(start, 1001));
+        verifyNoInteractions(taskRepository, taskTombstoneRepository);
+    }
+}
@@ -1,12 +1,26 @@
 package com.example.simplestatustask.service;
 
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
 import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
 import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskScheduleResponseDto;
 import com.example.simplestatustask.dto.TaskUpdateDto;
 import com.example.simplestatustask.exception.TaskNotFoundException;
+import com.example.simplestatustask.lookup.TaskIdFilter;
 import com.example.simplestatustask.mapper.TaskMapper;
+import com.example.simplestatustask.dto.TaskTransitionDto;
+import com.example.simplestatustask.dto.TaskTransitionResponseDto;
+import com.example.simplestatustask.exception.InvalidStatusTransitionException;
+import com.example.simplestatustask.exception.TaskStatusConflictException;
+import com.example.simplestatustask.enums.TaskEventType;
+import com.example.simplestatustask.events.TaskChangedEvent;
+import com.example.simplestatustask.events.TaskTransitionScheduledEvent;
 import com.example.simplestatustask.models.Task;
 import com.example.simplestatustask.repository.TaskRepository;
+import com.example.simplestatustask.repository.TaskSummaryView;
+import com.example.simplestatustask.repository.TaskTombstoneRepository;
 import com.example.simplestatustask.service.implementation.TaskServiceImplementation;
 import com.example.simplestatustask.util.TestDataBuilder;
 import com.example.simplestatustask.enums.TaskStatus;
@@ -16,12 +30,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,9 +70,21 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskIdFilter taskIdFilter;
+
+    @Mock
+    private TaskChangeFeedService taskChangeFeedService;
+
     @InjectMocks
     private TaskServiceImplementation taskService;
 
@@ -61,6 +100,9 @@ class TaskServiceTest {
         sampleResponseDto = TestDataBuilder.createSampleTaskResponseDto();
         sampleCreateDto = TestDataBuilder.createSampleTaskCreateDto();
         sampleUpdateDto = TestDataBuilder.createSampleTaskUpdateDto();
+        ReflectionTestUtils.setField(taskService, "maxLookupIds", 3);
+        ReflectionTestUtils.setField(taskService, "maxNextLimit", 5);
+        lenient().when(taskIdFilter.mightExist(anyLong())).thenReturn(true);
     }
 
     @Test
@@ -83,6 +125,139 @@ class TaskServiceTest {
         verify(taskMapper).toEntity(sampleCreateDto);
         verify(taskRepository).save(sampleTask);
         verify(taskMapper).toResponseDto(sampleTask);
+        verify(eventPublisher).publishEvent(argThat((TaskChangedEvent event) ->
+                event.type() == TaskEventType.CREATED && event.task() == sampleResponseDto));
+        assertRepositoryCalls("save");
+    }
+
+    @Test
+    @DisplayName("Should retrieve tasks by status, most recently updated first")
+    void getTasksByStatus_Success() {
+        // Arrange
+        when(taskRepository.findTasksByStatusOrderByUpdatedAt(TaskStatus.PENDING)).thenReturn(List.of(sampleTask));
+        when(taskMapper.toResponseDto(sampleTask)).thenReturn(sampleResponseDto);
+
+        // Act
+        List<TaskResponseDto> result = taskService.getTasksByStatus(TaskStatus.PENDING);
+
+        // Assert
+        assertEquals(List.of(sampleResponseDto), result);
+        assertRepositoryCalls("findTasksByStatusOrderByUpdatedAt");
+    }
+
+    @Test
+    @DisplayName("Should look up tasks in one multi-load and report missing IDs")
+    void getTasksByIds_ReturnsFoundAndMissing() {
+        // Arrange
+        Task other = TestDataBuilder.createTask(2L, "Other", "", TaskStatus.PENDING);
+        TaskResponseDto otherDto = TestDataBuilder.createTaskResponseDto(2L, "Other", "", TaskStatus.PENDING);
+        when(taskRepository.multiLoad(argThat(ids -> List.copyOf(ids).equals(List.of(2L, 1L, 9L))), eq(true)))
+                .thenReturn(List.of(other, sampleTask));
+        when(taskMapper.toResponseDto(other)).thenReturn(otherDto);
+        when(taskMapper.toResponseDto(sampleTask)).thenReturn(sampleResponseDto);
+
+        // Act
+        TaskLookupResponseDto result = taskService.getTasksByIds(List.of(2L, 1L, 2L, 9L));
+
+        // Assert
+        assertEquals(List.of(otherDto, sampleResponseDto), result.getTasks());
+        assertEquals(List.of(9L), result.getMissingIds());
+        verify(taskRepository, never()).findById(any());
+        assertRepositoryCalls("multiLoad");
+    }
+
+    @Test
+    @DisplayName("Should not load IDs the filter knows to be missing")
+    void getTasksByIds_SkipsFilteredIds() {
+        // Arrange
+        when(taskIdFilter.mightExist(9L)).thenReturn(false);
+        when(taskRepository.multiLoad(List.of(1L), true)).thenReturn(List.of(sampleTask));
+        when(taskMapper.toResponseDto(sampleTask)).thenReturn(sampleResponseDto);
+
+        // Act
+        TaskLookupResponseDto result = taskService.getTasksByIds(List.of(1L, 9L));
+
+        // Assert
+        assertEquals(List.of(sampleResponseDto), result.getTasks());
+        assertEquals(List.of(9L), result.getMissingIds());
+    }
+
+    @Test
+    @DisplayName("Should throw for an ID the filter knows to be missing without querying")
+    void getTaskById_RejectedByIdFilter() {
+        // Arrange
+        when(taskIdFilter.mightExist(999L)).thenReturn(false);
+
+        // Act & Assert
+        TaskNotFoundException exception = assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(999L));
+        assertEquals("Task not found with ID: 999", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a lookup with more IDs than allowed")
+    void getTasksByIds_TooManyIds() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByIds(List.of(1L, 2L, 3L, 4L)));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should scan the next task IDs and load them in urgency order")
+    void getNextTasks_LoadsIdsInOrder() {
+        // Arrange
+        Task other = TestDataBuilder.createTask(2L, "Other", "", TaskStatus.PENDING);
+        TaskResponseDto otherDto = TestDataBuilder.createTaskResponseDto(2L, "Other", "", TaskStatus.PENDING);
+        when(taskRepository.findNextIds(TaskStatus.PENDING, Limit.of(2))).thenReturn(List.of(2L, 1L));
+        when(taskRepository.multiLoad(List.of(2L, 1L), true)).thenReturn(List.of(other, sampleTask));
+        when(taskMapper.toResponseDto(other)).thenReturn(otherDto);
+        when(taskMapper.toResponseDto(sampleTask)).thenReturn(sampleResponseDto);
+
+        // Act
+        List<TaskResponseDto> result = taskService.getNextTasks(TaskStatus.PENDING, 2);
+
+        // Assert
+        assertEquals(List.of(otherDto, sampleResponseDto), result);
+        assertRepositoryCalls("findNextIds", "multiLoad");
+    }
+
+    @Test
+    @DisplayName("Should reject a next-task limit outside the allowed range")
+    void getNextTasks_LimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getNextTasks(TaskStatus.PENDING, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getNextTasks(TaskStatus.PENDING, 6));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should retrieve task summaries by status through the projection")
+    void getTaskSummariesByStatus_Success() {
+        // Arrange
+        TaskSummaryView summary = mock(TaskSummaryView.class);
+        when(taskRepository.findSummariesByStatusOrderByUpdatedAtDesc(TaskStatus.PENDING)).thenReturn(List.of(summary));
+        when(taskMapper.summaryToResponseDto(summary)).thenReturn(sampleResponseDto);
+
+        // Act
+        List<TaskResponseDto> result = taskService.getTaskSummariesByStatus(TaskStatus.PENDING);
+
+        // Assert
+        assertEquals(List.of(sampleResponseDto), result);
+        verify(taskRepository, never()).findTasksByStatusOrderByUpdatedAt(any());
+        assertRepositoryCalls("findSummariesByStatusOrderByUpdatedAtDesc");
+    }
+
+    @Test
+    @DisplayName("Should count tasks for every status")
+    void getStatusCounts_IncludesEveryStatus() {
+        // Arrange
+        when(taskRepository.countByStatus(TaskStatus.PENDING)).thenReturn(3L);
+
+        // Act
+        Map<TaskStatus, Long> counts = taskService.getStatusCounts();
+
+        // Assert
+        assertEquals(Map.of(TaskStatus.PENDING, 3L, TaskStatus.IN_PROGRESS, 0L, TaskStatus.COMPLETED, 0L), counts);
+        assertRepositoryCalls("countByStatus", "countByStatus", "countByStatus");
     }
 
     @Test
@@ -90,7 +265,7 @@ class TaskServiceTest {
     void getTaskById_Success() {
         // Arrange
         Long taskId = 1L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.of(sampleTask));
         when(taskMapper.toResponseDto(sampleTask)).thenReturn(sampleResponseDto);
 
         // Act
@@ -101,8 +276,26 @@ class TaskServiceTest {
         assertEquals(sampleResponseDto.getId(), result.getId());
         assertEquals(sampleResponseDto.getTitle(), result.getTitle());
 
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findWithDescriptionById(taskId);
         verify(taskMapper).toResponseDto(sampleTask);
+        assertRepositoryCalls("findWithDescriptionById");
+    }
+
+    @Test
+    @DisplayName("Should retrieve a task summary through a plain load, without the description")
+    void getTaskSummaryById_Success() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        when(taskMapper.toSummaryResponseDto(sampleTask)).thenReturn(sampleResponseDto);
+
+        // Act
+        TaskResponseDto result = taskService.getTaskSummaryById(taskId);
+
+        // Assert
+        assertEquals(sampleResponseDto, result);
+        verify(taskMapper, never()).toResponseDto(any());
+        assertRepositoryCalls("findById");
     }
 
     @Test
@@ -110,7 +303,7 @@ class TaskServiceTest {
     void getTaskById_TaskNotFound() {
         // Arrange
         Long taskId = 999L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
         TaskNotFoundException exception = assertThrows(
@@ -119,7 +312,7 @@ class TaskServiceTest {
         );
 
         assertEquals("Task not found with ID: " + taskId, exception.getMessage());
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findWithDescriptionById(taskId);
         verify(taskMapper, never()).toResponseDto(any());
     }
 
@@ -132,7 +325,7 @@ class TaskServiceTest {
         Task updatedTask = TestDataBuilder.createTask(taskId, "New Title", "New Description", TaskStatus.IN_PROGRESS);
         TaskResponseDto updatedResponseDto = TestDataBuilder.createTaskResponseDto(taskId, "New Title", "New Description", TaskStatus.IN_PROGRESS);
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.of(existingTask));
         when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
         when(taskMapper.toResponseDto(updatedTask)).thenReturn(updatedResponseDto);
 
@@ -144,10 +337,13 @@ class TaskServiceTest {
         assertEquals(updatedResponseDto.getTitle(), result.getTitle());
         assertEquals(updatedResponseDto.getStatus(), result.getStatus());
 
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findWithDescriptionById(taskId);
         verify(taskMapper).updateEntityFromDto(sampleUpdateDto, existingTask);
         verify(taskRepository).save(existingTask);
         verify(taskMapper).toResponseDto(updatedTask);
+        verify(eventPublisher).publishEvent(argThat((TaskChangedEvent event) ->
+                event.type() == TaskEventType.UPDATED && event.previousStatus() == TaskStatus.PENDING));
+        assertRepositoryCalls("findWithDescriptionById", "save");
     }
 
     @Test
@@ -155,7 +351,7 @@ class TaskServiceTest {
     void updateTask_TaskNotFound() {
         // Arrange
         Long taskId = 999L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
         TaskNotFoundException exception = assertThrows(
@@ -164,7 +360,7 @@ class TaskServiceTest {
         );
 
         assertEquals("Task not found with ID: " + taskId, exception.getMessage());
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findWithDescriptionById(taskId);
         verify(taskRepository, never()).save(any());
         verify(taskMapper, never()).toResponseDto(any());
     }
@@ -174,15 +370,20 @@ class TaskServiceTest {
     void deleteTask_Success() {
         // Arrange
         Long taskId = 1L;
-        when(taskRepository.existsById(taskId)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(taskId);
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.of(sampleTask));
+        when(taskMapper.toResponseDto(sampleTask)).thenReturn(sampleResponseDto);
 
         // Act
         assertDoesNotThrow(() -> taskService.deleteTask(taskId));
 
         // Assert
-        verify(taskRepository).existsById(taskId);
-        verify(taskRepository).deleteById(taskId);
+        verify(taskRepository).findWithDescriptionById(taskId);
+        verify(taskRepository).delete(sampleTask);
+        verify(taskTombstoneRepository).save(argThat(tombstone -> taskId.equals(tombstone.getTaskId())));
+        verify(eventPublisher).publishEvent(argThat((TaskChangedEvent event) ->
+                event.type() == TaskEventType.DELETED && event.status() == sampleTask.getStatus()));
+        // Neither existsById nor deleteById: each would be another round trip
+        assertRepositoryCalls("findWithDescriptionById", "delete", "save");
     }
 
     @Test
@@ -190,7 +391,7 @@ class TaskServiceTest {
     void deleteTask_TaskNotFound() {
         // Arrange
         Long taskId = 999L;
-        when(taskRepository.existsById(taskId)).thenReturn(false);
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
         TaskNotFoundException exception = assertThrows(
@@ -199,8 +400,10 @@ class TaskServiceTest {
         );
 
         assertEquals("Task not found with ID: " + taskId, exception.getMessage());
-        verify(taskRepository).existsById(taskId);
-        verify(taskRepository, never()).deleteById(any());
+        verify(taskRepository).findWithDescriptionById(taskId);
+        verify(taskRepository, never()).delete(any());
+        verify(taskTombstoneRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -247,4 +450,150 @@ class TaskServiceTest {
             assertEquals(status, result.getStatus());
         }
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should read changes after the token and return them as a page")
+    void getChangesSince_ReadsAfterToken() {
+        // Arrange
+        ChangeWatermark watermark = new ChangeWatermark(ZonedDateTime.now().minusMinutes(10).toInstant(), 7L);
+        TaskChanges changes = new TaskChanges(List.of(), false);
+        TaskChangesResponseDto page = new TaskChangesResponseDto(List.of(), List.of(), watermark.encode(), false);
+        when(taskChangeFeedService.readChanges(watermark, 50)).thenReturn(changes);
+        when(taskChangeFeedService.toPage(changes, watermark)).thenReturn(page);
+
+        // Act
+        TaskChangesResponseDto result = taskService.getChangesSince(watermark.encode(), 50);
+
+        // Assert
+        assertSame(page, result);
+        assertRepositoryCalls();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed change tokens")
+    void getChangesSince_InvalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getChangesSince("not-a-token", 10));
+        verify(taskChangeFeedService, never()).readChanges(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject update that reopens a completed task")
+    void updateTask_ForbiddenTransition() {
+        // Arrange
+        Long taskId = 1L;
+        Task completedTask = TestDataBuilder.createTask(taskId, "Done", "", TaskStatus.COMPLETED);
+        when(taskRepository.findWithDescriptionById(taskId)).thenReturn(Optional.of(completedTask));
+
+        // Act & Assert
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> taskService.updateTask(taskId, new TaskUpdateDto(null, null, TaskStatus.PENDING)));
+        verify(taskMapper, never()).updateEntityFromDto(any(), any());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should transition status with a single conditional update")
+    void transitionTask_Success() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.compareAndSetStatus(eq(taskId), eq(TaskStatus.PENDING), eq(TaskStatus.IN_PROGRESS), any()))
+                .thenReturn(1);
+
+        // Act
+        TaskTransitionResponseDto result = taskService.transitionTask(
+                taskId, new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS));
+
+        // Assert
+        assertEquals(TaskStatus.PENDING, result.getPreviousStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, result.getStatus());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(eventPublisher).publishEvent(argThat((TaskChangedEvent event) ->
+                event.type() == TaskEventType.STATUS_CHANGED && event.status() == TaskStatus.IN_PROGRESS));
+        assertRepositoryCalls("compareAndSetStatus");
+    }
+
+    @Test
+    @DisplayName("Should report a conflict when the expected status is stale")
+    void transitionTask_StaleExpectedStatus() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.compareAndSetStatus(eq(taskId), any(), any(), any())).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(TaskStatusConflictException.class, () -> taskService.transitionTask(
+                taskId, new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS)));
+        verify(eventPublisher, never()).publishEvent(any());
+        assertRepositoryCalls("compareAndSetStatus", "existsById");
+    }
+
+    @Test
+    @DisplayName("Should throw TaskNotFoundException when transitioning non-existent task")
+    void transitionTask_TaskNotFound() {
+        // Arrange
+        Long taskId = 999L;
+        when(taskRepository.compareAndSetStatus(eq(taskId), any(), any(), any())).thenReturn(0);
+        when(taskRepository.existsById(taskId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.transitionTask(
+                taskId, new TaskTransitionDto(TaskStatus.PENDING, TaskStatus.COMPLETED)));
+    }
+
+    @Test
+    @DisplayName("Should reject transitions out of COMPLETED without touching the database")
+    void transitionTask_ForbiddenTransition() {
+        assertThrows(InvalidStatusTransitionException.class, () -> taskService.transitionTask(
+                1L, new TaskTransitionDto(TaskStatus.COMPLETED, TaskStatus.PENDING)));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Should schedule a transition in one update and announce it")
+    void scheduleTransition_Success() {
+        // Arrange
+        LocalDateTime transitionAt = LocalDateTime.of(2025, 6, 23, 9, 0);
+        when(taskRepository.scheduleTransition(eq(1L), eq(TaskStatus.PENDING), eq(TaskStatus.IN_PROGRESS),
+                eq(transitionAt.atZone(ZoneId.of("Asia/Almaty"))), any())).thenReturn(1);
+
+        // Act
+        TaskScheduleResponseDto result = taskService.scheduleTransition(
+                1L, new TaskScheduleDto(TaskStatus.PENDING, TaskStatus.IN_PROGRESS, transitionAt));
+
+        // Assert
+        assertEquals(transitionAt, result.getScheduledTransitionAt());
+        assertEquals(TaskStatus.IN_PROGRESS, result.getTargetStatus());
+        verify(eventPublisher).publishEvent(argThat((TaskTransitionScheduledEvent event) ->
+                event.taskId().equals(1L) && event.transitionAt().toLocalDateTime().equals(transitionAt)));
+        assertRepositoryCalls("scheduleTransition");
+    }
+
+    @Test
+    @DisplayName("Should reject scheduling a forbidden transition and a missing task")
+    void scheduleTransition_Rejected() {
+        LocalDateTime transitionAt = LocalDateTime.of(2025, 6, 23, 9, 0);
+        assertThrows(InvalidStatusTransitionException.class, () -> taskService.scheduleTransition(
+                1L, new TaskScheduleDto(TaskStatus.COMPLETED, TaskStatus.PENDING, transitionAt)));
+        verifyNoInteractions(taskRepository);
+
+        when(taskRepository.scheduleTransition(eq(999L), any(), any(), any(), any())).thenReturn(0);
+        assertThrows(TaskNotFoundException.class, () -> taskService.scheduleTransition(
+                999L, new TaskScheduleDto(TaskStatus.PENDING, TaskStatus.COMPLETED, transitionAt)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Asserts the repository calls made so far, in order, across both repositories.
+     * Each call is a database round trip, so an extra lookup before a write fails here
+     * before it shows up as a slower endpoint.
+     */
+    private void assertRepositoryCalls(String... expected) {
+        List<String> calls = Stream.of(taskRepository, taskTombstoneRepository)
+                .flatMap(repository -> mockingDetails(repository).getInvocations().stream())
+                .sorted(Comparator.comparingInt(Invocation::getSequenceNumber))
+                .map(invocation -> invocation.getMethod().getName())
+                .toList();
+        assertEquals(List.of(expected), calls);
+    }
+}
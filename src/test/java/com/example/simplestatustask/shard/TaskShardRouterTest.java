@@ -0,0 +1,84 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.exception.ShardUnavailableException;
+import com.example.simplestatustask.models.TaskShardAssignment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TaskShardRouter and the rebalance plan
+ *
+ * - IDs are checked bit by bit; no database involved
+ */
+class TaskShardRouterTest {
+
+    @Test
+    @DisplayName("Should pack virtual shard, sequence and origin shard into an exact JSON number")
+    void composeId_RoundTripsVirtualShard() {
+        long id = TaskShardRouter.composeId(new ShardContext.Key(3, 1023), 12345);
+
+        assertThat(TaskShardRouter.virtualShardOf(id)).isEqualTo(1023);
+        assertThat(id & (TaskShardRouter.MAX_SHARDS - 1)).isEqualTo(3);
+        assertThat((id >>> TaskShardRouter.ORIGIN_BITS) & ((1L << 36) - 1)).isEqualTo(12345);
+        assertThat(id).isLessThan(1L << 53);
+        // IDs from before sharding live in virtual shard 0
+        assertThat(TaskShardRouter.virtualShardOf(42)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse to create a task outside onNewTask")
+    void composeId_WithoutVirtualShard_Throws() {
+        assertThatThrownBy(() -> TaskShardRouter.composeId(new ShardContext.Key(0, -1), 1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should route by the map and refuse writes to moving virtual shards")
+    void apply_RoutesAndFreezes() {
+        TaskShardRouter router = new TaskShardRouter(true, 2);
+        long id = TaskShardRouter.composeId(new ShardContext.Key(0, 4), 1);
+        assertThat(router.shardOf(id)).isZero();
+
+        router.apply(List.of(new TaskShardAssignment(4, 1, true)));
+
+        assertThat(router.shardOf(id)).isEqualTo(1);
+        assertThat(router.onTask(id, () -> ShardContext.current().shard())).isEqualTo(1);
+        assertThatThrownBy(() -> router.onTaskWrite(id, () -> null)).isInstanceOf(ShardUnavailableException.class);
+        for (int i = 0; i < 200; i++) {
+            assertThat(router.onNewTask(() -> ShardContext.current().virtualShard())).isNotEqualTo(4);
+        }
+        router.destroy();
+    }
+
+    @Test
+    @DisplayName("Should run every shard's work as the caller's tenant and collect results in shard order")
+    void onEachShard_CollectsInShardOrder() {
+        TaskShardRouter router = new TaskShardRouter(true, 3);
+
+        assertThat(router.onEachShard(() -> ShardContext.current().shard())).containsExactly(0, 1, 2);
+        router.destroy();
+    }
+
+    @Test
+    @DisplayName("Should plan the fewest moves to give a new shard its share")
+    void plan_FillsNewShard() {
+        int[] shardOf = new int[TaskShardRouter.VIRTUAL_SHARDS];
+        for (int v = 0; v < shardOf.length; v++) {
+            shardOf[v] = v % 2;
+        }
+
+        Map<Integer, Integer> plan = TaskShardRebalancer.plan(shardOf, 3);
+
+        assertThat(plan).hasSize(341).allSatisfy((virtualShard, target) -> assertThat(target).isEqualTo(2));
+        plan.forEach((virtualShard, target) -> shardOf[virtualShard] = target);
+        assertThat(Arrays.stream(shardOf).filter(shard -> shard == 2).count()).isEqualTo(341);
+        assertThat(TaskShardRebalancer.plan(shardOf, 3)).isEmpty();
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.simplestatustask.shard;
+
+import com.example.simplestatustask.dto.TaskChangesResponseDto;
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.dto.TaskLookupResponseDto;
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskStatsDto;
+import com.example.simplestatustask.dto.TaskTombstoneDto;
+import com.example.simplestatustask.dto.TaskUpdateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.jobs.TaskStatsMaintainer;
+import com.example.simplestatustask.models.TaskShardAssignment;
+import com.example.simplestatustask.repository.TaskShardAssignmentRepository;
+import com.example.simplestatustask.service.TaskHistoryService;
+import com.example.simplestatustask.service.TaskQueueService;
+import com.example.simplestatustask.service.TaskService;
+import com.example.simplestatustask.service.TaskStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for sharding
+ *
+ * - Two in-memory H2 databases act as shards; the schema is created on both by ShardSchemaInitializer
+ * - Tasks are created through the API and checked directly on the shard their ID names
+ * - Settle time is zero, since there are no other instances to wait for
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "task.sharding.enabled=true",
+        "task.sharding.datasources[0].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "task.sharding.datasources[0].username=sa",
+        "task.sharding.rebalance.settle-ms=0",
+        "task.sharding.rebalance.chunk-size=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskShardingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskQueueService taskQueueService;
+
+    @Autowired
+    private TaskHistoryService taskHistoryService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskStatsMaintainer taskStatsMaintainer;
+
+    @Autowired
+    private TaskShardRouter router;
+
+    @Autowired
+    private TaskShardRebalancer rebalancer;
+
+    @Autowired
+    private TaskShardAssignmentRepository taskShardAssignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should spread tasks over both shards and route, merge and rebalance them")
+    void shardedFlow() throws Exception {
+        assertThat(router.shardCount()).isEqualTo(2);
+        assertThat(taskShardAssignmentRepository.count()).isEqualTo(TaskShardRouter.VIRTUAL_SHARDS);
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Asia/Almaty"));
+        taskStatsMaintainer.correctDrift(now);
+        TaskStatsDto statsBefore = taskStatsService.getStats(1);
+
+        // --- Create through the API; each task lands on the shard its ID names ---
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(createTask("Sharded " + i));
+        }
+        for (Long id : ids) {
+            int shard = router.shardOf(id);
+            assertThat(countOn(shard, "SELECT COUNT(*) FROM tasks WHERE id = " + id)).isEqualTo(1);
+            assertThat(countOn(1 - shard, "SELECT COUNT(*) FROM tasks WHERE id = " + id)).isZero();
+        }
+        assertThat(countOn(0, "SELECT COUNT(*) FROM tasks")).isPositive();
+        assertThat(countOn(1, "SELECT COUNT(*) FROM tasks")).isPositive();
+
+        // --- Single-key reads and writes are routed ---
+        Long first = ids.get(0);
+        mockMvc.perform(get("/tasks/{id}", first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Sharded 0"));
+        taskService.updateTask(first, new TaskUpdateDto(null, null, TaskStatus.IN_PROGRESS));
+        assertThat(taskHistoryService.getTaskHistory(first)).hasSize(2);
+
+        // --- Multi-get collects from both shards in request order ---
+        List<Long> requested = List.of(ids.get(3), 999L, ids.get(1), ids.get(2));
+        TaskLookupResponseDto lookup = taskService.getTasksByIds(requested);
+        assertThat(lookup.getTasks()).extracting(TaskResponseDto::getId)
+                .containsExactly(ids.get(3), ids.get(1), ids.get(2));
+        assertThat(lookup.getMissingIds()).containsExactly(999L);
+
+        // --- Lists and counts are merged ---
+        List<TaskResponseDto> pending = taskService.getTasksByStatus(TaskStatus.PENDING);
+        assertThat(pending).hasSize(39);
+        assertThat(pending).extracting(TaskResponseDto::getUpdatedAt).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(taskService.getStatusCounts())
+                .containsEntry(TaskStatus.PENDING, 39L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 1L);
+        taskStatsService.reconcile();
+        TaskStatsDto statsAfter = taskStatsService.getStats(1);
+        assertThat(statsAfter.getTotal()).isEqualTo(statsBefore.getTotal() + 40);
+        assertThat(statsAfter.getHourly().get(0).getCreated())
+                .isEqualTo(statsBefore.getHourly().get(0).getCreated() + 40);
+
+        // --- Claims take from every shard until the limit is reached ---
+        assertThat(taskQueueService.claimTasks("worker-1", 30, 60).getTasks()).hasSize(30);
+        assertThat(taskQueueService.claimTasks("worker-1", 30, 60).getTasks()).hasSize(9);
+
+        // --- Deletes go to the owning shard; the change feed pages through both without gaps ---
+        Long deletedId = ids.get(5);
+        mockMvc.perform(delete("/tasks/{id}", deletedId)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/tasks/{id}", deletedId)).andExpect(status().isNotFound());
+
+        Set<Long> changedIds = new HashSet<>();
+        Set<Long> deletedIds = new HashSet<>();
+        String token = null;
+        TaskChangesResponseDto page;
+        do {
+            page = taskService.getChangesSince(token, 7);
+            assertThat(page.getChanged().size() + page.getDeleted().size()).isLessThanOrEqualTo(7);
+            for (TaskResponseDto task : page.getChanged()) {
+                assertThat(changedIds.add(task.getId())).as("task %s seen twice", task.getId()).isTrue();
+            }
+            page.getDeleted().stream().map(TaskTombstoneDto::getId).forEach(deletedIds::add);
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        assertThat(changedIds).hasSize(39).doesNotContain(deletedId);
+        assertThat(deletedIds).contains(deletedId).doesNotContainAnyElementsOf(changedIds);
+        assertThat(taskService.getChangesSince(token, 7).getChanged()).isEmpty();
+
+        // --- Moving a virtual shard keeps its tasks reachable under the same ID ---
+        Long moving = ids.get(1);
+        int virtualShard = TaskShardRouter.virtualShardOf(moving);
+        int source = router.shardOf(moving);
+        long inVirtualShard = ids.stream().filter(id -> TaskShardRouter.virtualShardOf(id) == virtualShard).count();
+
+        assertThat(rebalancer.move(virtualShard, 1 - source)).isEqualTo(inVirtualShard);
+
+        assertThat(router.shardOf(moving)).isEqualTo(1 - source);
+        assertThat(taskShardAssignmentRepository.findById(virtualShard))
+                .get().extracting(TaskShardAssignment::getShard, TaskShardAssignment::isMoving)
+                .containsExactly(1 - source, false);
+        assertThat(countOn(source, "SELECT COUNT(*) FROM tasks WHERE id = " + moving)).isZero();
+        mockMvc.perform(get("/tasks/{id}", moving))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(moving));
+        assertThat(taskHistoryService.getTaskHistory(moving)).isNotEmpty();
+        assertThat(taskService.getStatusCounts().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(39);
+    }
+
+    @Test
+    @DisplayName("Should refuse writes to a virtual shard while it is being moved")
+    void writeToMovingVirtualShard_Returns503() throws Exception {
+        Long id = createTask("Frozen");
+        int virtualShard = TaskShardRouter.virtualShardOf(id);
+        int shard = router.shardOf(id);
+        try {
+            router.apply(List.of(new TaskShardAssignment(virtualShard, shard, true)));
+
+            mockMvc.perform(delete("/tasks/{id}", id))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "5"));
+            mockMvc.perform(get("/tasks/{id}", id)).andExpect(status().isOk());
+        } finally {
+            router.apply(taskShardAssignmentRepository.findAll());
+        }
+        assertThat(router.isMoving(virtualShard)).isFalse();
+        mockMvc.perform(delete("/tasks/{id}", id)).andExpect(status().isNoContent());
+    }
+
+    private Long createTask(String title) throws Exception {
+        String json = mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskCreateDto(title, "desc", TaskStatus.PENDING))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long countOn(int shard, String sql) {
+        return router.onShard(shard, () -> jdbcTemplate.queryForObject(sql, Long.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.simplestatustask.snapshot;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.models.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TaskSnapshotWriter and TaskSnapshotReader
+ */
+class TaskSnapshotFormatTest {
+
+    private static final ZoneId ALMATY_ZONE = ZoneId.of("Asia/Almaty");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back every field and label of every task across several blocks")
+    void roundTrip() throws IOException {
+        List<TaskSnapshotEntry> tasks = tasks(TaskSnapshotFormat.BLOCK_ROWS * 2 + 17);
+
+        List<TaskSnapshotEntry> read = read(write(tasks));
+
+        assertThat(read).containsExactlyElementsOf(tasks);
+    }
+
+    @Test
+    @DisplayName("Should read the task count from the trailer")
+    void taskCount_FromTrailer() throws IOException {
+        Path file = directory.resolve("tasks.snapshot");
+        Files.write(file, write(tasks(10)));
+
+        assertThat(TaskSnapshotReader.taskCount(file)).isEqualTo(10);
+        Path empty = Files.writeString(directory.resolve("empty.snapshot"), "");
+        assertThatThrownBy(() -> TaskSnapshotReader.taskCount(empty)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot with a damaged block")
+    void nextBlock_RejectsCorruption() throws IOException {
+        byte[] snapshot = write(tasks(100));
+        snapshot[40] ^= 0x5a;
+
+        assertThatThrownBy(() -> read(snapshot))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated snapshot")
+    void nextBlock_RejectsTruncation() throws IOException {
+        byte[] snapshot = write(tasks(100));
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 12);
+
+        assertThatThrownBy(() -> read(truncated)).isInstanceOf(IOException.class);
+    }
+
+    private static List<TaskSnapshotEntry> tasks(int count) {
+        List<TaskSnapshotEntry> tasks = new ArrayList<>(count);
+        ZonedDateTime base = ZonedDateTime.of(2025, 6, 22, 10, 0, 0, 0, ALMATY_ZONE);
+        for (int i = 0; i < count; i++) {
+            ZonedDateTime updated = base.plusSeconds(i).plusNanos(i * 1_001L);
+            boolean scheduled = i % 6 == 1;
+            Task task = Task.builder()
+                    .id(i % 3 == 0 ? (long) i * 64 + 5 : (long) i)
+                    .tenantId(i % 2 == 0 ? "default" : "acme")
+                    .title("Task " + i + " – задача")
+                    .description(i % 5 == 0 ? null : "Description " + i)
+                    .status(TaskStatus.values()[i % TaskStatus.values().length])
+                    .createdAt(LocalDateTime.of(2025, 6, 22, 9, 0).minusMinutes(i))
+                    .updatedAt(updated)
+                    .leaseOwner(i % 7 == 0 ? "worker-" + i : null)
+                    .leaseExpiresAt(i % 7 == 0 ? updated.plusMinutes(5) : null)
+                    .priority(i % 101)
+                    .dueAt(i % 4 == 0 ? null : updated.plusDays(i % 30))
+                    .scheduledTransitionAt(scheduled ? updated.plusHours(i % 48) : null)
+                    .scheduledExpectedStatus(scheduled ? TaskStatus.values()[i % TaskStatus.values().length] : null)
+                    .scheduledTargetStatus(scheduled ? TaskStatus.COMPLETED : null)
+                    .build();
+            tasks.add(new TaskSnapshotEntry(task, List.of("backend", "label-" + i % 11, "urgent").subList(0, i % 4)));
+        }
+        return tasks;
+    }
+
+    private static byte[] write(List<TaskSnapshotEntry> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TaskSnapshotWriter writer = new TaskSnapshotWriter(out)) {
+            for (TaskSnapshotEntry entry : tasks) {
+                writer.write(entry.task(), entry.labels());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<TaskSnapshotEntry> read(byte[] snapshot) throws IOException {
+        List<TaskSnapshotEntry> tasks = new ArrayList<>();
+        try (TaskSnapshotReader reader = new TaskSnapshotReader(new ByteArrayInputStream(snapshot))) {
+            List<TaskSnapshotEntry> block;
+            while ((block = reader.nextBlock()) != null) {
+                tasks.addAll(block);
+            }
+            assertThat(reader.taskCount()).isEqualTo(tasks.size());
+        }
+        return tasks;
+    }
+}
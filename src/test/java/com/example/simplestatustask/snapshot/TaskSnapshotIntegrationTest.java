@@ -0,0 +1,202 @@
+package com.example.simplestatustask.snapshot;
+
+import com.example.simplestatustask.dto.TaskResponseDto;
+import com.example.simplestatustask.dto.TaskScheduleDto;
+import com.example.simplestatustask.dto.TaskSnapshotDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.example.simplestatustask.lookup.TaskBitmapIndex;
+import com.example.simplestatustask.tenant.TenantContext;
+import com.example.simplestatustask.tenant.TenantFilter;
+import com.example.simplestatustask.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for snapshot export, download, upload and restore
+ *
+ * - Uses its own in-memory database, since the test empties the tasks table
+ * - Snapshot files go to a temporary directory
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshots;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "task.snapshot.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskSnapshotIntegrationTest {
+
+    @TempDir
+    static Path snapshotDirectory;
+
+    @DynamicPropertySource
+    static void snapshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("task.snapshot.dir", snapshotDirectory::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskBitmapIndex taskBitmapIndex;
+
+    @Test
+    @DisplayName("Should export, download, upload and restore every tenant's tasks")
+    void exportAndRestore() throws Exception {
+        TaskResponseDto first = createTask("First", null);
+        TaskResponseDto second = createTask("Second", null);
+        TaskResponseDto acme = createTask("Acme", "acme");
+        mockMvc.perform(put("/tasks/{id}", second.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+        LocalDateTime due = LocalDateTime.now(ZoneId.of("Asia/Almaty")).plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        mockMvc.perform(put("/tasks/{id}/schedule", first.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskScheduleDto(TaskStatus.PENDING, TaskStatus.COMPLETED, due))))
+                .andExpect(status().isOk());
+        Map<String, Object> schedule = scheduleOf(first.getId());
+        for (String label : List.of("urgent", "backend")) {
+            mockMvc.perform(put("/tasks/{id}/labels/{label}", first.getId(), label))
+                    .andExpect(status().isOk());
+        }
+
+        // --- Export and download ---
+        TaskSnapshotDto exported = objectMapper.readValue(mockMvc.perform(post("/admin/snapshots"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), TaskSnapshotDto.class);
+        assertThat(exported.getTaskCount()).isEqualTo(3);
+        mockMvc.perform(get("/admin/snapshots"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(exported.getName()));
+
+        byte[] downloaded = mockMvc.perform(get("/admin/snapshots/{name}", exported.getName()))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", exported.getSizeBytes()))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(downloaded).isEqualTo(Files.readAllBytes(snapshotDirectory.resolve(exported.getName())));
+
+        // --- Restoring over existing tasks is refused ---
+        mockMvc.perform(post("/admin/snapshots/{name}/restore", exported.getName()))
+                .andExpect(status().isConflict());
+
+        // --- Upload under another name and restore into an empty table ---
+        // One task is deleted through the API, so its tombstone outlives it
+        mockMvc.perform(delete("/tasks/{id}", second.getId()))
+                .andExpect(status().isNoContent());
+        // The test schema has no cascade from tasks to labels; the index forgets them as a new instance would
+        jdbcTemplate.update("DELETE FROM task_labels");
+        jdbcTemplate.update("DELETE FROM tasks");
+        List.of(first, second).forEach(task -> taskBitmapIndex.remove(TenantContext.DEFAULT_TENANT, task.getId()));
+        mockMvc.perform(put("/admin/snapshots/{name}", "seed.snapshot")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(downloaded))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.taskCount").value(3));
+        mockMvc.perform(post("/admin/snapshots/{name}/restore", "seed.snapshot"))
+                .andExpect(status().isOk());
+
+        for (TaskResponseDto task : List.of(first, second)) {
+            mockMvc.perform(get("/tasks/{id}", task.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title").value(task.getTitle()));
+        }
+        mockMvc.perform(get("/tasks/{id}", acme.getId()).header(TenantFilter.TENANT_HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Acme"));
+        mockMvc.perform(get("/tasks/{id}", acme.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks").param("status", TaskStatus.IN_PROGRESS.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(second.getId()));
+
+        // The scheduled transition comes back with its task
+        assertThat(scheduleOf(first.getId())).isEqualTo(schedule)
+                .containsEntry("SCHEDULED_EXPECTED_STATUS", "PENDING")
+                .containsEntry("SCHEDULED_TARGET_STATUS", "COMPLETED");
+        assertThat(scheduleOf(second.getId()).values()).containsOnlyNulls();
+
+        // So do its labels, in the table and in the label index
+        mockMvc.perform(get("/tasks/{id}/labels", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("backend"))
+                .andExpect(jsonPath("$[1]").value("urgent"));
+        mockMvc.perform(get("/tasks/filter").param("labels", "backend,urgent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.tasks[0].id").value(first.getId()));
+
+        // The restored task's tombstone is gone, so deleting it again records a new one
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_tombstones WHERE task_id = ?",
+                Long.class, second.getId())).isZero();
+        mockMvc.perform(delete("/tasks/{id}", second.getId()))
+                .andExpect(status().isNoContent());
+
+        // New tasks continue after the restored IDs
+        assertThat(createTask("After restore", null).getId()).isGreaterThan(acme.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid names, unknown snapshots and uploads that are not snapshots")
+    void rejectsInvalidRequests() throws Exception {
+        mockMvc.perform(get("/admin/snapshots/{name}", "tasks.txt"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/snapshots/{name}", "missing.snapshot"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/admin/snapshots/{name}/restore", "missing.snapshot"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/admin/snapshots/{name}", "junk.snapshot")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isBadRequest());
+        assertThat(snapshotDirectory.resolve("junk.snapshot")).doesNotExist();
+    }
+
+    private Map<String, Object> scheduleOf(Long id) {
+        return jdbcTemplate.queryForMap("SELECT scheduled_transition_at, scheduled_expected_status, "
+                + "scheduled_target_status FROM tasks WHERE id = ?", id);
+    }
+
+    private TaskResponseDto createTask(String title, String tenant) throws Exception {
+        MockHttpServletRequestBuilder request = post("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(TestDataBuilder.createTaskCreateDto(title, null, null)));
+        if (tenant != null) {
+            request.header(TenantFilter.TENANT_HEADER, tenant);
+        }
+        return objectMapper.readValue(mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), TaskResponseDto.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.simplestatustask.stats;
+
+import com.example.simplestatustask.enums.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TaskStatusCounters
+ */
+class TaskStatusCountersTest {
+
+    private final TaskStatusCounters counters = new TaskStatusCounters();
+
+    @Test
+    @DisplayName("Should report every status, starting at zero")
+    void snapshot_IncludesEveryStatus() {
+        counters.add("acme", TaskStatus.PENDING, 2);
+
+        assertThat(counters.snapshot("acme"))
+                .containsEntry(TaskStatus.PENDING, 2L)
+                .containsEntry(TaskStatus.IN_PROGRESS, 0L)
+                .containsEntry(TaskStatus.COMPLETED, 0L);
+    }
+
+    @Test
+    @DisplayName("Should keep deltas committed after the snapshot when rebasing")
+    void rebase_KeepsDeltasAfterSnapshot() {
+        counters.add("acme", TaskStatus.PENDING, 3);
+        Map<String, Map<TaskStatus, Long>> included = counters.pendingDeltas();
+        counters.add("acme", TaskStatus.PENDING, 1);
+        ZonedDateTime loadedAt = ZonedDateTime.now(ZoneId.of("Asia/Almaty"));
+
+        counters.rebase(Map.of("acme", Map.of(TaskStatus.PENDING, 10L)), included, loadedAt);
+
+        assertThat(counters.get("acme", TaskStatus.PENDING)).isEqualTo(11);
+        assertThat(counters.getReconciledAt()).isEqualTo(loadedAt);
+    }
+
+    @Test
+    @DisplayName("Should count every tenant on its own")
+    void add_KeepsTenantsApart() {
+        counters.add("acme", TaskStatus.PENDING, 2);
+        counters.add("globex", TaskStatus.PENDING, 5);
+        counters.rebase(Map.of("acme", Map.of(TaskStatus.COMPLETED, 4L)), Map.of(), ZonedDateTime.now(ZoneId.of("Asia/Almaty")));
+
+        assertThat(counters.get("acme", TaskStatus.PENDING)).isEqualTo(2);
+        assertThat(counters.get("acme", TaskStatus.COMPLETED)).isEqualTo(4);
+        assertThat(counters.get("globex", TaskStatus.PENDING)).isEqualTo(5);
+        assertThat(counters.get("globex", TaskStatus.COMPLETED)).isZero();
+        assertThat(counters.snapshot("initech").values()).containsOnly(0L);
+    }
+}
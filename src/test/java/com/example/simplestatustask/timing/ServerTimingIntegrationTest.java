@@ -0,0 +1,101 @@
+package com.example.simplestatustask.timing;
+
+import com.example.simplestatustask.dto.TaskCreateDto;
+import com.example.simplestatustask.enums.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the Server-Timing header
+ *
+ * - Every request is sampled and every request counts as slow, so the log path runs too
+ */
+@SpringBootTest(properties = {
+        "task.timing.enabled=true",
+        "task.timing.sample-rate=1.0",
+        "task.timing.log-threshold-ms=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Task requests report database, mapper, controller and serialization time")
+    void reportsBreakdown() throws Exception {
+        MvcResult result = mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskCreateDto("Timed Task", "Timed Desc", TaskStatus.PENDING))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title").value("Timed Task"))
+                .andReturn();
+
+        String serverTiming = result.getResponse().getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertThat(serverTiming)
+                .containsPattern("db;dur=\\d+\\.\\d{3};desc=\"\\d+ statements\"")
+                .containsPattern("mapper;dur=\\d+\\.\\d{3}")
+                .containsPattern("controller;dur=\\d+\\.\\d{3}")
+                .containsPattern("serialize;dur=\\d+\\.\\d{3}")
+                .containsPattern("total;dur=\\d+\\.\\d{3}$");
+
+        // Error bodies are timed as well
+        mockMvc.perform(get("/tasks/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER,
+                        containsString("serialize;dur=")));
+    }
+
+    @Test
+    @DisplayName("NDJSON streams and non-task paths are not buffered or timed")
+    void skipsStreamsAndOtherPaths() throws Exception {
+        mockMvc.perform(get("/tasks/history")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING_HEADER));
+
+        mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TaskCreateDto("Streamed Task", "Streamed Desc", TaskStatus.PENDING))))
+                .andExpect(status().isCreated());
+        // A day either way, whatever zone the JVM stamps created_at in
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Almaty"));
+        MvcResult stream = mockMvc.perform(get("/tasks")
+                        .param("createdFrom", now.minusDays(1).toString())
+                        .param("createdTo", now.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING_HEADER))
+                .andReturn();
+        assertThat(stream.getResponse().getContentAsString()).contains("Streamed Task");
+
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING_HEADER));
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.simplestatustask.util;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Statement counter for tests that pin how many round trips a call makes
+ * <p>
+ * Import {@link Config} into a Spring test to wrap the DataSource, then run the call inside
+ * {@link #record}. Every statement executed on the calling thread while it runs is recorded,
+ * including those of listeners and of the HTTP layer when the call goes through MockMvc; work
+ * of other threads is not, so background jobs do not make counts flaky. A JDBC batch is one
+ * round trip and is recorded once.
+ * <p>
+ * Sequence fetches are counted apart and left out of {@link SqlStatements#assertCounts}: pooled
+ * sequences fetch a block of IDs only now and then, so whether a call pays for one depends on
+ * what ran before it.
+ *
+ * <pre>
+ * SqlStatementCounter.record(() -&gt; taskService.getTasksByStatus(PENDING)).assertCounts(1, 0, 0, 0);
+ * </pre>
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+    private static final Set<String> BATCH_METHODS = Set.of("executeBatch", "executeLargeBatch");
+    // H2 and Postgres syntax
+    private static final Pattern SEQUENCE_FETCH =
+            Pattern.compile("next value for|nextval\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Action that may throw, such as a MockMvc request
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Statements recorded while an action ran, in execution order
+     *
+     * @param sql SQL of every statement
+     */
+    public record SqlStatements(List<String> sql) {
+
+        public int selects() {
+            return count("select");
+        }
+
+        public int inserts() {
+            return count("insert");
+        }
+
+        public int updates() {
+            return count("update");
+        }
+
+        public int deletes() {
+            return count("delete");
+        }
+
+        public int sequenceFetches() {
+            return count("sequence");
+        }
+
+        /**
+         * Number of statements other than sequence fetches
+         */
+        public int total() {
+            return sql.size() - sequenceFetches();
+        }
+
+        /**
+         * Fails unless exactly these statements ran and nothing else, sequence fetches aside
+         *
+         * @param selects Expected SELECTs
+         * @param inserts Expected INSERTs
+         * @param updates Expected UPDATEs
+         * @param deletes Expected DELETEs
+         * @return This, for further checks
+         * @throws AssertionError listing every recorded statement when a count is off
+         */
+        public SqlStatements assertCounts(int selects, int inserts, int updates, int deletes) {
+            if (selects() != selects || inserts() != inserts || updates() != updates || deletes() != deletes
+                    || total() != selects + inserts + updates + deletes) {
+                throw new AssertionError(String.format(
+                        "Expected %d select, %d insert, %d update, %d delete but got %d, %d, %d, %d (%d in total):%n  %s",
+                        selects, inserts, updates, deletes, selects(), inserts(), updates(), deletes(), total(),
+                        String.join(System.lineSeparator() + "  ", sql)));
+            }
+            return this;
+        }
+
+        private int count(String type) {
+            int count = 0;
+            for (String statement : sql) {
+                if (typeOf(statement).equals(type)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Records the statements an action executes on the current thread
+     *
+     * @param action Code under test
+     * @return Recorded statements
+     * @throws Exception whatever the action throws
+     */
+    public static SqlStatements record(Action action) throws Exception {
+        if (RECORDING.get() != null) {
+            throw new IllegalStateException("Already recording on this thread");
+        }
+        List<String> sql = new ArrayList<>();
+        RECORDING.set(sql);
+        try {
+            action.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return new SqlStatements(List.copyOf(sql));
+    }
+
+    /**
+     * Lower-cased first keyword of a statement; a WITH query counts as a select, and a sequence
+     * fetch as "sequence"
+     */
+    static String typeOf(String sql) {
+        if (SEQUENCE_FETCH.matcher(sql).find()) {
+            return "sequence";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return keyword.equals("with") ? "select" : keyword;
+    }
+
+    private static void recordStatement(String sql) {
+        List<String> recording = RECORDING.get();
+        if (recording != null) {
+            recording.add(sql.strip().replaceAll("\\s+", " "));
+        }
+    }
+
+    /**
+     * Wraps every DataSource bean so that its statements can be recorded
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor sqlStatementCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Hands out connections whose statements report what they execute
+     */
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private static Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return switch (method.getName()) {
+                            case "prepareStatement" -> wrap((PreparedStatement) result, PreparedStatement.class, (String) args[0]);
+                            case "prepareCall" -> wrap((CallableStatement) result, CallableStatement.class, (String) args[0]);
+                            case "createStatement" -> wrap((Statement) result, Statement.class, null);
+                            default -> result;
+                        };
+                    });
+        }
+
+        /**
+         * @param preparedSql SQL of a prepared statement, or null for a plain one that takes SQL per call
+         */
+        private static <S extends Statement> S wrap(S statement, Class<S> type, String preparedSql) {
+            List<String> batch = new ArrayList<>();
+            return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(),
+                    new Class<?>[]{type}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (EXECUTE_METHODS.contains(name)) {
+                            recordStatement(args != null && args.length > 0 ? (String) args[0] : preparedSql);
+                        } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                            batch.add((String) args[0]);
+                        } else if (BATCH_METHODS.contains(name)) {
+                            recordStatement(preparedSql != null ? preparedSql : String.join("; ", batch));
+                            batch.clear();
+                        }
+                        return invoke(statement, method, args);
+                    }));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.example.simplestatustask.enums.TaskStatus;
 import com.example.simplestatustask.models.Task;
 
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 
 /**
  * Test Data Builder utility class
@@ -26,7 +27,7 @@ public class TestDataBuilder {
                 .description("This is a sample task for testing")
                 .status(TaskStatus.PENDING)
                 .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .updatedAt(ZonedDateTime.now())
                 .build();
     }
 
@@ -40,7 +41,7 @@ public class TestDataBuilder {
                 .description(description)
                 .status(status)
                 .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
+                .updatedAt(ZonedDateTime.now())
                 .build();
     }
 